@@ -105,6 +105,12 @@ public class AppConfig {
          */
         private long refreshTokenExpiration = 86400000L; // 24시간 (기본값)
         
+        /**
+         * 서명 검증이 끝난 토큰 캐시 최대 개수
+         * 기본값: 10,000개 (0 이하이면 캐시 사용 안 함)
+         */
+        private int claimsCacheMaxEntries = 10000;
+        
         /**
          * JWT 서명 비밀 키를 반환
          * 
@@ -158,6 +164,24 @@ public class AppConfig {
         public void setRefreshTokenExpiration(long refreshTokenExpiration) {
             this.refreshTokenExpiration = refreshTokenExpiration;
         }
+        
+        /**
+         * 검증된 토큰 캐시 최대 개수를 반환
+         * 
+         * @return 캐시 최대 개수
+         */
+        public int getClaimsCacheMaxEntries() {
+            return claimsCacheMaxEntries;
+        }
+        
+        /**
+         * 검증된 토큰 캐시 최대 개수를 설정
+         * 
+         * @param claimsCacheMaxEntries 캐시 최대 개수
+         */
+        public void setClaimsCacheMaxEntries(int claimsCacheMaxEntries) {
+            this.claimsCacheMaxEntries = claimsCacheMaxEntries;
+        }
     }
     
     /**
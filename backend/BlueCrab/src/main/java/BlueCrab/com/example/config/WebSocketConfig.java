@@ -1,8 +1,10 @@
 package BlueCrab.com.example.config;
 
 import BlueCrab.com.example.repository.UserTblRepository;
+import BlueCrab.com.example.service.websocket.WebSocketMetrics;
 import BlueCrab.com.example.util.JwtUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -15,19 +17,26 @@ import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
+import javax.annotation.PreDestroy;
 import java.util.Collections;
 import java.util.Map;
 
 /**
  * WebSocket 설정
  * STOMP 프로토콜을 사용한 실시간 채팅 기능 구현
+ *
+ * 노드 간 개인 큐 전달은 StompMessageRelay(app.websocket.broker.mode=redis)가 담당하고,
+ * 이 설정은 노드 내 브로커 하트비트/채널 스레드 풀/전송 제한을 구성한다.
+ * (하트비트/스레드 풀/전송 제한은 값을 지정한 경우에만 적용, 0이면 Spring 기본 동작)
  * 
  * @author BlueCrab Development Team
  * @version 1.0.0
@@ -40,10 +49,57 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtUtil jwtUtil;
     private final UserTblRepository userTblRepository;
+    private final WebSocketMetrics webSocketMetrics;
 
-    public WebSocketConfig(JwtUtil jwtUtil, UserTblRepository userTblRepository) {
+    private final long heartbeatMillis;
+    private final ChannelPoolSettings inboundPool;
+    private final ChannelPoolSettings outboundPool;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeLimitBytes;
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
+    public WebSocketConfig(JwtUtil jwtUtil,
+                           UserTblRepository userTblRepository,
+                           WebSocketMetrics webSocketMetrics,
+                           @Value("${app.websocket.heartbeat-ms:0}") long heartbeatMillis,
+                           @Value("${app.websocket.inbound.core-pool-size:0}") int inboundCorePoolSize,
+                           @Value("${app.websocket.inbound.max-pool-size:0}") int inboundMaxPoolSize,
+                           @Value("${app.websocket.inbound.queue-capacity:0}") int inboundQueueCapacity,
+                           @Value("${app.websocket.outbound.core-pool-size:0}") int outboundCorePoolSize,
+                           @Value("${app.websocket.outbound.max-pool-size:0}") int outboundMaxPoolSize,
+                           @Value("${app.websocket.outbound.queue-capacity:0}") int outboundQueueCapacity,
+                           @Value("${app.websocket.send-time-limit-ms:0}") int sendTimeLimitMillis,
+                           @Value("${app.websocket.send-buffer-size-kb:0}") int sendBufferSizeKb) {
         this.jwtUtil = jwtUtil;
         this.userTblRepository = userTblRepository;
+        this.webSocketMetrics = webSocketMetrics;
+        this.heartbeatMillis = Math.max(0L, heartbeatMillis);
+        this.inboundPool = new ChannelPoolSettings(inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity);
+        this.outboundPool = new ChannelPoolSettings(outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity);
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferSizeLimitBytes = sendBufferSizeKb * 1024;
+    }
+
+    /**
+     * 브로커 하트비트 전용 스케줄러
+     * TaskScheduler 빈으로 등록하면 @Scheduled 작업이 기본 스케줄러를 찾지 못하고
+     * 단일 스레드 스케줄러로 실행되므로 빈이 아닌 내부 객체로 생성한다.
+     */
+    private ThreadPoolTaskScheduler createHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        heartbeatScheduler = scheduler;
+        return scheduler;
+    }
+
+    @PreDestroy
+    public void shutdownHeartbeatScheduler() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
     }
 
     /**
@@ -52,11 +108,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      * - /topic: 그룹 메시지 (사용 안 함)
      * - /app: 클라이언트에서 서버로 메시지 전송 시 prefix
      * - /user: 개인 큐 활성화
+     * - 하트비트: 끊어진 연결을 감지하여 연결 수 지표가 실제와 어긋나지 않도록 함 (0이면 비활성)
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Simple in-memory broker 활성화
-        config.enableSimpleBroker("/queue", "/topic");
+        if (heartbeatMillis > 0) {
+            config.enableSimpleBroker("/queue", "/topic")
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(createHeartbeatScheduler());
+        } else {
+            config.enableSimpleBroker("/queue", "/topic");
+        }
         
         // 클라이언트 → 서버 메시지 prefix
         config.setApplicationDestinationPrefixes("/app");
@@ -109,18 +172,56 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         log.info("STOMP 엔드포인트 등록 완료: /ws/chat");
     }
 
+    /**
+     * WebSocket 전송 제한 (느린 클라이언트가 아웃바운드 스레드를 점유하지 않도록)
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        if (sendTimeLimitMillis > 0) {
+            registration.setSendTimeLimit(sendTimeLimitMillis);
+        }
+        if (sendBufferSizeLimitBytes > 0) {
+            registration.setSendBufferSizeLimit(sendBufferSizeLimitBytes);
+        }
+    }
+
+    /**
+     * 클라이언트 아웃바운드 채널 설정
+     * 스레드 풀 크기 조정 및 전송 메시지 수 집계
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        outboundPool.applyTo(registration);
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor =
+                    MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor != null && StompCommand.MESSAGE.equals(accessor.getCommand())) {
+                    webSocketMetrics.recordOutbound();
+                }
+                return message;
+            }
+        });
+    }
+
     /**
      * 클라이언트 인바운드 채널 설정
-     * JWT 인증 인터셉터 추가
+     * 스레드 풀 크기 조정, JWT 인증 인터셉터 추가
      */
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        inboundPool.applyTo(registration);
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
                 StompHeaderAccessor accessor =
                     MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
+                if (accessor != null && StompCommand.SEND.equals(accessor.getCommand())) {
+                    webSocketMetrics.recordInbound();
+                }
+
                 // CONNECT 명령 시 JWT 인증 처리
                 if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
                     String token = null;
@@ -194,4 +295,28 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
         return null;
     }
+
+    /**
+     * 채널 스레드 풀 설정 (0 이하 값은 Spring 기본값 사용)
+     */
+    private static final class ChannelPoolSettings {
+        private final int corePoolSize;
+        private final int maxPoolSize;
+        private final int queueCapacity;
+
+        private ChannelPoolSettings(int corePoolSize, int maxPoolSize, int queueCapacity) {
+            this.corePoolSize = corePoolSize;
+            this.maxPoolSize = Math.max(maxPoolSize, corePoolSize);
+            this.queueCapacity = queueCapacity;
+        }
+
+        private void applyTo(ChannelRegistration registration) {
+            if (corePoolSize > 0) {
+                registration.taskExecutor()
+                        .corePoolSize(corePoolSize)
+                        .maxPoolSize(maxPoolSize)
+                        .queueCapacity(queueCapacity > 0 ? queueCapacity : Integer.MAX_VALUE);
+            }
+        }
+    }
 }
@@ -9,14 +9,17 @@ import BlueCrab.com.example.enums.ConsultationStatus;
 import BlueCrab.com.example.enums.RequestStatus;
 import BlueCrab.com.example.repository.ConsultationRequestRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
+import BlueCrab.com.example.service.ChatRoomContextCache;
+import BlueCrab.com.example.service.ChatRoomContextCache.RoomContext;
 import BlueCrab.com.example.service.ChatService;
+import BlueCrab.com.example.service.ConsultationActivityTracker;
 import BlueCrab.com.example.service.ConsultationRequestService;
 import BlueCrab.com.example.service.notification.ChatNotificationService;
+import BlueCrab.com.example.service.websocket.StompMessageRelay;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -42,25 +45,31 @@ public class ChatController {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompMessageRelay messageRelay;
     private final ChatService chatService;
     private final ConsultationRequestRepository consultationRequestRepository;
     private final UserTblRepository userTblRepository;
     private final ConsultationRequestService consultationRequestService;
     private final ChatNotificationService chatNotificationService;
+    private final ChatRoomContextCache chatRoomContextCache;
+    private final ConsultationActivityTracker consultationActivityTracker;
 
-    public ChatController(SimpMessagingTemplate messagingTemplate,
+    public ChatController(StompMessageRelay messageRelay,
                          ChatService chatService,
                          ConsultationRequestRepository consultationRequestRepository,
                          UserTblRepository userTblRepository,
                          ConsultationRequestService consultationRequestService,
-                         ObjectProvider<ChatNotificationService> chatNotificationServiceProvider) {
-        this.messagingTemplate = messagingTemplate;
+                         ObjectProvider<ChatNotificationService> chatNotificationServiceProvider,
+                         ChatRoomContextCache chatRoomContextCache,
+                         ConsultationActivityTracker consultationActivityTracker) {
+        this.messageRelay = messageRelay;
         this.chatService = chatService;
         this.consultationRequestRepository = consultationRequestRepository;
         this.userTblRepository = userTblRepository;
         this.consultationRequestService = consultationRequestService;
         this.chatNotificationService = chatNotificationServiceProvider.getIfAvailable();
+        this.chatRoomContextCache = chatRoomContextCache;
+        this.consultationActivityTracker = consultationActivityTracker;
     }
 
     /**
@@ -91,47 +100,50 @@ public class ChatController {
         log.info("메시지 수신: requestIdx={}, sender={}", requestIdx, senderCode);
 
         try {
-            // 1. 권한 검증 (해당 상담방의 참여자인지)
-            if (!chatService.isParticipant(requestIdx, senderCode)) {
+            // 1. 채팅방 컨텍스트 조회 (캐시) 및 권한 검증 (해당 상담방의 참여자인지)
+            RoomContext room = chatRoomContextCache.get(requestIdx);
+            if (room == null) {
+                throw new IllegalStateException("상담을 찾을 수 없습니다.");
+            }
+            if (!room.isParticipant(senderCode)) {
                 log.warn("권한 없음: requestIdx={}, userCode={}", requestIdx, senderCode);
                 throw new SecurityException("해당 상담방에 접근 권한이 없습니다.");
             }
 
-            ConsultationRequest consultation = consultationRequestRepository
-                .findById(requestIdx)
-                .orElseThrow(() -> new IllegalStateException("상담을 찾을 수 없습니다."));
-
             LocalDateTime now = LocalDateTime.now();
-            validateChatAvailability(consultation, now);
+            validateChatAvailability(room, now);
 
             // 2. 메시지 정보 설정
             message.setSender(senderCode);
-            message.setSenderName(getSenderName(senderCode));
+            message.setSenderName(room.getDisplayName(senderCode));
             message.setSentAt(now);
 
             // 3. Redis에 저장 + TTL 36시간 연장
             chatService.saveMessage(message);
 
-            // 4. DB 업데이트 (lastActivityAt)
-            updateLastActivity(requestIdx);
+            // 4. lastActivityAt 기록 (주기적으로 DB 일괄 반영)
+            consultationActivityTracker.record(requestIdx, now);
             
             // 5. 첫 메시지인 경우 상담 시작 처리 (트리거 미발동 대비)
-            markStartedIfNeeded(requestIdx);
+            if (ConsultationStatus.SCHEDULED.equals(room.getConsultationStatusEnum())
+                && room.getStartedAt() == null) {
+                markStartedIfNeeded(requestIdx);
+            }
 
             // 6. 상대방 찾기 (서버에서 결정 - 보안)
-            String recipientCode = getPartnerUserCode(requestIdx, senderCode);
+            String recipientCode = room.getPartnerUserCode(senderCode);
 
             log.info("메시지 전송: recipient={}, content={}", recipientCode, message.getContent());
 
             // 7. 상대방에게 개인 큐로 전송
-            messagingTemplate.convertAndSendToUser(
+            messageRelay.sendToUser(
                 recipientCode,
                 "/queue/chat",
                 message
             );
 
             // 8. 본인에게도 에코 (전송 확인용)
-            messagingTemplate.convertAndSendToUser(
+            messageRelay.sendToUser(
                 senderCode,
                 "/queue/chat",
                 message
@@ -182,8 +194,9 @@ public class ChatController {
         }
 
         Long requestIdx = payload.getRequestIdx();
+        RoomContext room = chatRoomContextCache.get(requestIdx);
 
-        if (!chatService.isParticipant(requestIdx, readerCode)) {
+        if (room == null || !room.isParticipant(readerCode)) {
             log.warn("읽음 처리 실패 - 권한 없음: requestIdx={}, reader={}", requestIdx, readerCode);
             sendErrorToUser(readerCode, "해당 상담방에 접근 권한이 없습니다.");
             return;
@@ -196,13 +209,13 @@ public class ChatController {
             ChatReadReceiptDto event = new ChatReadReceiptDto(
                 receipt.getRequestIdx(),
                 readerCode,
-                getSenderName(readerCode),
+                room.getDisplayName(readerCode),
                 receipt.getReadAt(),
                 receipt.getLastActivityAt(),
                 receipt.isAllMessagesRead()
             );
 
-            messagingTemplate.convertAndSendToUser(
+            messageRelay.sendToUser(
                 readerCode,
                 "/queue/read-receipts",
                 event
@@ -210,7 +223,7 @@ public class ChatController {
 
             String partnerCode = receipt.getPartnerUserCode();
             if (partnerCode != null) {
-                messagingTemplate.convertAndSendToUser(
+                messageRelay.sendToUser(
                     partnerCode,
                     "/queue/read-receipts",
                     event
@@ -223,36 +236,7 @@ public class ChatController {
         }
     }
 
-    /**
-     * 사용자 이름 조회
-     */
-    private String getSenderName(String userCode) {
-        try {
-            return userTblRepository.findByUserCode(userCode)
-                .map(UserTbl::getUserName)
-                .orElse("알 수 없음");
-        } catch (Exception e) {
-            log.warn("사용자 이름 조회 실패: userCode={}", userCode);
-            return "알 수 없음";
-        }
-    }
-
-    /**
-     * 상대방 userCode 조회
-     */
-    private String getPartnerUserCode(Long requestIdx, String myUserCode) {
-        ConsultationRequest consultation = consultationRequestRepository.findById(requestIdx)
-            .orElseThrow(() -> new RuntimeException("상담을 찾을 수 없습니다."));
-
-        // 내가 요청자면 수신자(교수) 반환, 아니면 요청자(학생) 반환
-        if (consultation.getRequesterUserCode().equals(myUserCode)) {
-            return consultation.getRecipientUserCode();
-        } else {
-            return consultation.getRequesterUserCode();
-        }
-    }
-
-    private void validateChatAvailability(ConsultationRequest consultation, LocalDateTime now) {
+    private void validateChatAvailability(RoomContext consultation, LocalDateTime now) {
         RequestStatus requestStatus = consultation.getRequestStatusEnum();
         if (!RequestStatus.APPROVED.equals(requestStatus)) {
             throw new IllegalStateException("교수 승인이 완료된 상담만 채팅을 사용할 수 있습니다.");
@@ -273,22 +257,6 @@ public class ChatController {
         }
     }
 
-    /**
-     * 마지막 활동 시간 업데이트
-     */
-    private void updateLastActivity(Long requestIdx) {
-        try {
-            ConsultationRequest consultation = consultationRequestRepository.findById(requestIdx)
-                .orElseThrow(() -> new RuntimeException("상담을 찾을 수 없습니다."));
-
-            consultation.setLastActivityAt(LocalDateTime.now());
-            consultationRequestRepository.save(consultation);
-            
-        } catch (Exception e) {
-            log.error("lastActivityAt 업데이트 실패: requestIdx={}", requestIdx, e);
-        }
-    }
-
     /**
      * 첫 메시지 시 상담 시작 처리 (트리거 미발동 대비)
      * consultation_status가 SCHEDULED이고 started_at이 null인 경우 자동 시작
@@ -316,6 +284,7 @@ public class ChatController {
                 consultation.setStartedAt(now);
                 consultation.setLastActivityAt(now);
                 ConsultationRequest saved = consultationRequestRepository.save(consultation);
+                chatRoomContextCache.invalidate(requestIdx);
                 log.info("첫 메시지로 상담 자동 시작: requestIdx={}", saved.getRequestIdx());
             }
             
@@ -334,7 +303,7 @@ public class ChatController {
      */
     private void sendErrorToUser(String userCode, String errorMessage) {
         try {
-            messagingTemplate.convertAndSendToUser(
+            messageRelay.sendToUser(
                 userCode,
                 "/queue/errors",
                 errorMessage
@@ -1,6 +1,6 @@
 package BlueCrab.com.example.controller;
 
-import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import BlueCrab.com.example.dto.Consultation.ChatMessagePageDto;
 import BlueCrab.com.example.repository.UserTblRepository;
 import BlueCrab.com.example.service.ChatService;
 import BlueCrab.com.example.service.MinIOService;
@@ -14,10 +14,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -57,16 +56,21 @@ public class ChatRestController {
     }
 
     /**
-     * 채팅 메시지 목록 조회
-     * Redis에 저장된 실시간 채팅 메시지를 조회합니다.
+     * 채팅 메시지 목록 조회 (커서 페이지)
+     * Redis에 저장된 실시간 채팅 메시지를 최신 메시지부터 size개씩 조회합니다.
+     * 이전 메시지는 응답의 nextCursor를 before로 전달하여 조회합니다.
      * 
      * @param requestIdx 상담 요청 ID
+     * @param before 커서 (이 인덱스 이전 메시지 조회, 생략 시 최신 메시지부터)
+     * @param size 페이지 크기 (기본 50, 최대 200)
      * @param token JWT 인증 토큰
-     * @return 채팅 메시지 목록
+     * @return 채팅 메시지 목록 (오래된 순)
      */
     @GetMapping("/messages/{requestIdx}")
     public ResponseEntity<?> getChatMessages(
         @PathVariable Long requestIdx,
+        @RequestParam(value = "before", required = false) Long before,
+        @RequestParam(value = "size", defaultValue = "50") int size,
         @RequestHeader("Authorization") String token
     ) {
         try {
@@ -95,13 +99,16 @@ public class ChatRestController {
                     ));
             }
 
-            List<ChatMessageDto> messages = chatService.getAllMessages(requestIdx);
+            ChatMessagePageDto page = chatService.getMessagesBefore(requestIdx, before, size);
 
-            Map<String, Object> data = Map.of(
-                "requestIdx", requestIdx,
-                "messageCount", messages.size(),
-                "messages", messages
-            );
+            // nextCursor가 null일 수 있어 Map.of 대신 사용
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("requestIdx", requestIdx);
+            data.put("messageCount", page.getMessages().size());
+            data.put("totalCount", page.getTotalCount());
+            data.put("nextCursor", page.getNextCursor());
+            data.put("hasMore", page.isHasMore());
+            data.put("messages", page.getMessages());
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -123,6 +130,7 @@ public class ChatRestController {
     /**
      * 채팅 히스토리 텍스트 파일 다운로드
      * 현재 Redis에 있는 메시지를 텍스트 파일로 다운로드합니다.
+     * 응답 길이를 미리 계산하지 않고 chunked 전송으로 스트리밍합니다.
      * 
      * @param requestIdx 상담 요청 ID
      * @param token JWT 인증 토큰
@@ -159,17 +167,14 @@ public class ChatRestController {
                     ));
             }
 
-            String chatLog = chatService.formatChatLog(requestIdx);
-
-            byte[] bytes = chatLog.getBytes(StandardCharsets.UTF_8);
-            InputStream inputStream = new ByteArrayInputStream(bytes);
+            // 메시지를 구간 단위로 읽으며 응답 스트림에 바로 기록 (전체 로그를 메모리에 만들지 않음)
+            InputStream inputStream = chatService.openChatLogStream(requestIdx);
 
             String fileName = String.format("chat-log-%d.txt", requestIdx);
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.TEXT_PLAIN);
+            headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
             headers.setContentDispositionFormData("attachment", fileName);
-            headers.setContentLength(bytes.length);
 
             return ResponseEntity.ok()
                 .headers(headers)
@@ -1,7 +1,9 @@
 package BlueCrab.com.example.controller;
 
 import BlueCrab.com.example.dto.*;
+import BlueCrab.com.example.service.FcmBroadcastJobService;
 import BlueCrab.com.example.service.FcmTokenService;
+import BlueCrab.com.example.service.notification.NotificationOutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,7 +11,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FCM 토큰 관리 및 알림 전송 컨트롤러
@@ -20,6 +24,12 @@ public class FcmTokenController {
     @Autowired
     private FcmTokenService fcmTokenService;
 
+    @Autowired
+    private FcmBroadcastJobService fcmBroadcastJobService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
     /**
      * FCM 토큰 등록 (충돌 감지)
      * POST /api/fcm/register
@@ -68,14 +78,21 @@ public class FcmTokenController {
     /**
      * 특정 사용자에게 알림 전송 (관리자용)
      * POST /api/fcm/send
+     *
+     * 알림 발송 대기열에 적재 후 즉시 반환 (전송/재시도는 워커가 처리)
      */
     @PostMapping("/send")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<FcmSendResponse>> send(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> send(
             @Valid @RequestBody FcmSendRequest request) {
 
-        FcmSendResponse result = fcmTokenService.sendNotification(request);
-        ApiResponse<FcmSendResponse> response = ApiResponse.success("알림 전송이 완료되었습니다.", result);
+        List<Long> outboxIds = notificationOutboxService.enqueueSendRequest(request);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", "QUEUED");
+        result.put("queuedCount", outboxIds.size());
+        result.put("outboxIds", outboxIds);
+        ApiResponse<Map<String, Object>> response = ApiResponse.success("알림이 전송 대기열에 등록되었습니다.", result);
         return ResponseEntity.ok(response);
     }
 
@@ -125,29 +142,44 @@ public class FcmTokenController {
 
     /**
      * 전체 사용자에게 브로드캐스트 알림 전송 (관리자용)
+     * 비동기 작업으로 등록 후 jobId 반환
      * POST /api/fcm/send/broadcast
      */
     @PostMapping("/send/broadcast")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<FcmBroadcastResponse>> sendBroadcast(
+    public ResponseEntity<ApiResponse<FcmBroadcastJobResponse>> sendBroadcast(
             @Valid @RequestBody FcmBroadcastRequest request) {
 
-        FcmBroadcastResponse result = fcmTokenService.sendBroadcast(request);
-        ApiResponse<FcmBroadcastResponse> response = ApiResponse.success("브로드캐스트 알림 전송이 완료되었습니다.", result);
+        FcmBroadcastJobResponse result = fcmBroadcastJobService.startBroadcast(request);
+        ApiResponse<FcmBroadcastJobResponse> response = ApiResponse.success("브로드캐스트 알림 전송 작업이 등록되었습니다.", result);
         return ResponseEntity.ok(response);
     }
 
     /**
      * 전체 사용자에게 Data-only 브로드캐스트 알림 전송 (관리자용)
+     * 비동기 작업으로 등록 후 jobId 반환
      * POST /api/fcm/send/broadcast/data-only
      */
     @PostMapping("/send/broadcast/data-only")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<FcmDataOnlyBroadcastResponse>> sendDataOnlyBroadcast(
+    public ResponseEntity<ApiResponse<FcmBroadcastJobResponse>> sendDataOnlyBroadcast(
             @Valid @RequestBody FcmDataOnlyBroadcastRequest request) {
 
-        FcmDataOnlyBroadcastResponse result = fcmTokenService.sendDataOnlyBroadcast(request);
-        ApiResponse<FcmDataOnlyBroadcastResponse> response = ApiResponse.success("Data-only 브로드캐스트 알림 전송이 완료되었습니다.", result);
+        FcmBroadcastJobResponse result = fcmBroadcastJobService.startDataOnlyBroadcast(request);
+        ApiResponse<FcmBroadcastJobResponse> response = ApiResponse.success("Data-only 브로드캐스트 알림 전송 작업이 등록되었습니다.", result);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 브로드캐스트 작업 진행 상황 조회 (관리자용)
+     * GET /api/fcm/send/broadcast/jobs/{jobId}
+     */
+    @GetMapping("/send/broadcast/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<FcmBroadcastJobResponse>> getBroadcastJob(@PathVariable String jobId) {
+
+        FcmBroadcastJobResponse result = fcmBroadcastJobService.getJob(jobId);
+        ApiResponse<FcmBroadcastJobResponse> response = ApiResponse.success("브로드캐스트 작업 조회가 완료되었습니다.", result);
         return ResponseEntity.ok(response);
     }
 
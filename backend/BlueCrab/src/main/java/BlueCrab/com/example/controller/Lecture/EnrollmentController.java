@@ -532,6 +532,29 @@ public class EnrollmentController {
         }
     }
 
+    /**
+     * 강의 전체 성적 일괄 재계산 API
+     * POST /api/enrollments/grade-recalculate
+     */
+    @PostMapping("/grade-recalculate")
+    public ResponseEntity<?> recalculateGrades(@RequestBody Map<String, Object> request) {
+        try {
+            String action = (String) request.get("action");
+            
+            if ("recalculate-all".equals(action)) {
+                return handleGradeRecalculate(request);
+            }
+            
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse("지원하지 않는 액션입니다."));
+                
+        } catch (Exception e) {
+            logger.error("성적 일괄 재계산 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("성적 일괄 재계산 중 오류가 발생했습니다."));
+        }
+    }
+
     // ========================================
     // 성적 관리 핸들러 메서드들
     // ========================================
@@ -724,4 +747,36 @@ public class EnrollmentController {
                 .body(createErrorResponse("최종 등급 배정 중 오류가 발생했습니다."));
         }
     }
+
+    /**
+     * 강의 전체 성적 일괄 재계산 핸들러
+     */
+    private ResponseEntity<?> handleGradeRecalculate(Map<String, Object> request) {
+        Integer lecIdx = request.get("lecIdx") != null ? ((Number) request.get("lecIdx")).intValue() : null;
+        String lecSerial = (String) request.get("lecSerial");
+        
+        // lecSerial이 제공된 경우 lecIdx로 변환
+        if (lecIdx == null && lecSerial != null && !lecSerial.trim().isEmpty()) {
+            lecIdx = enrollmentService.getLectureIdxBySerial(lecSerial);
+            if (lecIdx == null) {
+                return ResponseEntity.badRequest()
+                    .body(createErrorResponse("존재하지 않는 강의 코드입니다: " + lecSerial));
+            }
+        }
+        
+        if (lecIdx == null) {
+            return ResponseEntity.badRequest()
+                .body(createErrorResponse("lecIdx 또는 lecSerial은 필수 파라미터입니다."));
+        }
+
+        try {
+            Map<String, Object> result = enrollmentService.recalculateLectureGrades(lecIdx);
+            return ResponseEntity.ok(createSuccessResponse("성적 일괄 재계산이 완료되었습니다.", result));
+            
+        } catch (Exception e) {
+            logger.error("성적 일괄 재계산 처리 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("성적 일괄 재계산 처리 중 오류가 발생했습니다."));
+        }
+    }
 }
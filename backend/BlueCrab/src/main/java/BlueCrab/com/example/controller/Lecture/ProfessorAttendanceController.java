@@ -4,9 +4,12 @@ import BlueCrab.com.example.dto.ApiResponse;
 import BlueCrab.com.example.dto.Lecture.AttendanceDto;
 import BlueCrab.com.example.dto.Lecture.AttendanceRequestDto;
 import BlueCrab.com.example.entity.Lecture.AttendanceRequestTbl;
+import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
+import BlueCrab.com.example.event.Lecture.GradeUpdateEvent;
 import BlueCrab.com.example.service.Lecture.AttendanceService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +17,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,6 +29,7 @@ import java.util.Map;
  * - PUT /api/professor/attendance/requests/{id}/approve - 요청 승인
  * - PUT /api/professor/attendance/requests/{id}/reject - 요청 반려
  * - POST /api/professor/attendance/mark - 출석 체크
+ * - POST /api/professor/attendance/mark-bulk - 회차 단위 일괄 출석 체크
  */
 @RestController
 @RequestMapping("/api/professor/attendance")
@@ -33,6 +39,9 @@ public class ProfessorAttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 출석 인정 요청 목록 조회 - POST 방식
      * 
@@ -222,4 +231,69 @@ public class ProfessorAttendanceController {
                     .body(ApiResponse.failure("출석 체크 실패: " + e.getMessage()));
         }
     }
+
+    /**
+     * 회차 단위 일괄 출석 체크 (한 회차의 수강생 전체를 단일 트랜잭션으로 기록)
+     * 
+     * POST /api/professor/attendance/mark-bulk
+     * Body: {
+     *   "lecIdx": 1,
+     *   "sessionNumber": 3,
+     *   "records": [ { "enrollmentIdx": 1, "status": "출" }, { "enrollmentIdx": 2, "status": "지" } ]
+     * }
+     */
+    @PostMapping("/mark-bulk")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> markSessionAttendance(
+            @RequestBody Map<String, Object> payload) {
+        
+        try {
+            Integer lecIdx = payload.get("lecIdx") != null ? ((Number) payload.get("lecIdx")).intValue() : null;
+            Integer sessionNumber = payload.get("sessionNumber") != null ? ((Number) payload.get("sessionNumber")).intValue() : null;
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> records = (List<Map<String, Object>>) payload.get("records");
+
+            if (lecIdx == null || sessionNumber == null || records == null || records.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.failure("lecIdx, sessionNumber, records는 필수입니다."));
+            }
+
+            // 수강신청별 상태 수집 (같은 수강신청이 중복되면 마지막 값 사용)
+            Map<Integer, String> statusByEnrollment = new LinkedHashMap<>();
+            for (Map<String, Object> record : records) {
+                Object enrollmentIdx = record.get("enrollmentIdx");
+                String status = (String) record.get("status");
+                if (enrollmentIdx == null || status == null) {
+                    return ResponseEntity.badRequest()
+                            .body(ApiResponse.failure("records의 각 항목에 enrollmentIdx, status는 필수입니다."));
+                }
+                statusByEnrollment.put(((Number) enrollmentIdx).intValue(), status);
+            }
+
+            List<EnrollmentExtendedTbl> updated =
+                    attendanceService.markSessionAttendance(lecIdx, sessionNumber, statusByEnrollment);
+
+            // 출석 정보가 업데이트되면 성적 재계산 이벤트 발행
+            // (학생별 이벤트는 GradeUpdateCoalescer에서 강의 단위로 병합되어 일괄 재계산)
+            for (EnrollmentExtendedTbl enrollment : updated) {
+                if (enrollment.getStudentIdx() != null) {
+                    eventPublisher.publishEvent(
+                        new GradeUpdateEvent(this, lecIdx, enrollment.getStudentIdx(), "ATTENDANCE")
+                    );
+                }
+            }
+            log.info("일괄 출석 체크로 인한 성적 재계산 이벤트 발행: lecIdx={}, students={}", lecIdx, updated.size());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("lecIdx", lecIdx);
+            result.put("sessionNumber", sessionNumber);
+            result.put("updatedCount", updated.size());
+
+            return ResponseEntity.ok(ApiResponse.success("일괄 출석 체크 완료", result));
+
+        } catch (Exception e) {
+            log.error("일괄 출석 체크 실패", e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.failure("일괄 출석 체크 실패: " + e.getMessage()));
+        }
+    }
 }
@@ -1,5 +1,19 @@
 package BlueCrab.com.example.controller;
 
+import BlueCrab.com.example.scheduler.AttendanceScheduler;
+import BlueCrab.com.example.security.PrincipalCache;
+import BlueCrab.com.example.service.ChatBackupService;
+import BlueCrab.com.example.service.ChatMessageSerializer;
+import BlueCrab.com.example.service.ChatRoomContextCache;
+import BlueCrab.com.example.service.ConsultationActivityTracker;
+import BlueCrab.com.example.service.FcmTokenService;
+import BlueCrab.com.example.service.Lecture.GradeUpdateCoalescer;
+import BlueCrab.com.example.service.Lecture.Transcript.TranscriptCacheService;
+import BlueCrab.com.example.service.notification.NotificationOutboxService;
+import BlueCrab.com.example.service.websocket.StompMessageRelay;
+import BlueCrab.com.example.util.JwtUtil;
+import BlueCrab.com.example.util.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,6 +31,45 @@ import java.util.Map;
 @RequestMapping("/admin/metrics")
 public class MetricsController {
     
+    @Autowired
+    private GradeUpdateCoalescer gradeUpdateCoalescer;
+    
+    @Autowired
+    private AttendanceScheduler attendanceScheduler;
+    
+    @Autowired
+    private TranscriptCacheService transcriptCacheService;
+    
+    @Autowired
+    private TokenBucketRateLimiter tokenBucketRateLimiter;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private FcmTokenService fcmTokenService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private StompMessageRelay stompMessageRelay;
+
+    @Autowired
+    private ChatRoomContextCache chatRoomContextCache;
+
+    @Autowired
+    private ConsultationActivityTracker consultationActivityTracker;
+
+    @Autowired
+    private ChatBackupService chatBackupService;
+
+    @Autowired
+    private ChatMessageSerializer chatMessageSerializer;
+    
     /**
      * 시스템 메트릭 조회
      */
@@ -96,6 +149,110 @@ public class MetricsController {
         return logMetrics;
     }
     
+    /**
+     * 성적 재계산 병합 큐 상태 조회
+     */
+    @GetMapping("/grade-recalc")
+    public Map<String, Object> getGradeRecalcMetrics() {
+        return gradeUpdateCoalescer.getStats();
+    }
+    
+    /**
+     * 출석 요청 자동 승인 스케줄러 상태 조회
+     */
+    @GetMapping("/attendance-expiry")
+    public Map<String, Object> getAttendanceExpiryMetrics() {
+        return attendanceScheduler.getStats();
+    }
+    
+    /**
+     * 성적확인서 캐시 적중률 조회
+     */
+    @GetMapping("/transcript-cache")
+    public Map<String, Object> getTranscriptCacheMetrics() {
+        return transcriptCacheService.getStats();
+    }
+    
+    /**
+     * 요청 빈도 제한기 상태 조회
+     */
+    @GetMapping("/rate-limit")
+    public Map<String, Object> getRateLimitMetrics() {
+        return tokenBucketRateLimiter.getStats();
+    }
+    
+    /**
+     * 검증된 JWT 캐시 상태 조회
+     */
+    @GetMapping("/jwt-cache")
+    public Map<String, Object> getJwtCacheMetrics() {
+        return jwtUtil.getClaimsCacheStats();
+    }
+    
+    /**
+     * 인증 주체 캐시 상태 조회
+     */
+    @GetMapping("/principal-cache")
+    public Map<String, Object> getPrincipalCacheMetrics() {
+        return principalCache.getStats();
+    }
+    
+    /**
+     * 미사용 FCM 토큰 정리 작업 상태 조회
+     */
+    @GetMapping("/fcm-token-cleanup")
+    public Map<String, Object> getFcmTokenCleanupMetrics() {
+        return fcmTokenService.getCleanupStats();
+    }
+    
+    /**
+     * 푸시 알림 발송 대기열 상태 조회 (대기 건수, 워커 큐, 전송 지연)
+     */
+    @GetMapping("/notification-outbox")
+    public Map<String, Object> getNotificationOutboxMetrics() {
+        return notificationOutboxService.getStats();
+    }
+    
+    /**
+     * WebSocket 연결 수/메시지 처리량 및 노드 간 중계 상태 조회
+     */
+    @GetMapping("/websocket")
+    public Map<String, Object> getWebSocketMetrics() {
+        return stompMessageRelay.getStats();
+    }
+    
+    /**
+     * 채팅방 컨텍스트 캐시 상태 조회
+     */
+    @GetMapping("/chat-room-context")
+    public Map<String, Object> getChatRoomContextMetrics() {
+        return chatRoomContextCache.getStats();
+    }
+    
+    /**
+     * 상담 활동 시간 지연 반영 상태 조회
+     */
+    @GetMapping("/consultation-activity")
+    public Map<String, Object> getConsultationActivityMetrics() {
+        return consultationActivityTracker.getStats();
+    }
+    
+    /**
+     * 채팅 증분 백업/아카이브 상태 조회
+     */
+    @GetMapping("/chat-backup")
+    public Map<String, Object> getChatBackupMetrics() {
+        return chatBackupService.getStats();
+    }
+    
+    /**
+     * 채팅 메시지 직렬화 형식/크기 조회
+     */
+    @GetMapping("/chat-message-codec")
+    public Map<String, Object> getChatMessageCodecMetrics() {
+        return chatMessageSerializer.getStats();
+    }
+    
     /**
      * 디렉토리 크기 계산
      */
@@ -0,0 +1,67 @@
+package BlueCrab.com.example.dto.Consultation;
+
+import java.util.List;
+
+/**
+ * 채팅 메시지 커서 페이지 응답 DTO
+ *
+ * 커서는 Redis 목록 인덱스이며, 다음(이전 메시지) 페이지는 before=nextCursor로 조회한다.
+ */
+public class ChatMessagePageDto {
+
+    private Long requestIdx;
+    private List<ChatMessageDto> messages;
+    private long totalCount;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public ChatMessagePageDto() {}
+
+    public ChatMessagePageDto(Long requestIdx, List<ChatMessageDto> messages, long totalCount, Long nextCursor) {
+        this.requestIdx = requestIdx;
+        this.messages = messages;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public Long getRequestIdx() {
+        return requestIdx;
+    }
+
+    public void setRequestIdx(Long requestIdx) {
+        this.requestIdx = requestIdx;
+    }
+
+    public List<ChatMessageDto> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<ChatMessageDto> messages) {
+        this.messages = messages;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,130 @@
+package BlueCrab.com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * FCM 브로드캐스트 작업 상태 응답 DTO
+ * 브로드캐스트는 비동기로 실행되며, jobId로 진행 상황을 조회한다.
+ */
+public class FcmBroadcastJobResponse {
+
+    private String jobId;
+    private String type; // NOTIFICATION, DATA_ONLY
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private int scannedTokens; // 지금까지 조회된 대상 토큰 수
+    private int processedTokens; // 전송 완료(성공+실패)된 토큰 수
+    private int successCount;
+    private int failureCount;
+    private int invalidTokenCount;
+    private int batchCount;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public FcmBroadcastJobResponse() {}
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getScannedTokens() {
+        return scannedTokens;
+    }
+
+    public void setScannedTokens(int scannedTokens) {
+        this.scannedTokens = scannedTokens;
+    }
+
+    public int getProcessedTokens() {
+        return processedTokens;
+    }
+
+    public void setProcessedTokens(int processedTokens) {
+        this.processedTokens = processedTokens;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(int failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public int getInvalidTokenCount() {
+        return invalidTokenCount;
+    }
+
+    public void setInvalidTokenCount(int invalidTokenCount) {
+        this.invalidTokenCount = invalidTokenCount;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    public void setBatchCount(int batchCount) {
+        this.batchCount = batchCount;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
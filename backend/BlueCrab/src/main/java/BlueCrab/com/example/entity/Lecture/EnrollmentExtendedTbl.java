@@ -20,6 +20,7 @@ import javax.persistence.*;
  * - 테이블명: ENROLLMENT_EXTENDED_TBL
  * - 기본키: ENROLLMENT_IDX (자동 생성)
  * - 외래키: LEC_IDX (LEC_TBL 참조), STUDENT_IDX (USER_TBL 참조)
+ * - 생성 컬럼: GRADE_PERCENTAGE, ATTENDANCE_ATTENDED/LATE/ABSENT, PENDING_EXPIRES_AT (ENROLLMENT_DATA에서 파생, 읽기 전용)
  *
  * JSON 데이터 구조:
  * ENROLLMENT_DATA 필드에 다음 정보를 JSON 형식으로 저장:
@@ -58,7 +59,10 @@ import javax.persistence.*;
  * @since 2025-10-11
  */
 @Entity
-@Table(name = "ENROLLMENT_EXTENDED_TBL")
+@Table(name = "ENROLLMENT_EXTENDED_TBL", indexes = {
+    @Index(name = "IDX_ENROLLMENT_LEC_GRADE", columnList = "LEC_IDX, GRADE_PERCENTAGE"),
+    @Index(name = "IDX_ENROLLMENT_PENDING_EXPIRES", columnList = "PENDING_EXPIRES_AT")
+})
 public class EnrollmentExtendedTbl {
 
     /**
@@ -162,6 +166,63 @@ public class EnrollmentExtendedTbl {
     @Column(name = "ENROLLMENT_DATA", columnDefinition = "LONGTEXT")
     private String enrollmentData;
 
+    /**
+     * 총점 백분율 (grade.total.percentage)
+     * ENROLLMENT_DATA에서 DB가 자동 계산하는 생성 컬럼 (PERSISTENT)
+     *
+     * 용도:
+     * - 순위/평균/성적 목록 정렬을 JSON 파싱 없이 SQL 집계로 처리
+     * - (LEC_IDX, GRADE_PERCENTAGE) 인덱스로 강의 내 순위 조회
+     *
+     * 주의:
+     * - 읽기 전용 (insertable = false, updatable = false)
+     * - 값 변경은 ENROLLMENT_DATA 저장 시 DB에서 자동 반영됨
+     * - 같은 영속성 컨텍스트 안에서 JSON을 수정한 경우 엔티티 필드는 갱신되지 않음
+     *
+     * 마이그레이션: db/migration/V3__Add_Enrollment_Generated_Columns.sql
+     */
+    @Column(name = "GRADE_PERCENTAGE", insertable = false, updatable = false,
+            columnDefinition = "DECIMAL(5,2) AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.grade.total.percentage') AS DECIMAL(5,2))) PERSISTENT")
+    private Double gradePercentage;
+
+    /**
+     * 출석 횟수 (attendance.summary.attended) - 생성 컬럼, 읽기 전용
+     */
+    @Column(name = "ATTENDANCE_ATTENDED", insertable = false, updatable = false,
+            columnDefinition = "INT AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.attended') AS SIGNED)) PERSISTENT")
+    private Integer attendanceAttended;
+
+    /**
+     * 지각 횟수 (attendance.summary.late) - 생성 컬럼, 읽기 전용
+     */
+    @Column(name = "ATTENDANCE_LATE", insertable = false, updatable = false,
+            columnDefinition = "INT AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.late') AS SIGNED)) PERSISTENT")
+    private Integer attendanceLate;
+
+    /**
+     * 결석 횟수 (attendance.summary.absent) - 생성 컬럼, 읽기 전용
+     */
+    @Column(name = "ATTENDANCE_ABSENT", insertable = false, updatable = false,
+            columnDefinition = "INT AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.absent') AS SIGNED)) PERSISTENT")
+    private Integer attendanceAbsent;
+
+    /**
+     * 가장 먼저 만료되는 출석 요청의 만료 일시 (attendance.pendingRequests[0].expiresAt)
+     * ENROLLMENT_DATA에서 DB가 자동 계산하는 생성 컬럼 (PERSISTENT), 대기 요청이 없으면 NULL
+     *
+     * 용도:
+     * - 출석 요청 자동 승인 스케줄러가 전체 수강 정보 대신 만료 대상만 인덱스로 조회
+     *
+     * 주의:
+     * - pendingRequests는 요청 순으로 추가되고 만료 기간(7일)이 고정이므로 첫 요소가 가장 빠른 만료 일시
+     * - 읽기 전용 (insertable = false, updatable = false)
+     *
+     * 마이그레이션: db/migration/V4__Add_Enrollment_Pending_Expires_Column.sql
+     */
+    @Column(name = "PENDING_EXPIRES_AT", insertable = false, updatable = false,
+            columnDefinition = "DATETIME AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.pendingRequests[0].expiresAt') AS DATETIME)) PERSISTENT")
+    private java.time.LocalDateTime pendingExpiresAt;
+
     /**
      * 기본 생성자
      * JPA 엔티티 생성을 위해 필수
@@ -243,6 +304,28 @@ public class EnrollmentExtendedTbl {
         this.enrollmentData = enrollmentData;
     }
 
+    // 생성 컬럼 (읽기 전용 - setter 없음)
+
+    public Double getGradePercentage() {
+        return gradePercentage;
+    }
+
+    public Integer getAttendanceAttended() {
+        return attendanceAttended;
+    }
+
+    public Integer getAttendanceLate() {
+        return attendanceLate;
+    }
+
+    public Integer getAttendanceAbsent() {
+        return attendanceAbsent;
+    }
+
+    public java.time.LocalDateTime getPendingExpiresAt() {
+        return pendingExpiresAt;
+    }
+
     /**
      * 객체의 문자열 표현을 반환
      * 디버깅 및 로깅 시 사용
@@ -256,6 +339,7 @@ public class EnrollmentExtendedTbl {
                 "enrollmentIdx=" + enrollmentIdx +
                 ", lecIdx=" + lecIdx +
                 ", studentIdx=" + studentIdx +
+                ", gradePercentage=" + gradePercentage +
                 ", hasData=" + (enrollmentData != null && !enrollmentData.isEmpty()) +
                 '}';
     }
@@ -0,0 +1,111 @@
+package BlueCrab.com.example.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 푸시 알림 발송 대기열(Outbox) 엔티티
+ *
+ * NOTIFICATION_OUTBOX 테이블과 매핑
+ * 요청 스레드는 행만 저장하고, NotificationOutboxService 워커가 FCM으로 전송
+ *
+ * 상태 흐름: PENDING → PROCESSING → SENT / FAILED
+ * (일시적 오류는 NEXT_ATTEMPT_AT을 늦춰 PENDING으로 되돌림)
+ */
+@Entity
+@Table(name = "NOTIFICATION_OUTBOX", indexes = {
+    @Index(name = "IDX_OUTBOX_STATUS_NEXT", columnList = "STATUS, NEXT_ATTEMPT_AT"),
+    @Index(name = "IDX_OUTBOX_COALESCE", columnList = "RECIPIENT_USER_CODE, COALESCE_KEY, STATUS"),
+    @Index(name = "IDX_OUTBOX_CLAIM", columnList = "CLAIM_TOKEN")
+})
+@Getter
+@Setter
+public class NotificationOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PROCESSING = "PROCESSING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    public static final String TYPE_DATA_ONLY = "DATA_ONLY";
+    public static final String TYPE_NOTIFICATION = "NOTIFICATION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "OUTBOX_IDX")
+    private Long id;
+
+    /**
+     * 수신자 사용자 코드
+     */
+    @Column(name = "RECIPIENT_USER_CODE", nullable = false, length = 255)
+    private String recipientUserCode;
+
+    /**
+     * 병합 키 (같은 수신자·키의 미전송 알림은 최신 내용으로 대체)
+     */
+    @Column(name = "COALESCE_KEY", length = 255)
+    private String coalesceKey;
+
+    /**
+     * 전송 방식 (DATA_ONLY, NOTIFICATION)
+     */
+    @Column(name = "DELIVERY_TYPE", nullable = false, length = 20)
+    private String deliveryType;
+
+    @Column(name = "TITLE", nullable = false, length = 500)
+    private String title;
+
+    @Column(name = "BODY", columnDefinition = "TEXT")
+    private String body;
+
+    /**
+     * 데이터 페이로드 (JSON)
+     */
+    @Column(name = "DATA_JSON", columnDefinition = "TEXT")
+    private String dataJson;
+
+    /**
+     * Redis 임시 토큰 포함 여부 (DATA_ONLY 전송)
+     */
+    @Column(name = "INCLUDE_TEMPORARY", nullable = false)
+    private Boolean includeTemporary = Boolean.TRUE;
+
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private String status = STATUS_PENDING;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "NEXT_ATTEMPT_AT", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 처리 중인 노드/배치 식별자 (다중 노드에서 중복 처리 방지)
+     */
+    @Column(name = "CLAIM_TOKEN", length = 64)
+    private String claimToken;
+
+    @Column(name = "CLAIMED_AT")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "LAST_ERROR", length = 500)
+    private String lastError;
+
+    @Column(name = "CREATED_AT", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "SENT_AT")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
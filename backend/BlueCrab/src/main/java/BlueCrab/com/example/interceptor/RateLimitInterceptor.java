@@ -2,6 +2,8 @@ package BlueCrab.com.example.interceptor;
 
 import BlueCrab.com.example.annotation.RateLimit;
 import BlueCrab.com.example.util.JwtUtil;
+import BlueCrab.com.example.util.ParsedToken;
+import BlueCrab.com.example.util.TokenBucketRateLimiter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,26 +14,35 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * API 요청 빈도 제한 인터셉터
  * @RateLimit 어노테이션이 붙은 메서드에 대해 요청 빈도를 제한합니다.
+ * 빈도 계산은 TokenBucketRateLimiter(토큰 버킷, 유휴 키 자동 정리)에 위임합니다.
  */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
     
     private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
     
+    private static final String TIMESTAMP_PLACEHOLDER = "__TIMESTAMP__";
+    
     @Autowired
     private JwtUtil jwtUtil;
     
-    // Redis가 없는 경우 메모리 기반 저장소 사용
-    private final Map<String, RequestInfo> requestStore = new ConcurrentHashMap<>();
+    @Autowired
+    private TokenBucketRateLimiter rateLimiter;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    // 메시지별 429 응답 본문 (timestamp 앞/뒤 조각을 미리 직렬화)
+    private final Map<String, byte[][]> errorBodyCache = new ConcurrentHashMap<>();
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -52,19 +63,13 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return true; // 키 생성 실패 시 통과 (인증 오류는 다른 곳에서 처리)
         }
         
-        if (isRateLimited(key, rateLimit)) {
+        long retryAfterMillis = rateLimiter.tryAcquire(key, rateLimit.maxRequests(), rateLimit.timeWindow());
+        if (retryAfterMillis > 0) {
             // 요청 제한 응답
             response.setStatus(429); // Too Many Requests
             response.setContentType("application/json;charset=UTF-8");
-            
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", rateLimit.message());
-            errorResponse.put("errorCode", "RATE_LIMIT_EXCEEDED");
-            errorResponse.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            
-            ObjectMapper objectMapper = new ObjectMapper();
-            response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+            response.setHeader("Retry-After", String.valueOf((retryAfterMillis + 999) / 1000));
+            writeErrorBody(response, rateLimit.message());
             
             logger.warn("Rate limit exceeded for key: {} on endpoint: {}", key, request.getRequestURI());
             return false;
@@ -74,34 +79,37 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     }
     
     /**
-     * 요청 제한 여부 확인 및 카운트 증가
+     * 429 응답 본문 출력 (메시지별로 한 번만 직렬화하고 timestamp만 채워 넣음)
      */
-    private boolean isRateLimited(String key, RateLimit rateLimit) {
-        long currentTime = System.currentTimeMillis();
-        long timeWindow = rateLimit.timeWindow() * 1000L; // 초를 밀리초로 변환
+    private void writeErrorBody(HttpServletResponse response, String message) throws Exception {
+        byte[][] parts = errorBodyCache.computeIfAbsent(message, this::serializeErrorBody);
+        byte[] timestamp = LocalDateTime.now()
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                .getBytes(StandardCharsets.UTF_8);
         
-        RequestInfo requestInfo = requestStore.get(key);
-        
-        if (requestInfo == null) {
-            // 첫 번째 요청
-            requestStore.put(key, new RequestInfo(currentTime, 1));
-            return false;
-        }
-        
-        // 시간 윈도우가 지났으면 리셋
-        if (currentTime - requestInfo.firstRequestTime > timeWindow) {
-            requestStore.put(key, new RequestInfo(currentTime, 1));
-            return false;
-        }
+        response.setContentLength(parts[0].length + timestamp.length + parts[1].length);
+        response.getOutputStream().write(parts[0]);
+        response.getOutputStream().write(timestamp);
+        response.getOutputStream().write(parts[1]);
+    }
+    
+    private byte[][] serializeErrorBody(String message) {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("errorCode", "RATE_LIMIT_EXCEEDED");
+        errorResponse.put("timestamp", TIMESTAMP_PLACEHOLDER);
         
-        // 최대 요청 횟수 초과 확인
-        if (requestInfo.requestCount >= rateLimit.maxRequests()) {
-            return true; // 제한됨
+        try {
+            String json = objectMapper.writeValueAsString(errorResponse);
+            int index = json.indexOf(TIMESTAMP_PLACEHOLDER);
+            return new byte[][] {
+                json.substring(0, index).getBytes(StandardCharsets.UTF_8),
+                json.substring(index + TIMESTAMP_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8)
+            };
+        } catch (Exception e) {
+            throw new IllegalStateException("Rate limit 응답 직렬화 실패", e);
         }
-        
-        // 카운트 증가
-        requestInfo.requestCount++;
-        return false;
     }
     
     /**
@@ -135,10 +143,9 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             String authHeader = request.getHeader("Authorization");
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
-                if (jwtUtil.validateToken(token)) {
-                    // JWT에서 사용자 정보 추출 (기존 방식 활용)
-                    String username = jwtUtil.extractUsername(token);
-                    return username; // username을 userCode로 사용
+                ParsedToken parsedToken = jwtUtil.parseToken(token);
+                if (!parsedToken.isExpired()) {
+                    return parsedToken.getUsername(); // username을 userCode로 사용
                 }
             }
         } catch (Exception e) {
@@ -163,17 +170,4 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         
         return request.getRemoteAddr();
     }
-    
-    /**
-     * 요청 정보 저장 클래스
-     */
-    private static class RequestInfo {
-        long firstRequestTime;
-        int requestCount;
-        
-        RequestInfo(long firstRequestTime, int requestCount) {
-            this.firstRequestTime = firstRequestTime;
-            this.requestCount = requestCount;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -5,20 +5,24 @@ package BlueCrab.com.example.listener.Lecture;
 
 import BlueCrab.com.example.event.Lecture.GradeUpdateEvent;
 import BlueCrab.com.example.service.Lecture.GradeCalculationService;
+import BlueCrab.com.example.service.Lecture.GradeUpdateCoalescer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 /**
  * 성적 업데이트 이벤트 리스너
  * 출석 체크 또는 과제 채점 시 성적을 자동으로 재계산
  * 
  * 특징:
- * - @Async: 비동기 처리로 메인 로직 성능 영향 최소화
  * - @EventListener: Spring 이벤트 자동 구독
- * - 선별적 재계산: 해당 학생의 성적만 재계산
+ * - 병합 처리: 이벤트는 GradeUpdateCoalescer에 적재만 하고 즉시 반환
+ *   (같은 학생의 중복 이벤트는 병합, 강의 단위로 묶어 일괄 재계산)
+ * - 선별적 재계산: 이벤트가 발생한 학생의 성적만 재계산
  */
 @Component
 @Slf4j
@@ -27,36 +31,27 @@ public class GradeUpdateEventListener {
     @Autowired
     private GradeCalculationService gradeCalculationService;
 
+    @Autowired
+    private GradeUpdateCoalescer gradeUpdateCoalescer;
+
     /**
      * 성적 업데이트 이벤트 처리
+     * 재계산은 GradeUpdateCoalescer의 스케줄러 스레드에서 일괄 수행
      * 
      * @param event 성적 업데이트 이벤트
      */
     @EventListener
-    @Async
     public void handleGradeUpdateEvent(GradeUpdateEvent event) {
-        try {
-            log.info("성적 재계산 시작: {}", event);
-
-            Integer lecIdx = event.getLecIdx();
-            Integer studentIdx = event.getStudentIdx();
-            String updateType = event.getUpdateType();
-
-            // 성적 재계산 수행
-            gradeCalculationService.calculateStudentGrade(lecIdx, studentIdx);
-
-            log.info("성적 재계산 완료: lecIdx={}, studentIdx={}, updateType={}", 
-                    lecIdx, studentIdx, updateType);
-
-        } catch (Exception e) {
-            log.error("성적 재계산 실패: {}", event, e);
-            // 비동기 처리이므로 예외를 던지지 않고 로깅만 수행
-            // 메인 로직(출석 체크, 과제 채점)에는 영향 없음
+        if (gradeUpdateCoalescer.enqueue(event.getLecIdx(), event.getStudentIdx())) {
+            log.debug("성적 재계산 요청 적재: {}", event);
+        } else {
+            log.warn("성적 재계산 요청 적재 실패: {}", event);
         }
     }
 
     /**
      * 특정 강의의 전체 학생 성적 재계산 (일괄 처리)
+     * 수강생/과제를 1회 조회 후 단일 트랜잭션에서 saveAll로 일괄 저장
      * 
      * @param lecIdx 강의 IDX
      */
@@ -65,13 +60,9 @@ public class GradeUpdateEventListener {
         try {
             log.info("전체 학생 성적 재계산 시작: lecIdx={}", lecIdx);
             
-            // TODO: 전체 수강생 조회 후 일괄 재계산
-            // List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findStudentsByLecture(lecIdx);
-            // for (EnrollmentExtendedTbl enrollment : enrollments) {
-            //     gradeCalculationService.calculateStudentGrade(lecIdx, enrollment.getStudentIdx());
-            // }
+            Map<String, Object> result = gradeCalculationService.recalculateLectureGrades(lecIdx);
             
-            log.info("전체 학생 성적 재계산 완료: lecIdx={}", lecIdx);
+            log.info("전체 학생 성적 재계산 완료: {}", result);
 
         } catch (Exception e) {
             log.error("전체 학생 성적 재계산 실패: lecIdx={}", lecIdx, e);
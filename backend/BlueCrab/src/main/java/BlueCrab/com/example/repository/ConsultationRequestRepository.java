@@ -4,6 +4,7 @@ import BlueCrab.com.example.entity.ConsultationRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -47,6 +48,15 @@ public interface ConsultationRequestRepository extends JpaRepository<Consultatio
            "AND c.lastActivityAt < :threshold")
     List<ConsultationRequest> findInactiveConsultations(@Param("threshold") LocalDateTime threshold);
 
+    // 마지막 활동 시간 반영 (ConsultationActivityTracker 일괄 반영용, 더 최신 값은 덮어쓰지 않음)
+    @Modifying
+    @Query("UPDATE ConsultationRequest c SET c.lastActivityAt = :activityAt, c.updatedAt = :now " +
+           "WHERE c.requestIdx = :requestIdx " +
+           "AND (c.lastActivityAt IS NULL OR c.lastActivityAt < :activityAt)")
+    int updateLastActivityIfNewer(@Param("requestIdx") Long requestIdx,
+                                  @Param("activityAt") LocalDateTime activityAt,
+                                  @Param("now") LocalDateTime now);
+
     // 자동 종료 대상 조회 (24시간 제한)
     @Query("SELECT c FROM ConsultationRequest c " +
            "WHERE c.status = 'IN_PROGRESS' " +
@@ -1,7 +1,9 @@
 package BlueCrab.com.example.repository;
 
 import BlueCrab.com.example.entity.FcmToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -51,29 +53,104 @@ public interface FcmTokenRepository extends JpaRepository<FcmToken, Integer> {
     Optional<FcmToken> findByFcmTokenWeb(String fcmTokenWeb);
 
     /**
-     * 특정 기간 이상 미사용 토큰 조회 (배치 정리용)
+     * 미사용 안드로이드 토큰 정리 (최대 :limit 행, MariaDB UPDATE ... LIMIT)
      */
-    @Query("SELECT f FROM FcmToken f WHERE " +
-           "(f.fcmTokenAndroid IS NOT NULL AND (f.fcmTokenAndroidLastUsed IS NULL OR f.fcmTokenAndroidLastUsed < :cutoffDate)) OR " +
-           "(f.fcmTokenIos IS NOT NULL AND (f.fcmTokenIosLastUsed IS NULL OR f.fcmTokenIosLastUsed < :cutoffDate)) OR " +
-           "(f.fcmTokenWeb IS NOT NULL AND (f.fcmTokenWebLastUsed IS NULL OR f.fcmTokenWebLastUsed < :cutoffDate))")
-    List<FcmToken> findInactiveTokens(@Param("cutoffDate") LocalDateTime cutoffDate);
+    @Modifying
+    @Query(value = "UPDATE FCM_TOKEN_TABLE SET FCM_TOKEN_ANDROID = NULL, FCM_TOKEN_ANDROID_LAST_USED = NULL, " +
+                   "FCM_TOKEN_ANDROID_KEEP_SIGNED_IN = NULL, UPDATED_AT = :now " +
+                   "WHERE FCM_TOKEN_ANDROID IS NOT NULL " +
+                   "AND (FCM_TOKEN_ANDROID_LAST_USED IS NULL OR FCM_TOKEN_ANDROID_LAST_USED < :cutoffDate) " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    int clearInactiveAndroidTokens(@Param("cutoffDate") LocalDateTime cutoffDate,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("limit") int limit);
 
     /**
-     * 모든 유효한 안드로이드 토큰 조회
+     * 미사용 iOS 토큰 정리 (최대 :limit 행, MariaDB UPDATE ... LIMIT)
      */
-    @Query("SELECT f.fcmTokenAndroid FROM FcmToken f WHERE f.fcmTokenAndroid IS NOT NULL")
-    List<String> findAllAndroidTokens();
+    @Modifying
+    @Query(value = "UPDATE FCM_TOKEN_TABLE SET FCM_TOKEN_IOS = NULL, FCM_TOKEN_IOS_LAST_USED = NULL, " +
+                   "FCM_TOKEN_IOS_KEEP_SIGNED_IN = NULL, UPDATED_AT = :now " +
+                   "WHERE FCM_TOKEN_IOS IS NOT NULL " +
+                   "AND (FCM_TOKEN_IOS_LAST_USED IS NULL OR FCM_TOKEN_IOS_LAST_USED < :cutoffDate) " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    int clearInactiveIosTokens(@Param("cutoffDate") LocalDateTime cutoffDate,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
 
     /**
-     * 모든 유효한 iOS 토큰 조회
+     * 미사용 웹 토큰 정리 (최대 :limit 행, MariaDB UPDATE ... LIMIT)
      */
-    @Query("SELECT f.fcmTokenIos FROM FcmToken f WHERE f.fcmTokenIos IS NOT NULL")
-    List<String> findAllIosTokens();
+    @Modifying
+    @Query(value = "UPDATE FCM_TOKEN_TABLE SET FCM_TOKEN_WEB = NULL, FCM_TOKEN_WEB_LAST_USED = NULL, " +
+                   "FCM_TOKEN_WEB_KEEP_SIGNED_IN = NULL, UPDATED_AT = :now " +
+                   "WHERE FCM_TOKEN_WEB IS NOT NULL " +
+                   "AND (FCM_TOKEN_WEB_LAST_USED IS NULL OR FCM_TOKEN_WEB_LAST_USED < :cutoffDate) " +
+                   "LIMIT :limit",
+           nativeQuery = true)
+    int clearInactiveWebTokens(@Param("cutoffDate") LocalDateTime cutoffDate,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
 
     /**
-     * 모든 유효한 웹 토큰 조회
+     * 플랫폼별 토큰 통계 집계 (단일 집계 쿼리)
+     * @return 1행: [등록 사용자 수,
+     *              android 전체/활성/비활성, ios 전체/활성/비활성, web 전체/활성/비활성]
      */
-    @Query("SELECT f.fcmTokenWeb FROM FcmToken f WHERE f.fcmTokenWeb IS NOT NULL")
-    List<String> findAllWebTokens();
+    @Query("SELECT COUNT(f), " +
+           "SUM(CASE WHEN f.fcmTokenAndroid IS NOT NULL THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenAndroid IS NOT NULL AND f.fcmTokenAndroidLastUsed > :activeThreshold THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenAndroid IS NOT NULL AND (f.fcmTokenAndroidLastUsed IS NULL " +
+           "OR f.fcmTokenAndroidLastUsed < :inactiveThreshold) THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenIos IS NOT NULL THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenIos IS NOT NULL AND f.fcmTokenIosLastUsed > :activeThreshold THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenIos IS NOT NULL AND (f.fcmTokenIosLastUsed IS NULL " +
+           "OR f.fcmTokenIosLastUsed < :inactiveThreshold) THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenWeb IS NOT NULL THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenWeb IS NOT NULL AND f.fcmTokenWebLastUsed > :activeThreshold THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.fcmTokenWeb IS NOT NULL AND (f.fcmTokenWebLastUsed IS NULL " +
+           "OR f.fcmTokenWebLastUsed < :inactiveThreshold) THEN 1 ELSE 0 END) " +
+           "FROM FcmToken f")
+    List<Object[]> aggregateTokenStats(@Param("activeThreshold") LocalDateTime activeThreshold,
+                                       @Param("inactiveThreshold") LocalDateTime inactiveThreshold);
+
+    /**
+     * 브로드캐스트 대상 토큰 페이지 조회 (FCM_IDX 기준 키셋 페이징)
+     * 엔티티 대신 토큰 컬럼만 조회하며, userStudent가 null이면 전체 사용자 대상
+     * @return [fcmIdx, android, ios, web]
+     */
+    @Query("SELECT f.fcmIdx, f.fcmTokenAndroid, f.fcmTokenIos, f.fcmTokenWeb FROM FcmToken f " +
+           "WHERE f.fcmIdx > :afterIdx " +
+           "AND (:userStudent IS NULL OR f.userIdx IN " +
+           "(SELECT u.userIdx FROM UserTbl u WHERE u.userStudent = :userStudent)) " +
+           "ORDER BY f.fcmIdx")
+    List<Object[]> findBroadcastTokenPage(@Param("afterIdx") Integer afterIdx,
+                                          @Param("userStudent") Integer userStudent,
+                                          Pageable pageable);
+
+    /**
+     * 무효 안드로이드 토큰 일괄 제거
+     */
+    @Modifying
+    @Query("UPDATE FcmToken f SET f.fcmTokenAndroid = NULL, f.fcmTokenAndroidLastUsed = NULL, " +
+           "f.fcmTokenAndroidKeepSignedIn = NULL, f.updatedAt = :now WHERE f.fcmTokenAndroid IN :tokens")
+    int clearAndroidTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
+    /**
+     * 무효 iOS 토큰 일괄 제거
+     */
+    @Modifying
+    @Query("UPDATE FcmToken f SET f.fcmTokenIos = NULL, f.fcmTokenIosLastUsed = NULL, " +
+           "f.fcmTokenIosKeepSignedIn = NULL, f.updatedAt = :now WHERE f.fcmTokenIos IN :tokens")
+    int clearIosTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
+    /**
+     * 무효 웹 토큰 일괄 제거
+     */
+    @Modifying
+    @Query("UPDATE FcmToken f SET f.fcmTokenWeb = NULL, f.fcmTokenWebLastUsed = NULL, " +
+           "f.fcmTokenWebKeepSignedIn = NULL, f.updatedAt = :now WHERE f.fcmTokenWeb IN :tokens")
+    int clearWebTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
 }
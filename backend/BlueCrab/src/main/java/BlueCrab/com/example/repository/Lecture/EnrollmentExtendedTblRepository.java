@@ -1,6 +1,9 @@
 package BlueCrab.com.example.repository.Lecture;
 
 import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
+import BlueCrab.com.example.repository.projection.GradeListRowProjection;
+import BlueCrab.com.example.repository.projection.LectureGradeStatsProjection;
+import BlueCrab.com.example.repository.projection.StudentGradePercentageProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -146,6 +150,17 @@ public interface EnrollmentExtendedTblRepository extends JpaRepository<Enrollmen
      */
     List<EnrollmentExtendedTbl> findAllByStudentIdxIn(List<Integer> studentIdxList);
 
+    /* 강의 내 여러 학생의 수강신청 목록 조회
+     * 성적 일괄 재계산 시 학생별 단건 조회(N회)를 1회로 묶기 위해 사용
+     */
+    List<EnrollmentExtendedTbl> findByLecIdxAndStudentIdxIn(Integer lecIdx, Collection<Integer> studentIdxList);
+
+    /* 강의 수강생 IDX 목록 조회 (ENROLLMENT_DATA 미조회)
+     * 강의 단위 변경 시 학생별 성적확인서 캐시 무효화 대상 수집에 사용
+     */
+    @Query("SELECT e.studentIdx FROM EnrollmentExtendedTbl e WHERE e.lecIdx = :lecIdx")
+    List<Integer> findStudentIdxByLecIdx(@Param("lecIdx") Integer lecIdx);
+
     // ========== 출석 관리 관련 메서드 (출석 요청/승인 시스템용) ==========
 
     /**
@@ -252,14 +267,90 @@ public interface EnrollmentExtendedTblRepository extends JpaRepository<Enrollmen
         @Param("professorIdx") Integer professorIdx
     );
 
-    // ========== JSON 데이터 기반 조회 메서드 (향후 확장) ==========
+    // ========== 생성 컬럼 기반 집계 메서드 (GRADE_PERCENTAGE, ATTENDANCE_*) ==========
+
+    /* JSON 파싱 없이 SQL 집계로 처리하는 성적/출석 통계
+     * - GRADE_PERCENTAGE = grade.total.percentage
+     * - ATTENDANCE_ATTENDED/LATE/ABSENT = attendance.summary.attended/late/absent
+     * 생성 컬럼은 ENROLLMENT_DATA 저장 시 DB가 자동 갱신 (마이그레이션: V3__Add_Enrollment_Generated_Columns.sql)
+     * 그 외 JSON 필드를 활용한 고급 쿼리는 Service 레이어에서 처리
+     */
+
+    /* 강의별 성적/출석 집계 (수강생 수, 성적 산출 인원, 백분율 합계/평균, 출결 합계)
+     * 사용 예시: LectureGradeStatsProjection stats = enrollmentRepository.getLectureGradeStats(456);
+     */
+    @Query("SELECT COUNT(e) AS totalStudents, " +
+           "COUNT(e.gradePercentage) AS gradedStudents, " +
+           "COALESCE(SUM(e.gradePercentage), 0) AS percentageSum, " +
+           "COALESCE(AVG(e.gradePercentage), 0) AS percentageAverage, " +
+           "COALESCE(SUM(e.attendanceAttended), 0) AS attendedSum, " +
+           "COALESCE(SUM(e.attendanceLate), 0) AS lateSum, " +
+           "COALESCE(SUM(e.attendanceAbsent), 0) AS absentSum " +
+           "FROM EnrollmentExtendedTbl e WHERE e.lecIdx = :lecIdx")
+    LectureGradeStatsProjection getLectureGradeStats(@Param("lecIdx") Integer lecIdx);
+
+    /* 학생의 총점 백분율 조회 (성적 미산출 시 null)
+     */
+    @Query("SELECT e.gradePercentage FROM EnrollmentExtendedTbl e " +
+           "WHERE e.lecIdx = :lecIdx AND e.studentIdx = :studentIdx")
+    Optional<Double> findGradePercentage(@Param("lecIdx") Integer lecIdx,
+                                         @Param("studentIdx") Integer studentIdx);
+
+    /* 강의 내에서 주어진 백분율보다 높은 학생 수 조회 (순위 = 결과 + 1)
+     * (LEC_IDX, GRADE_PERCENTAGE) 인덱스 범위 스캔으로 처리
+     */
+    @Query("SELECT COUNT(e) FROM EnrollmentExtendedTbl e " +
+           "WHERE e.lecIdx = :lecIdx AND e.gradePercentage > :percentage")
+    long countByLecIdxAndGradePercentageGreaterThan(@Param("lecIdx") Integer lecIdx,
+                                                     @Param("percentage") Double percentage);
+
+    /* 강의 전체 수강생의 총점 백분율 조회 (성적 미산출 시 null)
+     * 성적 순위표(Redis ZSET) 재구성용
+     */
+    @Query("SELECT e.studentIdx AS studentIdx, e.gradePercentage AS gradePercentage " +
+           "FROM EnrollmentExtendedTbl e WHERE e.lecIdx = :lecIdx")
+    List<StudentGradePercentageProjection> findGradePercentagesByLecIdx(@Param("lecIdx") Integer lecIdx);
+
+    /* 교수용 성적 목록 페이지 조회 (DB 정렬 + LIMIT/OFFSET)
+     * 학생(USER_TBL) 행이 없는 수강 정보도 포함 (LEFT JOIN, 이름/학번은 서비스에서 대체 표기)
+     * 정렬 키 (JpaSort.unsafe):
+     * - COALESCE(e.gradePercentage, 0): 함수식이라 그대로 ORDER BY에 사용 (GradeLeaderboardService.percentageSort)
+     * - s.userName, s.userCode: JOIN 별칭 s로 시작하여 그대로 사용
+     * - studentIdx: select 별칭과 엔티티 속성명이 같아 별칭/e.studentIdx 어느 쪽으로 해석되어도 같은 컬럼
+     * 사용 예시: Page<GradeListRowProjection> page = enrollmentRepository.findGradeListPage(456,
+     *                PageRequest.of(0, 20, JpaSort.unsafe(Sort.Direction.ASC, "s.userName")));
+     */
+    @Query(value = "SELECT e.studentIdx AS studentIdx, s.userName AS studentName, s.userCode AS studentId, " +
+                   "e.gradePercentage AS gradePercentage, e.enrollmentData AS enrollmentData " +
+                   "FROM EnrollmentExtendedTbl e LEFT JOIN e.student s WHERE e.lecIdx = :lecIdx",
+           countQuery = "SELECT COUNT(e) FROM EnrollmentExtendedTbl e LEFT JOIN e.student s WHERE e.lecIdx = :lecIdx")
+    Page<GradeListRowProjection> findGradeListPage(@Param("lecIdx") Integer lecIdx, Pageable pageable);
+
+    /* 강의 내 여러 학생의 성적 목록 행 조회
+     * 성적 순위표(Redis ZSET)에서 얻은 페이지 학생만 로드할 때 사용
+     */
+    @Query("SELECT e.studentIdx AS studentIdx, s.userName AS studentName, s.userCode AS studentId, " +
+           "e.gradePercentage AS gradePercentage, e.enrollmentData AS enrollmentData " +
+           "FROM EnrollmentExtendedTbl e LEFT JOIN e.student s " +
+           "WHERE e.lecIdx = :lecIdx AND e.studentIdx IN :studentIdxList")
+    List<GradeListRowProjection> findGradeListRows(@Param("lecIdx") Integer lecIdx,
+                                                   @Param("studentIdxList") Collection<Integer> studentIdxList);
+
+    /* 만료 일시가 지난 출석 요청이 있는 수강 정보 조회 (PENDING_EXPIRES_AT 인덱스 범위 조회)
+     * enrollmentIdx 기준 키셋 페이징: 이전 배치의 마지막 enrollmentIdx 이후부터 조회
+     * 사용 예시: enrollmentRepository.findDuePendingRequests(cutoff, 0, PageRequest.of(0, 200));
+     */
+    @Query("SELECT e FROM EnrollmentExtendedTbl e " +
+           "WHERE e.pendingExpiresAt < :cutoff AND e.enrollmentIdx > :afterEnrollmentIdx " +
+           "ORDER BY e.enrollmentIdx")
+    List<EnrollmentExtendedTbl> findDuePendingRequests(@Param("cutoff") java.time.LocalDateTime cutoff,
+                                                       @Param("afterEnrollmentIdx") Integer afterEnrollmentIdx,
+                                                       Pageable pageable);
 
-    /* JSON 데이터를 활용한 고급 쿼리는 Service 레이어에서 처리
-     * - 출결 상태별 조회
-     * - 성적 범위별 조회
-     * - 수강 상태별 조회 등
-     * Repository에서 기본 데이터를 조회한 후, Service에서 Jackson ObjectMapper를 사용하여 JSON 파싱 및 필터링
+    /* 만료 일시가 지난 출석 요청이 있는 수강 정보 수
      */
+    @Query("SELECT COUNT(e) FROM EnrollmentExtendedTbl e WHERE e.pendingExpiresAt < :cutoff")
+    long countDuePendingRequests(@Param("cutoff") java.time.LocalDateTime cutoff);
 
     // ========== 삭제 관련 메서드 ==========
 
@@ -0,0 +1,91 @@
+package BlueCrab.com.example.repository;
+
+import BlueCrab.com.example.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 푸시 알림 발송 대기열 Repository
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * 같은 수신자·병합 키의 미전송 알림 ID 조회 (병합 대상, 최신 순)
+     */
+    @Query("SELECT o.id FROM NotificationOutbox o " +
+           "WHERE o.recipientUserCode = :recipientUserCode AND o.coalesceKey = :coalesceKey " +
+           "AND o.status = 'PENDING' ORDER BY o.id DESC")
+    List<Long> findPendingIdsByCoalesceKey(@Param("recipientUserCode") String recipientUserCode,
+                                           @Param("coalesceKey") String coalesceKey,
+                                           Pageable pageable);
+
+    /**
+     * 미전송 알림 내용 대체 (디스패처가 먼저 선점한 행은 제외됨)
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.title = :title, o.body = :body, o.dataJson = :dataJson, " +
+           "o.includeTemporary = :includeTemporary WHERE o.id = :id AND o.status = 'PENDING'")
+    int coalescePending(@Param("id") Long id,
+                        @Param("title") String title,
+                        @Param("body") String body,
+                        @Param("dataJson") String dataJson,
+                        @Param("includeTemporary") Boolean includeTemporary);
+
+    /**
+     * 전송 시각이 도래한 대기 알림 ID 조회 (오래된 순)
+     */
+    @Query("SELECT o.id FROM NotificationOutbox o " +
+           "WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt, o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 대기 알림 선점 (다른 노드가 먼저 선점한 행은 제외됨)
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PROCESSING', o.claimToken = :claimToken, o.claimedAt = :now " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * 선점한 알림 조회
+     */
+    List<NotificationOutbox> findByClaimTokenAndStatus(String claimToken, String status);
+
+    /**
+     * 처리 중 상태로 오래 남은 알림 복구 (노드 중단 등)
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PENDING', o.claimToken = NULL, o.claimedAt = NULL " +
+           "WHERE o.status = 'PROCESSING' AND o.claimedAt < :staleBefore")
+    int releaseStaleClaims(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * 상태별 건수
+     */
+    long countByStatus(String status);
+
+    /**
+     * 가장 오래 대기 중인 알림의 생성 시각
+     */
+    @Query("SELECT MIN(o.createdAt) FROM NotificationOutbox o WHERE o.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    /**
+     * 보관 기간이 지난 완료/실패 알림 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status IN ('SENT', 'FAILED') AND o.createdAt < :before")
+    int deleteFinishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,13 @@
+package BlueCrab.com.example.repository.projection;
+
+/**
+ * 교수용 성적 목록 한 행(수강생 1명)을 위한 Projection Interface
+ * 페이지 단위 조회 시 필요한 컬럼만 조회 (학생 엔티티 전체 로드 없음)
+ */
+public interface GradeListRowProjection {
+    Integer getStudentIdx();
+    String getStudentName();
+    String getStudentId();
+    Double getGradePercentage();
+    String getEnrollmentData();
+}
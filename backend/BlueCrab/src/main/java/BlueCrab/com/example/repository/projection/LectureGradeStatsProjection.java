@@ -0,0 +1,15 @@
+package BlueCrab.com.example.repository.projection;
+
+/**
+ * 강의별 성적/출석 집계를 위한 Projection Interface
+ * ENROLLMENT_EXTENDED_TBL 생성 컬럼(GRADE_PERCENTAGE, ATTENDANCE_*)에 대한 SQL 집계 결과 매핑
+ */
+public interface LectureGradeStatsProjection {
+    Long getTotalStudents();
+    Long getGradedStudents();
+    Double getPercentageSum();
+    Double getPercentageAverage();
+    Long getAttendedSum();
+    Long getLateSum();
+    Long getAbsentSum();
+}
@@ -0,0 +1,10 @@
+package BlueCrab.com.example.repository.projection;
+
+/**
+ * 강의 내 학생별 총점 백분율 Projection Interface
+ * 성적 순위표(GradeLeaderboardService) 재구성 시 JSON 파싱 없이 GRADE_PERCENTAGE 생성 컬럼만 조회
+ */
+public interface StudentGradePercentageProjection {
+    Integer getStudentIdx();
+    Double getGradePercentage();
+}
@@ -9,15 +9,21 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -31,12 +37,14 @@ import java.util.stream.Collectors;
  * - 10/30 05:00 스케줄러 실행 시 자동 승인
  * 
  * 처리 로직:
- * 1. 모든 수강 정보 조회
+ * 1. 만료 대상 수강 정보만 조회 (PENDING_EXPIRES_AT 인덱스, 배치 단위 키셋 페이징)
  * 2. pendingRequests에서 만료된 요청 필터링
  * 3. sessions에 "출석"으로 이동
  * 4. pendingRequests에서 제거
  * 5. summary 재계산
- * 6. DB 업데이트
+ * 6. DB 업데이트 (배치마다 별도 트랜잭션)
+ * 
+ * 진행 상황/처리 건수/소요 시간은 getStats()로 조회 (GET /admin/metrics/attendance-expiry)
  * 
  * @author BlueCrab Development Team
  * @version 1.0.0
@@ -52,6 +60,29 @@ public class AttendanceScheduler {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.attendance.expiry.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.attendance.expiry.max-batches:500}")
+    private int maxBatches;
+    
+    // 실행 상태 및 통계
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalApproved = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastFinishedAt;
+    private volatile long lastDurationMs;
+    private volatile long lastDueEnrollments;
+    private volatile int lastBatches;
+    private volatile int lastProcessedEnrollments;
+    private volatile int lastApprovedRequests;
+    private volatile int lastFailedEnrollments;
+    
     /**
      * 만료된 출석 요청 자동 승인 처리
      * 
@@ -66,90 +97,173 @@ public class AttendanceScheduler {
      *      → 2025-10-30 05:00 스케줄러에서 처리
      */
     @Scheduled(cron = "0 0 5 * * *")
-    @Transactional
     public void processExpiredRequests() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("출석 요청 자동 승인 스케줄러가 이미 실행 중입니다.");
+            return;
+        }
+        
         log.info("========================================");
         log.info("출석 요청 자동 승인 스케줄러 시작");
         log.info("실행 시각: {}", LocalDateTime.now());
         log.info("========================================");
         
+        long startTime = System.currentTimeMillis();
         LocalDate today = LocalDate.now(); // 오늘 날짜 (시간 제외)
-        int totalProcessed = 0;
-        int totalApproved = 0;
-        int totalFailed = 0;
+        LocalDateTime cutoff = today.plusDays(1).atStartOfDay(); // 만료 날짜가 오늘 이전 = 내일 0시 미만
+        
+        lastStartedAt = LocalDateTime.now();
+        lastFinishedAt = null;
+        lastBatches = 0;
+        lastProcessedEnrollments = 0;
+        lastApprovedRequests = 0;
+        lastFailedEnrollments = 0;
         
         try {
-            // 1. 모든 수강 정보 조회
-            List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findAll();
-            log.info("조회된 수강 정보: {}건", enrollments.size());
+            // 1. 만료 대상 수강 정보 수 (인덱스 범위 COUNT)
+            lastDueEnrollments = enrollmentRepository.countDuePendingRequests(cutoff);
+            log.info("만료 대상 수강 정보: {}건", lastDueEnrollments);
+            
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            int afterEnrollmentIdx = 0;
             
-            for (EnrollmentExtendedTbl enrollment : enrollments) {
-                try {
-                    // 2. JSON 파싱
-                    AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
-                    
-                    if (attendanceData == null || attendanceData.getPendingRequests() == null 
-                        || attendanceData.getPendingRequests().isEmpty()) {
-                        continue; // 대기 중인 요청 없음
-                    }
-                    
-                    // 3. 만료된 요청 필터링 (날짜 기준)
-                    List<AttendancePendingRequestDto> expiredRequests = attendanceData.getPendingRequests().stream()
-                        .filter(request -> {
-                            LocalDate expiresDate = request.getExpiresAt().toLocalDate();
-                            // 만료 날짜가 오늘이거나 이전이면 만료됨
-                            return !expiresDate.isAfter(today);
-                        })
-                        .collect(Collectors.toList());
-                    
-                    if (expiredRequests.isEmpty()) {
-                        continue; // 만료된 요청 없음
-                    }
-                    
-                    log.info("만료된 요청 발견: enrollmentIdx={}, lecIdx={}, studentIdx={}, count={}", 
-                             enrollment.getEnrollmentIdx(), enrollment.getLecIdx(), 
-                             enrollment.getStudentIdx(), expiredRequests.size());
-                    
-                    // 4. sessions에 "출석"으로 이동
-                    for (AttendancePendingRequestDto expiredRequest : expiredRequests) {
-                        moveToSessions(attendanceData, expiredRequest);
-                        totalApproved++;
-                    }
-                    
-                    // 5. pendingRequests에서 제거
-                    attendanceData.getPendingRequests().removeAll(expiredRequests);
-                    
-                    // 6. summary 재계산
-                    recalculateSummary(attendanceData);
-                    
-                    // 7. JSON 직렬화 및 DB 업데이트
-                    String updatedJson = serializeToEnrollmentData(attendanceData, enrollment.getEnrollmentData());
-                    enrollment.setEnrollmentData(updatedJson);
-                    enrollmentRepository.save(enrollment);
-                    
-                    totalProcessed++;
-                    
-                    log.info("자동 승인 완료: enrollmentIdx={}, 승인 건수={}", 
-                             enrollment.getEnrollmentIdx(), expiredRequests.size());
-                    
-                } catch (Exception e) {
-                    totalFailed++;
-                    log.error("수강 정보 처리 실패: enrollmentIdx={}, error={}", 
-                             enrollment.getEnrollmentIdx(), e.getMessage(), e);
-                    // 개별 실패는 로그만 남기고 계속 진행
+            while (lastBatches < maxBatches) {
+                final int cursor = afterEnrollmentIdx;
+                BatchResult result = transactionTemplate.execute(status -> processBatch(cutoff, today, cursor));
+                if (result == null || result.fetched == 0) {
+                    break;
+                }
+                
+                lastBatches++;
+                lastProcessedEnrollments += result.processed;
+                lastApprovedRequests += result.approved;
+                lastFailedEnrollments += result.failed;
+                afterEnrollmentIdx = result.lastEnrollmentIdx;
+                
+                log.info("배치 {} 완료: 조회={}건, 처리={}건, 승인={}건, 실패={}건", 
+                         lastBatches, result.fetched, result.processed, result.approved, result.failed);
+                
+                if (result.fetched < batchSize) {
+                    break;
                 }
             }
             
-            log.info("========================================");
-            log.info("출석 요청 자동 승인 완료");
-            log.info("처리된 수강 정보: {}건", totalProcessed);
-            log.info("자동 승인된 요청: {}건", totalApproved);
-            log.info("실패 건수: {}건", totalFailed);
-            log.info("========================================");
+            if (lastBatches >= maxBatches) {
+                log.warn("최대 배치 수({}) 도달, 남은 요청은 다음 실행 시 처리됩니다.", maxBatches);
+            }
             
         } catch (Exception e) {
             log.error("출석 요청 자동 승인 스케줄러 전체 오류", e);
+        } finally {
+            lastDurationMs = System.currentTimeMillis() - startTime;
+            lastFinishedAt = LocalDateTime.now();
+            totalRuns.incrementAndGet();
+            totalApproved.addAndGet(lastApprovedRequests);
+            totalFailed.addAndGet(lastFailedEnrollments);
+            running.set(false);
+            
+            log.info("========================================");
+            log.info("출석 요청 자동 승인 완료");
+            log.info("처리된 수강 정보: {}건", lastProcessedEnrollments);
+            log.info("자동 승인된 요청: {}건", lastApprovedRequests);
+            log.info("실패 건수: {}건", lastFailedEnrollments);
+            log.info("소요 시간: {}ms ({}개 배치)", lastDurationMs, lastBatches);
+            log.info("========================================");
+        }
+    }
+    
+    /**
+     * 만료 대상 수강 정보 1개 배치 처리 (트랜잭션 내부에서 실행)
+     * 
+     * @param cutoff 만료 기준 일시 (PENDING_EXPIRES_AT < cutoff)
+     * @param today 오늘 날짜 (요청별 만료 판단)
+     * @param afterEnrollmentIdx 이전 배치의 마지막 enrollmentIdx
+     */
+    private BatchResult processBatch(LocalDateTime cutoff, LocalDate today, int afterEnrollmentIdx) {
+        List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findDuePendingRequests(
+            cutoff, afterEnrollmentIdx, PageRequest.of(0, batchSize));
+        
+        BatchResult result = new BatchResult();
+        result.fetched = enrollments.size();
+        
+        for (EnrollmentExtendedTbl enrollment : enrollments) {
+            result.lastEnrollmentIdx = enrollment.getEnrollmentIdx();
+            try {
+                // 2. JSON 파싱
+                AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
+                
+                if (attendanceData == null || attendanceData.getPendingRequests() == null 
+                    || attendanceData.getPendingRequests().isEmpty()) {
+                    continue; // 대기 중인 요청 없음
+                }
+                
+                // 3. 만료된 요청 필터링 (날짜 기준)
+                List<AttendancePendingRequestDto> expiredRequests = attendanceData.getPendingRequests().stream()
+                    .filter(request -> {
+                        LocalDate expiresDate = request.getExpiresAt().toLocalDate();
+                        // 만료 날짜가 오늘이거나 이전이면 만료됨
+                        return !expiresDate.isAfter(today);
+                    })
+                    .collect(Collectors.toList());
+                
+                if (expiredRequests.isEmpty()) {
+                    continue; // 만료된 요청 없음
+                }
+                
+                log.info("만료된 요청 발견: enrollmentIdx={}, lecIdx={}, studentIdx={}, count={}", 
+                         enrollment.getEnrollmentIdx(), enrollment.getLecIdx(), 
+                         enrollment.getStudentIdx(), expiredRequests.size());
+                
+                // 4. sessions에 "출석"으로 이동
+                for (AttendancePendingRequestDto expiredRequest : expiredRequests) {
+                    moveToSessions(attendanceData, expiredRequest);
+                    result.approved++;
+                }
+                
+                // 5. pendingRequests에서 제거
+                attendanceData.getPendingRequests().removeAll(expiredRequests);
+                
+                // 6. summary 재계산
+                recalculateSummary(attendanceData);
+                
+                // 7. JSON 직렬화 및 DB 업데이트
+                String updatedJson = serializeToEnrollmentData(attendanceData, enrollment.getEnrollmentData());
+                enrollment.setEnrollmentData(updatedJson);
+                enrollmentRepository.save(enrollment);
+                
+                result.processed++;
+                
+            } catch (Exception e) {
+                result.failed++;
+                log.error("수강 정보 처리 실패: enrollmentIdx={}, error={}", 
+                         enrollment.getEnrollmentIdx(), e.getMessage(), e);
+                // 개별 실패는 로그만 남기고 계속 진행
+            }
         }
+        
+        return result;
+    }
+    
+    /**
+     * 스케줄러 실행 상태 및 통계 조회
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running.get());
+        stats.put("batchSize", batchSize);
+        stats.put("maxBatches", maxBatches);
+        stats.put("lastStartedAt", lastStartedAt);
+        stats.put("lastFinishedAt", lastFinishedAt);
+        stats.put("lastDurationMs", lastDurationMs);
+        stats.put("lastDueEnrollments", lastDueEnrollments);
+        stats.put("lastBatches", lastBatches);
+        stats.put("lastProcessedEnrollments", lastProcessedEnrollments);
+        stats.put("lastApprovedRequests", lastApprovedRequests);
+        stats.put("lastFailedEnrollments", lastFailedEnrollments);
+        stats.put("totalRuns", totalRuns.get());
+        stats.put("totalApproved", totalApproved.get());
+        stats.put("totalFailed", totalFailed.get());
+        return stats;
     }
     
     /**
@@ -296,4 +410,15 @@ public class AttendanceScheduler {
         log.info("=== 수동 실행: 출석 요청 자동 승인 ===");
         processExpiredRequests();
     }
+    
+    /**
+     * 배치 처리 결과
+     */
+    private static class BatchResult {
+        int fetched;
+        int processed;
+        int approved;
+        int failed;
+        int lastEnrollmentIdx;
+    }
 }
@@ -1,20 +1,24 @@
 package BlueCrab.com.example.scheduler;
 
-import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
 import BlueCrab.com.example.entity.ConsultationRequest;
 import BlueCrab.com.example.repository.ConsultationRequestRepository;
-import BlueCrab.com.example.service.ChatService;
-import BlueCrab.com.example.service.MinIOService;
+import BlueCrab.com.example.service.ChatBackupService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Chat Message Backup Scheduler
@@ -23,36 +27,40 @@ import java.util.List;
  * Execution: Every 5 minutes
  * Purpose: Minimize data loss in case of Redis failure or server crash
  *
+ * Backup mode (app.chat.scheduler.backup-mode):
+ * - delta: uploads only messages added since the last backup as segment objects (default)
+ * - snapshot: rewrites the full chat log on every run (legacy)
+ *
+ * Consultations are backed up in parallel on a bounded executor (app.chat.scheduler.backup-parallelism).
+ *
  * @author BlueCrab Development Team
- * @version 1.1.0
+ * @version 1.2.0
  * @since 2025-10-24
  */
 @Slf4j
 @Component
 public class ChatBackupScheduler {
 
-    private static final DateTimeFormatter SNAPSHOT_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // 다음 실행(5분) 전에 끝나지 않은 백업은 취소하고 다음 주기에 이어서 처리
+    private static final long PASS_TIMEOUT_SECONDS = 240;
 
-    private final ChatService chatService;
     private final ConsultationRequestRepository consultationRequestRepository;
-    private final MinIOService minIOService;
+    private final ChatBackupService chatBackupService;
 
     private final boolean backupEnabled;
-    private final String chatBucket;
-    private final String tempPrefix;
+    private final boolean deltaMode;
+    private final ExecutorService backupExecutor;
 
-    public ChatBackupScheduler(ChatService chatService,
-                               ConsultationRequestRepository consultationRequestRepository,
-                               MinIOService minIOService,
+    public ChatBackupScheduler(ConsultationRequestRepository consultationRequestRepository,
+                               ChatBackupService chatBackupService,
                                @Value("${app.chat.scheduler.backup-enabled:true}") boolean backupEnabled,
-                               @Value("${app.chat.minio.bucket:consultation-chats}") String chatBucket,
-                               @Value("${app.chat.minio.temp-prefix:temp}") String tempPrefix) {
-        this.chatService = chatService;
+                               @Value("${app.chat.scheduler.backup-mode:delta}") String backupMode,
+                               @Value("${app.chat.scheduler.backup-parallelism:4}") int parallelism) {
         this.consultationRequestRepository = consultationRequestRepository;
-        this.minIOService = minIOService;
+        this.chatBackupService = chatBackupService;
         this.backupEnabled = backupEnabled;
-        this.chatBucket = chatBucket;
-        this.tempPrefix = normalizePrefix(tempPrefix);
+        this.deltaMode = !"snapshot".equalsIgnoreCase(backupMode);
+        this.backupExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), new BackupThreadFactory());
     }
 
     /**
@@ -60,7 +68,8 @@ public class ChatBackupScheduler {
      *
      * <pre>
      * Cron: "0 *&#47;5 * * * *" (Every 5 minutes)
-     * File location: &#123;tempPrefix&#125;/chat_&#123;requestIdx&#125;_snapshot_&#123;timestamp&#125;.txt
+     * delta:    &#123;tempPrefix&#125;/chat_&#123;requestIdx&#125;_seg_&#123;from&#125;-&#123;to&#125;.txt
+     * snapshot: &#123;tempPrefix&#125;/chat_&#123;requestIdx&#125;_snapshot_&#123;timestamp&#125;.txt
      * </pre>
      */
     @Scheduled(cron = "0 */5 * * * *")
@@ -77,76 +86,78 @@ public class ChatBackupScheduler {
             return;
         }
 
-        log.info("[Scheduler] Chat backup started - targets={}", inProgressConsultations.size());
+        log.info("[Scheduler] Chat backup started - targets={}, mode={}",
+                inProgressConsultations.size(), deltaMode ? "delta" : "snapshot");
 
+        List<Long> requestIdxList = new ArrayList<>(inProgressConsultations.size());
+        List<Callable<Integer>> tasks = new ArrayList<>(inProgressConsultations.size());
         for (ConsultationRequest consultation : inProgressConsultations) {
-            try {
-                backupConsultation(consultation);
-            } catch (Exception e) {
-                log.warn("[Scheduler] 상담 백업 실패 - requestIdx={}, error={}",
-                        consultation.getRequestIdx(), e.getMessage(), e);
-            }
+            Long requestIdx = consultation.getRequestIdx();
+            requestIdxList.add(requestIdx);
+            tasks.add(() -> backupConsultation(requestIdx));
         }
-    }
 
-    private void backupConsultation(ConsultationRequest consultation) throws Exception {
-        Long requestIdx = consultation.getRequestIdx();
-
-        List<ChatMessageDto> messages = chatService.getAllMessages(requestIdx);
-        if (messages.isEmpty()) {
-            log.debug("[Scheduler] 메시지 없음으로 백업 생략 - requestIdx={}", requestIdx);
+        int succeeded = 0;
+        int failed = 0;
+        long messages = 0;
+        try {
+            List<Future<Integer>> results = backupExecutor.invokeAll(tasks, PASS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            for (int i = 0; i < results.size(); i++) {
+                Long requestIdx = requestIdxList.get(i);
+                Future<Integer> result = results.get(i);
+                if (result.isCancelled()) {
+                    failed++;
+                    log.warn("[Scheduler] 상담 백업 시간 초과 - requestIdx={}", requestIdx);
+                    continue;
+                }
+                try {
+                    messages += result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.warn("[Scheduler] 상담 백업 실패 - requestIdx={}, error={}",
+                            requestIdx, cause.getMessage(), cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[Scheduler] Chat backup interrupted");
             return;
         }
 
-        String chatLog = chatService.formatChatLog(requestIdx);
-        byte[] bytes = chatLog.getBytes(StandardCharsets.UTF_8);
-
-        deleteExistingSnapshots(requestIdx);
-
-        String timestamp = LocalDateTime.now().format(SNAPSHOT_FORMATTER);
-        String objectName = buildSnapshotObjectName(requestIdx, timestamp);
+        log.info("[Scheduler] Chat backup finished - succeeded={}, failed={}, messages={}",
+                succeeded, failed, messages);
+    }
 
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes)) {
-            minIOService.uploadChatLog(chatBucket, objectName, inputStream, bytes.length);
-            log.info("[Scheduler] 상담 백업 완료 - requestIdx={}, object={}", requestIdx, objectName);
-        }
+    private int backupConsultation(Long requestIdx) throws Exception {
+        return deltaMode
+            ? chatBackupService.backupIncremental(requestIdx)
+            : chatBackupService.backupSnapshot(requestIdx);
     }
 
-    private void deleteExistingSnapshots(Long requestIdx) {
-        String prefix = buildSnapshotPrefix(requestIdx);
+    @PreDestroy
+    public void shutdown() {
+        backupExecutor.shutdown();
         try {
-            List<String> existing = minIOService.listObjects(chatBucket, prefix);
-            for (String objectName : existing) {
-                minIOService.deleteObject(chatBucket, objectName);
-                log.debug("[Scheduler] 이전 스냅샷 삭제 - {}", objectName);
+            if (!backupExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                backupExecutor.shutdownNow();
             }
-        } catch (Exception e) {
-            log.warn("[Scheduler] 이전 스냅샷 삭제 실패 - requestIdx={}, error={}",
-                    requestIdx, e.getMessage());
+        } catch (InterruptedException e) {
+            backupExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
-    private String buildSnapshotObjectName(Long requestIdx, String timestamp) {
-        String prefix = tempPrefix.isEmpty() ? "" : tempPrefix + "/";
-        return prefix + "chat_" + requestIdx + "_snapshot_" + timestamp + ".txt";
-    }
-
-    private String buildSnapshotPrefix(Long requestIdx) {
-        String prefix = tempPrefix.isEmpty() ? "" : tempPrefix + "/";
-        return prefix + "chat_" + requestIdx + "_snapshot_";
-    }
+    private static final class BackupThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
 
-    private String normalizePrefix(String prefix) {
-        if (prefix == null || prefix.isBlank()) {
-            return "";
-        }
-        String normalized = prefix;
-        if (normalized.startsWith("/")) {
-            normalized = normalized.substring(1);
-        }
-        if (normalized.endsWith("/")) {
-            normalized = normalized.substring(0, normalized.length() - 1);
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("chat-backup-" + sequence.incrementAndGet());
+            return thread;
         }
-        return normalized;
     }
 }
@@ -3,6 +3,7 @@ package BlueCrab.com.example.scheduler;
 import BlueCrab.com.example.dto.Consultation.ConsultationIdDto;
 import BlueCrab.com.example.entity.ConsultationRequest;
 import BlueCrab.com.example.repository.ConsultationRequestRepository;
+import BlueCrab.com.example.service.ConsultationActivityTracker;
 import BlueCrab.com.example.service.ConsultationRequestService;
 import BlueCrab.com.example.service.MinIOService;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,11 @@ import java.util.regex.Pattern;
 /**
  * Orphaned Room Cleanup Scheduler
  * Cleans up orphaned MinIO temp snapshots and forces completion of abandoned consultations.
+ *
+ * 증분 백업 세그먼트(chat_N_seg_XXXXXXXXXX-YYYYYYYYYY.txt)는 진행 중인 상담의 유일한 백업이므로
+ * 나이만으로 삭제하지 않는다. 상담별로 묶어 미사용 상담 판별에 사용하고,
+ * 종료/삭제된 상담의 세그먼트만 마지막 수정 시각이 기준 시간을 넘긴 경우 정리한다.
+ * (자동 종료 시 세그먼트는 아카이브 병합 성공 후 ChatBackupService.clearBackups가 삭제)
  */
 @Slf4j
 @Component
@@ -31,12 +37,15 @@ public class OrphanedRoomCleanupScheduler {
 
     private static final Pattern SNAPSHOT_PATTERN =
         Pattern.compile("chat_(\\d+)_snapshot_(\\d{14})\\.txt");
+    private static final Pattern SEGMENT_PATTERN =
+        Pattern.compile("chat_(\\d+)_seg_(\\d{10})-(\\d{10})\\.txt");
     private static final DateTimeFormatter SNAPSHOT_FORMATTER =
         DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
     private final MinIOService minioService;
     private final ConsultationRequestRepository consultationRequestRepository;
     private final ConsultationRequestService consultationRequestService;
+    private final ConsultationActivityTracker consultationActivityTracker;
 
     private final boolean cleanupEnabled;
     private final String chatBucket;
@@ -46,6 +55,7 @@ public class OrphanedRoomCleanupScheduler {
     public OrphanedRoomCleanupScheduler(MinIOService minioService,
                                         ConsultationRequestRepository consultationRequestRepository,
                                         ConsultationRequestService consultationRequestService,
+                                        ConsultationActivityTracker consultationActivityTracker,
                                         @Value("${app.chat.scheduler.cleanup-enabled:true}") boolean cleanupEnabled,
                                         @Value("${app.chat.minio.bucket:consultation-chats}") String chatBucket,
                                         @Value("${app.chat.minio.temp-prefix:temp}") String tempPrefix,
@@ -53,6 +63,7 @@ public class OrphanedRoomCleanupScheduler {
         this.minioService = minioService;
         this.consultationRequestRepository = consultationRequestRepository;
         this.consultationRequestService = consultationRequestService;
+        this.consultationActivityTracker = consultationActivityTracker;
         this.cleanupEnabled = cleanupEnabled;
         this.chatBucket = chatBucket;
         this.tempPrefix = normalizePrefix(tempPrefix);
@@ -80,9 +91,9 @@ public class OrphanedRoomCleanupScheduler {
         LocalDateTime threshold = LocalDateTime.now().minusHours(cleanupThresholdHours);
         List<SnapshotInfo> activeSnapshots = new ArrayList<>();
 
-        // 1. 오래된 스냅샷 제거
+        // 1. 오래된 스냅샷 제거 (세그먼트는 상담 상태 확인 후 처리)
         for (SnapshotInfo snapshot : snapshots) {
-            if (snapshot.getCreatedAt().isPresent() && snapshot.getCreatedAt().get().isBefore(threshold)) {
+            if (!snapshot.isSegment() && isOlderThan(snapshot, threshold)) {
                 deleteSnapshot(snapshot, "오래된 스냅샷 정리");
             } else {
                 activeSnapshots.add(snapshot);
@@ -104,14 +115,14 @@ public class OrphanedRoomCleanupScheduler {
             Optional<ConsultationRequest> consultationOpt = consultationRequestRepository.findById(requestIdx);
 
             if (!consultationOpt.isPresent()) {
-                requestSnapshots.forEach(snapshot -> deleteSnapshot(snapshot, "상담 데이터 없음"));
+                deleteFinished(requestSnapshots, threshold, "상담 데이터 없음");
                 continue;
             }
 
             ConsultationRequest consultation = consultationOpt.get();
 
             if (!"IN_PROGRESS".equals(consultation.getStatus())) {
-                requestSnapshots.forEach(snapshot -> deleteSnapshot(snapshot, "상담 종료 상태"));
+                deleteFinished(requestSnapshots, threshold, "상담 종료 상태");
                 continue;
             }
 
@@ -125,7 +136,10 @@ public class OrphanedRoomCleanupScheduler {
                     log.warn("[Scheduler] 상담 자동 종료 실패 - requestIdx={}, error={}",
                             requestIdx, e.getMessage(), e);
                 } finally {
-                    requestSnapshots.forEach(snapshot -> deleteSnapshot(snapshot, "자동 종료 이후 정리"));
+                    // 세그먼트는 아카이브 병합 성공 시 종료 처리에서 삭제되므로 실패 시 보존
+                    requestSnapshots.stream()
+                        .filter(snapshot -> !snapshot.isSegment())
+                        .forEach(snapshot -> deleteSnapshot(snapshot, "자동 종료 이후 정리"));
                 }
             }
         }
@@ -136,9 +150,9 @@ public class OrphanedRoomCleanupScheduler {
         String listPrefix = tempPrefix.isEmpty() ? "" : tempPrefix;
 
         try {
-            List<String> objects = minioService.listObjects(chatBucket, listPrefix);
-            for (String objectName : objects) {
-                parseSnapshot(objectName).ifPresent(snapshots::add);
+            Map<String, LocalDateTime> objects = minioService.listObjectsWithLastModified(chatBucket, listPrefix);
+            for (Map.Entry<String, LocalDateTime> object : objects.entrySet()) {
+                parseSnapshot(object.getKey(), object.getValue()).ifPresent(snapshots::add);
             }
         } catch (Exception e) {
             log.warn("[Scheduler] 스냅샷 목록 조회 실패 - error={}", e.getMessage(), e);
@@ -147,16 +161,22 @@ public class OrphanedRoomCleanupScheduler {
         return snapshots;
     }
 
-    private Optional<SnapshotInfo> parseSnapshot(String objectName) {
+    private Optional<SnapshotInfo> parseSnapshot(String objectName, LocalDateTime lastModified) {
         String fileName = objectName;
         int slashIndex = objectName.lastIndexOf('/');
         if (slashIndex >= 0) {
             fileName = objectName.substring(slashIndex + 1);
         }
 
+        Matcher segmentMatcher = SEGMENT_PATTERN.matcher(fileName);
+        if (segmentMatcher.matches()) {
+            Long requestIdx = Long.parseLong(segmentMatcher.group(1));
+            return Optional.of(new SnapshotInfo(objectName, requestIdx, Optional.ofNullable(lastModified), true));
+        }
+
         Matcher matcher = SNAPSHOT_PATTERN.matcher(fileName);
         if (!matcher.matches()) {
-            deleteSnapshot(new SnapshotInfo(objectName, null, Optional.empty()), "잘못된 파일명");
+            deleteSnapshot(new SnapshotInfo(objectName, null, Optional.empty(), false), "잘못된 파일명");
             return Optional.empty();
         }
 
@@ -165,15 +185,33 @@ public class OrphanedRoomCleanupScheduler {
 
         try {
             LocalDateTime createdAt = LocalDateTime.parse(timestamp, SNAPSHOT_FORMATTER);
-            return Optional.of(new SnapshotInfo(objectName, requestIdx, Optional.of(createdAt)));
+            return Optional.of(new SnapshotInfo(objectName, requestIdx, Optional.of(createdAt), false));
         } catch (DateTimeParseException e) {
-            deleteSnapshot(new SnapshotInfo(objectName, requestIdx, Optional.empty()), "타임스탬프 파싱 실패");
+            deleteSnapshot(new SnapshotInfo(objectName, requestIdx, Optional.empty(), false), "타임스탬프 파싱 실패");
             return Optional.empty();
         }
     }
 
+    /**
+     * 종료/삭제된 상담의 임시 백업 정리
+     * 스냅샷은 바로 삭제하고, 세그먼트는 마지막 수정 시각이 기준 시간을 넘긴 경우에만 삭제
+     * (아카이브 실패 시 복구할 시간을 남김)
+     */
+    private void deleteFinished(List<SnapshotInfo> snapshots, LocalDateTime threshold, String reason) {
+        for (SnapshotInfo snapshot : snapshots) {
+            if (!snapshot.isSegment() || isOlderThan(snapshot, threshold)) {
+                deleteSnapshot(snapshot, reason);
+            }
+        }
+    }
+
+    private boolean isOlderThan(SnapshotInfo snapshot, LocalDateTime threshold) {
+        return snapshot.getCreatedAt().isPresent() && snapshot.getCreatedAt().get().isBefore(threshold);
+    }
+
     private boolean isAbandoned(ConsultationRequest consultation, LocalDateTime threshold) {
-        LocalDateTime lastActivity = consultation.getLastActivityAt();
+        LocalDateTime lastActivity = consultationActivityTracker.resolve(
+            consultation.getRequestIdx(), consultation.getLastActivityAt());
         LocalDateTime startedAt = consultation.getStartedAt();
 
         if (lastActivity != null) {
@@ -233,11 +271,13 @@ public class OrphanedRoomCleanupScheduler {
         private final String objectName;
         private final Long requestIdx;
         private final Optional<LocalDateTime> createdAt;
+        private final boolean segment;
 
-        private SnapshotInfo(String objectName, Long requestIdx, Optional<LocalDateTime> createdAt) {
+        private SnapshotInfo(String objectName, Long requestIdx, Optional<LocalDateTime> createdAt, boolean segment) {
             this.objectName = objectName;
             this.requestIdx = requestIdx;
             this.createdAt = createdAt;
+            this.segment = segment;
         }
 
         public String getObjectName() {
@@ -251,5 +291,9 @@ public class OrphanedRoomCleanupScheduler {
         public Optional<LocalDateTime> getCreatedAt() {
             return createdAt;
         }
+
+        public boolean isSegment() {
+            return segment;
+        }
     }
 }
@@ -1,15 +1,14 @@
 package BlueCrab.com.example.scheduler;
 
-import BlueCrab.com.example.dto.BatchSendResponse;
 import BlueCrab.com.example.dto.FcmTokenCollectionResult;
 import BlueCrab.com.example.entity.ReadingSeat;
 import BlueCrab.com.example.entity.ReadingUsageLog;
 import BlueCrab.com.example.repository.ReadingSeatRepository;
 import BlueCrab.com.example.repository.ReadingUsageLogRepository;
-import BlueCrab.com.example.service.FirebasePushService;
 import BlueCrab.com.example.service.FcmTokenService;
 import BlueCrab.com.example.service.ReadingRoomNotificationFactory;
 import BlueCrab.com.example.service.ReadingRoomNotificationFactory.NotificationTemplate;
+import BlueCrab.com.example.service.notification.NotificationOutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,6 +21,7 @@ import java.util.List;
 
 /**
  * Periodically sends 15-minute pre-expiry notifications for occupied reading room seats.
+ * Alerts are queued in the notification outbox; delivery and retries happen on its worker pool.
  */
 @Component
 public class ReadingRoomPreExpiryNotifier {
@@ -31,18 +31,18 @@ public class ReadingRoomPreExpiryNotifier {
     private final ReadingSeatRepository readingSeatRepository;
     private final ReadingUsageLogRepository readingUsageLogRepository;
     private final FcmTokenService fcmTokenService;
-    private final FirebasePushService firebasePushService;
+    private final NotificationOutboxService notificationOutboxService;
     private final ReadingRoomNotificationFactory notificationFactory;
 
     public ReadingRoomPreExpiryNotifier(ReadingSeatRepository readingSeatRepository,
                                         ReadingUsageLogRepository readingUsageLogRepository,
                                         FcmTokenService fcmTokenService,
-                                        FirebasePushService firebasePushService,
+                                        NotificationOutboxService notificationOutboxService,
                                         ReadingRoomNotificationFactory notificationFactory) {
         this.readingSeatRepository = readingSeatRepository;
         this.readingUsageLogRepository = readingUsageLogRepository;
         this.fcmTokenService = fcmTokenService;
-        this.firebasePushService = firebasePushService;
+        this.notificationOutboxService = notificationOutboxService;
         this.notificationFactory = notificationFactory;
     }
 
@@ -95,24 +95,25 @@ public class ReadingRoomPreExpiryNotifier {
             }
 
             NotificationTemplate template = notificationFactory.createPreExpiryTemplate(seat, usageLog, now);
-        BatchSendResponse response = firebasePushService.sendDataOnlyNotificationBatch(
-            tokens,
-            template.getTitle(),
-            template.getBody(),
-            template.getData());
-
-        if (response.getSuccessCount() == 0) {
-        log.warn("Pre-expiry alert failed (no successes) for seat {} user {}", seat.getSeatNumber(), userCode);
-        return;
-        }
+            Long outboxIdx = notificationOutboxService.enqueueDataOnly(
+                    userCode,
+                    template.getTitle(),
+                    template.getBody(),
+                    template.getData(),
+                    "READING_PRE_EXPIRY|" + usageLog.getLogId(),
+                    false);
+
+            if (outboxIdx == null) {
+                log.warn("Pre-expiry alert could not be queued for seat {} user {}", seat.getSeatNumber(), userCode);
+                return;
+            }
 
-        readingUsageLogRepository.markPreNoticeSent(usageLog.getLogId(), now, tokens.size());
-        log.info("Pre-expiry alert sent for seat {} user {} tokens {} (success {} failure {})",
-            seat.getSeatNumber(),
-            userCode,
-            tokens.size(),
-            response.getSuccessCount(),
-            response.getFailureCount());
+            readingUsageLogRepository.markPreNoticeSent(usageLog.getLogId(), now, tokens.size());
+            log.info("Pre-expiry alert queued for seat {} user {} tokens {} (outbox {})",
+                    seat.getSeatNumber(),
+                    userCode,
+                    tokens.size(),
+                    outboxIdx);
         } catch (Exception ex) {
             log.error("Failed to send pre-expiry alert for seat {}", seat.getSeatNumber(), ex);
         }
@@ -52,7 +52,7 @@ import java.util.List;
  * - 관리자 권한 기준이 이메일 접두사에서 별도 필드로 변경될 수 있음
  * - 권한 체계가 더 세부적으로 확장될 수 있음 (학과별, 기능별 권한)
  * - JWT 토큰에 권한 정보를 포함하는 방식으로 변경될 수 있음
- * - 캐싱 메커니즘이 추가될 수 있음 (권한 정보 캐시)
+ * - 인증 주체는 PrincipalCache에 짧은 TTL로 캐시됨 (비밀번호 변경/계정 수정·삭제/관리자 정지 시 무효화)
  *
  * 의존성:
  * - UserTblRepository: 사용자 정보 조회
@@ -80,6 +80,13 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private AdminTblRepository adminTblRepository;
     // 성태준 추가 끝
+    
+    /**
+     * 인증 주체 캐시
+     * 요청마다 반복되는 관리자/사용자 조회를 짧은 TTL 동안 생략하기 위한 의존성 주입
+     */
+    @Autowired
+    private PrincipalCache principalCache;
 
     /**
      * 사용자명(이메일)으로 사용자 정보를 로드하는 핵심 메서드
@@ -116,6 +123,21 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // 캐시된 인증 주체가 있으면 DB 조회 생략 (변경 시 PrincipalCache.invalidate로 제거)
+        UserDetails cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        
+        UserDetails userDetails = loadUserFromDatabase(username);
+        principalCache.put(username, userDetails);
+        return userDetails;
+    }
+    
+    /**
+     * DB에서 관리자/사용자 정보를 조회하여 UserDetails 생성
+     */
+    private UserDetails loadUserFromDatabase(String username) throws UsernameNotFoundException {
         // 성태준 추가
         // 단계 1: 관리자인지 먼저 확인
         // AdminTbl에서 관리자 정보 검색
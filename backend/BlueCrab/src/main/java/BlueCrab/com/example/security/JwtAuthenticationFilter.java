@@ -2,6 +2,7 @@ package BlueCrab.com.example.security;
 
 import BlueCrab.com.example.dto.ApiResponse;
 import BlueCrab.com.example.util.JwtUtil;
+import BlueCrab.com.example.util.ParsedToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.ExpiredJwtException;
 import org.slf4j.Logger;
@@ -41,14 +42,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String requestTokenHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwtToken = null;
+        ParsedToken parsedToken = null;
         boolean isTokenExpired = false;
 
         // JWT Token은 "Bearer token" 형식으로 전달됨
+        // 서명 검증은 여기서 한 번만 수행하고 이후 판단은 파싱된 클레임으로 처리
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                parsedToken = jwtUtil.parseToken(jwtToken);
+                username = parsedToken.getUsername();
             } catch (ExpiredJwtException e) {
                 // 토큰이 만료된 경우 - 클라이언트에게 알리기 위한 헤더 추가
                 logger.warn("JWT Token has expired: {}", e.getMessage());
@@ -66,7 +69,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // 성태준 추가 - 관리자 이메일 인증 시스템: 세션 토큰 처리 로직
             // 세션 토큰은 인증에 사용하지 않음 (이메일 인증 등의 임시 토큰)
-            if (jwtUtil.isSessionToken(jwtToken)) {
+            if (parsedToken.isSessionToken()) {
                 logger.debug("Session token detected - skipping authentication for: {}", username);
                 chain.doFilter(request, response);
                 return;
@@ -76,8 +79,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
             // 토큰이 유효하고 Access Token인지 확인
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername()) &&
-                jwtUtil.isAccessToken(jwtToken)) {
+            if (username.equals(userDetails.getUsername()) && !parsedToken.isExpired() &&
+                parsedToken.isAccessToken()) {
 
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                     new UsernamePasswordAuthenticationToken(
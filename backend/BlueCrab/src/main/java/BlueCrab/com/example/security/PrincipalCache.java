@@ -0,0 +1,135 @@
+package BlueCrab.com.example.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 인증 주체(UserDetails) 근거리 캐시
+ * 매 요청마다 CustomUserDetailsService가 DB를 조회하지 않도록 짧은 TTL 동안 보관
+ *
+ * 특징:
+ * - 최대 개수를 넘으면 가장 오래 사용되지 않은 항목부터 제거 (LRU)
+ * - 사용자명/비밀번호/권한만 보관하고 조회 시마다 새 User 객체 생성
+ *   (인증 후 eraseCredentials()가 캐시 원본의 비밀번호를 지우지 않도록)
+ * - 비밀번호 변경, 계정 삭제/수정, 관리자 정지 시 명시적으로 무효화
+ * - 서버 인스턴스별 로컬 캐시이므로 다른 인스턴스의 변경은 TTL 이내에 반영
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final long ttlMillis;
+    private final Map<String, CachedPrincipal> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = Math.max(0L, ttlSeconds) * 1000L;
+        final int capacity = Math.max(1, maxEntries);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, CachedPrincipal>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * 캐시된 인증 주체 조회
+     *
+     * @param username 사용자명 (이메일 또는 관리자 ID)
+     * @return 새로 생성한 UserDetails, 없거나 만료되었으면 null
+     */
+    public UserDetails get(String username) {
+        if (ttlMillis == 0 || username == null) {
+            return null;
+        }
+
+        CachedPrincipal cached = cache.get(username);
+        if (cached == null) {
+            missCount.increment();
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            cache.remove(username, cached);
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+        return new User(cached.username, cached.password, true, true, true, true, cached.authorities);
+    }
+
+    /**
+     * 인증 주체 저장 (계정 활성화 상태 검증을 통과한 경우에만 호출)
+     */
+    public void put(String username, UserDetails userDetails) {
+        if (ttlMillis == 0 || username == null || userDetails == null) {
+            return;
+        }
+        cache.put(username, new CachedPrincipal(userDetails, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * 사용자 인증 주체 무효화
+     *
+     * @param username 사용자명 (이메일 또는 관리자 ID)
+     */
+    public void invalidate(String username) {
+        if (username != null && cache.remove(username) != null) {
+            invalidationCount.increment();
+            logger.debug("Principal cache invalidated: {}", username);
+        }
+    }
+
+    /**
+     * 전체 무효화 (사용자명을 알 수 없는 변경 시)
+     */
+    public void invalidateAll() {
+        cache.clear();
+        invalidationCount.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("ttlSeconds", ttlMillis / 1000L);
+        stats.put("hits", hitCount.sum());
+        stats.put("misses", missCount.sum());
+        stats.put("invalidations", invalidationCount.sum());
+        return stats;
+    }
+
+    private static final class CachedPrincipal {
+        private final String username;
+        private final String password;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        CachedPrincipal(UserDetails userDetails, long expiresAt) {
+            this.username = userDetails.getUsername();
+            this.password = userDetails.getPassword();
+            Collection<? extends GrantedAuthority> source = userDetails.getAuthorities();
+            this.authorities = Collections.unmodifiableList(new ArrayList<>(source));
+            this.expiresAt = expiresAt;
+        }
+    }
+}
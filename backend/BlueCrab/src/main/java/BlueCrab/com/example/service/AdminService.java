@@ -317,7 +317,7 @@ public class AdminService {
         }
 
         long expirationMillis = jwtUtil.getTokenExpiration(token);
-        tokenBlacklistService.addRefreshTokenToBlacklist(token, expirationMillis);
+        tokenBlacklistService.addRefreshTokenToBlacklist(token, expirationMillis, adminId);
 
         AdminJwtTokenBuilder.TokenPair newTokens = adminJwtTokenBuilder.buildTokenPair(admin);
         logger.info("Admin refresh token issued - adminId: {}", adminId);
@@ -288,7 +288,7 @@ public class AuthService {
                 try {
                     // AccessToken에서 만료 시간 추출
                     long accessTokenExpiration = jwtUtil.getTokenExpiration(accessToken);
-                    tokenBlacklistService.addAccessTokenToBlacklist(accessToken, accessTokenExpiration);
+                    tokenBlacklistService.addAccessTokenToBlacklist(accessToken, accessTokenExpiration, username);
                     logger.info("AccessToken 블랙리스트 추가 완료 - 사용자: {}", username);
                 } catch (Exception e) {
                     logger.warn("AccessToken 블랙리스트 추가 실패 - 사용자: {}, 오류: {}", username, e.getMessage());
@@ -306,7 +306,7 @@ public class AuthService {
                     if (jwtUtil.validateToken(refreshToken, refreshTokenUsername)) {
                         // RefreshToken 만료 시간 추출 및 블랙리스트 추가
                         long refreshTokenExpiration = jwtUtil.getTokenExpiration(refreshToken);
-                        tokenBlacklistService.addRefreshTokenToBlacklist(refreshToken, refreshTokenExpiration);
+                        tokenBlacklistService.addRefreshTokenToBlacklist(refreshToken, refreshTokenExpiration, username);
                         logger.info("RefreshToken 블랙리스트 추가 완료 - 사용자: {}", username);
                     } else {
                         logger.warn("RefreshToken이 유효하지 않음 - 사용자: {}", username);
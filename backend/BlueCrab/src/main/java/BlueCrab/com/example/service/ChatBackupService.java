@@ -0,0 +1,493 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import BlueCrab.com.example.service.support.ChatLogFormatter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 상담 채팅 MinIO 백업/아카이브 서비스
+ *
+ * 증분 백업:
+ * - 상담별 백업 위치(high-water mark)를 Redis(chat:backup:hwm:{requestIdx})에 보관
+ * - 백업 주기마다 위치 이후의 새 메시지만 세그먼트 객체로 업로드
+ *   ({tempPrefix}/chat_{requestIdx}_seg_{시작}-{끝}.txt, 메시지 블록만 포함)
+ * - 업로드 전 Lua 비교-갱신으로 구간을 선점하므로 여러 노드가 같은 구간을 중복 업로드하지 않음
+ * - 백업 위치 키가 없으면 업로드된 세그먼트 목록에서 복구
+ *
+ * 아카이브:
+ * - 세그먼트를 순서대로 이어 붙이고, 세그먼트에 없는 구간(누락/마지막 백업 이후)만 Redis에서 읽어 보충
+ * - 머리말 + 세그먼트 + 보충 구간 + 맺음말을 스트림으로 연결해 멀티파트 업로드 (전체 로그를 메모리에 만들지 않음)
+ */
+@Slf4j
+@Service
+public class ChatBackupService {
+
+    private static final String HIGH_WATER_MARK_KEY_PREFIX = "chat:backup:hwm:";
+    // 채팅 목록 TTL(36시간)보다 길게 유지
+    private static final long HIGH_WATER_MARK_TTL_HOURS = 48;
+    private static final int SEGMENT_MAX_MESSAGES = 1000;
+    private static final int ARCHIVE_READ_CHUNK = 500;
+
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("_seg_(\\d+)-(\\d+)\\.txt$");
+    private static final DateTimeFormatter SNAPSHOT_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    /* 백업 구간 선점: 현재 위치가 예상 값일 때만 갱신
+     * KEYS[1]=백업 위치 키, ARGV=[예상 위치, 새 위치, TTL(초)]
+     */
+    private static final DefaultRedisScript<Long> ADVANCE_SCRIPT = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) or '0' " +
+        "if current ~= ARGV[1] then return 0 end " +
+        "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+        "return 1",
+        Long.class);
+
+    private final ChatService chatService;
+    private final MinIOService minIOService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String chatBucket;
+    private final String tempPrefix;
+
+    private final AtomicLong totalSegments = new AtomicLong();
+    private final AtomicLong totalBackedUpMessages = new AtomicLong();
+    private final AtomicLong totalUploadedBytes = new AtomicLong();
+    private final AtomicLong totalBackupFailures = new AtomicLong();
+    private final AtomicLong totalArchives = new AtomicLong();
+    private final AtomicLong totalArchiveSegmentsReused = new AtomicLong();
+    private final AtomicLong totalArchiveMessagesFromRedis = new AtomicLong();
+    private final AtomicLong totalArchiveMissingMessages = new AtomicLong();
+
+    public ChatBackupService(ChatService chatService,
+                             MinIOService minIOService,
+                             StringRedisTemplate stringRedisTemplate,
+                             @Value("${app.chat.minio.bucket:consultation-chats}") String chatBucket,
+                             @Value("${app.chat.minio.temp-prefix:temp}") String tempPrefix) {
+        this.chatService = chatService;
+        this.minIOService = minIOService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.chatBucket = chatBucket;
+        this.tempPrefix = normalizePrefix(tempPrefix);
+    }
+
+    /**
+     * 마지막 백업 이후의 새 메시지만 세그먼트로 업로드
+     *
+     * @return 이번에 백업한 메시지 수
+     */
+    public int backupIncremental(Long requestIdx) throws Exception {
+        long total = chatService.getMessageCount(requestIdx);
+        if (total == 0) {
+            return 0;
+        }
+
+        long highWaterMark = readHighWaterMark(requestIdx);
+        if (total < highWaterMark) {
+            log.warn("채팅 증분 백업 생략 - 메시지 수가 백업 위치보다 적음: requestIdx={}, count={}, backedUp={}",
+                    requestIdx, total, highWaterMark);
+            return 0;
+        }
+
+        int backedUp = 0;
+        while (highWaterMark < total) {
+            long end = Math.min(total, highWaterMark + SEGMENT_MAX_MESSAGES);
+            if (!advanceHighWaterMark(requestIdx, highWaterMark, end)) {
+                log.debug("다른 노드가 백업 중인 구간 - requestIdx={}, from={}", requestIdx, highWaterMark);
+                break;
+            }
+
+            try {
+                uploadSegment(requestIdx, highWaterMark, end);
+            } catch (Exception e) {
+                totalBackupFailures.incrementAndGet();
+                releaseHighWaterMark(requestIdx, end, highWaterMark);
+                throw e;
+            }
+
+            backedUp += (int) (end - highWaterMark);
+            highWaterMark = end;
+        }
+
+        if (backedUp > 0) {
+            log.debug("채팅 증분 백업 완료 - requestIdx={}, messages={}, backedUpTo={}",
+                    requestIdx, backedUp, highWaterMark);
+        }
+        return backedUp;
+    }
+
+    /**
+     * 전체 스냅샷 백업 (이전 스냅샷 삭제 후 전체 로그 업로드)
+     *
+     * @return 백업한 메시지 수
+     */
+    public int backupSnapshot(Long requestIdx) throws Exception {
+        long total = chatService.getMessageCount(requestIdx);
+        if (total == 0) {
+            log.debug("메시지 없음으로 백업 생략 - requestIdx={}", requestIdx);
+            return 0;
+        }
+
+        deleteObjects(requestIdx, buildSnapshotPrefix(requestIdx));
+
+        String objectName = buildSnapshotPrefix(requestIdx) + LocalDateTime.now().format(SNAPSHOT_FORMATTER) + ".txt";
+        try (CountingInputStream inputStream = new CountingInputStream(chatService.openChatLogStream(requestIdx))) {
+            minIOService.uploadChatLogStream(chatBucket, objectName, inputStream);
+            totalUploadedBytes.addAndGet(inputStream.getCount());
+        } catch (Exception e) {
+            totalBackupFailures.incrementAndGet();
+            throw e;
+        }
+        return (int) total;
+    }
+
+    /**
+     * 최종 아카이브 작성 (세그먼트 병합 + Redis 보충)
+     *
+     * @param archiveObjectName 아카이브 객체 이름
+     */
+    public void writeArchive(Long requestIdx, String archiveObjectName) throws Exception {
+        List<Segment> segments = listSegments(requestIdx);
+        long total = chatService.getMessageCount(requestIdx);
+
+        if (segments.isEmpty() && total == 0) {
+            byte[] bytes = ChatLogFormatter.EMPTY_LOG.getBytes(StandardCharsets.UTF_8);
+            try (ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes)) {
+                minIOService.uploadChatLog(chatBucket, archiveObjectName, inputStream, bytes.length);
+            }
+            totalArchives.incrementAndGet();
+            return;
+        }
+
+        List<ArchivePart> body = new ArrayList<>();
+        long covered = 0;
+        long fromRedis = 0;
+        long missing = 0;
+        int reused = 0;
+
+        for (Segment segment : segments) {
+            if (segment.start < covered) {
+                // 이미 반영된 구간과 겹치는 세그먼트 (백업 위치 복구 중 중복 업로드 등)
+                continue;
+            }
+            if (segment.start > covered) {
+                // 세그먼트 사이 누락 구간은 Redis에 남아 있는 만큼 보충
+                long available = Math.max(covered, Math.min(segment.start, total));
+                addRedisParts(body, requestIdx, covered, available);
+                fromRedis += available - covered;
+                missing += segment.start - available;
+            }
+            body.add(() -> minIOService.downloadChatLog(chatBucket, segment.objectName));
+            reused++;
+            covered = segment.end;
+        }
+        if (total > covered) {
+            addRedisParts(body, requestIdx, covered, total);
+            fromRedis += total - covered;
+        }
+        long messageCount = Math.max(covered, total) - missing;
+
+        if (missing > 0) {
+            log.warn("아카이브 누락 구간 - requestIdx={}, missing={}", requestIdx, missing);
+        }
+
+        List<ArchivePart> parts = new ArrayList<>(body.size() + 2);
+        parts.add(() -> toStream(ChatLogFormatter.header(requestIdx, messageCount)));
+        parts.addAll(body);
+        parts.add(() -> toStream(ChatLogFormatter.footer()));
+
+        try (InputStream inputStream = new SequenceInputStream(new ArchivePartEnumeration(parts.iterator()))) {
+            minIOService.uploadChatLogStream(chatBucket, archiveObjectName, inputStream);
+        }
+
+        totalArchives.incrementAndGet();
+        totalArchiveSegmentsReused.addAndGet(reused);
+        totalArchiveMessagesFromRedis.addAndGet(fromRedis);
+        totalArchiveMissingMessages.addAndGet(missing);
+        log.info("채팅 아카이브 병합 완료 - requestIdx={}, messages={}, segments={}, fromRedis={}",
+                requestIdx, messageCount, reused, fromRedis);
+    }
+
+    /**
+     * 임시 백업(세그먼트/스냅샷)과 백업 위치 정리
+     */
+    public void clearBackups(Long requestIdx) {
+        int deleted = deleteObjects(requestIdx, buildSegmentPrefix(requestIdx))
+            + deleteObjects(requestIdx, buildSnapshotPrefix(requestIdx));
+
+        try {
+            stringRedisTemplate.delete(HIGH_WATER_MARK_KEY_PREFIX + requestIdx);
+        } catch (Exception e) {
+            log.warn("채팅 백업 위치 삭제 실패 - requestIdx={}, error={}", requestIdx, e.getMessage());
+        }
+
+        if (deleted > 0) {
+            log.info("임시 백업 정리 완료: requestIdx={}, deleted={}", requestIdx, deleted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("segmentsUploaded", totalSegments.get());
+        stats.put("messagesBackedUp", totalBackedUpMessages.get());
+        stats.put("bytesUploaded", totalUploadedBytes.get());
+        stats.put("backupFailures", totalBackupFailures.get());
+        stats.put("archives", totalArchives.get());
+        stats.put("archiveSegmentsReused", totalArchiveSegmentsReused.get());
+        stats.put("archiveMessagesFromRedis", totalArchiveMessagesFromRedis.get());
+        stats.put("archiveMissingMessages", totalArchiveMissingMessages.get());
+        return stats;
+    }
+
+    private void uploadSegment(Long requestIdx, long start, long end) throws Exception {
+        List<ChatMessageDto> messages = chatService.getMessageRange(requestIdx, start, end - 1);
+        if (messages.size() != end - start) {
+            throw new IllegalStateException("백업 구간 메시지 수 불일치: expected=" + (end - start) + ", actual=" + messages.size());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (ChatMessageDto message : messages) {
+            sb.append(ChatLogFormatter.message(message));
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes)) {
+            minIOService.uploadChatLog(chatBucket, buildSegmentObjectName(requestIdx, start, end), inputStream, bytes.length);
+        }
+
+        totalSegments.incrementAndGet();
+        totalBackedUpMessages.addAndGet(messages.size());
+        totalUploadedBytes.addAndGet(bytes.length);
+    }
+
+    private long readHighWaterMark(Long requestIdx) throws Exception {
+        String key = HIGH_WATER_MARK_KEY_PREFIX + requestIdx;
+        String value = stringRedisTemplate.opsForValue().get(key);
+        if (value == null) {
+            // 첫 백업이거나 키가 유실된 경우 업로드된 세그먼트에서 연속 구간 끝을 복구
+            long recovered = contiguousEnd(listSegments(requestIdx));
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(recovered),
+                    HIGH_WATER_MARK_TTL_HOURS, TimeUnit.HOURS);
+            value = stringRedisTemplate.opsForValue().get(key);
+        }
+
+        try {
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (NumberFormatException e) {
+            log.warn("채팅 백업 위치 값 오류 - requestIdx={}, value={}", requestIdx, value);
+            return 0L;
+        }
+    }
+
+    private boolean advanceHighWaterMark(Long requestIdx, long expected, long next) {
+        Long updated = stringRedisTemplate.execute(ADVANCE_SCRIPT,
+            Collections.singletonList(HIGH_WATER_MARK_KEY_PREFIX + requestIdx),
+            String.valueOf(expected),
+            String.valueOf(next),
+            String.valueOf(TimeUnit.HOURS.toSeconds(HIGH_WATER_MARK_TTL_HOURS)));
+        return updated != null && updated == 1L;
+    }
+
+    private void releaseHighWaterMark(Long requestIdx, long claimed, long previous) {
+        try {
+            advanceHighWaterMark(requestIdx, claimed, previous);
+        } catch (Exception e) {
+            // 반납 실패 시 해당 구간은 아카이브 시 Redis에서 보충됨
+            log.warn("채팅 백업 구간 반납 실패 - requestIdx={}, error={}", requestIdx, e.getMessage());
+        }
+    }
+
+    private List<Segment> listSegments(Long requestIdx) throws Exception {
+        List<Segment> segments = new ArrayList<>();
+        for (String objectName : minIOService.listObjects(chatBucket, buildSegmentPrefix(requestIdx))) {
+            Matcher matcher = SEGMENT_PATTERN.matcher(objectName);
+            if (matcher.find()) {
+                segments.add(new Segment(objectName, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))));
+            }
+        }
+        // 시작 위치 오름차순, 같은 시작이면 더 긴 세그먼트 우선
+        segments.sort(Comparator.comparingLong((Segment segment) -> segment.start)
+            .thenComparing(Comparator.comparingLong((Segment segment) -> segment.end).reversed()));
+        return segments;
+    }
+
+    private long contiguousEnd(List<Segment> segments) {
+        long covered = 0;
+        for (Segment segment : segments) {
+            if (segment.start == covered) {
+                covered = segment.end;
+            }
+        }
+        return covered;
+    }
+
+    private void addRedisParts(List<ArchivePart> parts, Long requestIdx, long start, long end) {
+        for (long from = start; from < end; from += ARCHIVE_READ_CHUNK) {
+            final long chunkStart = from;
+            final long chunkEnd = Math.min(end, from + ARCHIVE_READ_CHUNK);
+            parts.add(() -> {
+                StringBuilder sb = new StringBuilder();
+                for (ChatMessageDto message : chatService.getMessageRange(requestIdx, chunkStart, chunkEnd - 1)) {
+                    sb.append(ChatLogFormatter.message(message));
+                }
+                return toStream(sb.toString());
+            });
+        }
+    }
+
+    private int deleteObjects(Long requestIdx, String prefix) {
+        int deleted = 0;
+        try {
+            for (String objectName : minIOService.listObjects(chatBucket, prefix)) {
+                minIOService.deleteObject(chatBucket, objectName);
+                deleted++;
+            }
+        } catch (Exception e) {
+            log.warn("임시 백업 삭제 실패 - requestIdx={}, prefix={}, error={}", requestIdx, prefix, e.getMessage());
+        }
+        return deleted;
+    }
+
+    private InputStream toStream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String buildSegmentObjectName(Long requestIdx, long start, long end) {
+        // 이름 정렬이 구간 순서와 같도록 자릿수 고정
+        return buildSegmentPrefix(requestIdx) + String.format("%010d-%010d.txt", start, end);
+    }
+
+    private String buildSegmentPrefix(Long requestIdx) {
+        String base = "chat_" + requestIdx + "_seg_";
+        return tempPrefix.isEmpty() ? base : tempPrefix + "/" + base;
+    }
+
+    private String buildSnapshotPrefix(Long requestIdx) {
+        String base = "chat_" + requestIdx + "_snapshot_";
+        return tempPrefix.isEmpty() ? base : tempPrefix + "/" + base;
+    }
+
+    private String normalizePrefix(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+
+        String normalized = prefix.trim();
+        if (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        if (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 아카이브 구성 요소 (열 때 읽기 시작)
+     */
+    @FunctionalInterface
+    private interface ArchivePart {
+        InputStream open() throws Exception;
+    }
+
+    /**
+     * 구성 요소를 차례대로 여는 열거자 (동시에 열린 스트림은 하나)
+     */
+    private static final class ArchivePartEnumeration implements Enumeration<InputStream> {
+        private final Iterator<ArchivePart> iterator;
+
+        ArchivePartEnumeration(Iterator<ArchivePart> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public InputStream nextElement() {
+            try {
+                return iterator.next().open();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("아카이브 구성 요소를 읽지 못했습니다: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 크기를 미리 알 수 없는 스트림 업로드의 전송 바이트 집계
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static final class Segment {
+        private final String objectName;
+        private final long start;
+        private final long end;
+
+        Segment(String objectName, long start, long end) {
+            this.objectName = objectName;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import BlueCrab.com.example.service.support.ChatMessageCodec;
+import BlueCrab.com.example.service.support.CompactChatMessageCodec;
+import BlueCrab.com.example.service.support.JsonChatMessageCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis 채팅 메시지 직렬화 (형식 선택 + 버전별 읽기)
+ *
+ * 기록 형식 (app.chat.message-codec):
+ * - json: 기존 JSON 문자열
+ * - compact: 압축 바이너리 (CompactChatMessageCodec)
+ *
+ * 읽기는 항목의 첫 바이트로 형식을 판별하므로 기존 JSON 항목과 새 형식 항목이 한 목록에 섞여 있어도 된다.
+ * 채팅 목록은 상담 종료 시 삭제되고 최대 36시간 유지되므로 별도 일괄 변환 없이 자연스럽게 교체된다.
+ * (다중 노드 환경에서는 모든 노드에 이 버전을 배포한 뒤 compact로 전환)
+ */
+@Slf4j
+@Component
+public class ChatMessageSerializer {
+
+    private final ChatMessageCodec writeCodec;
+    private final List<ChatMessageCodec> readCodecs;
+
+    private final LongAdder encodedCount = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private final Map<String, LongAdder> decodedCounts = new HashMap<>();
+
+    public ChatMessageSerializer(@Value("${app.chat.message-codec:json}") String codecName) {
+        ChatMessageCodec json = new JsonChatMessageCodec();
+        ChatMessageCodec compact = new CompactChatMessageCodec();
+        this.readCodecs = Arrays.asList(compact, json);
+        for (ChatMessageCodec codec : readCodecs) {
+            decodedCounts.put(codec.getName(), new LongAdder());
+        }
+
+        if (CompactChatMessageCodec.NAME.equalsIgnoreCase(codecName)) {
+            this.writeCodec = compact;
+        } else {
+            if (!JsonChatMessageCodec.NAME.equalsIgnoreCase(codecName)) {
+                log.warn("알 수 없는 채팅 메시지 형식 '{}', json으로 기록합니다.", codecName);
+            }
+            this.writeCodec = json;
+        }
+        log.info("채팅 메시지 기록 형식: {}", writeCodec.getName());
+    }
+
+    public byte[] encode(ChatMessageDto message) {
+        byte[] data = writeCodec.encode(message);
+        encodedCount.increment();
+        encodedBytes.add(data.length);
+        return data;
+    }
+
+    /**
+     * 형식을 판별하여 복원
+     *
+     * @param requestIdx 항목을 읽은 목록의 상담 ID
+     */
+    public ChatMessageDto decode(Long requestIdx, byte[] data) {
+        for (ChatMessageCodec codec : readCodecs) {
+            if (codec.supports(data)) {
+                ChatMessageDto message = codec.decode(requestIdx, data);
+                decodedCounts.get(codec.getName()).increment();
+                return message;
+            }
+        }
+        throw new IllegalStateException("알 수 없는 채팅 메시지 형식입니다: requestIdx=" + requestIdx);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long count = encodedCount.sum();
+        long bytes = encodedBytes.sum();
+        stats.put("writeCodec", writeCodec.getName());
+        stats.put("encoded", count);
+        stats.put("encodedBytes", bytes);
+        stats.put("averageEncodedBytes", count > 0 ? Math.round(bytes * 10.0 / count) / 10.0 : 0.0);
+        decodedCounts.forEach((name, adder) -> stats.put("decoded." + name, adder.sum()));
+        return stats;
+    }
+}
@@ -0,0 +1,350 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.entity.ConsultationRequest;
+import BlueCrab.com.example.entity.UserTbl;
+import BlueCrab.com.example.enums.ConsultationStatus;
+import BlueCrab.com.example.enums.RequestStatus;
+import BlueCrab.com.example.repository.ConsultationRequestRepository;
+import BlueCrab.com.example.repository.UserTblRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 상담 채팅방 컨텍스트 캐시
+ * 메시지마다 상담/사용자 테이블을 조회하지 않도록 참여자, 표시 이름, 상태를 보관
+ *
+ * 저장 위치 (app.chat.context.shared):
+ * - false: 서버 인스턴스별 로컬 캐시 (LRU + TTL)
+ * - true: Redis HASH(chat:room:ctx:{requestIdx})를 공유 저장소로 사용
+ *   (다중 노드에서 상태 변경이 즉시 반영되도록 로컬 계층은 사용하지 않음)
+ *
+ * 특징:
+ * - 채팅방 최초 접근 시 1회 로드 (상담 1건 + 참여자 이름 2건)
+ * - 상담 상태 변경(승인/반려/취소/시작/종료) 시 트랜잭션 커밋 후 무효화
+ * - 캐시 조회/로드 실패 시 DB 직접 조회로 대체
+ */
+@Slf4j
+@Component
+public class ChatRoomContextCache {
+
+    private static final String REDIS_KEY_PREFIX = "chat:room:ctx:";
+    private static final String UNKNOWN_NAME = "알 수 없음";
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ConsultationRequestRepository consultationRequestRepository;
+    private final UserTblRepository userTblRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final boolean shared;
+    private final long ttlMillis;
+    private final Map<Long, CachedContext> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public ChatRoomContextCache(ConsultationRequestRepository consultationRequestRepository,
+                                UserTblRepository userTblRepository,
+                                StringRedisTemplate stringRedisTemplate,
+                                @Value("${app.chat.context.shared:false}") boolean shared,
+                                @Value("${app.chat.context.ttl-seconds:600}") long ttlSeconds,
+                                @Value("${app.chat.context.max-entries:2000}") int maxEntries) {
+        this.consultationRequestRepository = consultationRequestRepository;
+        this.userTblRepository = userTblRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.shared = shared;
+        this.ttlMillis = Math.max(1L, ttlSeconds) * 1000L;
+        final int capacity = Math.max(1, maxEntries);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Long, CachedContext>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedContext> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * 채팅방 컨텍스트 조회
+     *
+     * @param requestIdx 상담 요청 ID
+     * @return 컨텍스트, 상담이 없으면 null
+     */
+    public RoomContext get(Long requestIdx) {
+        if (requestIdx == null) {
+            return null;
+        }
+
+        RoomContext context = shared ? readShared(requestIdx) : readLocal(requestIdx);
+        if (context != null) {
+            hitCount.increment();
+            return context;
+        }
+
+        missCount.increment();
+        context = load(requestIdx);
+        if (context != null) {
+            store(context);
+        }
+        return context;
+    }
+
+    /**
+     * 채팅방 컨텍스트 무효화
+     * 트랜잭션 내에서 호출되면 커밋 이후에 무효화하여 이전 상태가 다시 적재되지 않도록 함
+     */
+    public void invalidate(Long requestIdx) {
+        if (requestIdx == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(requestIdx);
+                }
+            });
+        }
+        evict(requestIdx);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("shared", shared);
+        stats.put("size", cache.size());
+        stats.put("ttlSeconds", ttlMillis / 1000L);
+        stats.put("hits", hitCount.sum());
+        stats.put("misses", missCount.sum());
+        stats.put("invalidations", invalidationCount.sum());
+        return stats;
+    }
+
+    private void evict(Long requestIdx) {
+        cache.remove(requestIdx);
+        if (shared) {
+            try {
+                stringRedisTemplate.delete(REDIS_KEY_PREFIX + requestIdx);
+            } catch (Exception e) {
+                log.warn("채팅방 컨텍스트 Redis 무효화 실패: requestIdx={}, error={}", requestIdx, e.getMessage());
+            }
+        }
+        invalidationCount.increment();
+    }
+
+    private RoomContext readLocal(Long requestIdx) {
+        CachedContext cached = cache.get(requestIdx);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt < System.currentTimeMillis()) {
+            cache.remove(requestIdx, cached);
+            return null;
+        }
+        return cached.context;
+    }
+
+    private RoomContext readShared(Long requestIdx) {
+        try {
+            Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(REDIS_KEY_PREFIX + requestIdx);
+            if (fields == null || fields.isEmpty()) {
+                return null;
+            }
+            return RoomContext.fromFields(requestIdx, fields);
+        } catch (Exception e) {
+            log.warn("채팅방 컨텍스트 Redis 조회 실패: requestIdx={}, error={}", requestIdx, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(RoomContext context) {
+        if (!shared) {
+            cache.put(context.getRequestIdx(), new CachedContext(context, System.currentTimeMillis() + ttlMillis));
+            return;
+        }
+
+        try {
+            String key = REDIS_KEY_PREFIX + context.getRequestIdx();
+            stringRedisTemplate.opsForHash().putAll(key, context.toFields());
+            stringRedisTemplate.expire(key, ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("채팅방 컨텍스트 Redis 저장 실패: requestIdx={}, error={}", context.getRequestIdx(), e.getMessage());
+        }
+    }
+
+    private RoomContext load(Long requestIdx) {
+        ConsultationRequest consultation = consultationRequestRepository.findById(requestIdx).orElse(null);
+        if (consultation == null) {
+            return null;
+        }
+
+        return new RoomContext(
+            requestIdx,
+            consultation.getRequesterUserCode(),
+            consultation.getRecipientUserCode(),
+            resolveUserName(consultation.getRequesterUserCode()),
+            resolveUserName(consultation.getRecipientUserCode()),
+            consultation.getRequestStatus(),
+            consultation.getConsultationStatus(),
+            consultation.getDesiredDate(),
+            consultation.getStartedAt()
+        );
+    }
+
+    private String resolveUserName(String userCode) {
+        if (userCode == null) {
+            return UNKNOWN_NAME;
+        }
+        try {
+            return userTblRepository.findByUserCode(userCode)
+                .map(UserTbl::getUserName)
+                .orElse(UNKNOWN_NAME);
+        } catch (Exception e) {
+            log.warn("사용자 이름 조회 실패: userCode={}", userCode);
+            return UNKNOWN_NAME;
+        }
+    }
+
+    private static final class CachedContext {
+        private final RoomContext context;
+        private final long expiresAt;
+
+        CachedContext(RoomContext context, long expiresAt) {
+            this.context = context;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 채팅방 컨텍스트 (불변)
+     */
+    public static final class RoomContext {
+        private final Long requestIdx;
+        private final String requesterUserCode;
+        private final String recipientUserCode;
+        private final String requesterName;
+        private final String recipientName;
+        private final String requestStatus;
+        private final String consultationStatus;
+        private final LocalDateTime desiredDate;
+        private final LocalDateTime startedAt;
+
+        RoomContext(Long requestIdx, String requesterUserCode, String recipientUserCode,
+                    String requesterName, String recipientName,
+                    String requestStatus, String consultationStatus,
+                    LocalDateTime desiredDate, LocalDateTime startedAt) {
+            this.requestIdx = requestIdx;
+            this.requesterUserCode = requesterUserCode;
+            this.recipientUserCode = recipientUserCode;
+            this.requesterName = requesterName;
+            this.recipientName = recipientName;
+            this.requestStatus = requestStatus;
+            this.consultationStatus = consultationStatus;
+            this.desiredDate = desiredDate;
+            this.startedAt = startedAt;
+        }
+
+        public Long getRequestIdx() {
+            return requestIdx;
+        }
+
+        public String getRequesterUserCode() {
+            return requesterUserCode;
+        }
+
+        public String getRecipientUserCode() {
+            return recipientUserCode;
+        }
+
+        public RequestStatus getRequestStatusEnum() {
+            return requestStatus != null ? RequestStatus.fromDbValue(requestStatus) : null;
+        }
+
+        public ConsultationStatus getConsultationStatusEnum() {
+            return consultationStatus != null ? ConsultationStatus.fromDbValue(consultationStatus) : null;
+        }
+
+        public LocalDateTime getDesiredDate() {
+            return desiredDate;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public boolean isParticipant(String userCode) {
+            return userCode != null && (userCode.equals(requesterUserCode) || userCode.equals(recipientUserCode));
+        }
+
+        /**
+         * 상대방 userCode (요청자면 수신자, 아니면 요청자)
+         */
+        public String getPartnerUserCode(String userCode) {
+            return requesterUserCode != null && requesterUserCode.equals(userCode)
+                ? recipientUserCode
+                : requesterUserCode;
+        }
+
+        public String getDisplayName(String userCode) {
+            if (userCode == null) {
+                return UNKNOWN_NAME;
+            }
+            if (userCode.equals(requesterUserCode)) {
+                return requesterName;
+            }
+            if (userCode.equals(recipientUserCode)) {
+                return recipientName;
+            }
+            return UNKNOWN_NAME;
+        }
+
+        Map<String, String> toFields() {
+            Map<String, String> fields = new HashMap<>();
+            putIfNotNull(fields, "requesterUserCode", requesterUserCode);
+            putIfNotNull(fields, "recipientUserCode", recipientUserCode);
+            putIfNotNull(fields, "requesterName", requesterName);
+            putIfNotNull(fields, "recipientName", recipientName);
+            putIfNotNull(fields, "requestStatus", requestStatus);
+            putIfNotNull(fields, "consultationStatus", consultationStatus);
+            putIfNotNull(fields, "desiredDate", desiredDate != null ? desiredDate.format(ISO_FORMATTER) : null);
+            putIfNotNull(fields, "startedAt", startedAt != null ? startedAt.format(ISO_FORMATTER) : null);
+            return fields;
+        }
+
+        static RoomContext fromFields(Long requestIdx, Map<Object, Object> fields) {
+            return new RoomContext(
+                requestIdx,
+                (String) fields.get("requesterUserCode"),
+                (String) fields.get("recipientUserCode"),
+                (String) fields.getOrDefault("requesterName", UNKNOWN_NAME),
+                (String) fields.getOrDefault("recipientName", UNKNOWN_NAME),
+                (String) fields.get("requestStatus"),
+                (String) fields.get("consultationStatus"),
+                parseDateTime((String) fields.get("desiredDate")),
+                parseDateTime((String) fields.get("startedAt"))
+            );
+        }
+
+        private static void putIfNotNull(Map<String, String> fields, String name, String value) {
+            if (value != null) {
+                fields.put(name, value);
+            }
+        }
+
+        private static LocalDateTime parseDateTime(String value) {
+            return value != null ? LocalDateTime.parse(value, ISO_FORMATTER) : null;
+        }
+    }
+}
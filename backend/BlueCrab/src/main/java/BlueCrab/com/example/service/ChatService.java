@@ -1,7 +1,9 @@
 package BlueCrab.com.example.service;
 
 import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import BlueCrab.com.example.dto.Consultation.ChatMessagePageDto;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -42,6 +44,28 @@ public interface ChatService {
      */
     List<ChatMessageDto> getAllMessages(Long requestIdx);
 
+    /**
+     * 특정 상담의 메시지 구간 조회 (LRANGE start end)
+     * 메시지 목록은 추가만 되므로 인덱스가 메시지 순번과 같다.
+     * 
+     * @param requestIdx 상담 요청 ID
+     * @param start 시작 인덱스 (포함)
+     * @param end 끝 인덱스 (포함)
+     * @return 구간 내 채팅 메시지 목록
+     */
+    List<ChatMessageDto> getMessageRange(Long requestIdx, long start, long end);
+
+    /**
+     * 커서 기반 메시지 페이지 조회
+     * before 인덱스 직전까지 최대 size개를 오래된 순으로 반환합니다.
+     * 
+     * @param requestIdx 상담 요청 ID
+     * @param beforeIndex 커서 (이 인덱스 미만의 메시지 조회, null이면 최신 메시지부터)
+     * @param size 페이지 크기
+     * @return 메시지 페이지 (nextCursor로 이전 메시지 조회)
+     */
+    ChatMessagePageDto getMessagesBefore(Long requestIdx, Long beforeIndex, int size);
+
     /**
      * 특정 상담의 메시지 개수 조회
      * 
@@ -76,11 +100,11 @@ public interface ChatService {
     void deleteMessages(Long requestIdx);
 
     /**
-     * 채팅 로그를 텍스트 파일 형식으로 포맷팅
-     * MinIO 저장 전 텍스트 파일 생성에 사용
+     * 채팅 로그를 텍스트 스트림으로 제공
+     * 메시지를 구간 단위로 읽으면서 포맷하므로 대화 길이와 무관하게 메모리 사용량이 일정합니다.
      * 
      * @param requestIdx 상담 요청 ID
-     * @return 포맷된 채팅 로그 텍스트
+     * @return 포맷된 채팅 로그 스트림
      */
-    String formatChatLog(Long requestIdx);
+    InputStream openChatLogStream(Long requestIdx);
 }
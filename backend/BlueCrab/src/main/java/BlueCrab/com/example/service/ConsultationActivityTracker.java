@@ -0,0 +1,142 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.repository.ConsultationRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상담 마지막 활동 시간(lastActivityAt) 지연 반영(write-behind)
+ *
+ * 채팅 메시지마다 CONSULTATION_REQUEST_TBL을 UPDATE하지 않고 상담별 최신 시각만 메모리에 기록한 뒤
+ * 주기적으로 한 트랜잭션에서 일괄 반영한다. (메시지 수와 무관하게 주기당 활성 상담 수만큼만 UPDATE)
+ *
+ * 특징:
+ * - 반영 UPDATE는 DB 값보다 최신일 때만 적용되므로 다중 노드가 각자 반영해도 안전
+ * - 비활성 자동 종료 등 lastActivityAt을 판단하는 쪽은 반영 전 flush() 또는 resolve()로 최신 값 사용
+ * - 반영 실패 시 다음 주기에 재시도, 애플리케이션 종료 시 남은 값 반영
+ */
+@Slf4j
+@Component
+public class ConsultationActivityTracker {
+
+    private final ConsultationRequestRepository consultationRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalRecorded = new AtomicLong();
+    private final AtomicLong totalFlushes = new AtomicLong();
+    private final AtomicLong totalStatements = new AtomicLong();
+    private final AtomicLong totalUpdatedRows = new AtomicLong();
+    private final AtomicLong totalFailures = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+
+    public ConsultationActivityTracker(ConsultationRequestRepository consultationRequestRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.consultationRequestRepository = consultationRequestRepository;
+        // 호출자 트랜잭션 결과와 무관하게 반영 (호출자 롤백 시 기록이 유실되지 않도록)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 활동 시각 기록 (DB 반영은 다음 flush 주기)
+     */
+    public void record(Long requestIdx, LocalDateTime activityAt) {
+        if (requestIdx == null || activityAt == null) {
+            return;
+        }
+        pending.merge(requestIdx, activityAt, (current, next) -> next.isAfter(current) ? next : current);
+        totalRecorded.incrementAndGet();
+    }
+
+    /**
+     * 아직 반영되지 않은 기록을 포함한 최신 활동 시각
+     *
+     * @param persisted DB에 저장된 값
+     */
+    public LocalDateTime resolve(Long requestIdx, LocalDateTime persisted) {
+        LocalDateTime buffered = requestIdx != null ? pending.get(requestIdx) : null;
+        if (buffered == null) {
+            return persisted;
+        }
+        return persisted == null || buffered.isAfter(persisted) ? buffered : persisted;
+    }
+
+    /**
+     * 대기 중인 활동 시각 일괄 반영
+     *
+     * @return 갱신된 행 수
+     */
+    @Scheduled(fixedDelayString = "${app.chat.activity.flush-interval-ms:30000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // 반영 도중 새로 기록된 값은 remove(key, value)가 실패하여 다음 주기에 반영됨
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Map.Entry<Long, LocalDateTime> entry : new ArrayList<>(pending.entrySet())) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = 0;
+                for (Map.Entry<Long, LocalDateTime> entry : batch.entrySet()) {
+                    rows += consultationRequestRepository.updateLastActivityIfNewer(entry.getKey(), entry.getValue(), now);
+                }
+                return rows;
+            });
+
+            int rows = updated != null ? updated : 0;
+            totalFlushes.incrementAndGet();
+            totalStatements.addAndGet(batch.size());
+            totalUpdatedRows.addAndGet(rows);
+            lastFlushAt = now;
+            log.debug("상담 활동 시간 반영 완료: 대상 {}건, 갱신 {}건", batch.size(), rows);
+            return rows;
+        } catch (Exception e) {
+            totalFailures.incrementAndGet();
+            batch.forEach((requestIdx, activityAt) ->
+                pending.merge(requestIdx, activityAt, (current, next) -> next.isAfter(current) ? next : current));
+            log.warn("상담 활동 시간 반영 실패 ({}건, 다음 주기에 재시도): {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("totalRecorded", totalRecorded.get());
+        stats.put("totalFlushes", totalFlushes.get());
+        stats.put("totalStatements", totalStatements.get());
+        stats.put("totalUpdatedRows", totalUpdatedRows.get());
+        stats.put("totalFailures", totalFailures.get());
+        stats.put("lastFlushAt", lastFlushAt != null ? lastFlushAt.toString() : null);
+        return stats;
+    }
+}
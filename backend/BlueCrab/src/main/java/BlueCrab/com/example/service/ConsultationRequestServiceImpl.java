@@ -19,8 +19,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -51,29 +49,32 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
     private final ConsultationRequestRepository consultationRepository;
     private final UserTblRepository userRepository;
     private final ChatService chatService;
-    private final MinIOService minIOService;
+    private final ChatBackupService chatBackupService;
     private final ChatNotificationService chatNotificationService;
+    private final ChatRoomContextCache chatRoomContextCache;
+    private final ConsultationActivityTracker consultationActivityTracker;
     private final String chatBucket;
-    private final String tempPrefix;
     private final String archivePrefix;
 
     public ConsultationRequestServiceImpl(
         ConsultationRequestRepository consultationRepository,
         UserTblRepository userRepository,
         ChatService chatService,
-        MinIOService minIOService,
+        ChatBackupService chatBackupService,
         ObjectProvider<ChatNotificationService> chatNotificationServiceProvider,
+        ChatRoomContextCache chatRoomContextCache,
+        ConsultationActivityTracker consultationActivityTracker,
         @Value("${app.chat.minio.bucket:consultation-chats}") String chatBucket,
-        @Value("${app.chat.minio.temp-prefix:temp}") String tempPrefix,
         @Value("${app.chat.minio.archive-prefix:archive}") String archivePrefix
     ) {
         this.consultationRepository = consultationRepository;
         this.userRepository = userRepository;
         this.chatService = chatService;
-        this.minIOService = minIOService;
+        this.chatBackupService = chatBackupService;
         this.chatNotificationService = chatNotificationServiceProvider.getIfAvailable();
+        this.chatRoomContextCache = chatRoomContextCache;
+        this.consultationActivityTracker = consultationActivityTracker;
         this.chatBucket = chatBucket;
-        this.tempPrefix = normalizePrefix(tempPrefix);
         this.archivePrefix = normalizePrefix(archivePrefix);
     }
 
@@ -191,6 +192,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
                 saved = consultationRepository.save(consultation);
                 break;
         }
+        chatRoomContextCache.invalidate(saved.getRequestIdx());
         return toDto(saved);
     }
 
@@ -274,6 +276,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
             consultation.setStatusChangedAt(LocalDateTime.now());
 
             ConsultationRequest saved = consultationRepository.save(consultation);
+            chatRoomContextCache.invalidate(saved.getRequestIdx());
 
             log.info("상담 요청 승인 완료: requestIdx={}", saved.getRequestIdx());
 
@@ -318,6 +321,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
             consultation.setStatusChangedAt(LocalDateTime.now());
 
             ConsultationRequest saved = consultationRepository.save(consultation);
+            chatRoomContextCache.invalidate(saved.getRequestIdx());
 
             log.info("상담 요청 반려 완료: requestIdx={}", saved.getRequestIdx());
 
@@ -371,6 +375,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
             }
 
             ConsultationRequest saved = consultationRepository.save(consultation);
+            chatRoomContextCache.invalidate(saved.getRequestIdx());
 
             log.info("상담 요청 취소 완료: requestIdx={}", saved.getRequestIdx());
 
@@ -419,6 +424,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
             consultation.setStatusReason(null);
 
             ConsultationRequest saved = consultationRepository.save(consultation);
+            chatRoomContextCache.invalidate(saved.getRequestIdx());
 
             log.info("상담 시작 완료: requestIdx={}", saved.getRequestIdx());
 
@@ -657,7 +663,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
 
             consultationRepository.save(consultation);
 
-            LocalDateTime lastActivityAt = consultation.getLastActivityAt();
+            LocalDateTime lastActivityAt = consultationActivityTracker.resolve(requestIdx, consultation.getLastActivityAt());
             boolean allMessagesRead = lastActivityAt == null || !lastActivityAt.isAfter(now);
 
             ConsultationReadReceiptDto receipt = new ConsultationReadReceiptDto(
@@ -692,6 +698,9 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
         try {
             log.info("비활성 상담 자동 종료 시작");
 
+            // 메모리에 기록된 최신 활동 시간을 먼저 반영하여 대화 중인 상담이 종료되지 않도록 함
+            consultationActivityTracker.flush();
+
             LocalDateTime threshold = LocalDateTime.now().minusHours(2);
             List<ConsultationRequest> inactiveConsultations = consultationRepository
                 .findInactiveConsultations(threshold);
@@ -772,7 +781,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
         dto.setStartedAt(entity.getStartedAt());
         dto.setEndedAt(entity.getEndedAt());
         dto.setDurationMinutes(entity.getDurationMinutes());
-        dto.setLastActivityAt(entity.getLastActivityAt());
+        dto.setLastActivityAt(consultationActivityTracker.resolve(entity.getRequestIdx(), entity.getLastActivityAt()));
         dto.setCreatedAt(entity.getCreatedAt());
 
         // 사용자 이름 조회
@@ -867,6 +876,7 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
         }
 
         ConsultationRequest saved = consultationRepository.save(consultation);
+        chatRoomContextCache.invalidate(requestIdx);
 
         log.info("상담 종료 처리 완료: requestIdx={}, duration={}분",
                  saved.getRequestIdx(), saved.getDurationMinutes());
@@ -917,13 +927,9 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
     private void archiveChatLog(Long requestIdx) {
         String archiveObjectName = buildArchiveObjectName(requestIdx);
         try {
-            String chatLog = chatService.formatChatLog(requestIdx);
-            byte[] chatLogBytes = chatLog.getBytes(StandardCharsets.UTF_8);
-
-            try (ByteArrayInputStream inputStream = new ByteArrayInputStream(chatLogBytes)) {
-                minIOService.uploadChatLog(chatBucket, archiveObjectName, inputStream, chatLogBytes.length);
-                log.info("채팅 로그 아카이빙 완료: bucket={}, object={}", chatBucket, archiveObjectName);
-            }
+            // 증분 백업 세그먼트를 병합하고 마지막 백업 이후 메시지만 Redis에서 읽어 아카이브 작성
+            chatBackupService.writeArchive(requestIdx, archiveObjectName);
+            log.info("채팅 로그 아카이빙 완료: bucket={}, object={}", chatBucket, archiveObjectName);
 
             try {
                 chatService.deleteMessages(requestIdx);
@@ -933,48 +939,18 @@ public class ConsultationRequestServiceImpl implements ConsultationRequestServic
                          requestIdx, redisError.getMessage(), redisError);
             }
 
-            clearTempSnapshots(requestIdx);
+            chatBackupService.clearBackups(requestIdx);
         } catch (Exception e) {
             log.error("채팅 로그 아카이빙 실패: requestIdx={}, object={}, error={}",
                       requestIdx, archiveObjectName, e.getMessage(), e);
         }
     }
 
-    private void clearTempSnapshots(Long requestIdx) {
-        if (tempPrefix.isEmpty()) {
-            log.debug("temp prefix 미설정으로 임시 스냅샷 정리를 생략합니다.");
-            return;
-        }
-
-        String snapshotPrefix = buildTempSnapshotPrefix(requestIdx);
-        try {
-            List<String> snapshots = minIOService.listObjects(chatBucket, snapshotPrefix);
-            if (snapshots.isEmpty()) {
-                log.debug("정리할 임시 스냅샷이 없습니다: requestIdx={}", requestIdx);
-                return;
-            }
-
-            for (String objectName : snapshots) {
-                minIOService.deleteObject(chatBucket, objectName);
-            }
-
-            log.info("임시 스냅샷 정리 완료: requestIdx={}, deleted={}", requestIdx, snapshots.size());
-        } catch (Exception e) {
-            log.warn("임시 스냅샷 정리 실패: requestIdx={}, error={}",
-                     requestIdx, e.getMessage(), e);
-        }
-    }
-
     private String buildArchiveObjectName(Long requestIdx) {
         String fileName = "chat_" + requestIdx + "_final.txt";
         return archivePrefix.isEmpty() ? fileName : archivePrefix + "/" + fileName;
     }
 
-    private String buildTempSnapshotPrefix(Long requestIdx) {
-        String base = "chat_" + requestIdx + "_snapshot_";
-        return tempPrefix.isEmpty() ? base : tempPrefix + "/" + base;
-    }
-
     private String normalizePrefix(String prefix) {
         if (prefix == null) {
             return "";
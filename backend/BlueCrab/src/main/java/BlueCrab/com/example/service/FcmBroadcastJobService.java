@@ -0,0 +1,388 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.dto.FcmBroadcastJobResponse;
+import BlueCrab.com.example.dto.FcmBroadcastRequest;
+import BlueCrab.com.example.dto.FcmDataOnlyBroadcastRequest;
+import BlueCrab.com.example.exception.ResourceNotFoundException;
+import BlueCrab.com.example.repository.FcmTokenRepository;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FCM 브로드캐스트 작업 엔진
+ *
+ * - 요청 스레드에서는 작업만 등록하고 jobId를 반환 (진행 상황은 jobId로 조회)
+ * - 대상 토큰은 FCM_IDX 키셋 페이징으로 토큰 컬럼만 조회 (전체 엔티티 적재 없음)
+ * - 같은 토큰이 여러 행/플랫폼/페이지에 걸쳐 있어도 작업 전체에서 1회만 전송 (작업 단위 중복 제거)
+ * - 멀티캐스트 배치(최대 500개)를 전송 풀에서 동시에 전송, 동시 전송 수는 설정값으로 제한
+ * - 무효 토큰은 배치 단위로 모아 FcmTokenService.removeInvalidTokens로 일괄 정리
+ */
+@Service
+public class FcmBroadcastJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcmBroadcastJobService.class);
+
+    // FCM 멀티캐스트 1회 최대 토큰 수
+    private static final int MULTICAST_LIMIT = 500;
+
+    private final FcmTokenRepository fcmTokenRepository;
+    private final FcmTokenService fcmTokenService;
+    private final FirebaseMessaging firebaseMessaging;
+
+    private final int pageSize;
+    private final int concurrency;
+    private final long jobRetentionMinutes;
+
+    private final Map<String, BroadcastJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor;
+    private final ExecutorService sendExecutor;
+
+    public FcmBroadcastJobService(FcmTokenRepository fcmTokenRepository,
+                                  FcmTokenService fcmTokenService,
+                                  FirebaseMessaging firebaseMessaging,
+                                  @Value("${app.fcm.broadcast.page-size:500}") int pageSize,
+                                  @Value("${app.fcm.broadcast.concurrency:4}") int concurrency,
+                                  @Value("${app.fcm.broadcast.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.fcmTokenService = fcmTokenService;
+        this.firebaseMessaging = firebaseMessaging;
+        this.pageSize = Math.max(1, Math.min(MULTICAST_LIMIT, pageSize));
+        this.concurrency = Math.max(1, concurrency);
+        this.jobRetentionMinutes = Math.max(1, jobRetentionMinutes);
+        this.jobExecutor = Executors.newSingleThreadExecutor(new BroadcastThreadFactory("fcm-broadcast-job"));
+        this.sendExecutor = Executors.newFixedThreadPool(this.concurrency, new BroadcastThreadFactory("fcm-broadcast-send"));
+    }
+
+    /**
+     * 알림 브로드캐스트 작업 등록
+     */
+    public FcmBroadcastJobResponse startBroadcast(FcmBroadcastRequest request) {
+        String userType = request.getFilter() != null ? request.getFilter().getUserType() : null;
+        BroadcastJob job = new BroadcastJob("NOTIFICATION", request.getTitle(), request.getBody(),
+                request.getData(), fcmTokenService.resolvePlatforms(request.getPlatforms()),
+                resolveUserStudent(userType));
+        return submit(job);
+    }
+
+    /**
+     * Data-only 브로드캐스트 작업 등록
+     */
+    public FcmBroadcastJobResponse startDataOnlyBroadcast(FcmDataOnlyBroadcastRequest request) {
+        String userType = request.getFilter() != null ? request.getFilter().getUserType() : null;
+        BroadcastJob job = new BroadcastJob("DATA_ONLY", request.getTitle(), request.getBody(),
+                request.getData(), fcmTokenService.resolvePlatforms(request.getPlatforms()),
+                resolveUserStudent(userType));
+        return submit(job);
+    }
+
+    /**
+     * 브로드캐스트 작업 진행 상황 조회
+     */
+    public FcmBroadcastJobResponse getJob(String jobId) {
+        purgeFinishedJobs();
+        BroadcastJob job = jobs.get(jobId);
+        if (job == null) {
+            throw ResourceNotFoundException.forId("브로드캐스트 작업", jobId);
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    private FcmBroadcastJobResponse submit(BroadcastJob job) {
+        purgeFinishedJobs();
+        jobs.put(job.jobId, job);
+        jobExecutor.execute(() -> runJob(job));
+
+        logger.info("FCM 브로드캐스트 작업 등록 - jobId: {}, 유형: {}, 제목: {}", job.jobId, job.type, job.title);
+        return job.toResponse();
+    }
+
+    /**
+     * 작업 실행: 토큰 페이지를 읽어 멀티캐스트 배치로 나누고 전송 풀에 투입
+     */
+    private void runJob(BroadcastJob job) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        Semaphore inFlight = new Semaphore(concurrency);
+        // 작업 단위 전송 토큰 집합: 페이지를 넘어 중복된 토큰도 제외 (고유 토큰 수만큼만 메모리 사용, 작업 종료 시 해제)
+        Set<String> seenTokens = new HashSet<>();
+        int duplicateTokens = 0;
+
+        try {
+            Integer afterIdx = 0;
+            PageRequest page = PageRequest.of(0, pageSize);
+
+            while (true) {
+                List<Object[]> rows = fcmTokenRepository.findBroadcastTokenPage(afterIdx, job.userStudent, page);
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                // 브로드캐스트는 DB에 등록된 영구 토큰만 사용 (임시 토큰 제외하여 중복 방지)
+                LinkedHashSet<String> tokens = new LinkedHashSet<>();
+                for (Object[] row : rows) {
+                    afterIdx = (Integer) row[0];
+                    for (String platform : job.platforms) {
+                        String token = (String) row[platformColumn(platform)];
+                        if (token == null) {
+                            continue;
+                        }
+                        if (seenTokens.add(token)) {
+                            tokens.add(token);
+                        } else {
+                            duplicateTokens++;
+                        }
+                    }
+                }
+
+                List<String> tokenList = new ArrayList<>(tokens);
+                for (int i = 0; i < tokenList.size(); i += MULTICAST_LIMIT) {
+                    List<String> batch = new ArrayList<>(tokenList.subList(i, Math.min(i + MULTICAST_LIMIT, tokenList.size())));
+                    job.scannedTokens.addAndGet(batch.size());
+
+                    inFlight.acquire();
+                    try {
+                        sendExecutor.execute(() -> {
+                            try {
+                                sendBatch(job, batch);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        inFlight.release();
+                        throw e;
+                    }
+                }
+
+                if (rows.size() < pageSize) {
+                    break;
+                }
+            }
+
+            // 진행 중인 배치 완료 대기
+            inFlight.acquire(concurrency);
+            inFlight.release(concurrency);
+
+            job.status = "COMPLETED";
+            logger.info("FCM 브로드캐스트 작업 완료 - jobId: {}, 총 토큰: {}, 중복 제외: {}, 성공: {}, 실패: {}, 무효화: {}",
+                    job.jobId, job.scannedTokens.get(), duplicateTokens, job.successCount.get(),
+                    job.failureCount.get(), job.invalidTokenCount.get());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.status = "FAILED";
+            job.errorMessage = "작업이 중단되었습니다.";
+        } catch (Exception e) {
+            logger.error("FCM 브로드캐스트 작업 실패 - jobId: {}", job.jobId, e);
+            job.status = "FAILED";
+            job.errorMessage = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * 멀티캐스트 배치 1건 전송 및 무효 토큰 일괄 정리
+     */
+    private void sendBatch(BroadcastJob job, List<String> batch) {
+        List<String> invalidTokens = new ArrayList<>();
+
+        try {
+            BatchResponse response = firebaseMessaging.sendEachForMulticast(job.buildMessage(batch));
+            job.successCount.addAndGet(response.getSuccessCount());
+            job.failureCount.addAndGet(response.getFailureCount());
+
+            if (response.getFailureCount() > 0) {
+                List<SendResponse> responses = response.getResponses();
+                for (int j = 0; j < responses.size(); j++) {
+                    SendResponse sr = responses.get(j);
+                    if (!sr.isSuccessful() && isInvalidToken(sr.getException())) {
+                        invalidTokens.add(batch.get(j));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("FCM 브로드캐스트 배치 전송 실패 - jobId: {}, 배치 크기: {}", job.jobId, batch.size(), e);
+            job.failureCount.addAndGet(batch.size());
+        } finally {
+            job.processedTokens.addAndGet(batch.size());
+            job.batchCount.incrementAndGet();
+        }
+
+        if (!invalidTokens.isEmpty()) {
+            job.invalidTokenCount.addAndGet(invalidTokens.size());
+            try {
+                fcmTokenService.removeInvalidTokens(invalidTokens);
+            } catch (Exception e) {
+                logger.warn("무효 토큰 일괄 제거 실패 - jobId: {}, 토큰 수: {}", job.jobId, invalidTokens.size(), e);
+            }
+        }
+    }
+
+    private boolean isInvalidToken(Exception exception) {
+        if (!(exception instanceof FirebaseMessagingException)) {
+            return false;
+        }
+        FirebaseMessagingException fme = (FirebaseMessagingException) exception;
+        if (fme.getMessagingErrorCode() != null && fcmTokenService.isInvalidTokenError(fme.getMessagingErrorCode().name())) {
+            return true;
+        }
+        return fme.getErrorCode() != null && fcmTokenService.isInvalidTokenError(fme.getErrorCode().name());
+    }
+
+    private Integer resolveUserStudent(String userType) {
+        if (userType == null || "ALL".equalsIgnoreCase(userType)) {
+            return null;
+        }
+        return "STUDENT".equalsIgnoreCase(userType) ? 0 : 1;
+    }
+
+    private int platformColumn(String platform) {
+        switch (platform) {
+            case "ANDROID":
+                return 1;
+            case "IOS":
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 완료/실패 작업 제거
+     */
+    private void purgeFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    /**
+     * 브로드캐스트 작업 상태 (전송 스레드에서 동시에 갱신)
+     */
+    private static final class BroadcastJob {
+        private final String jobId = UUID.randomUUID().toString();
+        private final String type;
+        private final String title;
+        private final String body;
+        private final Map<String, String> data;
+        private final List<String> platforms;
+        private final Integer userStudent;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private final AtomicInteger scannedTokens = new AtomicInteger();
+        private final AtomicInteger processedTokens = new AtomicInteger();
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
+        private final AtomicInteger invalidTokenCount = new AtomicInteger();
+        private final AtomicInteger batchCount = new AtomicInteger();
+
+        private volatile String status = "QUEUED";
+        private volatile String errorMessage;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        private BroadcastJob(String type, String title, String body, Map<String, String> data,
+                             List<String> platforms, Integer userStudent) {
+            this.type = type;
+            this.title = title;
+            this.body = body;
+            this.data = data != null ? new HashMap<>(data) : new HashMap<>();
+            this.platforms = platforms;
+            this.userStudent = userStudent;
+        }
+
+        private MulticastMessage buildMessage(List<String> tokens) {
+            if ("DATA_ONLY".equals(type)) {
+                // FirebasePushService.sendDataOnlyNotificationBatch와 동일한 Data 페이로드
+                Map<String, String> messageData = new HashMap<>();
+                messageData.put("title", title);
+                messageData.put("body", body);
+                messageData.put("type", "data-only-batch");
+                messageData.put("timestamp", String.valueOf(System.currentTimeMillis()));
+                messageData.putAll(data);
+
+                return MulticastMessage.builder()
+                        .addAllTokens(tokens)
+                        .putAllData(messageData)
+                        .build();
+            }
+
+            return MulticastMessage.builder()
+                    .addAllTokens(tokens)
+                    .setNotification(Notification.builder()
+                            .setTitle(title)
+                            .setBody(body)
+                            .build())
+                    .putAllData(data)
+                    .build();
+        }
+
+        private FcmBroadcastJobResponse toResponse() {
+            FcmBroadcastJobResponse response = new FcmBroadcastJobResponse();
+            response.setJobId(jobId);
+            response.setType(type);
+            response.setStatus(status);
+            response.setScannedTokens(scannedTokens.get());
+            response.setProcessedTokens(processedTokens.get());
+            response.setSuccessCount(successCount.get());
+            response.setFailureCount(failureCount.get());
+            response.setInvalidTokenCount(invalidTokenCount.get());
+            response.setBatchCount(batchCount.get());
+            response.setErrorMessage(errorMessage);
+            response.setCreatedAt(createdAt);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            return response;
+        }
+    }
+
+    private static final class BroadcastThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private BroadcastThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName(namePrefix + "-" + sequence.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -7,23 +7,27 @@ import BlueCrab.com.example.exception.InvalidPlatformException;
 import BlueCrab.com.example.exception.ResourceNotFoundException;
 import BlueCrab.com.example.repository.FcmTokenRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
-import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
-import com.google.firebase.messaging.SendResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.scheduling.annotation.Scheduled;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -34,11 +38,30 @@ public class FcmTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(FcmTokenService.class);
 
+    // 무효 토큰 일괄 제거 시 IN 절 최대 크기
+    private static final int INVALID_TOKEN_CHUNK_SIZE = 500;
+
     private final FcmTokenRepository fcmTokenRepository;
     private final UserTblRepository userTblRepository;
     private final FirebaseMessaging firebaseMessaging;
     private final FcmSessionService fcmSessionService;
     private final FirebasePushService firebasePushService;
+    private final long statsCacheMillis;
+
+    private volatile CachedStats cachedStats;
+
+    // 미사용 토큰 정리 설정 및 실행 통계
+    private final PlatformTransactionManager transactionManager;
+    private final int cleanupChunkSize;
+    private final int cleanupMaxChunks;
+    private final AtomicBoolean cleanupRunning = new AtomicBoolean(false);
+    private final AtomicLong totalCleanupRuns = new AtomicLong();
+    private final AtomicLong totalClearedTokens = new AtomicLong();
+    private final Map<String, Integer> lastClearedByPlatform = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastCleanupStartedAt;
+    private volatile LocalDateTime lastCleanupFinishedAt;
+    private volatile long lastCleanupDurationMs;
+    private volatile int lastCleanupChunks;
 
     private static final class DeliveryAttemptResult {
         private final boolean success;
@@ -88,12 +111,20 @@ public class FcmTokenService {
                            UserTblRepository userTblRepository,
                            FirebaseMessaging firebaseMessaging,
                            FcmSessionService fcmSessionService,
-                           FirebasePushService firebasePushService) {
+                           FirebasePushService firebasePushService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.fcm.stats.cache-seconds:5}") long statsCacheSeconds,
+                           @Value("${app.fcm.cleanup.chunk-size:1000}") int cleanupChunkSize,
+                           @Value("${app.fcm.cleanup.max-chunks:1000}") int cleanupMaxChunks) {
         this.fcmTokenRepository = fcmTokenRepository;
         this.userTblRepository = userTblRepository;
         this.firebaseMessaging = firebaseMessaging;
         this.fcmSessionService = fcmSessionService;
         this.firebasePushService = firebasePushService;
+        this.statsCacheMillis = TimeUnit.SECONDS.toMillis(Math.max(0, statsCacheSeconds));
+        this.transactionManager = transactionManager;
+        this.cleanupChunkSize = Math.max(1, cleanupChunkSize);
+        this.cleanupMaxChunks = Math.max(1, cleanupMaxChunks);
     }
 
     /**
@@ -134,7 +165,7 @@ public class FcmTokenService {
         }
     }
 
-    private List<String> resolvePlatforms(List<String> platforms) {
+    List<String> resolvePlatforms(List<String> platforms) {
         if (platforms == null || platforms.isEmpty()) {
             return Arrays.asList("ANDROID", "IOS", "WEB");
         }
@@ -441,7 +472,7 @@ public class FcmTokenService {
         }
     }
 
-    private boolean isInvalidTokenError(String errorCode) {
+    boolean isInvalidTokenError(String errorCode) {
         if (errorCode == null) {
             return false;
         }
@@ -932,356 +963,166 @@ public class FcmTokenService {
                                        totalSuccess, totalFailure, details);
     }
 
-    /**
-     * 전체 사용자에게 Data-only 브로드캐스트 알림 전송
-     * 알림 표시 없이 데이터만 전송 (백그라운드 업데이트용)
-     */
-    public FcmDataOnlyBroadcastResponse sendDataOnlyBroadcast(FcmDataOnlyBroadcastRequest request) {
-        logger.info("FCM Data-only 브로드캐스트 알림 전송 요청 - 제목: {}", request.getTitle());
-
-        List<String> targetPlatforms = resolvePlatforms(request.getPlatforms());
-
-        // 필터 적용
-        List<FcmToken> allTokens = fcmTokenRepository.findAll();
-        if (request.getFilter() != null && request.getFilter().getUserType() != null) {
-            String userType = request.getFilter().getUserType().toUpperCase();
-            if (!"ALL".equals(userType)) {
-                Integer userStudent = "STUDENT".equals(userType) ? 0 : 1;
-                allTokens = filterTokensByUserType(allTokens, userStudent);
-            }
-        }
-
-        LinkedHashSet<String> allValidTokens = new LinkedHashSet<>();
-
-        // 플랫폼별로 토큰 수집
-        // 브로드캐스트는 DB에 등록된 영구 토큰만 사용 (임시 토큰 제외하여 중복 방지)
-        for (FcmToken fcmToken : allTokens) {
-            for (String platform : targetPlatforms) {
-                String token = fcmToken.getTokenByPlatform(platform);
-                if (token != null) {
-                    allValidTokens.add(token);
-                }
-            }
-        }
-
-        if (allValidTokens.isEmpty()) {
-            logger.warn("FCM Data-only 브로드캐스트 전송할 토큰이 없습니다");
-            return new FcmDataOnlyBroadcastResponse("success", 0, 0, 0, new ArrayList<>());
-        }
-
-        logger.info("📤 Sending data-only broadcast to {} tokens", allValidTokens.size());
-
-        // Data-only 배치 전송 사용
-        BatchSendResponse batchResponse = firebasePushService.sendDataOnlyNotificationBatch(
-                new ArrayList<>(allValidTokens),
-                request.getTitle(),
-                request.getBody(),
-                request.getData()
-        );
-
-        int successCount = batchResponse.getSuccessCount();
-        int failureCount = batchResponse.getFailureCount();
-        List<String> invalidTokens = new ArrayList<>();
-
-        // 실패한 토큰 중 무효화된 토큰 처리
-        if (batchResponse.getResponses() != null) {
-            for (TokenSendResult result : batchResponse.getResponses()) {
-                if (!result.isSuccess()) {
-                    String error = result.getError();
-                    if (error != null && (error.contains("NOT_FOUND") ||
-                                         error.contains("INVALID_ARGUMENT") ||
-                                         error.contains("REGISTRATION_TOKEN_NOT_REGISTERED") ||
-                                         error.contains("UNREGISTERED"))) {
-                        invalidTokens.add(result.getToken());
-                        removeInvalidToken(result.getToken());
-                    }
-                }
-            }
-        }
-
-        logger.info("✅ FCM Data-only 브로드캐스트 전송 완료 - 총 토큰: {}, 성공: {}, 실패: {}, 무효화: {}",
-                allValidTokens.size(), successCount, failureCount, invalidTokens.size());
-
-        return new FcmDataOnlyBroadcastResponse("success", allValidTokens.size(), successCount,
-                failureCount, invalidTokens);
-    }
-
-    /**
-     * 전체 사용자에게 브로드캐스트 알림 전송
-     */
-    public FcmBroadcastResponse sendBroadcast(FcmBroadcastRequest request) {
-        logger.info("FCM 브로드캐스트 알림 전송 요청 - 제목: {}", request.getTitle());
-
-        List<String> targetPlatforms = resolvePlatforms(request.getPlatforms());
-
-        // 필터 적용
-        List<FcmToken> allTokens = fcmTokenRepository.findAll();
-        if (request.getFilter() != null && request.getFilter().getUserType() != null) {
-            String userType = request.getFilter().getUserType().toUpperCase();
-            if (!"ALL".equals(userType)) {
-                Integer userStudent = "STUDENT".equals(userType) ? 0 : 1;
-                allTokens = filterTokensByUserType(allTokens, userStudent);
-            }
-        }
-
-        LinkedHashSet<String> allValidTokens = new LinkedHashSet<>();
-        List<String> invalidTokens = new ArrayList<>();
-
-        // 플랫폼별로 토큰 수집
-        // 브로드캐스트는 DB에 등록된 영구 토큰만 사용 (임시 토큰 제외하여 중복 방지)
-        for (FcmToken fcmToken : allTokens) {
-            for (String platform : targetPlatforms) {
-                String token = fcmToken.getTokenByPlatform(platform);
-                if (token != null) {
-                    allValidTokens.add(token);
-                }
-                
-                // ⚠️ 브로드캐스트에서는 임시 토큰 제외 (중복 알림 방지)
-                // 임시 토큰은 개별 알림 전송에서만 사용
-                
-                // String tempToken = fcmSessionService.getTemporaryToken(fcmToken.getUserIdx(), platform);
-                // if (tempToken != null && !Objects.equals(tempToken, token)) {
-                //     allValidTokens.add(tempToken);
-                // }
-            }
-        }
-
-        if (allValidTokens.isEmpty()) {
-            logger.warn("FCM 브로드캐스트 전송할 토큰이 없습니다");
-            return new FcmBroadcastResponse("success", 0, 0, 0, invalidTokens);
-        }
-
-        int successCount = 0;
-        int failureCount = 0;
-
-        // FCM은 최대 500개씩 배치 전송 가능
-        int batchSize = 500;
-        List<String> tokenList = new ArrayList<>(allValidTokens);
-        for (int i = 0; i < tokenList.size(); i += batchSize) {
-            List<String> batch = tokenList.subList(i, Math.min(i + batchSize, tokenList.size()));
-
-            try {
-                MulticastMessage message = MulticastMessage.builder()
-                        .addAllTokens(batch)
-                        .setNotification(Notification.builder()
-                                .setTitle(request.getTitle())
-                                .setBody(request.getBody())
-                                .build())
-                        .putAllData(request.getData() != null ? request.getData() : new HashMap<>())
-                        .build();
-
-                BatchResponse response = firebaseMessaging.sendEachForMulticast(message);
-                successCount += response.getSuccessCount();
-                failureCount += response.getFailureCount();
-
-                // 실패한 토큰 처리
-                if (response.getFailureCount() > 0) {
-                    List<SendResponse> responses = response.getResponses();
-                    for (int j = 0; j < responses.size(); j++) {
-                        SendResponse sr = responses.get(j);
-                        if (!sr.isSuccessful() && sr.getException() != null) {
-                            // Exception 타입 체크 후 캐스팅
-                            if (sr.getException() instanceof FirebaseMessagingException) {
-                                FirebaseMessagingException fme = (FirebaseMessagingException) sr.getException();
-                                String errorCode = fme.getErrorCode() != null ? fme.getErrorCode().name() : "UNKNOWN";
-
-                                if (isInvalidTokenError(errorCode)) {
-                                    String invalidToken = batch.get(j);
-                                    invalidTokens.add(invalidToken);
-                                    removeInvalidToken(invalidToken);
-                                }
-                            } else {
-                                // FirebaseMessagingException이 아닌 다른 예외
-                                logger.warn("FCM 브로드캐스트 - 예상치 못한 예외 타입: {}",
-                                           sr.getException().getClass().getName());
-                            }
-                        }
-                    }
-                }
-
-            } catch (FirebaseMessagingException e) {
-                logger.error("FCM 브로드캐스트 배치 전송 실패", e);
-                failureCount += batch.size();
-            }
-        }
-
-        logger.info("FCM 브로드캐스트 전송 완료 - 총 토큰: {}, 성공: {}, 실패: {}, 무효화: {}",
-                   allValidTokens.size(), successCount, failureCount, invalidTokens.size());
-
-        return new FcmBroadcastResponse("success", allValidTokens.size(), successCount,
-                                       failureCount, invalidTokens);
-    }
-
     /**
      * FCM 토큰 통계 조회
+     * 단일 집계 쿼리(COUNT/SUM CASE)로 계산하고 짧은 시간 캐시하여 대시보드 폴링 부하를 제한
      */
     public FcmStatsResponse getStats() {
-        logger.info("FCM 토큰 통계 조회 요청");
+        CachedStats cached = cachedStats;
+        if (cached != null && System.currentTimeMillis() - cached.computedAt < statsCacheMillis) {
+            return cached.response;
+        }
 
-        long totalUsers = userTblRepository.count();
-        long registeredUsers = fcmTokenRepository.count();
+        logger.debug("FCM 토큰 통계 집계");
 
-        // 플랫폼별 토큰 수
-        Map<String, Integer> byPlatform = new HashMap<>();
-        byPlatform.put("android", fcmTokenRepository.findAllAndroidTokens().size());
-        byPlatform.put("ios", fcmTokenRepository.findAllIosTokens().size());
-        byPlatform.put("web", fcmTokenRepository.findAllWebTokens().size());
+        long totalUsers = userTblRepository.count();
 
-        // 30일 이내 활성 토큰
+        // 30일 이내 사용 = 활성, 90일 이상 미사용 = 비활성
         LocalDateTime activeThreshold = LocalDateTime.now().minusDays(30);
-        List<FcmToken> allTokens = fcmTokenRepository.findAll();
+        LocalDateTime inactiveThreshold = LocalDateTime.now().minusDays(90);
+        List<Object[]> rows = fcmTokenRepository.aggregateTokenStats(activeThreshold, inactiveThreshold);
+        Object[] row = rows.isEmpty() ? new Object[10] : rows.get(0);
 
+        Map<String, Integer> byPlatform = new HashMap<>();
         Map<String, Integer> activeTokens = new HashMap<>();
         Map<String, Integer> inactiveTokens = new HashMap<>();
 
-        int androidActive = 0, iosActive = 0, webActive = 0;
-        int androidInactive = 0, iosInactive = 0, webInactive = 0;
-
-        LocalDateTime inactiveThreshold = LocalDateTime.now().minusDays(90);
-
-        for (FcmToken token : allTokens) {
-            // Android
-            if (token.getFcmTokenAndroid() != null) {
-                LocalDateTime lastUsed = token.getFcmTokenAndroidLastUsed();
-                if (lastUsed != null && lastUsed.isAfter(activeThreshold)) {
-                    androidActive++;
-                } else if (lastUsed == null || lastUsed.isBefore(inactiveThreshold)) {
-                    androidInactive++;
-                }
-            }
-
-            // iOS
-            if (token.getFcmTokenIos() != null) {
-                LocalDateTime lastUsed = token.getFcmTokenIosLastUsed();
-                if (lastUsed != null && lastUsed.isAfter(activeThreshold)) {
-                    iosActive++;
-                } else if (lastUsed == null || lastUsed.isBefore(inactiveThreshold)) {
-                    iosInactive++;
-                }
-            }
-
-            // Web
-            if (token.getFcmTokenWeb() != null) {
-                LocalDateTime lastUsed = token.getFcmTokenWebLastUsed();
-                if (lastUsed != null && lastUsed.isAfter(activeThreshold)) {
-                    webActive++;
-                } else if (lastUsed == null || lastUsed.isBefore(inactiveThreshold)) {
-                    webInactive++;
-                }
-            }
+        String[] platformKeys = {"android", "ios", "web"};
+        for (int i = 0; i < platformKeys.length; i++) {
+            int base = 1 + i * 3;
+            byPlatform.put(platformKeys[i], toInt(row[base]));
+            activeTokens.put(platformKeys[i], toInt(row[base + 1]));
+            inactiveTokens.put(platformKeys[i], toInt(row[base + 2]));
         }
 
-        activeTokens.put("android", androidActive);
-        activeTokens.put("ios", iosActive);
-        activeTokens.put("web", webActive);
-
-        inactiveTokens.put("android", androidInactive);
-        inactiveTokens.put("ios", iosInactive);
-        inactiveTokens.put("web", webInactive);
-
-        return new FcmStatsResponse((int) totalUsers, (int) registeredUsers, byPlatform,
+        FcmStatsResponse response = new FcmStatsResponse((int) totalUsers, toInt(row[0]), byPlatform,
                                    activeTokens, inactiveTokens);
+        cachedStats = new CachedStats(response, System.currentTimeMillis());
+        return response;
     }
 
-    /**
-     * 사용자 유형별 토큰 필터링
-     */
-    private List<FcmToken> filterTokensByUserType(List<FcmToken> tokens, Integer userStudent) {
-        List<FcmToken> filtered = new ArrayList<>();
-        for (FcmToken token : tokens) {
-            Optional<UserTbl> userOpt = userTblRepository.findById(token.getUserIdx());
-            if (userOpt.isPresent() && userOpt.get().getUserStudent().equals(userStudent)) {
-                filtered.add(token);
-            }
+    private int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static final class CachedStats {
+        private final FcmStatsResponse response;
+        private final long computedAt;
+
+        private CachedStats(FcmStatsResponse response, long computedAt) {
+            this.response = response;
+            this.computedAt = computedAt;
         }
-        return filtered;
     }
 
     /**
-     * 무효화된 토큰 제거
+     * 무효화된 토큰 일괄 제거
+     * 플랫폼 컬럼별 UPDATE ... WHERE token IN (...) 으로 처리 (토큰당 조회/저장 없음)
+     * @return 정리된 토큰 컬럼 수
      */
-    private void removeInvalidToken(String token) {
-        Optional<FcmToken> fcmTokenOpt = fcmTokenRepository.findByAnyToken(token);
-        if (fcmTokenOpt.isPresent()) {
-            FcmToken fcmToken = fcmTokenOpt.get();
-
-            boolean updated = false;
-
-            if (token.equals(fcmToken.getFcmTokenAndroid())) {
-                fcmToken.setFcmTokenAndroid(null);
-                fcmToken.setFcmTokenAndroidLastUsed(null);
-                fcmToken.setFcmTokenAndroidKeepSignedIn(null);
-                updated = true;
-            }
-
-            if (token.equals(fcmToken.getFcmTokenIos())) {
-                fcmToken.setFcmTokenIos(null);
-                fcmToken.setFcmTokenIosLastUsed(null);
-                fcmToken.setFcmTokenIosKeepSignedIn(null);
-                updated = true;
-            }
+    @Transactional
+    public int removeInvalidTokens(Collection<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return 0;
+        }
 
-            if (token.equals(fcmToken.getFcmTokenWeb())) {
-                fcmToken.setFcmTokenWeb(null);
-                fcmToken.setFcmTokenWebLastUsed(null);
-                fcmToken.setFcmTokenWebKeepSignedIn(null);
-                updated = true;
-            }
+        List<String> distinctTokens = new ArrayList<>(new LinkedHashSet<>(tokens));
+        LocalDateTime now = LocalDateTime.now();
+        int cleared = 0;
 
-            if (updated) {
-                fcmTokenRepository.save(fcmToken);
-                logger.info("무효화된 토큰 제거 완료 - 사용자: {}", fcmToken.getUserCode());
-            }
+        for (int i = 0; i < distinctTokens.size(); i += INVALID_TOKEN_CHUNK_SIZE) {
+            List<String> chunk = distinctTokens.subList(i, Math.min(i + INVALID_TOKEN_CHUNK_SIZE, distinctTokens.size()));
+            cleared += fcmTokenRepository.clearAndroidTokens(chunk, now);
+            cleared += fcmTokenRepository.clearIosTokens(chunk, now);
+            cleared += fcmTokenRepository.clearWebTokens(chunk, now);
         }
+
+        logger.info("무효화된 토큰 일괄 제거 완료 - 요청: {}, 정리: {}", distinctTokens.size(), cleared);
+        return cleared;
     }
 
+    /**
+     * 90일 이상 미사용 토큰 정리 (매일 새벽 3시)
+     * 플랫폼 컬럼별 UPDATE ... LIMIT 문을 청크 단위로 반복 실행 (청크마다 별도 트랜잭션)
+     * 진행 상황/정리 건수/소요 시간은 getCleanupStats()로 조회 (GET /admin/metrics/fcm-token-cleanup)
+     */
     @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
     public void cleanupInactiveTokens() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(90);
-        List<FcmToken> inactiveTokens = fcmTokenRepository.findInactiveTokens(cutoffDate);
-
-        if (inactiveTokens.isEmpty()) {
-            logger.debug("정리 대상 미사용 FCM 토큰이 없습니다");
+        if (!cleanupRunning.compareAndSet(false, true)) {
+            logger.warn("미사용 FCM 토큰 정리가 이미 실행 중입니다");
             return;
         }
 
-        int clearedTokens = 0;
-
-        for (FcmToken token : inactiveTokens) {
-            boolean updated = false;
+        long startTime = System.currentTimeMillis();
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(90);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
 
-            if (token.getFcmTokenAndroid() != null &&
-                (token.getFcmTokenAndroidLastUsed() == null || token.getFcmTokenAndroidLastUsed().isBefore(cutoffDate))) {
-                token.setFcmTokenAndroid(null);
-                token.setFcmTokenAndroidLastUsed(null);
-                token.setFcmTokenAndroidKeepSignedIn(null);
-                updated = true;
-            }
+        lastCleanupStartedAt = LocalDateTime.now();
+        lastCleanupFinishedAt = null;
+        lastCleanupChunks = 0;
+        lastClearedByPlatform.clear();
 
-            if (token.getFcmTokenIos() != null &&
-                (token.getFcmTokenIosLastUsed() == null || token.getFcmTokenIosLastUsed().isBefore(cutoffDate))) {
-                token.setFcmTokenIos(null);
-                token.setFcmTokenIosLastUsed(null);
-                token.setFcmTokenIosKeepSignedIn(null);
-                updated = true;
+        try {
+            for (String platform : Arrays.asList("ANDROID", "IOS", "WEB")) {
+                int cleared = 0;
+                while (lastCleanupChunks < cleanupMaxChunks) {
+                    Integer affected = transactionTemplate.execute(status ->
+                            clearInactiveChunk(platform, cutoffDate, LocalDateTime.now()));
+                    int chunkCleared = affected != null ? affected : 0;
+                    lastCleanupChunks++;
+                    cleared += chunkCleared;
+                    lastClearedByPlatform.put(toPlatformKey(platform), cleared);
+
+                    if (chunkCleared < cleanupChunkSize) {
+                        break;
+                    }
+                }
             }
 
-            if (token.getFcmTokenWeb() != null &&
-                (token.getFcmTokenWebLastUsed() == null || token.getFcmTokenWebLastUsed().isBefore(cutoffDate))) {
-                token.setFcmTokenWeb(null);
-                token.setFcmTokenWebLastUsed(null);
-                token.setFcmTokenWebKeepSignedIn(null);
-                updated = true;
+            if (lastCleanupChunks >= cleanupMaxChunks) {
+                logger.warn("최대 청크 수({}) 도달, 남은 토큰은 다음 실행 시 정리됩니다", cleanupMaxChunks);
             }
+        } catch (Exception e) {
+            logger.error("미사용 FCM 토큰 정리 오류", e);
+        } finally {
+            int totalCleared = lastClearedByPlatform.values().stream().mapToInt(Integer::intValue).sum();
+            lastCleanupDurationMs = System.currentTimeMillis() - startTime;
+            lastCleanupFinishedAt = LocalDateTime.now();
+            totalCleanupRuns.incrementAndGet();
+            totalClearedTokens.addAndGet(totalCleared);
+            cleanupRunning.set(false);
+
+            logger.info("미사용 FCM 토큰 정리 완료 - 정리된 토큰: {} ({}), 청크: {}, 소요 시간: {}ms",
+                    totalCleared, lastClearedByPlatform, lastCleanupChunks, lastCleanupDurationMs);
+        }
+    }
 
-            if (updated) {
-                fcmTokenRepository.save(token);
-                clearedTokens++;
-            }
+    private int clearInactiveChunk(String platform, LocalDateTime cutoffDate, LocalDateTime now) {
+        switch (platform) {
+            case "ANDROID":
+                return fcmTokenRepository.clearInactiveAndroidTokens(cutoffDate, now, cleanupChunkSize);
+            case "IOS":
+                return fcmTokenRepository.clearInactiveIosTokens(cutoffDate, now, cleanupChunkSize);
+            default:
+                return fcmTokenRepository.clearInactiveWebTokens(cutoffDate, now, cleanupChunkSize);
         }
+    }
 
-        logger.info("미사용 FCM 토큰 정리 완료 - 총 대상: {}, 정리된 토큰: {}",
-                inactiveTokens.size(), clearedTokens);
+    /**
+     * 미사용 토큰 정리 실행 상태 및 통계 조회
+     */
+    public Map<String, Object> getCleanupStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", cleanupRunning.get());
+        stats.put("chunkSize", cleanupChunkSize);
+        stats.put("maxChunks", cleanupMaxChunks);
+        stats.put("lastStartedAt", lastCleanupStartedAt);
+        stats.put("lastFinishedAt", lastCleanupFinishedAt);
+        stats.put("lastDurationMs", lastCleanupDurationMs);
+        stats.put("lastChunks", lastCleanupChunks);
+        stats.put("lastClearedByPlatform", new HashMap<>(lastClearedByPlatform));
+        stats.put("totalRuns", totalCleanupRuns.get());
+        stats.put("totalClearedTokens", totalClearedTokens.get());
+        return stats;
     }
 }
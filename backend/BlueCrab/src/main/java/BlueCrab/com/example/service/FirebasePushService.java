@@ -26,12 +26,19 @@ public class FirebasePushService {
 
     private static final Logger log = LoggerFactory.getLogger(FirebasePushService.class);
 
+    // FirebaseConfig 빈 주입 (테스트/로컬 환경에서 대체 구현 사용 가능)
+    private final FirebaseMessaging firebaseMessaging;
+
     @Value("${firebase.vapid.public-key:}")
     private String vapidPublicKey;
 
     @Value("${firebase.vapid.private-key:}")
     private String vapidPrivateKey;
 
+    public FirebasePushService(FirebaseMessaging firebaseMessaging) {
+        this.firebaseMessaging = firebaseMessaging;
+    }
+
     /**
      * 특정 토큰으로 푸시 알림 전송
      */
@@ -51,7 +58,7 @@ public class FirebasePushService {
 
         Message message = builder.build();
 
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = firebaseMessaging.send(message);
             log.info("Successfully sent push notification: {}", response);
             return response;
         } catch (Exception e) {
@@ -79,7 +86,7 @@ public class FirebasePushService {
 
         Message message = builder.build();
 
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = firebaseMessaging.send(message);
             log.info("Successfully sent push notification to topic {}: {}", topic, response);
             return response;
         } catch (Exception e) {
@@ -122,7 +129,7 @@ public class FirebasePushService {
                 .putAllData(messageData)  // Data-only
                 .build();
 
-            String response = FirebaseMessaging.getInstance().send(message);
+            String response = firebaseMessaging.send(message);
             log.info("✅ Data-only notification sent: {}", response);
             return response;
         } catch (Exception e) {
@@ -171,7 +178,7 @@ public class FirebasePushService {
                     .build();
 
             // Firebase 배치 전송
-            BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
+            BatchResponse response = firebaseMessaging.sendEachForMulticast(message);
 
             // 결과 분석
             List<TokenSendResult> results = new ArrayList<>();
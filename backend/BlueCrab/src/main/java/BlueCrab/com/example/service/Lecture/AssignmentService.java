@@ -386,14 +386,31 @@ public class AssignmentService {
      * @return List<Map> [{name: "과제1", score: 9.0, maxScore: 10.0, percentage: 90.00}, ...]
      */
     public List<Map<String, Object>> getStudentAssignmentScoresForGrade(Integer lecIdx, Integer studentIdx) {
-        List<Map<String, Object>> scores = new java.util.ArrayList<>();
+        return getLectureAssignmentScoresForGrade(lecIdx, List.of(studentIdx))
+            .getOrDefault(studentIdx, new java.util.ArrayList<>());
+    }
+
+    /**
+     * 여러 학생의 과제 점수 목록 일괄 조회 (강의 단위 성적 재계산용)
+     * 강의의 과제를 한 번만 조회/파싱한 뒤 학생별 점수 목록을 구성
+     * 
+     * @param lecIdx 강의 IDX
+     * @param studentIdxList 학생 IDX 목록
+     * @return Map<학생IDX, List<Map>> (과제 순서는 최신순, 학생별 형식은 getStudentAssignmentScoresForGrade와 동일)
+     */
+    public Map<Integer, List<Map<String, Object>>> getLectureAssignmentScoresForGrade(Integer lecIdx,
+                                                                                      java.util.Collection<Integer> studentIdxList) {
+        Map<Integer, List<Map<String, Object>>> scoresByStudent = new HashMap<>();
+        for (Integer studentIdx : studentIdxList) {
+            scoresByStudent.put(studentIdx, new java.util.ArrayList<>());
+        }
 
         try {
-            // 강의의 모든 과제 조회
+            // 강의의 모든 과제 조회 (1회)
             List<AssignmentExtendedTbl> assignments = assignmentRepository.findByLecIdxOrderByAssignmentIdxDesc(lecIdx);
 
             if (assignments == null || assignments.isEmpty()) {
-                return scores;  // 과제가 없으면 빈 리스트 반환
+                return scoresByStudent;  // 과제가 없으면 빈 리스트 반환
             }
 
             for (AssignmentExtendedTbl assignment : assignments) {
@@ -418,51 +435,43 @@ public class AssignmentService {
                     (Number) assignmentInfo.get("maxScore") : 100;
                 double maxScore = maxScoreNum.doubleValue();
 
-                // 제출물에서 학생의 점수 찾기
+                // 제출물을 학생 IDX 기준으로 색인 (학생별 선형 탐색 제거)
                 @SuppressWarnings("unchecked")
                 List<Map<String, Object>> submissions = (List<Map<String, Object>>) 
                     assignmentData.getOrDefault("submissions", new java.util.ArrayList<>());
 
-                double studentScore = 0.0;
-                boolean submitted = false;
-
+                Map<Integer, Double> scoreByStudent = new HashMap<>();
                 for (Map<String, Object> submission : submissions) {
                     Number studentIdxNum = (Number) submission.get("studentIdx");
-                    if (studentIdxNum != null && studentIdxNum.intValue() == studentIdx) {
-                        // 학생의 제출물을 찾음
-                        if (submission.containsKey("score") && submission.get("score") != null) {
-                            Number scoreNum = (Number) submission.get("score");
-                            studentScore = scoreNum.doubleValue();
-                            submitted = true;
-                        }
-                        break;
+                    if (studentIdxNum == null || scoreByStudent.containsKey(studentIdxNum.intValue())) {
+                        continue;  // 학생별 첫 제출물만 사용
                     }
+                    Number scoreNum = submission.get("score") != null ? (Number) submission.get("score") : null;
+                    scoreByStudent.put(studentIdxNum.intValue(), scoreNum != null ? scoreNum.doubleValue() : null);
                 }
 
-                // 미제출인 경우 0점 처리
-                if (!submitted) {
-                    studentScore = 0.0;
-                }
+                for (Map.Entry<Integer, List<Map<String, Object>>> entry : scoresByStudent.entrySet()) {
+                    // 미제출인 경우 0점 처리
+                    Double scoreValue = scoreByStudent.get(entry.getKey());
+                    boolean submitted = scoreValue != null;
+                    double studentScore = submitted ? scoreValue : 0.0;
 
-                // 백분율 계산 (0-100 범위, 소수점 셋째자리에서 반올림하여 둘째자리까지)
-                double percentage = (studentScore / maxScore) * 100.0;
-                percentage = Math.round(percentage * 100.0) / 100.0;  // 소수점 둘째자리 반올림
-                
-                // score도 소수점 둘째자리 반올림
-                studentScore = Math.round(studentScore * 100.0) / 100.0;
-                maxScore = Math.round(maxScore * 100.0) / 100.0;
-
-                Map<String, Object> scoreInfo = new java.util.HashMap<>();
-                scoreInfo.put("name", assignmentTitle);
-                scoreInfo.put("score", studentScore);
-                scoreInfo.put("maxScore", maxScore);
-                scoreInfo.put("percentage", percentage);
-                scoreInfo.put("submitted", submitted);
-
-                scores.add(scoreInfo);
+                    // 백분율 계산 (0-100 범위, 소수점 셋째자리에서 반올림하여 둘째자리까지)
+                    double percentage = (studentScore / maxScore) * 100.0;
+                    percentage = Math.round(percentage * 100.0) / 100.0;  // 소수점 둘째자리 반올림
+
+                    Map<String, Object> scoreInfo = new java.util.HashMap<>();
+                    scoreInfo.put("name", assignmentTitle);
+                    scoreInfo.put("score", Math.round(studentScore * 100.0) / 100.0);
+                    scoreInfo.put("maxScore", Math.round(maxScore * 100.0) / 100.0);
+                    scoreInfo.put("percentage", percentage);
+                    scoreInfo.put("submitted", submitted);
+
+                    entry.getValue().add(scoreInfo);
+                }
             }
 
-            return scores;
+            return scoresByStudent;
 
         } catch (Exception e) {
             throw new RuntimeException("과제 점수 조회 중 오류가 발생했습니다: " + e.getMessage(), e);
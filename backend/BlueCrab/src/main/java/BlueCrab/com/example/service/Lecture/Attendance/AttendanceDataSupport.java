@@ -0,0 +1,265 @@
+package BlueCrab.com.example.service.Lecture.Attendance;
+
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendanceDataDto;
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendancePendingRequestDto;
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendanceSessionDto;
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendanceSummaryDto;
+import BlueCrab.com.example.util.AttendanceCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ENROLLMENT_DATA.attendance 객체 읽기/쓰기 공통 로직
+ *
+ * attendance 구조: { summary, sessions[], pendingRequests[] }
+ * - 교수 출석 체크(AttendanceService)와 출석 요청 승인(AttendanceRequestServiceImpl)이 같은 규칙으로 기록
+ * - summary는 sessions와 gradeConfig.latePenaltyPerSession으로 재계산
+ *   (ATTENDANCE_* / PENDING_EXPIRES_AT 생성 컬럼과 성적 재계산이 이 값을 읽음)
+ * - 이전 버전이 기록한 문자열 형식("1출2결...")은 읽을 때 sessions로 변환
+ */
+@Slf4j
+@Component
+public class AttendanceDataSupport {
+
+    public static final int TOTAL_SESSIONS = 80;
+    private static final double DEFAULT_LATE_PENALTY = 0.4;
+
+    private final ObjectMapper objectMapper;
+
+    public AttendanceDataSupport(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * ENROLLMENT_DATA JSON에서 attendance 데이터 파싱 (조회용, 파싱 실패 시 빈 데이터)
+     */
+    public AttendanceDataDto parse(String enrollmentData) {
+        try {
+            return parseForUpdate(enrollmentData);
+        } catch (Exception e) {
+            log.error("JSON 파싱 오류", e);
+            return createEmpty();
+        }
+    }
+
+    /**
+     * ENROLLMENT_DATA JSON에서 attendance 데이터 파싱 (기록용)
+     * 파싱 실패 시 빈 데이터로 덮어쓰지 않도록 예외를 그대로 던짐
+     */
+    public AttendanceDataDto parseForUpdate(String enrollmentData) throws IOException {
+        if (enrollmentData == null || enrollmentData.isEmpty()) {
+            return createEmpty();
+        }
+
+        Map<String, Object> jsonMap = objectMapper.readValue(enrollmentData,
+            new TypeReference<Map<String, Object>>() {});
+
+        Object attendanceObj = jsonMap.get("attendance");
+        if (attendanceObj == null) {
+            return createEmpty();
+        }
+
+        if (attendanceObj instanceof String) {
+            return fromLegacyString((String) attendanceObj);
+        }
+
+        // attendance 객체를 AttendanceDataDto로 변환
+        AttendanceDataDto dto = objectMapper.convertValue(attendanceObj, AttendanceDataDto.class);
+
+        // null 체크 및 초기화
+        if (dto.getSummary() == null) {
+            dto.setSummary(new AttendanceSummaryDto(0, 0, 0, TOTAL_SESSIONS, 0.0, LocalDateTime.now()));
+        }
+        if (dto.getSessions() == null) {
+            dto.setSessions(new ArrayList<>());
+        }
+        if (dto.getPendingRequests() == null) {
+            dto.setPendingRequests(new ArrayList<>());
+        }
+
+        return dto;
+    }
+
+    /**
+     * 빈 출석 데이터 생성
+     */
+    public AttendanceDataDto createEmpty() {
+        AttendanceDataDto dto = new AttendanceDataDto();
+        dto.setSummary(new AttendanceSummaryDto(0, 0, 0, TOTAL_SESSIONS, 0.0, LocalDateTime.now()));
+        dto.setSessions(new ArrayList<>());
+        dto.setPendingRequests(new ArrayList<>());
+        return dto;
+    }
+
+    /**
+     * AttendanceDataDto를 ENROLLMENT_DATA JSON에 병합 (attendance 외 필드 유지)
+     */
+    public String serialize(AttendanceDataDto attendanceData, String existingData) {
+        try {
+            Map<String, Object> jsonMap;
+
+            if (existingData == null || existingData.isEmpty()) {
+                jsonMap = new HashMap<>();
+            } else {
+                jsonMap = objectMapper.readValue(existingData,
+                    new TypeReference<Map<String, Object>>() {});
+            }
+
+            // attendance 필드 업데이트
+            Map<String, Object> attendanceMap = new HashMap<>();
+            attendanceMap.put("summary", attendanceData.getSummary());
+            attendanceMap.put("sessions", attendanceData.getSessions());
+            attendanceMap.put("pendingRequests", attendanceData.getPendingRequests());
+
+            jsonMap.put("attendance", attendanceMap);
+
+            return objectMapper.writeValueAsString(jsonMap);
+
+        } catch (Exception e) {
+            log.error("JSON 직렬화 오류", e);
+            throw new RuntimeException("JSON 변환 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    /**
+     * 회차 출석 상태 기록 (교수 출석 체크/사유 승인)
+     * - 같은 회차 기록이 있으면 상태 갱신, 없으면 추가
+     * - 같은 회차의 대기 요청은 교수 기록으로 확정되므로 제거 (다른 회차 요청은 유지)
+     * - summary 재계산
+     *
+     * @param approvedBy 기록한 교수 USER_IDX (없으면 null)
+     */
+    public void markSession(AttendanceDataDto attendanceData, int sessionNumber, String status,
+                            Integer approvedBy, String enrollmentDataJson) {
+        LocalDateTime now = LocalDateTime.now();
+
+        AttendanceSessionDto target = null;
+        for (AttendanceSessionDto session : attendanceData.getSessions()) {
+            if (session.getSessionNumber() != null && session.getSessionNumber() == sessionNumber) {
+                target = session;
+                break;
+            }
+        }
+
+        LocalDateTime requestDate = null;
+        Iterator<AttendancePendingRequestDto> pending = attendanceData.getPendingRequests().iterator();
+        while (pending.hasNext()) {
+            AttendancePendingRequestDto request = pending.next();
+            if (request.getSessionNumber() != null && request.getSessionNumber() == sessionNumber) {
+                requestDate = request.getRequestDate();
+                pending.remove();
+            }
+        }
+
+        if (target == null) {
+            target = new AttendanceSessionDto();
+            target.setSessionNumber(sessionNumber);
+            target.setRequestDate(requestDate);
+            attendanceData.getSessions().add(target);
+        }
+        target.setStatus(status);
+        target.setApprovedDate(now);
+        target.setApprovedBy(approvedBy);
+        target.setTempApproved(false); // 교수가 직접 기록
+
+        attendanceData.setSummary(calculateSummary(attendanceData.getSessions(), enrollmentDataJson));
+    }
+
+    /**
+     * sessions 배열과 gradeConfig를 기반으로 summary 통계 계산
+     *
+     * @param sessions 출석 세션 목록
+     * @param enrollmentDataJson 수강 정보 JSON (gradeConfig 포함)
+     * @return 출석 통계 (지각 패널티 반영)
+     */
+    @SuppressWarnings("unchecked")
+    public AttendanceSummaryDto calculateSummary(List<AttendanceSessionDto> sessions, String enrollmentDataJson) {
+        int attended = 0;
+        int late = 0;
+        int absent = 0;
+
+        // 출석/지각/결석 카운트
+        for (AttendanceSessionDto session : sessions) {
+            if (session.getStatus() == null) {
+                continue;
+            }
+            switch (session.getStatus()) {
+                case "출": attended++; break;
+                case "지": late++; break;
+                case "결": absent++; break;
+                default: break;
+            }
+        }
+
+        // gradeConfig에서 지각 패널티 조회 (기본값: 0.4)
+        double latePenalty = DEFAULT_LATE_PENALTY;
+        try {
+            if (enrollmentDataJson != null && !enrollmentDataJson.isEmpty()) {
+                Map<String, Object> enrollmentDataMap = objectMapper.readValue(
+                    enrollmentDataJson,
+                    new TypeReference<Map<String, Object>>() {}
+                );
+
+                Object gradeConfigObj = enrollmentDataMap.get("gradeConfig");
+                if (gradeConfigObj instanceof Map) {
+                    Object penalty = ((Map<String, Object>) gradeConfigObj).get("latePenaltyPerSession");
+                    if (penalty instanceof Number) {
+                        latePenalty = ((Number) penalty).doubleValue();
+                        log.debug("지각 패널티 로드: {}", latePenalty);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("gradeConfig 파싱 실패, 기본 패널티 사용: 0.4", e);
+        }
+
+        // 실제 출석 횟수 = 출석 + (지각 × (1 - 패널티))
+        // 예: 지각 패널티 0.4 → 지각 1회 = 0.6회 출석
+        double effectiveAttendance = attended + (late * (1.0 - latePenalty));
+
+        // 출석률 = (실제 출석 횟수 / 80) × 100
+        double attendanceRate = (effectiveAttendance * 100.0) / TOTAL_SESSIONS;
+        attendanceRate = Math.round(attendanceRate * 100.0) / 100.0; // 소수점 2자리
+
+        log.debug("출석 통계 계산: 출석={}, 지각={}, 결석={}, 패널티={}, 실제출석={}, 출석률={}%",
+                  attended, late, absent, latePenalty, effectiveAttendance, attendanceRate);
+
+        return new AttendanceSummaryDto(
+            attended,
+            late,
+            absent,
+            TOTAL_SESSIONS,  // 80회
+            attendanceRate,
+            LocalDateTime.now()
+        );
+    }
+
+    /**
+     * 문자열 형식 출석 기록("1출2결...")을 sessions로 변환
+     * (summary는 다음 기록 시 재계산)
+     */
+    private AttendanceDataDto fromLegacyString(String attendanceStr) {
+        AttendanceDataDto dto = createEmpty();
+        byte[] slots = AttendanceCodec.decode(attendanceStr);
+        for (int session = 1; session < slots.length; session++) {
+            if (slots[session] != AttendanceCodec.NONE) {
+                AttendanceSessionDto record = new AttendanceSessionDto();
+                record.setSessionNumber(session);
+                record.setStatus(AttendanceCodec.toStatusString(slots[session]));
+                record.setTempApproved(false);
+                dto.getSessions().add(record);
+            }
+        }
+        return dto;
+    }
+}
@@ -4,13 +4,13 @@ import BlueCrab.com.example.dto.Lecture.Attendance.*;
 import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
 import BlueCrab.com.example.service.Lecture.AttendanceRequestService;
-import BlueCrab.com.example.service.Lecture.GradeCalculationService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import BlueCrab.com.example.service.Lecture.GradeUpdateCoalescer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -34,19 +34,21 @@ import java.util.stream.Collectors;
 @Transactional
 public class AttendanceRequestServiceImpl implements AttendanceRequestService {
     
+    private static final int EXPIRY_BATCH_SIZE = 200;
+    
     private final EnrollmentExtendedTblRepository enrollmentRepository;
-    private final ObjectMapper objectMapper;
-    private final GradeCalculationService gradeCalculationService;
+    private final AttendanceDataSupport attendanceDataSupport;
+    private final GradeUpdateCoalescer gradeUpdateCoalescer;
     
     @Autowired
     public AttendanceRequestServiceImpl(
         EnrollmentExtendedTblRepository enrollmentRepository,
-        ObjectMapper objectMapper,
-        @Lazy GradeCalculationService gradeCalculationService
+        AttendanceDataSupport attendanceDataSupport,
+        @Lazy GradeUpdateCoalescer gradeUpdateCoalescer
     ) {
         this.enrollmentRepository = enrollmentRepository;
-        this.objectMapper = objectMapper;
-        this.gradeCalculationService = gradeCalculationService;
+        this.attendanceDataSupport = attendanceDataSupport;
+        this.gradeUpdateCoalescer = gradeUpdateCoalescer;
     }
     
     @Override
@@ -66,7 +68,7 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
                 .orElseThrow(() -> new NoSuchElementException("수강 정보를 찾을 수 없습니다."));
             
             // 2. JSON 파싱
-            AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
+            AttendanceDataDto attendanceData = attendanceDataSupport.parse(enrollment.getEnrollmentData());
             
             // 3. 중복 검증
             if (isDuplicateRequest(attendanceData, sessionNumber)) {
@@ -89,7 +91,7 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
             attendanceData.getPendingRequests().add(newRequest);
             
             // 5. JSON 직렬화 및 저장
-            String updatedJson = serializeToEnrollmentData(attendanceData, enrollment.getEnrollmentData());
+            String updatedJson = attendanceDataSupport.serialize(attendanceData, enrollment.getEnrollmentData());
             enrollment.setEnrollmentData(updatedJson);
             enrollmentRepository.save(enrollment);
             
@@ -167,7 +169,7 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
                 "수강 정보를 찾을 수 없습니다: studentIdx=" + record.getStudentIdx()));
         
         // 2. JSON 파싱
-        AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
+        AttendanceDataDto attendanceData = attendanceDataSupport.parse(enrollment.getEnrollmentData());
         
         // 3. pendingRequests에서 제거
         AttendancePendingRequestDto pendingRequest = removePendingRequest(
@@ -193,18 +195,18 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
         attendanceData.getSessions().add(session);
         
         // 5. summary 재계산 (enrollment 객체 전달하여 gradeConfig 참조)
-        AttendanceSummaryDto summary = calculateSummary(attendanceData.getSessions(), enrollment);
+        AttendanceSummaryDto summary = attendanceDataSupport.calculateSummary(attendanceData.getSessions(), enrollment.getEnrollmentData());
         attendanceData.setSummary(summary);
         
         // 6. JSON 직렬화 및 저장
-        String updatedJson = serializeToEnrollmentData(attendanceData, enrollment.getEnrollmentData());
+        String updatedJson = attendanceDataSupport.serialize(attendanceData, enrollment.getEnrollmentData());
         enrollment.setEnrollmentData(updatedJson);
         enrollmentRepository.save(enrollment);
         
         log.info("출석 데이터 저장 완료: lecSerial={}, studentIdx={}, sessionNumber={}", 
                  lecSerial, record.getStudentIdx(), sessionNumber);
         
-        // 7. 성적 재계산 (출석 점수 자동 반영) - 별도 트랜잭션으로 실행 (REQUIRES_NEW)
+        // 7. 성적 재계산 (출석 점수 자동 반영) - 병합 큐에 적재 후 강의 단위로 일괄 재계산
         // 성적 재계산 실패해도 출석 승인은 유지됨
         Integer lecIdx = enrollment.getLecIdx();
         Integer studentIdx = record.getStudentIdx();
@@ -214,11 +216,10 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
             @Override
             public void afterCommit() {
                 try {
-                    log.info("성적 재계산 시작: lecIdx={}, studentIdx={}", lecIdx, studentIdx);
-                    gradeCalculationService.calculateStudentGrade(lecIdx, studentIdx);
-                    log.info("성적 재계산 완료: lecIdx={}, studentIdx={}", lecIdx, studentIdx);
+                    gradeUpdateCoalescer.enqueue(lecIdx, studentIdx);
+                    log.info("성적 재계산 요청 적재: lecIdx={}, studentIdx={}", lecIdx, studentIdx);
                 } catch (Exception e) {
-                    log.error("성적 재계산 실패: lecIdx={}, studentIdx={}, error={}", 
+                    log.error("성적 재계산 요청 적재 실패: lecIdx={}, studentIdx={}, error={}", 
                               lecIdx, studentIdx, e.getMessage(), e);
                     // 성적 재계산 실패해도 출석 승인은 이미 커밋됨
                 }
@@ -238,7 +239,7 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
                 .findByLecSerialAndStudentIdx(lecSerial, studentIdx)
                 .orElseThrow(() -> new NoSuchElementException("수강 정보를 찾을 수 없습니다."));
             
-            AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
+            AttendanceDataDto attendanceData = attendanceDataSupport.parse(enrollment.getEnrollmentData());
             
             // 프론트엔드 호환성 필드 설정
             enrichAttendanceDataForFrontend(attendanceData);
@@ -275,7 +276,7 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
                     dto.setStudentCode(enrollment.getStudent().getUserCode());
                     dto.setStudentName(enrollment.getStudent().getUserName());
                     
-                    AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
+                    AttendanceDataDto attendanceData = attendanceDataSupport.parse(enrollment.getEnrollmentData());
                     // 프론트엔드 호환성 필드 설정
                     enrichAttendanceDataForFrontend(attendanceData);
                     
@@ -292,7 +293,13 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
         }
     }
     
+    /**
+     * 만료된 출석 요청 자동 승인
+     * 배치(EXPIRY_BATCH_SIZE) 단위로 조회 즉시 처리하여 한 번에 메모리에 올리는 수강 정보를 제한하고,
+     * 수강 정보별 저장은 개별 트랜잭션으로 커밋 (한 건 실패가 전체 배치를 롤백하지 않도록)
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int processExpiredRequests() {
         log.info("만료된 출석 요청 자동 승인 처리 시작");
         
@@ -300,67 +307,18 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
         LocalDateTime now = LocalDateTime.now();
         
         try {
-            // 모든 수강 정보 조회
-            List<EnrollmentExtendedTbl> allEnrollments = enrollmentRepository.findAll();
-            
-            for (EnrollmentExtendedTbl enrollment : allEnrollments) {
-                try {
-                    AttendanceDataDto attendanceData = parseAttendanceData(enrollment.getEnrollmentData());
-                    
-                    if (attendanceData.getPendingRequests() == null || 
-                        attendanceData.getPendingRequests().isEmpty()) {
-                        continue;
-                    }
-                    
-                    List<AttendancePendingRequestDto> expiredRequests = new ArrayList<>();
-                    List<AttendancePendingRequestDto> remainingRequests = new ArrayList<>();
-                    
-                    // 만료된 요청과 유효한 요청 분리
-                    for (AttendancePendingRequestDto request : attendanceData.getPendingRequests()) {
-                        if (now.isAfter(request.getExpiresAt())) {
-                            expiredRequests.add(request);
-                        } else {
-                            remainingRequests.add(request);
-                        }
-                    }
-                    
-                    if (expiredRequests.isEmpty()) {
-                        continue;
-                    }
-                    
-                    // 만료된 요청을 sessions로 이동 (자동 출석 처리)
-                    if (attendanceData.getSessions() == null) {
-                        attendanceData.setSessions(new ArrayList<>());
-                    }
-                    
-                    for (AttendancePendingRequestDto expired : expiredRequests) {
-                        AttendanceSessionDto session = new AttendanceSessionDto();
-                        session.setSessionNumber(expired.getSessionNumber());
-                        session.setStatus("출"); // 자동 출석 처리
-                        session.setRequestDate(expired.getRequestDate());
-                        session.setApprovedDate(now);
-                        session.setApprovedBy(null); // 자동 승인은 승인자 없음
-                        session.setTempApproved(true); // 자동 승인 플래그
-                        
-                        attendanceData.getSessions().add(session);
-                        processedCount++;
-                    }
-                    
-                    // pendingRequests 업데이트
-                    attendanceData.setPendingRequests(remainingRequests);
-                    
-                    // summary 재계산 (enrollment 객체 전달하여 gradeConfig 참조)
-                    attendanceData.setSummary(calculateSummary(attendanceData.getSessions(), enrollment));
-                    
-                    // 저장
-                    String updatedJson = serializeToEnrollmentData(attendanceData, enrollment.getEnrollmentData());
-                    enrollment.setEnrollmentData(updatedJson);
-                    enrollmentRepository.save(enrollment);
-                    
-                } catch (Exception e) {
-                    log.error("자동 승인 처리 실패: enrollmentIdx={}", enrollment.getEnrollmentIdx(), e);
+            // 만료 대상 수강 정보만 조회 (PENDING_EXPIRES_AT 인덱스, enrollmentIdx 키셋 페이징)
+            int afterEnrollmentIdx = 0;
+            List<EnrollmentExtendedTbl> batch;
+            do {
+                batch = enrollmentRepository.findDuePendingRequests(
+                    now, afterEnrollmentIdx, PageRequest.of(0, EXPIRY_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
                 }
-            }
+                afterEnrollmentIdx = batch.get(batch.size() - 1).getEnrollmentIdx();
+                processedCount += approveExpiredRequests(batch, now);
+            } while (batch.size() == EXPIRY_BATCH_SIZE);
             
             log.info("만료된 출석 요청 자동 승인 처리 완료: 처리 건수={}", processedCount);
             
@@ -371,58 +329,77 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
         return processedCount;
     }
     
-    // ========== 유틸리티 메서드 ==========
-    
     /**
-     * ENROLLMENT_DATA JSON에서 attendance 데이터 파싱
+     * 배치 내 수강 정보의 만료된 요청을 자동 출석 처리
+     * 
+     * @return 자동 승인된 요청 수
      */
-    private AttendanceDataDto parseAttendanceData(String enrollmentData) {
-        try {
-            if (enrollmentData == null || enrollmentData.isEmpty()) {
-                return createEmptyAttendanceData();
-            }
-            
-            Map<String, Object> jsonMap = objectMapper.readValue(enrollmentData, 
-                new TypeReference<Map<String, Object>>() {});
-            
-            Object attendanceObj = jsonMap.get("attendance");
-            if (attendanceObj == null) {
-                return createEmptyAttendanceData();
-            }
-            
-            // attendance 객체를 AttendanceDataDto로 변환
-            String attendanceJson = objectMapper.writeValueAsString(attendanceObj);
-            AttendanceDataDto dto = objectMapper.readValue(attendanceJson, AttendanceDataDto.class);
-            
-            // null 체크 및 초기화
-            if (dto.getSummary() == null) {
-                dto.setSummary(new AttendanceSummaryDto(0, 0, 0, 80, 0.0, LocalDateTime.now()));
-            }
-            if (dto.getSessions() == null) {
-                dto.setSessions(new ArrayList<>());
-            }
-            if (dto.getPendingRequests() == null) {
-                dto.setPendingRequests(new ArrayList<>());
+    private int approveExpiredRequests(List<EnrollmentExtendedTbl> batch, LocalDateTime now) {
+        int processedCount = 0;
+        
+        for (EnrollmentExtendedTbl enrollment : batch) {
+            try {
+                AttendanceDataDto attendanceData = attendanceDataSupport.parse(enrollment.getEnrollmentData());
+                
+                if (attendanceData.getPendingRequests() == null || 
+                    attendanceData.getPendingRequests().isEmpty()) {
+                    continue;
+                }
+                
+                List<AttendancePendingRequestDto> expiredRequests = new ArrayList<>();
+                List<AttendancePendingRequestDto> remainingRequests = new ArrayList<>();
+                
+                // 만료된 요청과 유효한 요청 분리
+                for (AttendancePendingRequestDto request : attendanceData.getPendingRequests()) {
+                    if (now.isAfter(request.getExpiresAt())) {
+                        expiredRequests.add(request);
+                    } else {
+                        remainingRequests.add(request);
+                    }
+                }
+                
+                if (expiredRequests.isEmpty()) {
+                    continue;
+                }
+                
+                // 만료된 요청을 sessions로 이동 (자동 출석 처리)
+                if (attendanceData.getSessions() == null) {
+                    attendanceData.setSessions(new ArrayList<>());
+                }
+                
+                for (AttendancePendingRequestDto expired : expiredRequests) {
+                    AttendanceSessionDto session = new AttendanceSessionDto();
+                    session.setSessionNumber(expired.getSessionNumber());
+                    session.setStatus("출"); // 자동 출석 처리
+                    session.setRequestDate(expired.getRequestDate());
+                    session.setApprovedDate(now);
+                    session.setApprovedBy(null); // 자동 승인은 승인자 없음
+                    session.setTempApproved(true); // 자동 승인 플래그
+                    
+                    attendanceData.getSessions().add(session);
+                    processedCount++;
+                }
+                
+                // pendingRequests 업데이트
+                attendanceData.setPendingRequests(remainingRequests);
+                
+                // summary 재계산 (enrollment 객체 전달하여 gradeConfig 참조)
+                attendanceData.setSummary(attendanceDataSupport.calculateSummary(attendanceData.getSessions(), enrollment.getEnrollmentData()));
+                
+                // 저장
+                String updatedJson = attendanceDataSupport.serialize(attendanceData, enrollment.getEnrollmentData());
+                enrollment.setEnrollmentData(updatedJson);
+                enrollmentRepository.save(enrollment);
+                
+            } catch (Exception e) {
+                log.error("자동 승인 처리 실패: enrollmentIdx={}", enrollment.getEnrollmentIdx(), e);
             }
-            
-            return dto;
-            
-        } catch (Exception e) {
-            log.error("JSON 파싱 오류", e);
-            return createEmptyAttendanceData();
         }
+        
+        return processedCount;
     }
     
-    /**
-     * 빈 출석 데이터 생성
-     */
-    private AttendanceDataDto createEmptyAttendanceData() {
-        AttendanceDataDto dto = new AttendanceDataDto();
-        dto.setSummary(new AttendanceSummaryDto(0, 0, 0, 80, 0.0, LocalDateTime.now()));
-        dto.setSessions(new ArrayList<>());
-        dto.setPendingRequests(new ArrayList<>());
-        return dto;
-    }
+    // ========== 유틸리티 메서드 ==========
     
     /**
      * 프론트엔드 호환성을 위한 필드 자동 계산 및 설정
@@ -466,105 +443,6 @@ public class AttendanceRequestServiceImpl implements AttendanceRequestService {
     }
 
     
-    /**
-     * AttendanceDataDto를 ENROLLMENT_DATA JSON에 병합
-     */
-    private String serializeToEnrollmentData(AttendanceDataDto attendanceData, String existingData) {
-        try {
-            Map<String, Object> jsonMap;
-            
-            if (existingData == null || existingData.isEmpty()) {
-                jsonMap = new HashMap<>();
-            } else {
-                jsonMap = objectMapper.readValue(existingData, 
-                    new TypeReference<Map<String, Object>>() {});
-            }
-            
-            // attendance 필드 업데이트
-            Map<String, Object> attendanceMap = new HashMap<>();
-            attendanceMap.put("summary", attendanceData.getSummary());
-            attendanceMap.put("sessions", attendanceData.getSessions());
-            attendanceMap.put("pendingRequests", attendanceData.getPendingRequests());
-            
-            jsonMap.put("attendance", attendanceMap);
-            
-            return objectMapper.writeValueAsString(jsonMap);
-            
-        } catch (Exception e) {
-            log.error("JSON 직렬화 오류", e);
-            throw new RuntimeException("JSON 변환 중 오류가 발생했습니다.", e);
-        }
-    }
-    
-    /**
-     * sessions 배열과 gradeConfig를 기반으로 summary 통계 계산
-     * 
-     * @param sessions 출석 세션 목록
-     * @param enrollment 수강 정보 (gradeConfig 포함)
-     * @return 출석 통계 (지각 패널티 반영)
-     */
-    @SuppressWarnings("unchecked")
-    private AttendanceSummaryDto calculateSummary(List<AttendanceSessionDto> sessions, EnrollmentExtendedTbl enrollment) {
-        int attended = 0;
-        int late = 0;
-        int absent = 0;
-        
-        // 출석/지각/결석 카운트
-        for (AttendanceSessionDto session : sessions) {
-            switch (session.getStatus()) {
-                case "출": attended++; break;
-                case "지": late++; break;
-                case "결": absent++; break;
-            }
-        }
-        
-        // gradeConfig에서 지각 패널티 조회 (기본값: 0.4)
-        double latePenalty = 0.4;
-        try {
-            String enrollmentDataJson = enrollment.getEnrollmentData();
-            if (enrollmentDataJson != null && !enrollmentDataJson.isEmpty()) {
-                Map<String, Object> enrollmentDataMap = objectMapper.readValue(
-                    enrollmentDataJson, 
-                    new TypeReference<Map<String, Object>>() {}
-                );
-                
-                Map<String, Object> gradeConfig = (Map<String, Object>) enrollmentDataMap.get("gradeConfig");
-                if (gradeConfig != null && gradeConfig.containsKey("latePenaltyPerSession")) {
-                    Object penalty = gradeConfig.get("latePenaltyPerSession");
-                    if (penalty instanceof Number) {
-                        latePenalty = ((Number) penalty).doubleValue();
-                        log.debug("지각 패널티 로드: {}", latePenalty);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.warn("gradeConfig 파싱 실패, 기본 패널티 사용: 0.4", e);
-        }
-        
-        // 전체 강의 회차는 80회 고정
-        int totalSessions = 80;
-        
-        // 실제 출석 횟수 = 출석 + (지각 × (1 - 패널티))
-        // 예: 지각 패널티 0.4 → 지각 1회 = 0.6회 출석
-        double effectiveAttendance = attended + (late * (1.0 - latePenalty));
-        
-        // 출석률 = (실제 출석 횟수 / 80) × 100
-        double attendanceRate = (effectiveAttendance * 100.0) / totalSessions;
-        attendanceRate = Math.round(attendanceRate * 100.0) / 100.0; // 소수점 2자리
-        
-        log.debug("출석 통계 계산: 출석={}, 지각={}, 결석={}, 패널티={}, 실제출석={}, 출석률={}%", 
-                  attended, late, absent, latePenalty, effectiveAttendance, attendanceRate);
-        
-        return new AttendanceSummaryDto(
-            attended,
-            late,
-            absent,
-            totalSessions,  // 80회
-            attendanceRate,
-            LocalDateTime.now()
-        );
-    }
-    
     /**
      * 중복 요청 여부 검증
      */
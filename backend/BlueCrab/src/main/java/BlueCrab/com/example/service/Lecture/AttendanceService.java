@@ -1,9 +1,13 @@
 package BlueCrab.com.example.service.Lecture;
 
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendanceDataDto;
+import BlueCrab.com.example.dto.Lecture.Attendance.AttendanceSummaryDto;
 import BlueCrab.com.example.entity.Lecture.AttendanceRequestTbl;
 import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.repository.Lecture.AttendanceRequestRepository;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
+import BlueCrab.com.example.service.Lecture.Attendance.AttendanceDataSupport;
+import BlueCrab.com.example.util.AttendanceCodec;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -14,15 +18,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 출석 관리 서비스
  * 
  * 기능:
- * 1. 출석 문자열 파싱: "1출2출3결4출...80출"
+ * 1. 출석 문자열 파싱: "1출2출3결4출...80출" (AttendanceCodec 고정 슬롯)
  * 2. 출석률 계산: "75/80"
  * 3. 출석 기록 업데이트
  * 4. 사유 신청 승인/반려
@@ -40,6 +43,9 @@ public class AttendanceService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AttendanceDataSupport attendanceDataSupport;
+
     // 출석 상태 상수 (출/결/지 3가지만 사용)
     public static final String STATUS_PRESENT = "출";  // 출석
     public static final String STATUS_ABSENT = "결";   // 결석
@@ -63,14 +69,12 @@ public class AttendanceService {
             return result;
         }
 
-        // 정규식: 숫자 + 한글 1글자 (출/결/지 3가지만)
-        Pattern pattern = Pattern.compile("(\\d+)([출결지])");
-        Matcher matcher = pattern.matcher(attendanceStr);
-
-        while (matcher.find()) {
-            int sessionNumber = Integer.parseInt(matcher.group(1));
-            String status = matcher.group(2);
-            result.put(sessionNumber, status);
+        // 고정 슬롯 코덱으로 1회 순회 (정규식 미사용)
+        byte[] slots = AttendanceCodec.decode(attendanceStr);
+        for (int session = 1; session < slots.length; session++) {
+            if (slots[session] != AttendanceCodec.NONE) {
+                result.put(session, AttendanceCodec.toStatusString(slots[session]));
+            }
         }
 
         return result;
@@ -83,17 +87,16 @@ public class AttendanceService {
      * @return "1출2출3결4출...80출"
      */
     public String buildAttendanceString(Map<Integer, String> attendanceMap) {
-        StringBuilder sb = new StringBuilder();
-        
-        // 회차 번호 순으로 정렬
-        List<Integer> sessions = new ArrayList<>(attendanceMap.keySet());
-        Collections.sort(sessions);
-
-        for (Integer session : sessions) {
-            sb.append(session).append(attendanceMap.get(session));
+        // 회차 번호를 슬롯 인덱스로 사용하므로 정렬 불필요
+        byte[] slots = AttendanceCodec.newSlots();
+        for (Map.Entry<Integer, String> entry : attendanceMap.entrySet()) {
+            Integer session = entry.getKey();
+            if (session != null && session >= 1 && session <= AttendanceCodec.MAX_SESSIONS) {
+                slots[session] = AttendanceCodec.toStatus(entry.getValue());
+            }
         }
 
-        return sb.toString();
+        return AttendanceCodec.encode(slots);
     }
 
     /**
@@ -104,17 +107,8 @@ public class AttendanceService {
      * @return "75/80" (출석+지각 합계 / 총 회차)
      */
     public String calculateAttendanceRate(String attendanceStr, int totalSessions) {
-        Map<Integer, String> attendanceMap = parseAttendanceString(attendanceStr);
-
-        int presentCount = 0;
-        for (String status : attendanceMap.values()) {
-            // 출석, 지각만 출석으로 인정
-            if (STATUS_PRESENT.equals(status) || STATUS_LATE.equals(status)) {
-                presentCount++;
-            }
-        }
-
-        return presentCount + "/" + totalSessions;
+        // 출석, 지각만 출석으로 인정
+        return AttendanceCodec.countAttended(attendanceStr) + "/" + totalSessions;
     }
 
     /**
@@ -132,34 +126,12 @@ public class AttendanceService {
                 .orElseThrow(() -> new RuntimeException("수강신청을 찾을 수 없습니다."));
 
         try {
-            // ENROLLMENT_DATA JSON 파싱
-            ObjectNode enrollmentData;
-            if (enrollment.getEnrollmentData() == null || enrollment.getEnrollmentData().isEmpty()) {
-                enrollmentData = objectMapper.createObjectNode();
-            } else {
-                enrollmentData = (ObjectNode) objectMapper.readTree(enrollment.getEnrollmentData());
+            if (AttendanceCodec.toStatus(status) == AttendanceCodec.NONE) {
+                throw new RuntimeException("status는 '출', '결', '지' 중 하나여야 합니다.");
             }
-
-            // 기존 출석 문자열 가져오기
-            String attendanceStr = enrollmentData.has("attendance") ? 
-                    enrollmentData.get("attendance").asText() : "";
-
-            // Map으로 변환 후 업데이트
-            Map<Integer, String> attendanceMap = parseAttendanceString(attendanceStr);
-            attendanceMap.put(sessionNumber, status);
-
-            // 다시 문자열로 변환
-            String updatedAttendanceStr = buildAttendanceString(attendanceMap);
-
-            // 출석률 계산
-            String attendanceRate = calculateAttendanceRate(updatedAttendanceStr, 80);
-
-            // JSON 업데이트
-            enrollmentData.put("attendance", updatedAttendanceStr);
-            enrollmentData.put("attendanceRate", attendanceRate);
+            String attendanceRate = writeAttendanceStatus(enrollment, sessionNumber, status, null);
 
             // 저장
-            enrollment.setEnrollmentData(objectMapper.writeValueAsString(enrollmentData));
             enrollment = enrollmentRepository.save(enrollment);
 
             log.info("출석 기록 완료: enrollmentIdx={}, session={}, status={}, rate={}", 
@@ -173,6 +145,80 @@ public class AttendanceService {
         }
     }
 
+    /**
+     * 회차 단위 일괄 출석 기록 (교수가 한 회차의 수강생 전체 출석 체크)
+     * - 수강신청 일괄 조회 후 단일 트랜잭션에서 saveAll
+     * - 학생별 attendance.sessions 갱신 및 summary 재계산 (대기 요청 유지)
+     * 
+     * @param lecIdx 강의 IDX (다른 강의의 수강신청 포함 시 예외)
+     * @param sessionNumber 회차 번호 (1~80)
+     * @param statusByEnrollment Map<수강신청 IDX, 출석 상태(출/결/지)>
+     * @return 출석 기록된 수강신청 목록 (성적 재계산 이벤트 발행용)
+     */
+    @Transactional
+    public List<EnrollmentExtendedTbl> markSessionAttendance(Integer lecIdx,
+                                     Integer sessionNumber,
+                                     Map<Integer, String> statusByEnrollment) {
+        if (sessionNumber == null || sessionNumber < 1 || sessionNumber > AttendanceCodec.MAX_SESSIONS) {
+            throw new RuntimeException("회차 번호는 1~" + AttendanceCodec.MAX_SESSIONS + " 사이여야 합니다.");
+        }
+
+        List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findAllById(statusByEnrollment.keySet());
+        if (enrollments.size() != statusByEnrollment.size()) {
+            throw new RuntimeException("수강신청을 찾을 수 없습니다.");
+        }
+
+        for (EnrollmentExtendedTbl enrollment : enrollments) {
+            if (!enrollment.getLecIdx().equals(lecIdx)) {
+                throw new RuntimeException("해당 강의의 수강신청이 아닙니다: enrollmentIdx=" + enrollment.getEnrollmentIdx());
+            }
+
+            String status = statusByEnrollment.get(enrollment.getEnrollmentIdx());
+            if (AttendanceCodec.toStatus(status) == AttendanceCodec.NONE) {
+                throw new RuntimeException("status는 '출', '결', '지' 중 하나여야 합니다: enrollmentIdx="
+                        + enrollment.getEnrollmentIdx());
+            }
+
+            try {
+                writeAttendanceStatus(enrollment, sessionNumber, status, null);
+            } catch (Exception e) {
+                log.error("일괄 출석 기록 실패: enrollmentIdx={}", enrollment.getEnrollmentIdx(), e);
+                throw new RuntimeException("출석 기록 중 오류가 발생했습니다.", e);
+            }
+        }
+
+        List<EnrollmentExtendedTbl> saved = enrollmentRepository.saveAll(enrollments);
+
+        log.info("일괄 출석 기록 완료: lecIdx={}, session={}, students={}", lecIdx, sessionNumber, saved.size());
+
+        return saved;
+    }
+
+    /**
+     * 수강신청 JSON의 attendance.sessions에 회차 상태 반영 후 summary 재계산 (저장은 호출 측에서 수행)
+     * attendance 객체의 pendingRequests 등 다른 필드는 유지 (AttendanceDataSupport 공통 규칙)
+     * 
+     * @param status 출석 상태 (출/결/지)
+     * @param approvedBy 기록한 교수 USER_IDX (없으면 null)
+     * @return 갱신된 출석률 ("75/80", 출석+지각 / 총 회차)
+     */
+    private String writeAttendanceStatus(EnrollmentExtendedTbl enrollment,
+                                         int sessionNumber,
+                                         String status,
+                                         Integer approvedBy) throws IOException {
+        if (sessionNumber < 1 || sessionNumber > AttendanceCodec.MAX_SESSIONS) {
+            throw new RuntimeException("회차 번호는 1~" + AttendanceCodec.MAX_SESSIONS + " 사이여야 합니다.");
+        }
+
+        String enrollmentJson = enrollment.getEnrollmentData();
+        AttendanceDataDto attendanceData = attendanceDataSupport.parseForUpdate(enrollmentJson);
+        attendanceDataSupport.markSession(attendanceData, sessionNumber, status, approvedBy, enrollmentJson);
+        enrollment.setEnrollmentData(attendanceDataSupport.serialize(attendanceData, enrollmentJson));
+
+        AttendanceSummaryDto summary = attendanceData.getSummary();
+        return (summary.getAttended() + summary.getLate()) + "/" + summary.getTotalSessions();
+    }
+
     /**
      * 사유 신청 (학생)
      * 
@@ -231,22 +277,9 @@ public class AttendanceService {
                 .orElseThrow(() -> new RuntimeException("수강신청을 찾을 수 없습니다."));
 
         try {
-            ObjectNode enrollmentData = (ObjectNode) objectMapper.readTree(enrollment.getEnrollmentData());
-            String attendanceStr = enrollmentData.has("attendance") ? 
-                    enrollmentData.get("attendance").asText() : "";
-
-            Map<Integer, String> attendanceMap = parseAttendanceString(attendanceStr);
-            
             // "결"이면 "출"로 변경, 없으면 "출" 추가
-            attendanceMap.put(request.getSessionNumber(), STATUS_PRESENT);
-
-            String updatedAttendanceStr = buildAttendanceString(attendanceMap);
-            String attendanceRate = calculateAttendanceRate(updatedAttendanceStr, 80);
+            writeAttendanceStatus(enrollment, request.getSessionNumber(), STATUS_PRESENT, professorIdx);
 
-            enrollmentData.put("attendance", updatedAttendanceStr);
-            enrollmentData.put("attendanceRate", attendanceRate);
-
-            enrollment.setEnrollmentData(objectMapper.writeValueAsString(enrollmentData));
             enrollment = enrollmentRepository.save(enrollment);
 
             log.info("출석 인정 완료: requestIdx={}, session={} -> 출석 처리", 
@@ -334,22 +367,35 @@ public class AttendanceService {
                 .findByStudentIdxAndLecIdx(studentIdx, lecIdx)
                 .orElseThrow(() -> new IllegalArgumentException("수강 정보를 찾을 수 없습니다."));
 
+            Map<String, Object> result = calculateAttendanceScoreFromData(enrollment.getEnrollmentData());
+
+            log.debug("출석 점수 계산: lecIdx={}, studentIdx={}, result={}", lecIdx, studentIdx, result);
+
+            return result;
+
+        } catch (Exception e) {
+            log.error("출석 점수 계산 실패: lecIdx={}, studentIdx={}", lecIdx, studentIdx, e);
+            throw new RuntimeException("출석 점수 계산 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    /**
+     * ENROLLMENT_DATA JSON으로부터 출석 점수 계산 (DB 조회 없음)
+     * 강의 단위 일괄 재계산에서 이미 조회한 수강 정보를 재사용할 때 사용
+     * 
+     * @param enrollmentJson ENROLLMENT_DATA JSON 문자열
+     * @return Map {maxScore: 20.0, currentScore: 18.5, percentage: 92.50, ...} (수정 가능한 HashMap)
+     */
+    public Map<String, Object> calculateAttendanceScoreFromData(String enrollmentJson) {
+        try {
             // ENROLLMENT_DATA JSON 파싱
             ObjectNode enrollmentData;
-            if (enrollment.getEnrollmentData() == null || enrollment.getEnrollmentData().isEmpty()) {
+            if (enrollmentJson == null || enrollmentJson.isEmpty()) {
                 // 출석 데이터가 없으면 0점 반환
-                return Map.of(
-                    "maxScore", 20.0,
-                    "currentScore", 0.0,
-                    "percentage", 0.00,
-                    "presentCount", 0,
-                    "lateCount", 0,
-                    "absentCount", 0,
-                    "attendanceRate", 0
-                );
+                return createEmptyAttendanceScore();
             }
 
-            enrollmentData = (ObjectNode) objectMapper.readTree(enrollment.getEnrollmentData());
+            enrollmentData = (ObjectNode) objectMapper.readTree(enrollmentJson);
             
             // ✅ 새로운 JSON 구조 (attendance.sessions) 읽기
             int presentCount = 0;  // 출석 수
@@ -370,15 +416,7 @@ public class AttendanceService {
             
             // 출석 데이터가 없으면 0점 반환
             if (presentCount == 0 && lateCount == 0 && absentCount == 0) {
-                return Map.of(
-                    "maxScore", 20.0,
-                    "currentScore", 0.0,
-                    "percentage", 0.00,
-                    "presentCount", 0,
-                    "lateCount", 0,
-                    "absentCount", 0,
-                    "attendanceRate", 0
-                );
+                return createEmptyAttendanceScore();
             }
             
             int attendanceCount = presentCount + lateCount;  // 출석율 = 출석 + 지각
@@ -404,9 +442,6 @@ public class AttendanceService {
             // currentScore도 소수점 둘째자리 반올림
             currentScore = Math.round(currentScore * 100.0) / 100.0;
 
-            log.debug("출석 점수 계산: lecIdx={}, studentIdx={}, 출석={}회, 지각={}회, 결석={}회, currentScore={}, percentage={}%", 
-                    lecIdx, studentIdx, presentCount, lateCount, absentCount, currentScore, percentage);
-
             // GradeCalculationService에서 수정 가능하도록 HashMap 사용 (Map.of()는 immutable)
             Map<String, Object> result = new HashMap<>();
             result.put("currentScore", currentScore);
@@ -419,8 +454,22 @@ public class AttendanceService {
             return result;
 
         } catch (Exception e) {
-            log.error("출석 점수 계산 실패: lecIdx={}, studentIdx={}", lecIdx, studentIdx, e);
             throw new RuntimeException("출석 점수 계산 중 오류가 발생했습니다.", e);
         }
     }
+
+    /**
+     * 출석 데이터가 없을 때의 0점 결과
+     */
+    private Map<String, Object> createEmptyAttendanceScore() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("maxScore", 20.0);
+        result.put("currentScore", 0.0);
+        result.put("percentage", 0.00);
+        result.put("presentCount", 0);
+        result.put("lateCount", 0);
+        result.put("absentCount", 0);
+        result.put("attendanceRate", 0);
+        return result;
+    }
 }
@@ -6,6 +6,7 @@ package BlueCrab.com.example.service.Lecture;
 import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
 import BlueCrab.com.example.repository.Lecture.LecTblRepository;
+import BlueCrab.com.example.service.Lecture.Transcript.TranscriptCacheService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /* 수강신청 관리 비즈니스 로직 서비스
  * 학생의 수강신청, 수강 취소, 성적 관리 등의 비즈니스 로직 처리
@@ -56,6 +58,12 @@ public class EnrollmentService {
     @Autowired
     private LectureService lectureService;
 
+    @Autowired
+    private GradeLeaderboardService gradeLeaderboardService;
+
+    @Autowired
+    private TranscriptCacheService transcriptCacheService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // ========== 수강신청 조회 메서드 ==========
@@ -181,6 +189,10 @@ public class EnrollmentService {
             throw new IllegalStateException("수강 인원 증가에 실패했습니다.");
         }
 
+        // 성적 순위표 수강생 구성 변경
+        gradeLeaderboardService.invalidate(lecIdx);
+        transcriptCacheService.invalidate(studentIdx);
+
         return enrollmentRepository.save(enrollment);
     }
 
@@ -235,6 +247,8 @@ public class EnrollmentService {
 
         // 수강 인원 감소
         lectureService.decrementEnrollment(enrollment.getLecIdx());
+        gradeLeaderboardService.invalidate(enrollment.getLecIdx());
+        transcriptCacheService.invalidate(enrollment.getStudentIdx());
 
         enrollmentRepository.deleteById(enrollmentIdx);
     }
@@ -248,6 +262,8 @@ public class EnrollmentService {
 
         // 수강 인원 감소
         lectureService.decrementEnrollment(lecIdx);
+        gradeLeaderboardService.invalidate(lecIdx);
+        transcriptCacheService.invalidate(studentIdx);
 
         enrollmentRepository.delete(enrollment);
     }
@@ -316,6 +332,8 @@ public class EnrollmentService {
             currentData.put("grade", gradeInfo);
             String jsonData = objectMapper.writeValueAsString(currentData);
             enrollment.setEnrollmentData(jsonData);
+            gradeLeaderboardService.invalidate(enrollment.getLecIdx());
+            transcriptCacheService.invalidate(enrollment.getStudentIdx());
             return enrollmentRepository.save(enrollment);
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("성적 데이터 변환 실패", e);
@@ -333,6 +351,8 @@ public class EnrollmentService {
             currentData.put("grade", gradeData);
             String jsonData = objectMapper.writeValueAsString(currentData);
             enrollment.setEnrollmentData(jsonData);
+            gradeLeaderboardService.invalidate(enrollment.getLecIdx());
+            transcriptCacheService.invalidate(enrollment.getStudentIdx());
             return enrollmentRepository.save(enrollment);
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("성적 데이터 변환 실패", e);
@@ -380,13 +400,16 @@ public class EnrollmentService {
     /* 특정 강의의 모든 수강신청 삭제 */
     @Transactional
     public void deleteAllEnrollmentsByLecture(Integer lecIdx) {
+        transcriptCacheService.invalidate(enrollmentRepository.findStudentIdxByLecIdx(lecIdx));
         enrollmentRepository.deleteByLecIdx(lecIdx);
+        gradeLeaderboardService.invalidate(lecIdx);
     }
 
     /* 특정 학생의 모든 수강신청 삭제 */
     @Transactional
     public void deleteAllEnrollmentsByStudent(Integer studentIdx) {
         enrollmentRepository.deleteByStudentIdx(studentIdx);
+        transcriptCacheService.invalidate(studentIdx);
     }
 
     /* 여러 강의의 수강신청 일괄 삭제 */
@@ -394,6 +417,9 @@ public class EnrollmentService {
     public void deleteEnrollmentsByLectures(List<Integer> lecIdxList) {
         List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findAllByLecIdxIn(lecIdxList);
         enrollmentRepository.deleteAll(enrollments);
+        transcriptCacheService.invalidate(enrollments.stream()
+                .map(EnrollmentExtendedTbl::getStudentIdx)
+                .collect(Collectors.toList()));
     }
 
     // ========== 유틸리티 메서드 ==========
@@ -428,6 +454,14 @@ public class EnrollmentService {
         return gradeCalculationService.calculateStudentGrade(lecIdx, studentIdx);
     }
 
+    /**
+     * 강의 전체 성적 일괄 재계산 (GradeCalculationService로 위임)
+     */
+    @Transactional
+    public Map<String, Object> recalculateLectureGrades(Integer lecIdx) {
+        return gradeCalculationService.recalculateLectureGrades(lecIdx);
+    }
+
     /**
      * 교수용 성적 조회 (GradeManagementService로 위임)
      */
@@ -5,17 +5,22 @@ package BlueCrab.com.example.service.Lecture;
 
 import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
+import BlueCrab.com.example.service.Lecture.Transcript.TranscriptCacheService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 성적 계산 서비스
@@ -23,8 +28,10 @@ import java.util.Map;
  * - 과제 점수 집계
  * - 총점 및 백분율 계산
  * - ENROLLMENT_DATA JSON 업데이트
+ * - 강의 단위 일괄 재계산
  */
 @Service
+@Slf4j
 @Transactional(readOnly = true)
 public class GradeCalculationService {
 
@@ -37,6 +44,12 @@ public class GradeCalculationService {
     @Autowired
     private AssignmentService assignmentService;
 
+    @Autowired
+    private GradeLeaderboardService gradeLeaderboardService;
+
+    @Autowired
+    private TranscriptCacheService transcriptCacheService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -56,59 +69,14 @@ public class GradeCalculationService {
                 .findByStudentIdxAndLecIdx(studentIdx, lecIdx)
                 .orElseThrow(() -> new IllegalArgumentException("수강신청 정보를 찾을 수 없습니다."));
 
-            // 2. 기존 JSON 데이터 파싱
-            Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> gradeData = (Map<String, Object>) enrollmentData
-                .computeIfAbsent("grade", k -> new HashMap<>());
-
-            // 3. 성적 구성 설정 조회 (지각 감점 설정 확인)
-            @SuppressWarnings("unchecked")
-            Map<String, Object> gradeConfig = (Map<String, Object>) enrollmentData.get("gradeConfig");
-            double latePenaltyPerSession = 0.0;
-            if (gradeConfig != null && gradeConfig.containsKey("latePenaltyPerSession")) {
-                latePenaltyPerSession = ((Number) gradeConfig.get("latePenaltyPerSession")).doubleValue();
-            }
-
-            // 4. 출석 점수 계산
-            Map<String, Object> attendanceData = calculateAttendanceScore(lecIdx, studentIdx);
-            
-            // 5. 지각 감점 적용 (교수 재량)
-            if (latePenaltyPerSession > 0.0) {
-                int lateCount = ((Number) attendanceData.get("lateCount")).intValue();
-                double currentScore = ((Number) attendanceData.get("currentScore")).doubleValue();
-                double penalty = lateCount * latePenaltyPerSession;
-                double adjustedScore = Math.max(0.0, currentScore - penalty);  // 0점 이하로 내려가지 않음
-                
-                // 조정된 점수로 업데이트
-                adjustedScore = Math.round(adjustedScore * 100.0) / 100.0;
-                attendanceData.put("currentScore", adjustedScore);
-                attendanceData.put("latePenalty", penalty);  // 감점 기록
-                
-                // 백분율 재계산
-                double maxScore = ((Number) attendanceData.get("maxScore")).doubleValue();
-                double percentage = (adjustedScore / maxScore) * 100.0;
-                percentage = Math.round(percentage * 100.0) / 100.0;
-                attendanceData.put("percentage", percentage);
-            }
-            
-            // ✅ 필드명 변경: attendance → attendanceScore (성적 계산 결과)
-            gradeData.put("attendanceScore", attendanceData);
-
-            // 6. 과제 점수 집계
+            // 2. 과제 점수 집계 후 성적 반영
             List<Map<String, Object>> assignmentScores = calculateAssignmentScores(lecIdx, studentIdx);
-            gradeData.put("assignments", assignmentScores);
-
-            // 7. 총점 계산
-            Map<String, Object> totalData = calculateTotalScore(attendanceData, assignmentScores);
-            gradeData.put("total", totalData);
-
-            // 8. JSON 데이터 업데이트
-            String updatedJson = objectMapper.writeValueAsString(enrollmentData);
-            enrollment.setEnrollmentData(updatedJson);
+            Map<String, Object> gradeData = applyGrade(enrollment, assignmentScores);
             enrollmentRepository.save(enrollment);
+            gradeLeaderboardService.updateScores(lecIdx, Map.of(studentIdx, extractPercentage(gradeData)));
+            transcriptCacheService.invalidate(studentIdx);
 
-            // 9. 응답 데이터 구성
+            // 3. 응답 데이터 구성
             return Map.of(
                 "lecIdx", lecIdx,
                 "studentIdx", studentIdx,
@@ -124,6 +92,171 @@ public class GradeCalculationService {
         }
     }
 
+    /**
+     * 강의 전체 수강생 성적 일괄 재계산
+     * - 수강생/과제를 각 1회만 조회
+     * - 메모리에서 전원 계산 후 saveAll 일괄 저장 (hibernate.jdbc.batch_size로 배치 UPDATE)
+     * - 단일 트랜잭션 (학생별 REQUIRES_NEW 트랜잭션 제거)
+     * 
+     * 개별 학생 계산 실패는 건너뛰고 집계에 포함
+     * 
+     * @param lecIdx 강의 IDX
+     * @return Map {lecIdx, totalStudents, updatedCount, failedCount, elapsedMs}
+     */
+    @Transactional
+    public Map<String, Object> recalculateLectureGrades(Integer lecIdx) {
+        long startTime = System.currentTimeMillis();
+        List<EnrollmentExtendedTbl> enrollments = enrollmentRepository.findByLecIdx(lecIdx);
+        return recalculateEnrollments(lecIdx, enrollments, startTime);
+    }
+
+    /**
+     * 강의 내 일부 수강생 성적 일괄 재계산
+     * GradeUpdateCoalescer가 짧은 시간 동안 모은 학생들을 한 번에 처리할 때 사용
+     * 
+     * @param lecIdx 강의 IDX
+     * @param studentIdxList 재계산할 학생 IDX 목록
+     * @return Map {lecIdx, totalStudents, updatedCount, failedCount, elapsedMs}
+     */
+    @Transactional
+    public Map<String, Object> recalculateStudentGrades(Integer lecIdx, Collection<Integer> studentIdxList) {
+        long startTime = System.currentTimeMillis();
+        List<EnrollmentExtendedTbl> enrollments =
+            enrollmentRepository.findByLecIdxAndStudentIdxIn(lecIdx, studentIdxList);
+        return recalculateEnrollments(lecIdx, enrollments, startTime);
+    }
+
+    /**
+     * 조회된 수강 정보 목록의 성적을 메모리에서 계산 후 일괄 저장
+     */
+    private Map<String, Object> recalculateEnrollments(Integer lecIdx,
+                                                       List<EnrollmentExtendedTbl> enrollments,
+                                                       long startTime) {
+        long loadedTime = System.currentTimeMillis();
+
+        // 1. 과제 점수 일괄 조회
+        List<Integer> studentIdxList = enrollments.stream()
+            .map(EnrollmentExtendedTbl::getStudentIdx)
+            .collect(Collectors.toList());
+        Map<Integer, List<Map<String, Object>>> assignmentScoresByStudent =
+            assignmentService.getLectureAssignmentScoresForGrade(lecIdx, studentIdxList);
+
+        // 2. 메모리에서 전원 계산
+        List<EnrollmentExtendedTbl> updated = new ArrayList<>(enrollments.size());
+        Map<Integer, Double> percentages = new HashMap<>();
+        int failedCount = 0;
+        for (EnrollmentExtendedTbl enrollment : enrollments) {
+            try {
+                Map<String, Object> gradeData =
+                    applyGrade(enrollment, assignmentScoresByStudent.get(enrollment.getStudentIdx()));
+                updated.add(enrollment);
+                percentages.put(enrollment.getStudentIdx(), extractPercentage(gradeData));
+            } catch (Exception e) {
+                log.warn("성적 재계산 실패 (일괄): lecIdx={}, studentIdx={}, error={}",
+                        lecIdx, enrollment.getStudentIdx(), e.getMessage());
+                failedCount++;
+            }
+        }
+        long computedTime = System.currentTimeMillis();
+
+        // 3. 일괄 저장
+        enrollmentRepository.saveAll(updated);
+        enrollmentRepository.flush();
+        gradeLeaderboardService.updateScores(lecIdx, percentages);
+        transcriptCacheService.invalidate(percentages.keySet());
+        long endTime = System.currentTimeMillis();
+
+        log.info("성적 일괄 재계산 완료: lecIdx={}, 대상={}명, 성공={}명, 실패={}명, 조회={}ms, 계산={}ms, 저장={}ms, 총={}ms",
+                lecIdx, enrollments.size(), updated.size(), failedCount,
+                loadedTime - startTime, computedTime - loadedTime, endTime - computedTime, endTime - startTime);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("lecIdx", lecIdx);
+        result.put("totalStudents", enrollments.size());
+        result.put("updatedCount", updated.size());
+        result.put("failedCount", failedCount);
+        result.put("elapsedMs", endTime - startTime);
+        return result;
+    }
+
+    /**
+     * 수강 정보 한 건에 성적 계산 결과 반영 (DB 저장은 호출 측에서 수행)
+     * - 지각 감점 적용 (gradeConfig.latePenaltyPerSession)
+     * - attendanceScore / assignments / total 갱신
+     * 
+     * @return 갱신된 grade 데이터
+     */
+    private Map<String, Object> applyGrade(EnrollmentExtendedTbl enrollment,
+                                           List<Map<String, Object>> assignmentScores) throws JsonProcessingException {
+        // 1. 기존 JSON 데이터 파싱
+        Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> gradeData = (Map<String, Object>) enrollmentData
+            .computeIfAbsent("grade", k -> new HashMap<>());
+
+        // 2. 성적 구성 설정 조회 (지각 감점 설정 확인)
+        @SuppressWarnings("unchecked")
+        Map<String, Object> gradeConfig = (Map<String, Object>) enrollmentData.get("gradeConfig");
+        double latePenaltyPerSession = 0.0;
+        if (gradeConfig != null && gradeConfig.containsKey("latePenaltyPerSession")) {
+            latePenaltyPerSession = ((Number) gradeConfig.get("latePenaltyPerSession")).doubleValue();
+        }
+
+        // 3. 출석 점수 계산 (이미 조회한 ENROLLMENT_DATA 재사용)
+        Map<String, Object> attendanceData = attendanceService.calculateAttendanceScoreFromData(enrollment.getEnrollmentData());
+        
+        // 4. 지각 감점 적용 (교수 재량)
+        if (latePenaltyPerSession > 0.0) {
+            int lateCount = ((Number) attendanceData.get("lateCount")).intValue();
+            double currentScore = ((Number) attendanceData.get("currentScore")).doubleValue();
+            double penalty = lateCount * latePenaltyPerSession;
+            double adjustedScore = Math.max(0.0, currentScore - penalty);  // 0점 이하로 내려가지 않음
+            
+            // 조정된 점수로 업데이트
+            adjustedScore = Math.round(adjustedScore * 100.0) / 100.0;
+            attendanceData.put("currentScore", adjustedScore);
+            attendanceData.put("latePenalty", penalty);  // 감점 기록
+            
+            // 백분율 재계산
+            double maxScore = ((Number) attendanceData.get("maxScore")).doubleValue();
+            double percentage = (adjustedScore / maxScore) * 100.0;
+            percentage = Math.round(percentage * 100.0) / 100.0;
+            attendanceData.put("percentage", percentage);
+        }
+        
+        // ✅ 필드명 변경: attendance → attendanceScore (성적 계산 결과)
+        gradeData.put("attendanceScore", attendanceData);
+
+        // 5. 과제 점수
+        if (assignmentScores == null) {
+            assignmentScores = new ArrayList<>();
+        }
+        gradeData.put("assignments", assignmentScores);
+
+        // 6. 총점 계산
+        Map<String, Object> totalData = calculateTotalScore(attendanceData, assignmentScores);
+        gradeData.put("total", totalData);
+
+        // 7. JSON 데이터 업데이트
+        enrollment.setEnrollmentData(objectMapper.writeValueAsString(enrollmentData));
+
+        return gradeData;
+    }
+
+    /**
+     * grade 데이터에서 총점 백분율 추출 (없으면 0.0)
+     */
+    private double extractPercentage(Map<String, Object> gradeData) {
+        Object total = gradeData.get("total");
+        if (total instanceof Map) {
+            Object percentage = ((Map<?, ?>) total).get("percentage");
+            if (percentage instanceof Number) {
+                return ((Number) percentage).doubleValue();
+            }
+        }
+        return 0.0;
+    }
+
     /**
      * 출석 점수 계산
      * AttendanceService를 통해 실제 출석 데이터 조회
@@ -84,15 +84,16 @@ public class GradeFinalizer {
         List<StudentGradeInfo> grades = new java.util.ArrayList<>();
 
         for (EnrollmentExtendedTbl enrollment : allEnrollments) {
-            Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> gradeData = (Map<String, Object>) enrollmentData.getOrDefault("grade", new HashMap<>());
-
             StudentGradeInfo gradeInfo = new StudentGradeInfo();
             gradeInfo.enrollment = enrollment;
             gradeInfo.studentIdx = enrollment.getStudentIdx();
 
-            // 백분율 추출
+            // 백분율 추출 (ENROLLMENT_DATA 기준)
+            // GRADE_PERCENTAGE 생성 컬럼은 같은 영속성 컨텍스트에서 JSON을 수정한 뒤에는 갱신되지 않으므로 사용하지 않음
+            Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> gradeData = (Map<String, Object>) enrollmentData.getOrDefault("grade", new HashMap<>());
+
             if (gradeData.containsKey("total")) {
                 @SuppressWarnings("unchecked")
                 Map<String, Object> totalData = (Map<String, Object>) gradeData.get("total");
@@ -0,0 +1,361 @@
+// 강의별 성적 순위표 (Redis ZSET)
+
+package BlueCrab.com.example.service.Lecture;
+
+import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
+import BlueCrab.com.example.repository.projection.StudentGradePercentageProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 강의별 성적 순위표 서비스
+ *
+ * 강의마다 Redis ZSET(member=studentIdx, score=총점 백분율)을 유지하여
+ * 순위/백분위/평균을 전체 수강생 조회 없이 O(log n)으로 계산한다.
+ *
+ * 키 구조:
+ * - grade:leaderboard:{lecIdx}      ZSET (성적 미산출 학생은 0점으로 포함)
+ * - grade:leaderboard:{lecIdx}:sum  백분율 합계 (평균 계산용)
+ * - grade:leaderboard:{lecIdx}:ver  변경 버전 (점수 갱신/무효화마다 증가)
+ * - grade:leaderboard:{lecIdx}:tmp  재구성용 임시 ZSET (RENAME으로 교체)
+ *
+ * 순위 규칙 (SQL 대체 경로와 동일):
+ * - 성적 미산출 학생은 0점으로 순위/인원/평균에 포함
+ * - 순위 = 나보다 백분율이 높은 학생 수 + 1 (동점자는 같은 순위)
+ * - 목록 순서는 백분율, 동점이면 studentIdx 순 (내림차순 조회 시 역순)
+ *   member를 10자리 0 채움 문자열로 저장하여 ZSET 사전순 = studentIdx 숫자순
+ *
+ * 특징:
+ * - 성적 재계산 시 트랜잭션 커밋 후 변경된 학생 점수만 갱신 (합계는 차이값만 반영)
+ * - 키가 없으면 GRADE_PERCENTAGE 생성 컬럼으로 1회 재구성 (JSON 파싱 없음)
+ *   DB 조회 전 버전을 읽고, 그 사이 점수 갱신/무효화가 있었으면 오래된 순위표를 올리지 않음
+ * - 수강신청/취소 등 수강생 구성이 바뀌면 무효화, TTL로 누락된 변경도 자연 복구
+ * - Redis 장애 시 null 반환 → 호출 측에서 SQL 집계로 대체
+ */
+@Slf4j
+@Service
+public class GradeLeaderboardService {
+
+    private static final String KEY_PREFIX = "grade:leaderboard:";
+    private static final String SUM_SUFFIX = ":sum";
+    private static final String VERSION_SUFFIX = ":ver";
+    private static final String TEMP_SUFFIX = ":tmp";
+
+    /* 점수 갱신: 버전 증가 후, 순위표가 존재할 때만 ZADD 후 합계에 차이값 반영
+     * (순위표가 없어도 버전은 올려서 진행 중인 재구성이 이전 값을 올리지 않도록 함)
+     * KEYS[1]=ZSET, KEYS[2]=합계, KEYS[3]=버전, ARGV=[ttlSeconds, studentIdx, score, ...]
+     */
+    private static final DefaultRedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('INCR', KEYS[3]) " +
+        "redis.call('EXPIRE', KEYS[3], ARGV[1]) " +
+        "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+        "local delta = 0 " +
+        "for i = 2, #ARGV, 2 do " +
+        "  local old = redis.call('ZSCORE', KEYS[1], ARGV[i]) " +
+        "  delta = delta + tonumber(ARGV[i + 1]) - (old and tonumber(old) or 0) " +
+        "  redis.call('ZADD', KEYS[1], ARGV[i + 1], ARGV[i]) " +
+        "end " +
+        "redis.call('INCRBYFLOAT', KEYS[2], delta) " +
+        "return 1",
+        Long.class);
+
+    /* 재구성: DB 조회 이후 버전이 그대로일 때만 임시 키에 전체 점수를 기록하고 RENAME으로 교체
+     * (교체 전까지 기존 순위표 유지, 버전이 바뀌었으면 -1 반환)
+     * KEYS[1]=ZSET, KEYS[2]=합계, KEYS[3]=버전, KEYS[4]=임시 ZSET,
+     * ARGV=[ttlSeconds, 조회 시 버전, sum, studentIdx, score, ...]
+     */
+    private static final DefaultRedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>(
+        "if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[2] then return -1 end " +
+        "redis.call('DEL', KEYS[4]) " +
+        "for i = 4, #ARGV, 2 do " +
+        "  redis.call('ZADD', KEYS[4], ARGV[i + 1], ARGV[i]) " +
+        "end " +
+        "redis.call('RENAME', KEYS[4], KEYS[1]) " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+        "redis.call('SET', KEYS[2], ARGV[3], 'EX', ARGV[1]) " +
+        "return redis.call('ZCARD', KEYS[1])",
+        Long.class);
+
+    /* 무효화: 순위표/합계 삭제 후 버전 증가
+     * KEYS[1]=ZSET, KEYS[2]=합계, KEYS[3]=버전, ARGV=[ttlSeconds]
+     */
+    private static final DefaultRedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('DEL', KEYS[1], KEYS[2]) " +
+        "redis.call('INCR', KEYS[3]) " +
+        "redis.call('EXPIRE', KEYS[3], ARGV[1]) " +
+        "return 1",
+        Long.class);
+
+    /* 학생 순위 조회: [score, 상위 인원, 하위 인원, 전체 인원, 합계]
+     * 점수는 문자열로 반환 (Lua 숫자 반환 시 정수로 잘림)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> STANDING_SCRIPT = new DefaultRedisScript<>(
+        "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+        "if not score then return nil end " +
+        "return {score, " +
+        "  redis.call('ZCOUNT', KEYS[1], '(' .. score, '+inf'), " +
+        "  redis.call('ZCOUNT', KEYS[1], '-inf', '(' .. score), " +
+        "  redis.call('ZCARD', KEYS[1]), " +
+        "  redis.call('GET', KEYS[2]) or '0'}",
+        List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EnrollmentExtendedTblRepository enrollmentRepository;
+    private final long ttlSeconds;
+
+    public GradeLeaderboardService(StringRedisTemplate stringRedisTemplate,
+                                   EnrollmentExtendedTblRepository enrollmentRepository,
+                                   @Value("${app.grade.leaderboard.ttl-seconds:600}") long ttlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enrollmentRepository = enrollmentRepository;
+        this.ttlSeconds = Math.max(60L, ttlSeconds);
+    }
+
+    private String getKey(Integer lecIdx) {
+        return KEY_PREFIX + lecIdx;
+    }
+
+    private String getSumKey(Integer lecIdx) {
+        return KEY_PREFIX + lecIdx + SUM_SUFFIX;
+    }
+
+    private String getVersionKey(Integer lecIdx) {
+        return KEY_PREFIX + lecIdx + VERSION_SUFFIX;
+    }
+
+    private List<String> getKeys(Integer lecIdx) {
+        return Arrays.asList(getKey(lecIdx), getSumKey(lecIdx), getVersionKey(lecIdx));
+    }
+
+    /**
+     * studentIdx → ZSET member (동점 시 사전순 정렬이 숫자순과 같도록 10자리 0 채움)
+     */
+    static String toMember(Integer studentIdx) {
+        return String.format("%010d", studentIdx);
+    }
+
+    /**
+     * 순위표와 같은 순서의 DB 정렬 (findGradeListPage 대체 조회용)
+     * 미산출 학생은 0점, 동점은 studentIdx를 같은 방향으로 정렬 (ZRANGE/ZREVRANGE 순서와 동일)
+     */
+    public static Sort percentageSort(Sort.Direction direction) {
+        return JpaSort.unsafe(direction, "COALESCE(e.gradePercentage, 0)").andUnsafe(direction, "studentIdx");
+    }
+
+    /**
+     * 학생의 순위/백분위/강의 평균 조회
+     *
+     * @param lecIdx 강의 IDX
+     * @param studentIdx 학생 IDX
+     * @return Map {rank, totalStudents, classAverage, percentile}, 조회 불가 시 null
+     */
+    public Map<String, Object> getStanding(Integer lecIdx, Integer studentIdx) {
+        try {
+            if (!ensureLoaded(lecIdx)) {
+                return null;
+            }
+
+            List<?> result = stringRedisTemplate.execute(STANDING_SCRIPT,
+                Arrays.asList(getKey(lecIdx), getSumKey(lecIdx)), toMember(studentIdx));
+            if (result == null || result.isEmpty()) {
+                // 순위표에 없는 학생 → 수강생 구성이 바뀐 것으로 보고 재구성 유도
+                deleteKeys(lecIdx);
+                return null;
+            }
+
+            long higher = toLong(result.get(1));
+            long lower = toLong(result.get(2));
+            long total = toLong(result.get(3));
+            double sum = Double.parseDouble(String.valueOf(result.get(4)));
+            long tied = total - higher - lower;
+
+            double average = total > 0 ? sum / total : 0.0;
+            double percentile = total > 0 ? (lower + tied / 2.0) / total * 100.0 : 0.0;
+
+            Map<String, Object> standing = new HashMap<>();
+            standing.put("rank", (int) higher + 1);
+            standing.put("totalStudents", (int) total);
+            standing.put("classAverage", Math.round(average * 100.0) / 100.0);
+            standing.put("percentile", Math.round(percentile * 10.0) / 10.0);
+            return standing;
+
+        } catch (Exception e) {
+            log.warn("성적 순위표 조회 실패: lecIdx={}, studentIdx={}, error={}", lecIdx, studentIdx, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 순위표 구간 조회 (백분율 기준 정렬)
+     *
+     * @param lecIdx 강의 IDX
+     * @param offset 시작 위치 (0부터)
+     * @param size 조회 개수
+     * @param ascending true면 오름차순, false면 내림차순
+     * @return Map {totalElements, entries(studentIdx → percentage, 순서 유지)}, 조회 불가 시 null
+     */
+    public Map<String, Object> getPage(Integer lecIdx, long offset, int size, boolean ascending) {
+        try {
+            if (!ensureLoaded(lecIdx)) {
+                return null;
+            }
+
+            String key = getKey(lecIdx);
+            Long total = stringRedisTemplate.opsForZSet().zCard(key);
+            long end = offset + size - 1;
+            Set<ZSetOperations.TypedTuple<String>> tuples = ascending
+                ? stringRedisTemplate.opsForZSet().rangeWithScores(key, offset, end)
+                : stringRedisTemplate.opsForZSet().reverseRangeWithScores(key, offset, end);
+
+            Map<Integer, Double> entries = new LinkedHashMap<>();
+            if (tuples != null) {
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    entries.put(Integer.valueOf(tuple.getValue()), tuple.getScore());
+                }
+            }
+
+            Map<String, Object> page = new HashMap<>();
+            page.put("totalElements", total != null ? total : 0L);
+            page.put("entries", entries);
+            return page;
+
+        } catch (Exception e) {
+            log.warn("성적 순위표 구간 조회 실패: lecIdx={}, error={}", lecIdx, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 학생 점수 갱신 (트랜잭션 진행 중이면 커밋 후 반영)
+     * 순위표가 아직 없으면 아무것도 하지 않음 (다음 조회 시 재구성)
+     *
+     * @param lecIdx 강의 IDX
+     * @param percentages studentIdx → 총점 백분율
+     */
+    public void updateScores(Integer lecIdx, Map<Integer, Double> percentages) {
+        if (lecIdx == null || percentages == null || percentages.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Integer, Double> snapshot = new HashMap<>(percentages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyScores(lecIdx, snapshot);
+                }
+            });
+        } else {
+            applyScores(lecIdx, percentages);
+        }
+    }
+
+    /**
+     * 순위표 무효화 (수강생 구성 변경 시, 트랜잭션 진행 중이면 커밋 후 반영)
+     */
+    public void invalidate(Integer lecIdx) {
+        if (lecIdx == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteKeys(lecIdx);
+                }
+            });
+        } else {
+            deleteKeys(lecIdx);
+        }
+    }
+
+    private void deleteKeys(Integer lecIdx) {
+        try {
+            stringRedisTemplate.execute(INVALIDATE_SCRIPT, getKeys(lecIdx), String.valueOf(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("성적 순위표 무효화 실패: lecIdx={}, error={}", lecIdx, e.getMessage());
+        }
+    }
+
+    private void applyScores(Integer lecIdx, Map<Integer, Double> percentages) {
+        try {
+            List<String> args = new ArrayList<>(percentages.size() * 2 + 1);
+            args.add(String.valueOf(ttlSeconds));
+            for (Map.Entry<Integer, Double> entry : percentages.entrySet()) {
+                args.add(toMember(entry.getKey()));
+                args.add(String.valueOf(entry.getValue() != null ? entry.getValue() : 0.0));
+            }
+            stringRedisTemplate.execute(UPDATE_SCRIPT, getKeys(lecIdx), args.toArray());
+        } catch (Exception e) {
+            // 갱신 실패 시 오래된 순위가 남지 않도록 무효화
+            log.warn("성적 순위표 갱신 실패: lecIdx={}, error={}", lecIdx, e.getMessage());
+            deleteKeys(lecIdx);
+        }
+    }
+
+    /**
+     * 순위표가 없으면 DB(GRADE_PERCENTAGE)에서 재구성
+     * DB 조회 중 점수 갱신/무효화가 있었으면 재구성하지 않음 (이번 조회는 SQL 집계, 다음 조회 시 재시도)
+     *
+     * @return 순위표 사용 가능 여부 (수강생이 없거나 재구성을 건너뛰면 false)
+     */
+    private boolean ensureLoaded(Integer lecIdx) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(getKey(lecIdx)))) {
+            return true;
+        }
+
+        long startTime = System.currentTimeMillis();
+        String version = stringRedisTemplate.opsForValue().get(getVersionKey(lecIdx));
+        List<StudentGradePercentageProjection> rows = enrollmentRepository.findGradePercentagesByLecIdx(lecIdx);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        List<String> args = new ArrayList<>(rows.size() * 2 + 3);
+        args.add(String.valueOf(ttlSeconds));
+        args.add(version != null ? version : "0");
+        args.add("0");
+        double sum = 0.0;
+        for (StudentGradePercentageProjection row : rows) {
+            double percentage = row.getGradePercentage() != null ? row.getGradePercentage() : 0.0;
+            sum += percentage;
+            args.add(toMember(row.getStudentIdx()));
+            args.add(String.valueOf(percentage));
+        }
+        args.set(2, String.valueOf(sum));
+
+        List<String> keys = new ArrayList<>(getKeys(lecIdx));
+        keys.add(getKey(lecIdx) + TEMP_SUFFIX);
+        Long count = stringRedisTemplate.execute(REBUILD_SCRIPT, keys, args.toArray());
+        if (count == null || count < 0) {
+            log.debug("성적 순위표 재구성 생략 (조회 중 변경 발생): lecIdx={}", lecIdx);
+            return false;
+        }
+
+        log.debug("성적 순위표 재구성: lecIdx={}, students={}, elapsed={}ms",
+                lecIdx, rows.size(), System.currentTimeMillis() - startTime);
+        return true;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
@@ -8,11 +8,18 @@ import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.repository.Lecture.AssignmentExtendedTblRepository;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
 import BlueCrab.com.example.repository.Lecture.LecTblRepository;
+import BlueCrab.com.example.repository.projection.GradeListRowProjection;
+import BlueCrab.com.example.repository.projection.LectureGradeStatsProjection;
+import BlueCrab.com.example.service.Lecture.Transcript.TranscriptCacheService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +28,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 성적 관리 서비스
@@ -45,6 +53,12 @@ public class GradeManagementService {
     @Autowired
     private GradeCalculationService gradeCalculationService;
 
+    @Autowired
+    private GradeLeaderboardService gradeLeaderboardService;
+
+    @Autowired
+    private TranscriptCacheService transcriptCacheService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -193,54 +207,31 @@ public class GradeManagementService {
     }
 
     /**
-     * 추가 통계 정보 계산 (순위, 전체 학생 수, 평균 등)
+     * 추가 통계 정보 계산 (순위, 전체 학생 수, 평균, 백분위)
+     * 강의별 성적 순위표(Redis ZSET)에서 O(log n) 조회
+     * 순위표 사용 불가 시 GRADE_PERCENTAGE 생성 컬럼에 대한 SQL 집계로 처리 (JSON 파싱 없음)
      */
     private Map<String, Object> calculateAdditionalStats(Integer lecIdx, Integer studentIdx) {
+        Map<String, Object> standing = gradeLeaderboardService.getStanding(lecIdx, studentIdx);
+        if (standing != null) {
+            return standing;
+        }
+
         try {
-            List<EnrollmentExtendedTbl> allEnrollments = enrollmentRepository.findStudentsByLecture(lecIdx);
-            int totalStudents = allEnrollments.size();
-
-            List<Map<String, Object>> allGrades = new java.util.ArrayList<>();
-            double totalPercentage = 0.0;
-
-            for (EnrollmentExtendedTbl enrollment : allEnrollments) {
-                Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
-                @SuppressWarnings("unchecked")
-                Map<String, Object> gradeData = (Map<String, Object>) enrollmentData.get("grade");
-
-                if (gradeData != null && gradeData.containsKey("total")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> totalData = (Map<String, Object>) gradeData.get("total");
-                    if (totalData.containsKey("percentage")) {
-                        double percentage = ((Number) totalData.get("percentage")).doubleValue();
-                        allGrades.add(Map.of(
-                            "studentIdx", enrollment.getStudentIdx(),
-                            "percentage", percentage
-                        ));
-                        totalPercentage += percentage;
-                    }
-                }
-            }
+            LectureGradeStatsProjection stats = enrollmentRepository.getLectureGradeStats(lecIdx);
+            long totalStudents = stats.getTotalStudents() != null ? stats.getTotalStudents() : 0L;
+            double totalPercentage = stats.getPercentageSum() != null ? stats.getPercentageSum() : 0.0;
 
-            // 순위 계산
-            allGrades.sort((a, b) -> Double.compare(
-                ((Number) b.get("percentage")).doubleValue(),
-                ((Number) a.get("percentage")).doubleValue()
-            ));
-
-            int rank = 1;
-            for (int i = 0; i < allGrades.size(); i++) {
-                if (allGrades.get(i).get("studentIdx").equals(studentIdx)) {
-                    rank = i + 1;
-                    break;
-                }
-            }
+            // 순위 계산: 나보다 백분율이 높은 학생 수 + 1
+            // 성적 미산출 학생은 순위표와 같이 0점으로 취급 (NULL > 0 은 집계되지 않으므로 0점과 동일)
+            double percentage = enrollmentRepository.findGradePercentage(lecIdx, studentIdx).orElse(0.0);
+            int rank = (int) enrollmentRepository.countByLecIdxAndGradePercentageGreaterThan(lecIdx, percentage) + 1;
 
             double average = totalStudents > 0 ? totalPercentage / totalStudents : 0.0;
 
             return Map.of(
                 "rank", rank,
-                "totalStudents", totalStudents,
+                "totalStudents", (int) totalStudents,
                 "classAverage", Math.round(average * 100.0) / 100.0
             );
 
@@ -253,23 +244,34 @@ public class GradeManagementService {
      * 성적 목록 조회
      * - 전체 수강생의 성적 목록 반환
      * - 정렬 기능 (percentage, name, studentId)
-     * - 페이징 지원
+     * - 페이징 지원 (DB에서 정렬 후 해당 페이지 행만 조회)
+     * - 백분율 정렬은 성적 순위표(Redis ZSET)를 우선 사용
      */
     public Map<String, Object> getGradeList(Integer lecIdx, Pageable pageable, String sortBy, String sortOrder) {
         try {
-            List<EnrollmentExtendedTbl> allEnrollments = enrollmentRepository.findStudentsByLecture(lecIdx);
-            List<Map<String, Object>> gradeList = buildGradeList(allEnrollments);
+            if (sortBy == null || "percentage".equals(sortBy)) {
+                Map<String, Object> pagedResult = getGradeListFromLeaderboard(lecIdx, pageable, sortBy, sortOrder);
+                if (pagedResult != null) {
+                    return Map.of("success", true, "data", pagedResult);
+                }
+            }
 
-            // 정렬
-            sortGradeList(gradeList, sortBy, sortOrder);
+            Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                resolveSort(sortBy, direction));
 
-            // 순위 매기기
-            for (int i = 0; i < gradeList.size(); i++) {
-                gradeList.get(i).put("rank", i + 1);
+            Page<GradeListRowProjection> rows = enrollmentRepository.findGradeListPage(lecIdx, sortedPageable);
+
+            // 순위 = 페이지 시작 위치 + 순번 (정렬 기준 순서)
+            List<Map<String, Object>> pagedList = new java.util.ArrayList<>();
+            for (GradeListRowProjection row : rows.getContent()) {
+                Map<String, Object> studentGrade = buildGradeRow(row);
+                studentGrade.put("rank", (int) sortedPageable.getOffset() + pagedList.size() + 1);
+                pagedList.add(studentGrade);
             }
 
-            // 페이징 처리
-            Map<String, Object> pagedResult = applyPagination(gradeList, pageable, sortBy, sortOrder);
+            Map<String, Object> pagedResult = buildPageResult(
+                pagedList, (int) rows.getTotalElements(), pageable, sortBy, sortOrder);
 
             return Map.of("success", true, "data", pagedResult);
 
@@ -279,109 +281,107 @@ public class GradeManagementService {
     }
 
     /**
-     * 성적 목록 구성
+     * 성적 순위표 기반 페이지 조회 (백분율 정렬)
+     * 페이지에 포함된 학생의 수강 정보만 로드
+     * 
+     * @return 페이징 결과, 순위표 사용 불가 시 null
      */
-    private List<Map<String, Object>> buildGradeList(List<EnrollmentExtendedTbl> enrollments) {
-        List<Map<String, Object>> gradeList = new java.util.ArrayList<>();
+    private Map<String, Object> getGradeListFromLeaderboard(Integer lecIdx, Pageable pageable,
+                                                            String sortBy, String sortOrder) {
+        long offset = pageable.getOffset();
+        Map<String, Object> page = gradeLeaderboardService.getPage(
+            lecIdx, offset, pageable.getPageSize(), "asc".equalsIgnoreCase(sortOrder));
+        if (page == null) {
+            return null;
+        }
 
-        for (EnrollmentExtendedTbl enrollment : enrollments) {
-            Map<String, Object> enrollmentData = parseEnrollmentData(enrollment.getEnrollmentData());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> gradeData = (Map<String, Object>) enrollmentData.get("grade");
-
-            Map<String, Object> studentGrade = new HashMap<>();
-            studentGrade.put("studentIdx", enrollment.getStudentIdx());
-
-            // 학생 정보
-            if (enrollment.getStudent() != null) {
-                studentGrade.put("studentName", enrollment.getStudent().getUserName());
-                studentGrade.put("studentId", enrollment.getStudent().getUserCode());
-            } else {
-                studentGrade.put("studentName", "학생" + enrollment.getStudentIdx());
-                studentGrade.put("studentId", "STU" + enrollment.getStudentIdx());
+        @SuppressWarnings("unchecked")
+        Map<Integer, Double> entries = (Map<Integer, Double>) page.get("entries");
+        int totalElements = ((Number) page.get("totalElements")).intValue();
+
+        List<Map<String, Object>> pagedList = new java.util.ArrayList<>();
+        if (!entries.isEmpty()) {
+            Map<Integer, GradeListRowProjection> rowByStudent = new HashMap<>();
+            for (GradeListRowProjection row : enrollmentRepository.findGradeListRows(lecIdx, entries.keySet())) {
+                rowByStudent.put(row.getStudentIdx(), row);
             }
 
-            // 성적 데이터
-            if (gradeData != null) {
-                // ✅ 필드명 변경: attendance → attendanceScore
-                studentGrade.put("attendanceScore", gradeData.get("attendanceScore"));
-                studentGrade.put("assignments", gradeData.get("assignments"));
-                studentGrade.put("total", gradeData.get("total"));
-                studentGrade.put("letterGrade", gradeData.get("letterGrade"));
-
-                if (gradeData.containsKey("total")) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> totalData = (Map<String, Object>) gradeData.get("total");
-                    if (totalData.containsKey("percentage")) {
-                        studentGrade.put("percentage", ((Number) totalData.get("percentage")).doubleValue());
-                    }
+            // 순위표 순서대로 구성 (순위 = 페이지 시작 위치 + 순번)
+            for (Integer studentIdx : entries.keySet()) {
+                GradeListRowProjection row = rowByStudent.get(studentIdx);
+                if (row == null) {
+                    // 순위표와 수강생 구성이 어긋남 → DB 페이지 조회로 대체
+                    return null;
                 }
-            } else {
-                studentGrade.put("percentage", 0.0);
+                Map<String, Object> studentGrade = buildGradeRow(row);
+                studentGrade.put("rank", (int) offset + pagedList.size() + 1);
+                pagedList.add(studentGrade);
             }
-
-            gradeList.add(studentGrade);
         }
 
-        return gradeList;
+        return buildPageResult(pagedList, totalElements, pageable, sortBy, sortOrder);
     }
 
     /**
-     * 성적 목록 정렬
+     * 정렬 기준 → 정렬 조건 (findGradeListPage 쿼리 기준, 학생 컬럼은 JOIN 별칭 s 사용)
+     * 백분율 정렬은 순위표와 같은 순서 (미산출 0점, 동점은 studentIdx)
      */
-    private void sortGradeList(List<Map<String, Object>> gradeList, String sortBy, String sortOrder) {
-        String sortField = sortBy != null ? sortBy : "percentage";
-        boolean ascending = "asc".equalsIgnoreCase(sortOrder);
-
-        gradeList.sort((a, b) -> {
-            int result = 0;
-
-            switch (sortField) {
-                case "percentage":
-                    Double percentageA = a.get("percentage") != null ? ((Number) a.get("percentage")).doubleValue() : 0.0;
-                    Double percentageB = b.get("percentage") != null ? ((Number) b.get("percentage")).doubleValue() : 0.0;
-                    result = Double.compare(percentageA, percentageB);
-                    break;
-
-                case "name":
-                    String nameA = a.get("studentName") != null ? (String) a.get("studentName") : "";
-                    String nameB = b.get("studentName") != null ? (String) b.get("studentName") : "";
-                    result = nameA.compareTo(nameB);
-                    break;
-
-                case "studentId":
-                    String idA = a.get("studentId") != null ? (String) a.get("studentId") : "";
-                    String idB = b.get("studentId") != null ? (String) b.get("studentId") : "";
-                    result = idA.compareTo(idB);
-                    break;
-
-                default:
-                    Double pA = a.get("percentage") != null ? ((Number) a.get("percentage")).doubleValue() : 0.0;
-                    Double pB = b.get("percentage") != null ? ((Number) b.get("percentage")).doubleValue() : 0.0;
-                    result = Double.compare(pA, pB);
+    private Sort resolveSort(String sortBy, Sort.Direction direction) {
+        if ("name".equals(sortBy)) {
+            return JpaSort.unsafe(direction, "s.userName").andUnsafe(Sort.Direction.ASC, "studentIdx");
+        }
+        if ("studentId".equals(sortBy)) {
+            return JpaSort.unsafe(direction, "s.userCode").andUnsafe(Sort.Direction.ASC, "studentIdx");
+        }
+        return GradeLeaderboardService.percentageSort(direction);
+    }
+
+    /**
+     * 성적 목록 한 행 구성
+     */
+    private Map<String, Object> buildGradeRow(GradeListRowProjection row) {
+        Map<String, Object> enrollmentData = parseEnrollmentData(row.getEnrollmentData());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> gradeData = (Map<String, Object>) enrollmentData.get("grade");
+
+        Map<String, Object> studentGrade = new HashMap<>();
+        studentGrade.put("studentIdx", row.getStudentIdx());
+        if (row.getStudentName() != null || row.getStudentId() != null) {
+            studentGrade.put("studentName", row.getStudentName());
+            studentGrade.put("studentId", row.getStudentId());
+        } else {
+            // 학생 정보가 없는 수강 정보 (LEFT JOIN 결과 NULL)
+            studentGrade.put("studentName", "학생" + row.getStudentIdx());
+            studentGrade.put("studentId", "STU" + row.getStudentIdx());
+        }
+
+        // 성적 데이터
+        if (gradeData != null) {
+            // ✅ 필드명 변경: attendance → attendanceScore
+            studentGrade.put("attendanceScore", gradeData.get("attendanceScore"));
+            studentGrade.put("assignments", gradeData.get("assignments"));
+            studentGrade.put("total", gradeData.get("total"));
+            studentGrade.put("letterGrade", gradeData.get("letterGrade"));
+
+            if (row.getGradePercentage() != null) {
+                studentGrade.put("percentage", row.getGradePercentage());
             }
+        } else {
+            studentGrade.put("percentage", 0.0);
+        }
 
-            return ascending ? result : -result;
-        });
+        return studentGrade;
     }
 
     /**
-     * 페이징 처리
+     * 페이징 응답 구성
      */
-    private Map<String, Object> applyPagination(List<Map<String, Object>> gradeList, 
-                                                 Pageable pageable, String sortBy, String sortOrder) {
+    private Map<String, Object> buildPageResult(List<Map<String, Object>> pagedList, int totalElements,
+                                                Pageable pageable, String sortBy, String sortOrder) {
         int page = pageable.getPageNumber();
         int size = pageable.getPageSize();
-        int totalElements = gradeList.size();
         int totalPages = (int) Math.ceil((double) totalElements / size);
 
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, totalElements);
-
-        List<Map<String, Object>> pagedList = fromIndex < totalElements
-            ? gradeList.subList(fromIndex, toIndex)
-            : List.of();
-
         return Map.of(
             "content", pagedList,
             "totalElements", totalElements,
@@ -421,7 +421,13 @@ public class GradeManagementService {
                 allEnrollments, threshold, gradeDistribution, enrollmentRepository, objectMapper
             );
             
-            return finalizer.execute();
+            Map<String, Object> result = finalizer.execute();
+
+            // 확정 등급 반영 → 수강생 성적확인서 캐시 무효화 (커밋 후)
+            transcriptCacheService.invalidate(allEnrollments.stream()
+                .map(EnrollmentExtendedTbl::getStudentIdx)
+                .collect(Collectors.toList()));
+            return result;
 
         } catch (Exception e) {
             return Map.of("success", false, "message", "등급 배정 오류: " + e.getMessage());
@@ -0,0 +1,207 @@
+// 성적 재계산 요청 병합 큐
+
+package BlueCrab.com.example.service.Lecture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 성적 재계산 요청 병합(coalescing) 큐
+ *
+ * 출석 일괄 체크/과제 일괄 채점 시 학생마다 발생하는 GradeUpdateEvent를
+ * (lecIdx, studentIdx) 단위로 병합한 뒤, 짧은 윈도우마다 강의별로 묶어 일괄 재계산한다.
+ *
+ * 특징:
+ * - 같은 윈도우 안의 중복 요청은 1회로 병합 (merged 카운터)
+ * - 강의별 대기 학생 수가 임계치를 넘으면 강의 전체 재계산으로 전환 (메모리 상한)
+ * - 대기 강의 수가 상한을 넘으면 신규 강의 요청은 버림 (dropped 카운터)
+ * - 단일 스케줄러 스레드에서 처리하므로 @Async 실행기 큐를 소모하지 않음
+ */
+@Slf4j
+@Service
+public class GradeUpdateCoalescer {
+
+    private final GradeCalculationService gradeCalculationService;
+
+    private final long windowMillis;
+    private final int wholeLectureThreshold;
+    private final int maxPendingLectures;
+
+    private final Map<Integer, LecturePending> pendingByLecture = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong mergedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong drainedBatchCount = new AtomicLong();
+    private final AtomicLong recalculatedStudentCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private volatile long lastDrainMillis;
+
+    public GradeUpdateCoalescer(GradeCalculationService gradeCalculationService,
+                                @Value("${app.grade.recalc.window-ms:2000}") long windowMillis,
+                                @Value("${app.grade.recalc.whole-lecture-threshold:50}") int wholeLectureThreshold,
+                                @Value("${app.grade.recalc.max-pending-lectures:1000}") int maxPendingLectures) {
+        this.gradeCalculationService = gradeCalculationService;
+        this.windowMillis = Math.max(100L, windowMillis);
+        this.wholeLectureThreshold = Math.max(1, wholeLectureThreshold);
+        this.maxPendingLectures = Math.max(1, maxPendingLectures);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new GradeRecalcThreadFactory());
+        this.scheduler.scheduleWithFixedDelay(this::drainSafely, this.windowMillis, this.windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 성적 재계산 요청 등록
+     *
+     * @param lecIdx 강의 IDX
+     * @param studentIdx 학생 IDX
+     * @return 대기열에 반영되었으면 true (병합 포함), 버려졌으면 false
+     */
+    public boolean enqueue(Integer lecIdx, Integer studentIdx) {
+        receivedCount.incrementAndGet();
+
+        if (lecIdx == null || studentIdx == null) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (!pendingByLecture.containsKey(lecIdx) && pendingByLecture.size() >= maxPendingLectures) {
+            droppedCount.incrementAndGet();
+            log.warn("성적 재계산 대기열 초과로 요청을 버립니다: lecIdx={}, studentIdx={}, pendingLectures={}",
+                    lecIdx, studentIdx, pendingByLecture.size());
+            return false;
+        }
+
+        pendingByLecture.compute(lecIdx, (key, pending) -> {
+            if (pending == null) {
+                pending = new LecturePending();
+            }
+            if (!pending.add(studentIdx, wholeLectureThreshold)) {
+                mergedCount.incrementAndGet();
+            }
+            return pending;
+        });
+        return true;
+    }
+
+    /**
+     * 대기 중인 요청을 강의별로 꺼내 일괄 재계산
+     */
+    private void drain() {
+        for (Integer lecIdx : new ArrayList<>(pendingByLecture.keySet())) {
+            LecturePending pending = pendingByLecture.remove(lecIdx);
+            if (pending == null) {
+                continue;
+            }
+
+            try {
+                Map<String, Object> result;
+                if (pending.wholeLecture) {
+                    result = gradeCalculationService.recalculateLectureGrades(lecIdx);
+                } else {
+                    result = gradeCalculationService.recalculateStudentGrades(lecIdx, pending.studentIdxSet);
+                }
+                drainedBatchCount.incrementAndGet();
+                recalculatedStudentCount.addAndGet(((Number) result.get("updatedCount")).longValue());
+            } catch (Exception e) {
+                failedBatchCount.incrementAndGet();
+                log.error("성적 일괄 재계산 실패: lecIdx={}, wholeLecture={}, students={}",
+                        lecIdx, pending.wholeLecture, pending.studentIdxSet.size(), e);
+            }
+        }
+        lastDrainMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 대기열 상태 및 카운터 조회
+     */
+    public Map<String, Object> getStats() {
+        int pendingStudents = 0;
+        int wholeLectures = 0;
+        for (LecturePending pending : pendingByLecture.values()) {
+            synchronized (pending) {
+                pendingStudents += pending.studentIdxSet.size();
+                if (pending.wholeLecture) {
+                    wholeLectures++;
+                }
+            }
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pendingLectures", pendingByLecture.size());
+        stats.put("pendingStudents", pendingStudents);
+        stats.put("pendingWholeLectures", wholeLectures);
+        stats.put("received", receivedCount.get());
+        stats.put("merged", mergedCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("drainedBatches", drainedBatchCount.get());
+        stats.put("recalculatedStudents", recalculatedStudentCount.get());
+        stats.put("failedBatches", failedBatchCount.get());
+        stats.put("windowMillis", windowMillis);
+        stats.put("lastDrainAt", lastDrainMillis > 0 ? new java.util.Date(lastDrainMillis) : null);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdownScheduler() {
+        scheduler.shutdownNow();
+        // 종료 전 남은 요청 처리
+        drainSafely();
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Exception e) {
+            log.error("성적 재계산 대기열 처리 중 오류", e);
+        }
+    }
+
+    /**
+     * 강의별 대기 상태
+     * 학생 수가 임계치를 넘으면 학생 목록을 버리고 강의 전체 재계산으로 전환
+     */
+    private static final class LecturePending {
+        private final Set<Integer> studentIdxSet = new HashSet<>();
+        private boolean wholeLecture;
+
+        /**
+         * @return 새로 추가되었으면 true, 기존 요청에 병합되었으면 false
+         */
+        synchronized boolean add(Integer studentIdx, int wholeLectureThreshold) {
+            if (wholeLecture) {
+                return false;
+            }
+            boolean added = studentIdxSet.add(studentIdx);
+            if (studentIdxSet.size() >= wholeLectureThreshold) {
+                wholeLecture = true;
+                studentIdxSet.clear();
+            }
+            return added;
+        }
+    }
+
+    private static final class GradeRecalcThreadFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("grade-recalc-coalescer");
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+// 성적확인서 캐시 (성적 버전 기반)
+
+package BlueCrab.com.example.service.Lecture.Transcript;
+
+import BlueCrab.com.example.dto.Lecture.Transcript.TranscriptResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 성적확인서 캐시 서비스
+ *
+ * 학생별 성적 버전(카운터)과 버전이 포함된 키에 렌더링된 성적확인서를 저장한다.
+ * 성적 확정/재계산/수강 변경 시 버전을 올리면 기존 항목은 더 이상 조회되지 않고 TTL로 정리된다.
+ *
+ * 키 구조:
+ * - transcript:version:{studentIdx}          성적 버전 (INCR)
+ * - transcript:view:{studentIdx}:{version}   성적확인서 JSON
+ *
+ * 특징:
+ * - 생성 전에 읽은 버전으로 저장하므로, 생성 도중 성적이 바뀌면 해당 항목은 조회되지 않음
+ * - 버전 증가는 트랜잭션 커밋 후 반영 (강의 단위 변경은 파이프라인으로 일괄 INCR)
+ * - Redis 장애 시 캐시 미사용으로 처리 (DB에서 생성)
+ */
+@Slf4j
+@Service
+public class TranscriptCacheService {
+
+    private static final String VERSION_KEY_PREFIX = "transcript:version:";
+    private static final String VIEW_KEY_PREFIX = "transcript:view:";
+
+    // 버전 키는 캐시 항목보다 충분히 오래 유지 (만료 후에는 0부터 다시 시작)
+    private static final long VERSION_TTL_SECONDS = TimeUnit.DAYS.toSeconds(30);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration viewTtl;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong storeCount = new AtomicLong();
+    private final AtomicLong invalidatedStudentCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    public TranscriptCacheService(StringRedisTemplate stringRedisTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.transcript.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.viewTtl = Duration.ofSeconds(Math.max(60L, ttlSeconds));
+    }
+
+    /**
+     * 학생의 현재 성적 버전 조회
+     *
+     * @return 성적 버전, Redis 장애 시 null (캐시 미사용)
+     */
+    public Long getVersion(Integer studentIdx) {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + studentIdx);
+            return version != null ? Long.valueOf(version) : 0L;
+        } catch (Exception e) {
+            errorCount.incrementAndGet();
+            log.warn("성적 버전 조회 실패 - 학생 IDX: {}, 에러: {}", studentIdx, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 캐시된 성적확인서 조회
+     *
+     * @param studentIdx 학생 IDX
+     * @param version getVersion으로 읽은 성적 버전
+     * @return 캐시된 성적확인서, 없으면 null
+     */
+    public TranscriptResponseDto get(Integer studentIdx, Long version) {
+        if (version == null) {
+            return null;
+        }
+        try {
+            String json = stringRedisTemplate.opsForValue().get(getViewKey(studentIdx, version));
+            if (json == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            hitCount.incrementAndGet();
+            return objectMapper.readValue(json, TranscriptResponseDto.class);
+        } catch (Exception e) {
+            errorCount.incrementAndGet();
+            log.warn("성적확인서 캐시 조회 실패 - 학생 IDX: {}, 에러: {}", studentIdx, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 성적확인서 저장 (생성 전에 읽은 버전 기준)
+     */
+    public void put(Integer studentIdx, Long version, TranscriptResponseDto transcript) {
+        if (version == null || transcript == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(getViewKey(studentIdx, version),
+                objectMapper.writeValueAsString(transcript), viewTtl);
+            storeCount.incrementAndGet();
+        } catch (Exception e) {
+            errorCount.incrementAndGet();
+            log.warn("성적확인서 캐시 저장 실패 - 학생 IDX: {}, 에러: {}", studentIdx, e.getMessage());
+        }
+    }
+
+    /**
+     * 학생 성적확인서 무효화 (트랜잭션 진행 중이면 커밋 후 반영)
+     */
+    public void invalidate(Integer studentIdx) {
+        if (studentIdx != null) {
+            invalidate(Collections.singleton(studentIdx));
+        }
+    }
+
+    /**
+     * 여러 학생 성적확인서 무효화 (강의 단위 성적 확정/재계산)
+     * 트랜잭션 진행 중이면 커밋 후 반영
+     */
+    public void invalidate(Collection<Integer> studentIdxList) {
+        if (studentIdxList == null || studentIdxList.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> snapshot = new LinkedHashSet<>(studentIdxList);
+        snapshot.remove(null);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersions(snapshot);
+                }
+            });
+        } else {
+            bumpVersions(snapshot);
+        }
+    }
+
+    /**
+     * 캐시 카운터 조회
+     */
+    public Map<String, Object> getStats() {
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        long lookups = hits + misses;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", lookups > 0 ? Math.round(hits * 1000.0 / lookups) / 10.0 : 0.0);
+        stats.put("stores", storeCount.get());
+        stats.put("invalidatedStudents", invalidatedStudentCount.get());
+        stats.put("errors", errorCount.get());
+        stats.put("ttlSeconds", viewTtl.getSeconds());
+        return stats;
+    }
+
+    private void bumpVersions(Set<Integer> studentIdxSet) {
+        try {
+            List<String> keys = new ArrayList<>(studentIdxSet.size());
+            for (Integer studentIdx : studentIdxSet) {
+                keys.add(VERSION_KEY_PREFIX + studentIdx);
+            }
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    stringConnection.incr(key);
+                    stringConnection.expire(key, VERSION_TTL_SECONDS);
+                }
+                return null;
+            });
+            invalidatedStudentCount.addAndGet(keys.size());
+        } catch (Exception e) {
+            errorCount.incrementAndGet();
+            log.warn("성적 버전 갱신 실패 - 학생 수: {}, 에러: {}", studentIdxSet.size(), e.getMessage());
+            // 버전을 올리지 못했으면 현재 버전의 캐시 항목을 직접 제거
+            deleteCurrentViews(studentIdxSet);
+        }
+    }
+
+    private void deleteCurrentViews(Set<Integer> studentIdxSet) {
+        try {
+            List<String> viewKeys = new ArrayList<>(studentIdxSet.size());
+            for (Integer studentIdx : studentIdxSet) {
+                Long version = getVersion(studentIdx);
+                if (version != null) {
+                    viewKeys.add(getViewKey(studentIdx, version));
+                }
+            }
+            if (!viewKeys.isEmpty()) {
+                stringRedisTemplate.delete(viewKeys);
+            }
+        } catch (Exception e) {
+            log.warn("성적확인서 캐시 제거 실패 - 학생 수: {}, 에러: {}", studentIdxSet.size(), e.getMessage());
+        }
+    }
+
+    private String getViewKey(Integer studentIdx, Long version) {
+        return VIEW_KEY_PREFIX + studentIdx + ":" + Objects.requireNonNull(version);
+    }
+}
@@ -9,15 +9,19 @@ import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
 import BlueCrab.com.example.entity.Lecture.LecTbl;
 import BlueCrab.com.example.entity.UserTbl;
 import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
-import BlueCrab.com.example.repository.Lecture.LecTblRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -32,13 +36,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TranscriptService {
     
+    // 확정 성적 과목 캐시: 학생별 Hash (field = enrollmentIdx, value = CachedCourse JSON)
+    private static final String FINALIZED_COURSE_KEY_PREFIX = "transcript:finalized:";
+    private static final Duration FINALIZED_COURSE_TTL = Duration.ofDays(7);
+    
     private final EnrollmentExtendedTblRepository enrollmentRepository;
-    private final LecTblRepository lecTblRepository;
     private final UserTblRepository userTblRepository;
     private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TranscriptCacheService transcriptCacheService;
     
     /**
      * 학생 성적확인서 생성
+     * 성적 버전이 같으면 캐시된 성적확인서를 사용하고 발급 시각/번호만 새로 부여
      * 
      * @param studentIdx 학생 IDX
      * @return 성적확인서
@@ -48,58 +58,98 @@ public class TranscriptService {
         long startTime = System.currentTimeMillis();
         log.info("성적확인서 생성 시작 - 학생 IDX: {}", studentIdx);
         
+        // 0. 성적 버전 확인 후 캐시 조회 (버전은 생성 전에 읽어야 생성 중 변경을 놓치지 않음)
+        Long gradeVersion = transcriptCacheService.getVersion(studentIdx);
+        TranscriptResponseDto cached = transcriptCacheService.get(studentIdx, gradeVersion);
+        if (cached != null) {
+            StudentInfo cachedStudent = cached.getStudent();
+            cached.setIssuedAt(LocalDateTime.now());
+            cached.setCertificateNumber(generateCertificateNumber(
+                cachedStudent.getStudentCode(), cachedStudent.getStudentIdx()));
+            log.info("성적확인서 캐시 사용 - 학생 IDX: {}, 성적 버전: {}, 소요시간: {}ms", 
+                studentIdx, gradeVersion, System.currentTimeMillis() - startTime);
+            return cached;
+        }
+        
         try {
             // 1. 학생 정보 조회
             UserTbl student = userTblRepository.findById(studentIdx)
                 .orElseThrow(() -> new IllegalArgumentException("학생을 찾을 수 없습니다: " + studentIdx));
             
-            // 2. 수강 이력 조회
+            // 2. 수강 이력 + 강의 정보 조회 (JOIN FETCH 1회)
             List<EnrollmentExtendedTbl> enrollments = enrollmentRepository
-                .findByStudentIdx(studentIdx);
+                .findEnrolledLecturesByStudent(studentIdx);
             
             if (enrollments.isEmpty()) {
                 log.warn("수강 이력이 없습니다 - 학생 IDX: {}", studentIdx);
-                return createEmptyTranscript(student);
+                TranscriptResponseDto empty = createEmptyTranscript(student);
+                transcriptCacheService.put(studentIdx, gradeVersion, empty);
+                return empty;
             }
             
-            // 3. 과목별 성적 변환
+            // 3. 확정 성적 캐시 조회 (ENROLLMENT_DATA 지문이 같으면 JSON 파싱/교수 조회 생략)
+            Map<Integer, CachedCourse> cachedCourses = loadFinalizedCourses(studentIdx);
+            
+            // 4. 캐시에 없는 과목의 교수 정보 일괄 조회 (findAllById 1회)
+            Map<Integer, UserTbl> professors = loadProfessors(enrollments.stream()
+                .filter(e -> !isCacheValid(cachedCourses.get(e.getEnrollmentIdx()), e))
+                .map(EnrollmentExtendedTbl::getLecture)
+                .collect(Collectors.toList()));
+            
+            // 5. 과목별 성적 변환
             List<CourseDto> courses = new ArrayList<>();
+            Map<String, String> newlyFinalized = new HashMap<>();
+            int cacheHits = 0;
             for (EnrollmentExtendedTbl enrollment : enrollments) {
                 try {
-                    CourseDto course = createCourseDto(enrollment);
+                    CachedCourse cached = cachedCourses.get(enrollment.getEnrollmentIdx());
+                    if (isCacheValid(cached, enrollment)) {
+                        courses.add(cached.getCourse());
+                        cacheHits++;
+                        continue;
+                    }
+                    
+                    LecTbl lecture = enrollment.getLecture();
+                    CourseDto course = createCourseDto(enrollment, lecture, professors.get(parseProfessorIdx(lecture)));
                     if (course != null) {
                         courses.add(course);
+                        if (isFinalized(course)) {
+                            newlyFinalized.put(String.valueOf(enrollment.getEnrollmentIdx()),
+                                objectMapper.writeValueAsString(new CachedCourse(fingerprint(enrollment), course)));
+                        }
                     }
                 } catch (Exception e) {
                     log.error("과목 정보 생성 실패 - ENROLLMENT_IDX: {}, 에러: {}", 
                         enrollment.getEnrollmentIdx(), e.getMessage(), e);
                 }
             }
+            storeFinalizedCourses(studentIdx, newlyFinalized);
             
-            // 4. 학기별 정렬 (년도 → 학기 순)
+            // 6. 학기별 정렬 (년도 → 학기 순)
             courses.sort(Comparator
                 .comparing(CourseDto::getYear, Comparator.nullsLast(Comparator.naturalOrder()))
                 .thenComparing(CourseDto::getSemester, Comparator.nullsLast(Comparator.naturalOrder())));
             
-            // 5. 학기별 통계 계산
+            // 7. 학기별 통계 계산
             Map<String, SemesterSummary> semesterSummaries = calculateSemesterSummaries(courses);
             
-            // 6. 전체 통계 계산
+            // 8. 전체 통계 계산
             OverallSummary overallSummary = calculateOverallSummary(courses);
             
-            // 7. 성적확인서 생성
+            // 9. 성적확인서 생성
             TranscriptResponseDto transcript = TranscriptResponseDto.builder()
                 .student(createStudentInfo(student))
                 .courses(courses)
                 .semesterSummaries(semesterSummaries)
                 .overallSummary(overallSummary)
                 .issuedAt(LocalDateTime.now())
-                .certificateNumber(generateCertificateNumber(student))
+                .certificateNumber(generateCertificateNumber(student.getUserCode(), student.getUserIdx()))
                 .build();
+            transcriptCacheService.put(studentIdx, gradeVersion, transcript);
             
             long duration = System.currentTimeMillis() - startTime;
-            log.info("성적확인서 생성 완료 - 학생 IDX: {}, 과목 수: {}, 소요시간: {}ms", 
-                studentIdx, courses.size(), duration);
+            log.info("성적확인서 생성 완료 - 학생 IDX: {}, 과목 수: {}, 확정 캐시 사용: {}, 소요시간: {}ms", 
+                studentIdx, courses.size(), cacheHits, duration);
             
             return transcript;
             
@@ -113,24 +163,10 @@ public class TranscriptService {
     
     /**
      * EnrollmentExtendedTbl → CourseDto 변환
+     * 강의/교수 정보는 호출 측에서 일괄 조회한 값을 전달
      */
-    private CourseDto createCourseDto(EnrollmentExtendedTbl enrollment) {
+    private CourseDto createCourseDto(EnrollmentExtendedTbl enrollment, LecTbl lecture, UserTbl professor) {
         try {
-            // 강의 정보 조회
-            LecTbl lecture = lecTblRepository.findById(enrollment.getLecIdx())
-                .orElseThrow(() -> new IllegalArgumentException("강의를 찾을 수 없습니다: " + enrollment.getLecIdx()));
-            
-            // 교수 정보 조회
-            UserTbl professor = null;
-            if (lecture.getLecProf() != null) {
-                try {
-                    Integer profIdx = Integer.parseInt(lecture.getLecProf().trim());
-                    professor = userTblRepository.findById(profIdx).orElse(null);
-                } catch (NumberFormatException e) {
-                    log.warn("교수 IDX 파싱 실패: {}", lecture.getLecProf());
-                }
-            }
-            
             // JSON 데이터 파싱
             String enrollmentDataJson = enrollment.getEnrollmentData();
             if (enrollmentDataJson == null || enrollmentDataJson.trim().isEmpty() 
@@ -449,7 +485,7 @@ public class TranscriptService {
                 .totalGradeFCount(0)
                 .build())
             .issuedAt(LocalDateTime.now())
-            .certificateNumber(generateCertificateNumber(student))
+            .certificateNumber(generateCertificateNumber(student.getUserCode(), student.getUserIdx()))
             .build();
     }
     
@@ -457,10 +493,10 @@ public class TranscriptService {
      * 성적확인서 발급 번호 생성
      * 형식: TR-{학번}-{YYYYMMDDHHMMSS}
      */
-    private String generateCertificateNumber(UserTbl student) {
-        String studentCode = student.getUserCode() != null 
-            ? student.getUserCode() 
-            : String.valueOf(student.getUserIdx());
+    private String generateCertificateNumber(String userCode, Integer userIdx) {
+        String studentCode = userCode != null 
+            ? userCode 
+            : String.valueOf(userIdx);
         
         String timestamp = LocalDateTime.now()
             .format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
@@ -468,6 +504,112 @@ public class TranscriptService {
         return String.format("TR-%s-%s", studentCode, timestamp);
     }
     
+    // === 교수/확정 성적 캐시 ===
+    
+    /**
+     * 강의 목록의 담당 교수를 한 번에 조회 (LEC_PROF는 교수 USER_IDX 문자열)
+     */
+    private Map<Integer, UserTbl> loadProfessors(List<LecTbl> lectures) {
+        Set<Integer> professorIdxSet = lectures.stream()
+            .map(this::parseProfessorIdx)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        
+        if (professorIdxSet.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        return userTblRepository.findAllById(professorIdxSet).stream()
+            .collect(Collectors.toMap(UserTbl::getUserIdx, user -> user, (a, b) -> a));
+    }
+    
+    private Integer parseProfessorIdx(LecTbl lecture) {
+        if (lecture == null || lecture.getLecProf() == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(lecture.getLecProf().trim());
+        } catch (NumberFormatException e) {
+            log.warn("교수 IDX 파싱 실패: {}", lecture.getLecProf());
+            return null;
+        }
+    }
+    
+    /**
+     * 학생의 확정 성적 캐시 조회 (HGETALL 1회)
+     * Redis 장애 시 빈 맵을 반환하여 DB 데이터로 생성
+     */
+    private Map<Integer, CachedCourse> loadFinalizedCourses(Integer studentIdx) {
+        Map<Integer, CachedCourse> cached = new HashMap<>();
+        try {
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash()
+                .entries(FINALIZED_COURSE_KEY_PREFIX + studentIdx);
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                try {
+                    cached.put(Integer.valueOf(entry.getKey().toString()),
+                        objectMapper.readValue(entry.getValue().toString(), CachedCourse.class));
+                } catch (Exception e) {
+                    log.warn("확정 성적 캐시 항목 파싱 실패 - 학생 IDX: {}, ENROLLMENT_IDX: {}", studentIdx, entry.getKey());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("확정 성적 캐시 조회 실패 - 학생 IDX: {}, 에러: {}", studentIdx, e.getMessage());
+        }
+        return cached;
+    }
+    
+    /**
+     * 새로 확정된 과목을 캐시에 저장 (HMSET 1회 + TTL 갱신)
+     */
+    private void storeFinalizedCourses(Integer studentIdx, Map<String, String> newlyFinalized) {
+        if (newlyFinalized.isEmpty()) {
+            return;
+        }
+        try {
+            String key = FINALIZED_COURSE_KEY_PREFIX + studentIdx;
+            stringRedisTemplate.opsForHash().putAll(key, newlyFinalized);
+            stringRedisTemplate.expire(key, FINALIZED_COURSE_TTL);
+        } catch (Exception e) {
+            log.warn("확정 성적 캐시 저장 실패 - 학생 IDX: {}, 에러: {}", studentIdx, e.getMessage());
+        }
+    }
+    
+    /**
+     * 캐시 항목이 현재 ENROLLMENT_DATA와 일치하는지 확인
+     * 확정 이후 성적 정정 등으로 데이터가 바뀌면 지문이 달라져 다시 생성됨
+     */
+    private boolean isCacheValid(CachedCourse cached, EnrollmentExtendedTbl enrollment) {
+        return cached != null && cached.getCourse() != null
+            && fingerprint(enrollment).equals(cached.getFingerprint());
+    }
+    
+    /**
+     * 확정된 과목만 캐시 (진행 중 과목은 매번 재계산)
+     */
+    private boolean isFinalized(CourseDto course) {
+        return "COMPLETED".equals(course.getStatus()) || "FAILED".equals(course.getStatus());
+    }
+    
+    /**
+     * ENROLLMENT_DATA 지문 (길이 + 해시)
+     * 강의 정보 변경은 드물어 TTL 만료로 반영
+     */
+    private String fingerprint(EnrollmentExtendedTbl enrollment) {
+        String data = enrollment.getEnrollmentData();
+        return data == null ? "0" : data.length() + ":" + Integer.toHexString(data.hashCode());
+    }
+    
+    /**
+     * 확정 성적 캐시 항목
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class CachedCourse {
+        private String fingerprint;
+        private CourseDto course;
+    }
+    
     // === 유틸리티 메서드 ===
     
     private double parseDouble(JsonNode node, String fieldName, double defaultValue) {
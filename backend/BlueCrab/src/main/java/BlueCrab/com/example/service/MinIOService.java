@@ -24,8 +24,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -47,6 +52,9 @@ public class MinIOService {
 
     private static final Logger logger = LoggerFactory.getLogger(MinIOService.class);
 
+    // 멀티파트 업로드 최소 파트 크기 (5MB)
+    private static final long CHAT_LOG_PART_SIZE = 5L * 1024 * 1024;
+
     @Value("${app.minio.endpoint}")
     private String minioEndpoint;
 
@@ -383,6 +391,34 @@ public class MinIOService {
         }
     }
 
+    /**
+     * 크기를 미리 알 수 없는 채팅 로그를 멀티파트로 업로드
+     * 스트림을 파트 단위로 읽어 올리므로 전체 로그를 메모리에 만들지 않는다.
+     *
+     * @param bucketName 버킷 이름
+     * @param objectName 저장될 객체 이름
+     * @param inputStream 파일 스트림
+     * @throws Exception 업로드 실패 시
+     */
+    public void uploadChatLogStream(String bucketName, String objectName, InputStream inputStream) throws Exception {
+        try {
+            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, -1, CHAT_LOG_PART_SIZE)
+                    .contentType("text/plain; charset=utf-8")
+                    .build();
+
+            ObjectWriteResponse response = minioClient.putObject(putObjectArgs);
+            logger.info("채팅 로그 스트림 업로드 성공 - Object: {}, Bucket: {}, ETag: {}",
+                    objectName, bucketName, response.etag());
+
+        } catch (Exception e) {
+            logger.error("채팅 로그 스트림 업로드 실패 - Object: {}, Error: {}", objectName, e.getMessage(), e);
+            throw new Exception("채팅 로그를 업로드하지 못했습니다: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * MinIO에서 채팅 로그 파일 다운로드
      * 
@@ -442,6 +478,40 @@ public class MinIOService {
         }
     }
 
+    /**
+     * MinIO 객체 목록과 마지막 수정 시각 조회 (prefix 기준, 재귀)
+     *
+     * @param bucketName 버킷 이름
+     * @param prefix     조회할 prefix
+     * @return 객체 이름 → 마지막 수정 시각 (시각을 알 수 없으면 null)
+     * @throws Exception 조회 실패 시
+     */
+    public Map<String, LocalDateTime> listObjectsWithLastModified(String bucketName, String prefix) throws Exception {
+        try {
+            Iterable<Result<Item>> results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .recursive(true)
+                    .build()
+            );
+
+            Map<String, LocalDateTime> objects = new LinkedHashMap<>();
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                ZonedDateTime lastModified = item.lastModified();
+                objects.put(item.objectName(), lastModified != null
+                        ? lastModified.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                        : null);
+            }
+            return objects;
+        } catch (Exception e) {
+            logger.error("MinIO 객체 목록 조회 실패 - Bucket: {}, Prefix: {}, Error: {}",
+                    bucketName, prefix, e.getMessage(), e);
+            throw new Exception("객체 목록 조회에 실패했습니다: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * MinIO 객체 삭제
      *
@@ -7,6 +7,7 @@ import BlueCrab.com.example.dto.PasswordResetCodeVerifyResponse;
 import BlueCrab.com.example.entity.UserTbl;
 import BlueCrab.com.example.model.PasswordResetCodeData;
 import BlueCrab.com.example.repository.UserTblRepository;
+import BlueCrab.com.example.security.PrincipalCache;
 import BlueCrab.com.example.util.PasswordResetRateLimiter;
 import BlueCrab.com.example.util.PasswordResetTokenManager;
 import BlueCrab.com.example.util.UserVerificationUtils;
@@ -57,6 +58,9 @@ public class PasswordResetService {
     @Autowired
     private PasswordResetRedisUtil redisUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     /**
      * 1단계: 본인확인 처리
      * 이메일, 학번, 이름, 전화번호를 검증하여 본인 여부를 확인
@@ -271,6 +275,7 @@ public class PasswordResetService {
             String hashedPassword = SHA256Util.hash(newPassword);
             user.setUserPw(hashedPassword);
             userTblRepository.save(user);
+            principalCache.invalidate(email);
 
             // 5. 정리 작업 - 락 토큰 삭제 (선택적)
             redisUtil.deleteLock(email);
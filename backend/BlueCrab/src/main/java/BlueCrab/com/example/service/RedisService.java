@@ -1,5 +1,6 @@
 package BlueCrab.com.example.service;
 
+import BlueCrab.com.example.security.PrincipalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,9 @@ public class RedisService {
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     // 로그인 시도 제한 설정
     private static final int MAX_LOGIN_ATTEMPTS = 5;
     private static final int LOGIN_LOCKOUT_MINUTES = 15;
@@ -535,6 +539,8 @@ public class RedisService {
             String key = "admin_status:" + adminId;
             redisTemplate.opsForValue().set(key, status, Duration.ofMinutes(cacheDurationMinutes));
             logger.debug("Admin status cached: {} = {}", adminId, status);
+            // 상태가 바뀐 관리자의 캐시된 인증 주체 제거
+            principalCache.invalidate(adminId);
         } catch (Exception e) {
             logger.error("Error caching admin status for: " + adminId, e);
         }
@@ -580,6 +586,7 @@ public class RedisService {
             }
             
             logger.debug("Admin suspend info cached: {}", adminId);
+            principalCache.invalidate(adminId);
         } catch (Exception e) {
             logger.error("Error caching admin suspend info for: " + adminId, e);
         }
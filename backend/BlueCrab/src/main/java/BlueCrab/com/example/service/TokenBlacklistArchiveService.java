@@ -1,7 +1,13 @@
 package BlueCrab.com.example.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +18,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -46,17 +53,26 @@ public class TokenBlacklistArchiveService {
     // 저장소 설정
     private static final String BLACKLIST_ARCHIVE_DIR = "security/blacklist";
     private static final String BLACKLIST_REDIS_KEY = "bluecrab:security:blacklist:archive";
+    // 아카이브 인덱스 (ZSET, member = 레코드 ID, score = 정리 예정 시각 ms = 토큰 만료 + 보관 일수)
+    private static final String ARCHIVE_INDEX_KEY = BLACKLIST_REDIS_KEY + ":expiry-index";
+    // 이전 버전의 List 인덱스 (기동 시 ZSET으로 이전)
+    private static final String LEGACY_INDEX_KEY = BLACKLIST_REDIS_KEY + ":index";
     private static final String SUSPICIOUS_PATTERN_KEY = "bluecrab:security:suspicious";
+    // 의심 사용자 기록 인덱스 (ZSET, score = 감지 시각 ms)
+    private static final String SUSPICIOUS_RECORDS_INDEX_KEY = SUSPICIOUS_PATTERN_KEY + ":records:index";
     
     // 보관 정책
     private static final int DAYS_TO_KEEP_AFTER_EXPIRY = 7; // 토큰 만료 후 7일 더 보관
     private static final int MAX_ARCHIVE_RECORDS = 10000; // 최대 보관 레코드 수
     private static final int SUSPICIOUS_THRESHOLD = 5; // 의심 임계값 (5회 이상 블랙리스트)
+    private static final int SUSPICIOUS_RECORD_DAYS = 30; // 의심 사용자 기록 보관 일수
+    private static final int CLEANUP_BATCH_SIZE = 500; // 정리/이전 작업 배치 크기
     
     @PostConstruct
     public void initialize() {
         // 보관 디렉토리 생성
         createArchiveDirectory();
+        migrateLegacyIndex();
         System.out.println("토큰 블랙리스트 아카이브 서비스가 초기화되었습니다.");
     }
     
@@ -98,6 +114,7 @@ public class TokenBlacklistArchiveService {
             String recordKey = BLACKLIST_REDIS_KEY + ":" + record.getId();
             
             Map<String, Object> recordMap = new HashMap<>();
+            recordMap.put("id", record.getId());
             recordMap.put("email", record.getEmail());
             recordMap.put("tokenHash", record.getTokenHash());
             recordMap.put("blacklistedAt", record.getBlacklistedAt().toString());
@@ -115,15 +132,140 @@ public class TokenBlacklistArchiveService {
             
             redisTemplate.expire(recordKey, ttlDays, TimeUnit.DAYS);
             
-            // 인덱스 리스트에도 추가 (조회용)
-            redisTemplate.opsForList().leftPush(BLACKLIST_REDIS_KEY + ":index", record.getId());
-            redisTemplate.opsForList().trim(BLACKLIST_REDIS_KEY + ":index", 0, MAX_ARCHIVE_RECORDS - 1);
+            // 인덱스 ZSET에 정리 예정 시각으로 추가 (조회/정리용)
+            redisTemplate.opsForZSet().add(ARCHIVE_INDEX_KEY, record.getId(), cleanupScore(record.getExpiryTime()));
+            trimArchiveIndex();
             
         } catch (Exception e) {
             System.err.println("Redis 블랙리스트 저장 오류: " + e.getMessage());
         }
     }
     
+    /**
+     * 최대 보관 레코드 수 초과분 정리 (정리 예정 시각이 가장 빠른 레코드부터 삭제)
+     */
+    private void trimArchiveIndex() {
+        Long size = redisTemplate.opsForZSet().zCard(ARCHIVE_INDEX_KEY);
+        if (size == null || size <= MAX_ARCHIVE_RECORDS) {
+            return;
+        }
+        
+        Set<Object> overflow = redisTemplate.opsForZSet().range(ARCHIVE_INDEX_KEY, 0, size - MAX_ARCHIVE_RECORDS - 1);
+        if (overflow != null && !overflow.isEmpty()) {
+            deleteRecords(new ArrayList<>(overflow));
+        }
+    }
+    
+    /**
+     * 레코드 Hash와 인덱스 항목을 파이프라인으로 일괄 삭제
+     */
+    private void deleteRecords(List<Object> recordIds) {
+        List<String> recordKeys = new ArrayList<>(recordIds.size());
+        for (Object recordId : recordIds) {
+            recordKeys.add(BLACKLIST_REDIS_KEY + ":" + recordId);
+        }
+        
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                operations.delete(recordKeys);
+                operations.opsForZSet().remove(ARCHIVE_INDEX_KEY, recordIds.toArray());
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * 레코드 Hash를 파이프라인으로 일괄 조회 (인덱스 순서 유지)
+     */
+    private List<Map<Object, Object>> loadRecords(Collection<Object> recordIds) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (Object recordId : recordIds) {
+                    operations.opsForHash().entries(BLACKLIST_REDIS_KEY + ":" + recordId);
+                }
+                return null;
+            }
+        });
+        
+        List<Map<Object, Object>> records = new ArrayList<>(results.size());
+        for (Object result : results) {
+            if (result instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> recordData = (Map<Object, Object>) result;
+                records.add(recordData);
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * 레코드 Hash의 expiryTime을 파이프라인으로 일괄 조회 (레코드 ID와 같은 순서, 없으면 null)
+     */
+    private List<Object> loadExpiryTimes(List<Object> recordIds) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (Object recordId : recordIds) {
+                    operations.opsForHash().get(BLACKLIST_REDIS_KEY + ":" + recordId, "expiryTime");
+                }
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * 인덱스 score 계산 (토큰 만료 + 보관 일수, epoch ms)
+     */
+    private long cleanupScore(LocalDateTime expiryTime) {
+        return expiryTime.plusDays(DAYS_TO_KEEP_AFTER_EXPIRY)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * 이전 버전 List 인덱스를 ZSET 인덱스로 이전 (1회성)
+     * 레코드 Hash의 expiryTime을 배치 단위로 읽어 ZSET에 등록한 뒤 List 삭제
+     */
+    private void migrateLegacyIndex() {
+        try {
+            if (redisTemplate.type(LEGACY_INDEX_KEY) != DataType.LIST) {
+                return;
+            }
+            
+            Long size = redisTemplate.opsForList().size(LEGACY_INDEX_KEY);
+            int migrated = 0;
+            for (long from = 0; size != null && from < size; from += CLEANUP_BATCH_SIZE) {
+                List<Object> recordIds = redisTemplate.opsForList().range(LEGACY_INDEX_KEY, from, from + CLEANUP_BATCH_SIZE - 1);
+                if (recordIds == null || recordIds.isEmpty()) {
+                    break;
+                }
+                
+                // 이전 버전 레코드는 Hash에 id를 저장하지 않으므로 List의 레코드 ID를 위치 그대로 사용
+                List<Object> expiryTimes = loadExpiryTimes(recordIds);
+                for (int i = 0; i < recordIds.size() && i < expiryTimes.size(); i++) {
+                    Object recordId = recordIds.get(i);
+                    Object expiryTime = expiryTimes.get(i);
+                    if (recordId == null || expiryTime == null) {
+                        continue; // 이미 만료된 레코드
+                    }
+                    redisTemplate.opsForZSet().add(ARCHIVE_INDEX_KEY, recordId,
+                            cleanupScore(LocalDateTime.parse(expiryTime.toString())));
+                    migrated++;
+                }
+            }
+            
+            redisTemplate.delete(LEGACY_INDEX_KEY);
+            System.out.println("블랙리스트 아카이브 인덱스 이전 완료: " + migrated + "개 레코드");
+            
+        } catch (Exception e) {
+            System.err.println("블랙리스트 아카이브 인덱스 이전 오류: " + e.getMessage());
+        }
+    }
+    
     /**
      * 파일에 블랙리스트 레코드 저장 (CSV 형식)
      */
@@ -195,9 +337,13 @@ public class TokenBlacklistArchiveService {
             suspiciousRecord.put("reason", reason);
             suspiciousRecord.put("detectedAt", LocalDateTime.now().toString());
             
-            String recordKey = SUSPICIOUS_PATTERN_KEY + ":records:" + System.currentTimeMillis();
+            long detectedAt = System.currentTimeMillis();
+            String recordKey = SUSPICIOUS_PATTERN_KEY + ":records:" + detectedAt;
             redisTemplate.opsForHash().putAll(recordKey, suspiciousRecord);
-            redisTemplate.expire(recordKey, 30, TimeUnit.DAYS); // 30일 보관
+            redisTemplate.expire(recordKey, SUSPICIOUS_RECORD_DAYS, TimeUnit.DAYS); // 30일 보관
+            
+            // 조회용 인덱스 (KEYS 없이 목록 조회)
+            redisTemplate.opsForZSet().add(SUSPICIOUS_RECORDS_INDEX_KEY, recordKey, detectedAt);
             
             System.out.println("⚠️ 의심 사용자 감지: " + email + " (위반 " + violationCount + "회)");
             
@@ -210,20 +356,28 @@ public class TokenBlacklistArchiveService {
      * 블랙리스트 아카이브 조회 (관리자용)
      */
     public List<BlacklistRecord> getBlacklistArchive(int limit) {
+        return getBlacklistArchive(0, limit);
+    }
+    
+    /**
+     * 블랙리스트 아카이브 페이지 조회 (관리자용)
+     * 인덱스 ZSET을 만료 시각 역순으로 잘라 읽고 레코드는 파이프라인으로 조회
+     * @param offset 시작 위치
+     * @param limit 조회 개수
+     */
+    public List<BlacklistRecord> getBlacklistArchive(int offset, int limit) {
         List<BlacklistRecord> records = new ArrayList<>();
+        if (limit <= 0) {
+            return records;
+        }
         
         try {
-            // Redis 인덱스에서 최근 레코드 ID 조회
-            List<Object> recordIds = redisTemplate.opsForList().range(BLACKLIST_REDIS_KEY + ":index", 0, limit - 1);
+            Set<Object> recordIds = redisTemplate.opsForZSet().reverseRange(ARCHIVE_INDEX_KEY, offset, offset + limit - 1);
             
-            if (recordIds != null) {
-                for (Object recordId : recordIds) {
-                    String recordKey = BLACKLIST_REDIS_KEY + ":" + recordId;
-                    Map<Object, Object> recordData = redisTemplate.opsForHash().entries(recordKey);
-                    
+            if (recordIds != null && !recordIds.isEmpty()) {
+                for (Map<Object, Object> recordData : loadRecords(recordIds)) {
                     if (!recordData.isEmpty()) {
-                        BlacklistRecord record = BlacklistRecord.fromMap(recordData);
-                        records.add(record);
+                        records.add(BlacklistRecord.fromMap(recordData));
                     }
                 }
             }
@@ -237,21 +391,34 @@ public class TokenBlacklistArchiveService {
     
     /**
      * 의심 사용자 목록 조회
+     * 인덱스 ZSET에서 보관 기간 내 기록만 최신순으로 조회
      */
     public List<Map<String, Object>> getSuspiciousUsers() {
         List<Map<String, Object>> suspiciousUsers = new ArrayList<>();
         
         try {
-            Set<String> keys = redisTemplate.keys(SUSPICIOUS_PATTERN_KEY + ":records:*");
-            
-            if (keys != null) {
-                for (String key : keys) {
-                    Map<Object, Object> userData = redisTemplate.opsForHash().entries(key);
-                    if (!userData.isEmpty()) {
-                        Map<String, Object> userMap = new HashMap<>();
-                        userData.forEach((k, v) -> userMap.put(k.toString(), v));
-                        suspiciousUsers.add(userMap);
-                    }
+            // 보관 기간이 지난 인덱스 항목 정리 (기록 자체는 TTL로 만료됨)
+            long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(SUSPICIOUS_RECORD_DAYS);
+            redisTemplate.opsForZSet().removeRangeByScore(SUSPICIOUS_RECORDS_INDEX_KEY, 0, cutoff);
+            
+            Collection<String> keys = new ArrayList<>();
+            Set<Object> indexed = redisTemplate.opsForZSet().reverseRange(SUSPICIOUS_RECORDS_INDEX_KEY, 0, -1);
+            if (indexed != null && !indexed.isEmpty()) {
+                indexed.forEach(key -> keys.add(key.toString()));
+            } else {
+                // 인덱스 도입 이전 기록은 SCAN으로 조회 (관리자 조회 전용)
+                keys.addAll(scanKeys(SUSPICIOUS_PATTERN_KEY + ":records:*"));
+            }
+            
+            for (String key : keys) {
+                if (key.equals(SUSPICIOUS_RECORDS_INDEX_KEY)) {
+                    continue;
+                }
+                Map<Object, Object> userData = redisTemplate.opsForHash().entries(key);
+                if (!userData.isEmpty()) {
+                    Map<String, Object> userMap = new HashMap<>();
+                    userData.forEach((k, v) -> userMap.put(k.toString(), v));
+                    suspiciousUsers.add(userMap);
                 }
             }
             
@@ -262,8 +429,23 @@ public class TokenBlacklistArchiveService {
         return suspiciousUsers;
     }
     
+    /**
+     * 패턴에 맞는 키를 SCAN으로 조회 (Redis 블로킹 없음)
+     */
+    private List<String> scanKeys(String pattern) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(500).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+            }
+        }
+        return keys;
+    }
+    
     /**
      * 자동 정리 스케줄러 (매일 새벽 2시)
+     * 정리 예정 시각이 지난 항목만 ZRANGEBYSCORE로 배치 조회하여 파이프라인 삭제
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void cleanupExpiredRecords() {
@@ -271,27 +453,20 @@ public class TokenBlacklistArchiveService {
             System.out.println("블랙리스트 아카이브 정리 작업 시작...");
             
             int cleanedCount = 0;
-            List<Object> allRecordIds = redisTemplate.opsForList().range(BLACKLIST_REDIS_KEY + ":index", 0, -1);
+            long now = System.currentTimeMillis();
             
-            if (allRecordIds != null) {
-                for (Object recordId : allRecordIds) {
-                    String recordKey = BLACKLIST_REDIS_KEY + ":" + recordId;
-                    Map<Object, Object> recordData = redisTemplate.opsForHash().entries(recordKey);
-                    
-                    if (!recordData.isEmpty()) {
-                        String expiryTimeStr = (String) recordData.get("expiryTime");
-                        if (expiryTimeStr != null) {
-                            LocalDateTime expiryTime = LocalDateTime.parse(expiryTimeStr);
-                            LocalDateTime cleanupTime = expiryTime.plusDays(DAYS_TO_KEEP_AFTER_EXPIRY);
-                            
-                            if (LocalDateTime.now().isAfter(cleanupTime)) {
-                                redisTemplate.delete(recordKey);
-                                // Redis List에서 해당 레코드 ID 제거 (count=1로 첫 번째 일치하는 항목만 제거)
-                                redisTemplate.opsForList().remove(BLACKLIST_REDIS_KEY + ":index", 1, recordId);
-                                cleanedCount++;
-                            }
-                        }
-                    }
+            while (true) {
+                Set<Object> expiredIds = redisTemplate.opsForZSet()
+                        .rangeByScore(ARCHIVE_INDEX_KEY, 0, now, 0, CLEANUP_BATCH_SIZE);
+                if (expiredIds == null || expiredIds.isEmpty()) {
+                    break;
+                }
+                
+                deleteRecords(new ArrayList<>(expiredIds));
+                cleanedCount += expiredIds.size();
+                
+                if (expiredIds.size() < CLEANUP_BATCH_SIZE) {
+                    break;
                 }
             }
             
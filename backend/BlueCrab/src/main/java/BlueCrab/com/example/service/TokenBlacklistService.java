@@ -2,14 +2,24 @@ package BlueCrab.com.example.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 토큰 블랙리스트 관리 서비스
  * Redis를 사용하여 무효화된 JWT 토큰을 관리
+ * 
+ * 인덱스 구조 (KEYS 명령 없이 조회/삭제):
+ * - blacklist:user:{username}  사용자별 블랙리스트 키 Set
+ * - blacklist:expiry           전체 블랙리스트 키 ZSET (score = 만료 시각 ms, 건수 집계용)
  */
 @Service
 @RequiredArgsConstructor
@@ -21,6 +31,9 @@ public class TokenBlacklistService {
     private static final String BLACKLIST_PREFIX = "blacklist:token:";
     private static final String ACCESS_TOKEN_PREFIX = "access:";
     private static final String REFRESH_TOKEN_PREFIX = "refresh:";
+    private static final String USER_INDEX_PREFIX = "blacklist:user:";
+    private static final String EXPIRY_INDEX_KEY = "blacklist:expiry";
+    private static final int DELETE_BATCH_SIZE = 500;
 
     /**
      * Access Token을 블랙리스트에 추가
@@ -28,12 +41,23 @@ public class TokenBlacklistService {
      * @param expirationTime 토큰 만료 시간 (밀리초)
      */
     public void addAccessTokenToBlacklist(String token, long expirationTime) {
+        addAccessTokenToBlacklist(token, expirationTime, null);
+    }
+
+    /**
+     * Access Token을 블랙리스트에 추가 (사용자별 인덱스 포함)
+     * @param token JWT 토큰
+     * @param expirationTime 토큰 만료 시간 (밀리초)
+     * @param username 사용자명 (null이면 사용자 인덱스에 기록하지 않음)
+     */
+    public void addAccessTokenToBlacklist(String token, long expirationTime, String username) {
         try {
             String key = BLACKLIST_PREFIX + ACCESS_TOKEN_PREFIX + token;
             long ttlMillis = calculateTtlMillis(expirationTime);
             
             if (ttlMillis > 0) {
                 redisTemplate.opsForValue().set(key, "blacklisted", Duration.ofMillis(ttlMillis));
+                indexBlacklistKey(key, username, expirationTime, ttlMillis);
                 log.info("Access token added to blacklist with TTL: {} ms", ttlMillis);
             } else {
                 log.warn("Token expiration time is in the past, not adding to blacklist");
@@ -49,12 +73,23 @@ public class TokenBlacklistService {
      * @param expirationTime 토큰 만료 시간 (밀리초)
      */
     public void addRefreshTokenToBlacklist(String token, long expirationTime) {
+        addRefreshTokenToBlacklist(token, expirationTime, null);
+    }
+
+    /**
+     * Refresh Token을 블랙리스트에 추가 (사용자별 인덱스 포함)
+     * @param token JWT 토큰
+     * @param expirationTime 토큰 만료 시간 (밀리초)
+     * @param username 사용자명 (null이면 사용자 인덱스에 기록하지 않음)
+     */
+    public void addRefreshTokenToBlacklist(String token, long expirationTime, String username) {
         try {
             String key = BLACKLIST_PREFIX + REFRESH_TOKEN_PREFIX + token;
             long ttlMillis = calculateTtlMillis(expirationTime);
             
             if (ttlMillis > 0) {
                 redisTemplate.opsForValue().set(key, "blacklisted", Duration.ofMillis(ttlMillis));
+                indexBlacklistKey(key, username, expirationTime, ttlMillis);
                 log.info("Refresh token added to blacklist with TTL: {} ms", ttlMillis);
             } else {
                 log.warn("Token expiration time is in the past, not adding to blacklist");
@@ -64,6 +99,25 @@ public class TokenBlacklistService {
         }
     }
 
+    /**
+     * 블랙리스트 키 인덱스 기록
+     * - 전체 ZSET에 만료 시각으로 추가하고 이미 만료된 항목은 함께 제거
+     * - 사용자 Set에 추가, Set TTL은 가장 늦게 만료되는 토큰 기준으로 연장
+     */
+    private void indexBlacklistKey(String key, String username, long expirationTime, long ttlMillis) {
+        redisTemplate.opsForZSet().add(EXPIRY_INDEX_KEY, key, expirationTime);
+        redisTemplate.opsForZSet().removeRangeByScore(EXPIRY_INDEX_KEY, 0, System.currentTimeMillis());
+        
+        if (username != null && !username.isEmpty()) {
+            String userIndexKey = USER_INDEX_PREFIX + username;
+            redisTemplate.opsForSet().add(userIndexKey, key);
+            Long currentTtl = redisTemplate.getExpire(userIndexKey, TimeUnit.MILLISECONDS);
+            if (currentTtl == null || currentTtl < ttlMillis) {
+                redisTemplate.expire(userIndexKey, Duration.ofMillis(ttlMillis));
+            }
+        }
+    }
+
     /**
      * Access Token이 블랙리스트에 있는지 확인
      * @param token JWT 토큰
@@ -98,13 +152,29 @@ public class TokenBlacklistService {
 
     /**
      * 사용자의 모든 토큰을 블랙리스트에서 제거 (새 로그인 시 사용)
+     * 사용자별 인덱스 Set에 기록된 키만 일괄 삭제 (다른 사용자 항목은 유지)
      * @param username 사용자명
      */
     public void removeUserTokensFromBlacklist(String username) {
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            redisTemplate.delete(redisTemplate.keys(pattern));
-            log.info("Removed all tokens from blacklist for user: {}", username);
+            String userIndexKey = USER_INDEX_PREFIX + username;
+            Set<Object> members = redisTemplate.opsForSet().members(userIndexKey);
+            
+            List<String> keys = new ArrayList<>();
+            if (members != null) {
+                for (Object member : members) {
+                    keys.add(member.toString());
+                }
+            }
+            
+            for (int from = 0; from < keys.size(); from += DELETE_BATCH_SIZE) {
+                List<String> batch = keys.subList(from, Math.min(from + DELETE_BATCH_SIZE, keys.size()));
+                redisTemplate.delete(batch);
+                redisTemplate.opsForZSet().remove(EXPIRY_INDEX_KEY, batch.toArray());
+            }
+            redisTemplate.delete(userIndexKey);
+            
+            log.info("Removed {} tokens from blacklist for user: {}", keys.size(), username);
         } catch (Exception e) {
             log.error("Failed to remove user tokens from blacklist: {}", e.getMessage());
         }
@@ -123,15 +193,40 @@ public class TokenBlacklistService {
 
     /**
      * 블랙리스트 통계 조회 (디버깅 용도)
+     * 만료된 항목을 인덱스에서 제거한 뒤 ZCARD로 집계
      * @return 블랙리스트에 있는 토큰 수
      */
     public long getBlacklistSize() {
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            return redisTemplate.countExistingKeys(redisTemplate.keys(pattern));
+            redisTemplate.opsForZSet().removeRangeByScore(EXPIRY_INDEX_KEY, 0, System.currentTimeMillis());
+            Long size = redisTemplate.opsForZSet().zCard(EXPIRY_INDEX_KEY);
+            return size != null ? size : 0;
         } catch (Exception e) {
             log.error("Failed to get blacklist size: {}", e.getMessage());
             return 0;
         }
     }
+
+    /**
+     * 블랙리스트 키 목록 조회 (관리자 도구용)
+     * SCAN으로 나누어 조회하므로 Redis를 블로킹하지 않음
+     * @param limit 최대 조회 개수
+     * @return 블랙리스트 키 목록
+     */
+    public List<String> scanBlacklistKeys(int limit) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(BLACKLIST_PREFIX + "*")
+                .count(500)
+                .build();
+        
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext() && keys.size() < limit) {
+                keys.add(cursor.next());
+            }
+        } catch (Exception e) {
+            log.error("Failed to scan blacklist keys: {}", e.getMessage());
+        }
+        return keys;
+    }
 }
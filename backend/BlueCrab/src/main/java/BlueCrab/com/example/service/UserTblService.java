@@ -10,6 +10,7 @@ import BlueCrab.com.example.exception.ResourceNotFoundException;
 import BlueCrab.com.example.repository.RegistryRepository;
 import BlueCrab.com.example.repository.SerialCodeTableRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
+import BlueCrab.com.example.security.PrincipalCache;
 import BlueCrab.com.example.util.SlowQueryLogger;
 import BlueCrab.com.example.util.UserCodeGenerator;
 import org.slf4j.Logger;
@@ -66,6 +67,9 @@ public class UserTblService {
     @Autowired
     private ImageCacheService imageCacheService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     public List<UserTbl> getAllUsers() {
         return SlowQueryLogger.measureAndLog("getAllUsers",
             () -> userTblRepository.findAll());
@@ -219,12 +223,20 @@ public class UserTblService {
      */
     public UserTbl updateUser(Integer id, UserTbl userDetails) {
         UserTbl user = findUserById(id);
+        String previousEmail = user.getUserEmail();
         
         // 변경된 값에 대해서만 중복 검사 수행
         validateUserUniquenessForUpdate(user, userDetails);
         
         updateUserFields(user, userDetails);
-        return userTblRepository.save(user);
+        UserTbl savedUser = userTblRepository.save(user);
+        // 이메일/역할이 바뀔 수 있으므로 기존 인증 주체 제거
+        // 새 이메일로 캐시된 항목(이전에 같은 이메일을 쓰던 계정 등)도 함께 제거
+        principalCache.invalidate(previousEmail);
+        if (savedUser.getUserEmail() != null && !savedUser.getUserEmail().equals(previousEmail)) {
+            principalCache.invalidate(savedUser.getUserEmail());
+        }
+        return savedUser;
     }
     
     /**
@@ -248,10 +260,10 @@ public class UserTblService {
      * // 사용자 계정 삭제 완료
      */
     public void deleteUser(Integer id) {
-        if (!userTblRepository.existsById(id)) {
-            throw ResourceNotFoundException.forId("사용자", id);
-        }
+        UserTbl user = userTblRepository.findById(id)
+            .orElseThrow(() -> ResourceNotFoundException.forId("사용자", id));
         userTblRepository.deleteById(id);
+        principalCache.invalidate(user.getUserEmail());
     }
     
     /**
@@ -279,7 +291,9 @@ public class UserTblService {
         UserTbl user = findUserById(id);
         // 학생(0) ↔ 교수(1) 전환
         user.setUserStudent(user.getUserStudent() == 1 ? 0 : 1);
-        return userTblRepository.save(user);
+        UserTbl savedUser = userTblRepository.save(user);
+        principalCache.invalidate(user.getUserEmail());
+        return savedUser;
     }
 
     /**
@@ -1,22 +1,25 @@
 package BlueCrab.com.example.service.impl;
 
 import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import BlueCrab.com.example.dto.Consultation.ChatMessagePageDto;
 import BlueCrab.com.example.repository.ConsultationRequestRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
+import BlueCrab.com.example.service.ChatRoomContextCache;
+import BlueCrab.com.example.service.ChatMessageSerializer;
 import BlueCrab.com.example.service.ChatService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import BlueCrab.com.example.service.support.ChatLogFormatter;
+import BlueCrab.com.example.service.support.ChatLogInputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 /**
  * 채팅 메시지 관리 Service 구현체
@@ -33,20 +36,25 @@ public class ChatServiceImpl implements ChatService {
     private static final String CHAT_KEY_PREFIX = "chat:room:";
     private static final long TTL_HOURS = 36; // 36시간
     private static final int DEFAULT_MESSAGE_COUNT = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int LOG_READ_CHUNK = 500;
 
     private final StringRedisTemplate stringRedisTemplate;
     private final ConsultationRequestRepository consultationRequestRepository;
     private final UserTblRepository userTblRepository;
-    private final ObjectMapper objectMapper;
+    private final ChatRoomContextCache chatRoomContextCache;
+    private final ChatMessageSerializer chatMessageSerializer;
 
     public ChatServiceImpl(StringRedisTemplate stringRedisTemplate,
                           ConsultationRequestRepository consultationRequestRepository,
-                          UserTblRepository userTblRepository) {
+                          UserTblRepository userTblRepository,
+                          ChatRoomContextCache chatRoomContextCache,
+                          ChatMessageSerializer chatMessageSerializer) {
         this.stringRedisTemplate = stringRedisTemplate;
         this.consultationRequestRepository = consultationRequestRepository;
         this.userTblRepository = userTblRepository;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.chatRoomContextCache = chatRoomContextCache;
+        this.chatMessageSerializer = chatMessageSerializer;
     }
 
     /**
@@ -56,67 +64,79 @@ public class ChatServiceImpl implements ChatService {
         return CHAT_KEY_PREFIX + requestIdx;
     }
 
+    private byte[] getChatKeyBytes(Long requestIdx) {
+        return getChatKey(requestIdx).getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     public void saveMessage(ChatMessageDto message) {
-        String key = getChatKey(message.getRequestIdx());
+        byte[] key = getChatKeyBytes(message.getRequestIdx());
         
         try {
-            // 메시지를 JSON 문자열로 변환
-            String messageJson = objectMapper.writeValueAsString(message);
-            
-            // Redis List에 추가 (RPUSH - 오른쪽에 추가)
-            stringRedisTemplate.opsForList().rightPush(key, messageJson);
+            // 설정된 형식(json/compact)으로 직렬화
+            byte[] encoded = chatMessageSerializer.encode(message);
             
-            // TTL 36시간 재설정 (메시지 전송할 때마다 연장)
-            setTTL(message.getRequestIdx());
+            // Redis List에 추가 (RPUSH - 오른쪽에 추가) + TTL 36시간 재설정 (메시지 전송할 때마다 연장)
+            // 두 명령을 파이프라인으로 묶어 왕복 1회로 처리
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.listCommands().rPush(key, encoded);
+                connection.keyCommands().expire(key, TimeUnit.HOURS.toSeconds(TTL_HOURS));
+                return null;
+            });
             
             log.debug("메시지 저장 완료: requestIdx={}, sender={}", 
                 message.getRequestIdx(), message.getSender());
             
-        } catch (JsonProcessingException e) {
-            log.error("메시지 JSON 변환 실패: requestIdx={}", message.getRequestIdx(), e);
+        } catch (IllegalStateException e) {
+            log.error("메시지 직렬화 실패: requestIdx={}", message.getRequestIdx(), e);
             throw new RuntimeException("메시지 저장 실패", e);
         }
     }
 
     @Override
     public List<ChatMessageDto> getMessages(Long requestIdx, int count) {
-        String key = getChatKey(requestIdx);
-        
         // Redis에서 최근 N개 메시지 조회 (LRANGE -count -1)
-        List<String> messageJsonList = stringRedisTemplate.opsForList()
-            .range(key, -count, -1);
+        List<ChatMessageDto> messages = readRange(requestIdx, -count, -1);
         
-        if (messageJsonList == null || messageJsonList.isEmpty()) {
+        if (messages.isEmpty()) {
             log.debug("메시지 없음: requestIdx={}", requestIdx);
-            return new ArrayList<>();
         }
-        
-        // JSON 문자열을 DTO로 변환
-        return messageJsonList.stream()
-            .map(this::parseMessage)
-            .collect(Collectors.toList());
+        return messages;
     }
 
     @Override
     public List<ChatMessageDto> getAllMessages(Long requestIdx) {
-        String key = getChatKey(requestIdx);
-        
         // Redis에서 전체 메시지 조회 (LRANGE 0 -1)
-        List<String> messageJsonList = stringRedisTemplate.opsForList()
-            .range(key, 0, -1);
+        List<ChatMessageDto> messages = readRange(requestIdx, 0, -1);
         
-        if (messageJsonList == null || messageJsonList.isEmpty()) {
+        if (messages.isEmpty()) {
             log.debug("전체 메시지 없음: requestIdx={}", requestIdx);
-            return new ArrayList<>();
+            return messages;
         }
         
-        log.info("전체 메시지 조회: requestIdx={}, count={}", requestIdx, messageJsonList.size());
-        
-        // JSON 문자열을 DTO로 변환
-        return messageJsonList.stream()
-            .map(this::parseMessage)
-            .collect(Collectors.toList());
+        log.info("전체 메시지 조회: requestIdx={}, count={}", requestIdx, messages.size());
+        return messages;
+    }
+
+    @Override
+    public List<ChatMessageDto> getMessageRange(Long requestIdx, long start, long end) {
+        return readRange(requestIdx, start, end);
+    }
+
+    @Override
+    public ChatMessagePageDto getMessagesBefore(Long requestIdx, Long beforeIndex, int size) {
+        long total = getMessageCount(requestIdx);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // 목록은 추가만 되므로 인덱스 커서는 새 메시지가 들어와도 유지됨
+        long end = beforeIndex == null ? total : Math.max(0, Math.min(beforeIndex, total));
+        long start = Math.max(0, end - pageSize);
+
+        List<ChatMessageDto> messages = end > start
+            ? getMessageRange(requestIdx, start, end - 1)
+            : new ArrayList<>();
+
+        return new ChatMessagePageDto(requestIdx, messages, total, start > 0 ? start : null);
     }
 
     @Override
@@ -145,7 +165,14 @@ public class ChatServiceImpl implements ChatService {
             return false;
         }
 
-        return consultationRequestRepository.isParticipant(requestIdx, actualUserCode);
+        // 채팅방 컨텍스트 캐시로 확인 (캐시 조회 실패 시 DB 직접 확인)
+        try {
+            ChatRoomContextCache.RoomContext room = chatRoomContextCache.get(requestIdx);
+            return room != null && room.isParticipant(actualUserCode);
+        } catch (Exception e) {
+            log.warn("채팅방 컨텍스트 조회 실패, DB로 확인: requestIdx={}, error={}", requestIdx, e.getMessage());
+            return consultationRequestRepository.isParticipant(requestIdx, actualUserCode);
+        }
     }
 
     /**
@@ -187,53 +214,39 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    public String formatChatLog(Long requestIdx) {
-        List<ChatMessageDto> messages = getAllMessages(requestIdx);
-        
-        if (messages.isEmpty()) {
-            return "채팅 내역이 없습니다.";
-        }
-        
-        StringBuilder sb = new StringBuilder();
-        sb.append("==================================================\n");
-        sb.append("       상담 채팅 기록\n");
-        sb.append("==================================================\n\n");
-        sb.append("상담 요청 번호: ").append(requestIdx).append("\n");
-        sb.append("생성 일시: ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("\n");
-        sb.append("총 메시지 수: ").append(messages.size()).append("\n");
-        sb.append("\n==================================================\n\n");
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        
-        for (ChatMessageDto msg : messages) {
-                        LocalDateTime sentAt = msg.getSentAt();
-                        String formattedSentAt = sentAt != null ? sentAt.format(formatter) : "시간 정보 없음";
-
-                        sb.append("[").append(formattedSentAt).append("]\n");
-                        sb.append("발신: ")
-                            .append(msg.getSenderName() != null ? msg.getSenderName() : "알 수 없음")
-                            .append(" (")
-                            .append(msg.getSender() != null ? msg.getSender() : "-" )
-                            .append(")\n");
-                        sb.append("내용: ").append(msg.getContent() != null ? msg.getContent() : "").append("\n");
-            sb.append("--------------------------------------------------\n");
+    public InputStream openChatLogStream(Long requestIdx) {
+        long total = getMessageCount(requestIdx);
+        if (total == 0) {
+            return new ByteArrayInputStream(ChatLogFormatter.EMPTY_LOG.getBytes(StandardCharsets.UTF_8));
         }
-        
-        sb.append("\n==================================================\n");
-        sb.append("채팅 기록 끝\n");
-        sb.append("==================================================\n");
-        
-        return sb.toString();
+        return new ChatLogInputStream(requestIdx, total, LOG_READ_CHUNK,
+            (start, end) -> getMessageRange(requestIdx, start, end));
     }
 
     /**
-     * JSON 문자열을 ChatMessageDto로 파싱
+     * 목록 구간을 원본 바이트로 읽어 형식별로 복원 (기존 JSON 항목 포함)
      */
-    private ChatMessageDto parseMessage(String messageJson) {
+    private List<ChatMessageDto> readRange(Long requestIdx, long start, long end) {
+        byte[] key = getChatKeyBytes(requestIdx);
+        List<byte[]> entries = stringRedisTemplate.execute(
+            (RedisCallback<List<byte[]>>) connection -> connection.listCommands().lRange(key, start, end));
+
+        if (entries == null || entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<ChatMessageDto> messages = new ArrayList<>(entries.size());
+        for (byte[] entry : entries) {
+            messages.add(decodeMessage(requestIdx, entry));
+        }
+        return messages;
+    }
+
+    private ChatMessageDto decodeMessage(Long requestIdx, byte[] entry) {
         try {
-            return objectMapper.readValue(messageJson, ChatMessageDto.class);
-        } catch (JsonProcessingException e) {
-            log.error("메시지 JSON 파싱 실패: {}", messageJson, e);
+            return chatMessageSerializer.decode(requestIdx, entry);
+        } catch (IllegalStateException e) {
+            log.error("메시지 복원 실패: requestIdx={}, size={}", requestIdx, entry.length, e);
             throw new RuntimeException("메시지 파싱 실패", e);
         }
     }
@@ -2,16 +2,13 @@ package BlueCrab.com.example.service.notification;
 
 import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
 import BlueCrab.com.example.dto.Consultation.ConsultationReadReceiptDto;
-import BlueCrab.com.example.dto.FcmDataOnlySendRequest;
-import BlueCrab.com.example.dto.FcmDataOnlySendResponse;
-import BlueCrab.com.example.dto.FcmDataOnlyUserResult;
 import BlueCrab.com.example.entity.ConsultationRequest;
 import BlueCrab.com.example.entity.UserTbl;
 import BlueCrab.com.example.repository.ConsultationRequestRepository;
 import BlueCrab.com.example.repository.UserTblRepository;
-import BlueCrab.com.example.service.FcmTokenService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PreDestroy;
@@ -32,39 +29,58 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * 상담 채팅 관련 FCM 알림 및 배치 전송을 담당하는 서비스.
+ * 실제 전송은 NotificationOutboxService 대기열을 거쳐 워커 풀에서 수행된다.
+ *
+ * 배치 방식 (app.chat.notification.batch-mode):
+ * - local: 노드 메모리에 배치 (단일 노드용, 재시작 시 미전송 배치 유실)
+ * - redis: RedisChatNotificationBatcher에 배치, 선출된 1개 노드만 전송 (다중 노드용)
+ *   Redis 적재 실패 시 해당 메시지는 local 배치로 대체
  */
 @Slf4j
 @Service
 public class ChatNotificationService {
 
-    private final FcmTokenService fcmTokenService;
+    private final NotificationOutboxService notificationOutboxService;
     private final ConsultationRequestRepository consultationRequestRepository;
     private final UserTblRepository userTblRepository;
+    private final RedisChatNotificationBatcher redisBatcher;
 
     private final boolean notificationsEnabled;
     private final boolean readReceiptPushEnabled;
     private final long batchWindowSeconds;
     private final int batchMaxMessages;
+    private final boolean redisBatchMode;
+    private final int flushBatchLimit;
+    private final long flusherLeaseMillis;
 
     private final DateTimeFormatter isoFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     private final Map<String, BatchState> pendingBatches = new ConcurrentHashMap<>();
     private final ScheduledExecutorService scheduler;
 
-    public ChatNotificationService(FcmTokenService fcmTokenService,
+    public ChatNotificationService(NotificationOutboxService notificationOutboxService,
                                    ConsultationRequestRepository consultationRequestRepository,
                                    UserTblRepository userTblRepository,
+                                   RedisChatNotificationBatcher redisBatcher,
                                    @Value("${app.chat.notification.enabled:true}") boolean notificationsEnabled,
                                    @Value("${app.chat.notification.batch-window-seconds:6}") long batchWindowSeconds,
                                    @Value("${app.chat.notification.max-messages:5}") int batchMaxMessages,
-                                   @Value("${app.chat.notification.push-read-receipts:false}") boolean readReceiptPushEnabled) {
-        this.fcmTokenService = fcmTokenService;
+                                   @Value("${app.chat.notification.push-read-receipts:false}") boolean readReceiptPushEnabled,
+                                   @Value("${app.chat.notification.batch-mode:local}") String batchMode,
+                                   @Value("${app.chat.notification.flush-batch-limit:200}") int flushBatchLimit,
+                                   @Value("${app.chat.notification.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.notificationOutboxService = notificationOutboxService;
         this.consultationRequestRepository = consultationRequestRepository;
         this.userTblRepository = userTblRepository;
+        this.redisBatcher = redisBatcher;
         this.notificationsEnabled = notificationsEnabled;
         this.batchWindowSeconds = batchWindowSeconds;
         this.batchMaxMessages = Math.max(1, batchMaxMessages);
         this.readReceiptPushEnabled = readReceiptPushEnabled;
+        this.redisBatchMode = "redis".equalsIgnoreCase(batchMode);
+        this.flushBatchLimit = Math.max(1, flushBatchLimit);
+        // 전송 주기 몇 회분 동안 갱신이 없으면 다른 노드가 전송 노드를 승계
+        this.flusherLeaseMillis = Math.max(5000L, flushIntervalMs * 5);
         this.scheduler = Executors.newSingleThreadScheduledExecutor(new ChatNotificationThreadFactory());
     }
 
@@ -84,6 +100,10 @@ public class ChatNotificationService {
         String key = buildBatchKey(recipientUserCode, message.getRequestIdx());
         ChatMessageDto copy = cloneMessage(message);
 
+        if (redisBatchMode && appendToRedisBatch(key, copy)) {
+            return;
+        }
+
         BatchState state = pendingBatches.compute(key, (k, current) -> {
             if (current == null) {
                 current = new BatchState();
@@ -289,12 +309,55 @@ public class ChatNotificationService {
         sendDataOnlyNotification(receipt.getPartnerUserCode(),
             "채팅이 읽음 처리되었습니다.",
             "상대방이 채팅을 확인했습니다.",
-            data);
+            data,
+            "READ_RECEIPT|" + receipt.getRequestIdx());
+    }
+
+    /**
+     * Redis 배치 전송 (redis 모드에서 전송 노드로 선출된 경우에만 수행)
+     */
+    @Scheduled(fixedDelayString = "${app.chat.notification.flush-interval-ms:1000}")
+    public void flushRedisBatches() {
+        if (!notificationsEnabled || !redisBatchMode) {
+            return;
+        }
+
+        List<RedisChatNotificationBatcher.PendingBatch> batches;
+        try {
+            if (!redisBatcher.tryAcquireFlusher(flusherLeaseMillis)) {
+                return;
+            }
+            batches = redisBatcher.claimDueBatches(flushBatchLimit);
+        } catch (Exception e) {
+            log.warn("Redis 채팅 알림 배치 회수 실패: {}", e.getMessage());
+            return;
+        }
+
+        for (RedisChatNotificationBatcher.PendingBatch batch : batches) {
+            try {
+                sendBatchNotification(batch.getKey(), batch.getLatest(), batch.getMessageCount());
+            } catch (Exception e) {
+                log.warn("채팅 배치 알림 전송 실패: key={}, error={}", batch.getKey(), e.getMessage(), e);
+            }
+        }
     }
 
     @PreDestroy
     public void shutdownScheduler() {
         scheduler.shutdownNow();
+        if (redisBatchMode) {
+            redisBatcher.releaseFlusher();
+        }
+    }
+
+    private boolean appendToRedisBatch(String key, ChatMessageDto message) {
+        try {
+            redisBatcher.append(key, message, TimeUnit.SECONDS.toMillis(batchWindowSeconds), batchMaxMessages);
+            return true;
+        } catch (Exception e) {
+            log.warn("Redis 채팅 알림 배치 적재 실패, 로컬 배치로 대체: key={}, error={}", key, e.getMessage());
+            return false;
+        }
     }
 
     private void scheduleIfNeeded(String key, BatchState state) {
@@ -331,13 +394,13 @@ public class ChatNotificationService {
         }
 
         try {
-            sendBatchNotification(key, messages);
+            sendBatchNotification(key, messages.get(messages.size() - 1), messages.size());
         } catch (Exception e) {
             log.warn("채팅 배치 알림 전송 실패: key={}, error={}", key, e.getMessage(), e);
         }
     }
 
-    private void sendBatchNotification(String key, List<ChatMessageDto> messages) {
+    private void sendBatchNotification(String key, ChatMessageDto latest, int messageCount) {
         String[] parts = key.split("\\|", 2);
         if (parts.length != 2) {
             log.warn("잘못된 배치 키 형식: {}", key);
@@ -353,25 +416,24 @@ public class ChatNotificationService {
             return;
         }
 
-        ChatMessageDto latest = messages.get(messages.size() - 1);
         ensureSenderName(latest);
 
         String consultationTitle = resolveConsultationTitle(requestIdx).orElse("상담");
 
         String title;
-        if (messages.size() == 1) {
+        if (messageCount == 1) {
             title = String.format("[%s] 새 메시지", consultationTitle);
         } else {
-            title = String.format("[%s] 새 메시지 %d건", consultationTitle, messages.size());
+            title = String.format("[%s] 새 메시지 %d건", consultationTitle, messageCount);
         }
 
-        String body = formatBody(latest, messages.size());
+        String body = formatBody(latest, messageCount);
 
         Map<String, String> data = new HashMap<>();
         data.put("type", "CHAT");
         data.put("event", "NEW_MESSAGES");
         data.put("requestIdx", String.valueOf(requestIdx));
-        data.put("messageCount", String.valueOf(messages.size()));
+        data.put("messageCount", String.valueOf(messageCount));
         data.put("consultationTitle", consultationTitle);
 
         if (latest.getSender() != null) {
@@ -387,7 +449,8 @@ public class ChatNotificationService {
             data.put("preview", truncate(latest.getContent()));
         }
 
-        sendNotification(recipientUserCode, title, body, data);
+        // 아직 전송되지 않은 같은 상담방 알림은 최신 배치 내용으로 대체
+        sendNotification(recipientUserCode, title, body, data, "CHAT|" + requestIdx);
     }
 
     private void sendConsultationEvent(ConsultationRequest consultation,
@@ -418,42 +481,22 @@ public class ChatNotificationService {
             data.putAll(extraData);
         }
 
-        sendNotification(targetUserCode, title, body, data);
+        sendNotification(targetUserCode, title, body, data, null);
     }
 
-    private void sendNotification(String userCode, String title, String body, Map<String, String> data) {
-        try {
-            String safeTitle = title != null && !title.isEmpty() ? title : "알림";
-            String safeBody = body != null && !body.isEmpty() ? body : "";
-
-            FcmDataOnlySendRequest request = new FcmDataOnlySendRequest(
-                Collections.singletonList(userCode),
-                safeTitle,
-                safeBody,
-                data,
-                null,
-                null
-            );
-
-            FcmDataOnlySendResponse response = fcmTokenService.sendDataOnlyByUser(request);
-            FcmDataOnlyUserResult result = response.getResults() != null && !response.getResults().isEmpty()
-                ? response.getResults().get(0)
-                : null;
-
-            if (response.getTotalTokens() == 0 || result == null || result.getSuccessCount() == 0) {
-                log.warn("FCM Data-only 전송 실패 또는 대상 토큰 없음 - userCode={}, missingPlatforms={}",
-                        userCode, result != null ? result.getMissingPlatforms() : "unknown");
-            } else {
-                log.debug("FCM Data-only 전송 성공 - userCode={}, successTokens={}",
-                        userCode, result.getSuccessCount());
-            }
-        } catch (Exception e) {
-            log.warn("FCM 전송 실패 - userCode={}, title={}, error={}", userCode, title, e.getMessage());
+    private void sendNotification(String userCode, String title, String body, Map<String, String> data,
+                                  String coalesceKey) {
+        Long outboxIdx = notificationOutboxService.enqueueDataOnly(userCode, title, body, data, coalesceKey, true);
+        if (outboxIdx == null) {
+            log.warn("FCM 알림 대기열 적재 실패 - userCode={}, title={}", userCode, title);
+        } else {
+            log.debug("FCM 알림 대기열 적재 - userCode={}, outboxIdx={}", userCode, outboxIdx);
         }
     }
 
-    private void sendDataOnlyNotification(String userCode, String title, String body, Map<String, String> data) {
-        sendNotification(userCode, title, body, data);
+    private void sendDataOnlyNotification(String userCode, String title, String body, Map<String, String> data,
+                                          String coalesceKey) {
+        sendNotification(userCode, title, body, data, coalesceKey);
     }
 
     private void ensureSenderName(ChatMessageDto message) {
@@ -0,0 +1,551 @@
+package BlueCrab.com.example.service.notification;
+
+import BlueCrab.com.example.dto.FcmDataOnlySendRequest;
+import BlueCrab.com.example.dto.FcmDataOnlySendResponse;
+import BlueCrab.com.example.dto.FcmDataOnlyUserResult;
+import BlueCrab.com.example.dto.FcmSendRequest;
+import BlueCrab.com.example.dto.FcmSendResponse;
+import BlueCrab.com.example.entity.NotificationOutbox;
+import BlueCrab.com.example.exception.ResourceNotFoundException;
+import BlueCrab.com.example.repository.NotificationOutboxRepository;
+import BlueCrab.com.example.service.FcmTokenService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 푸시 알림 발송 대기열(Outbox) 서비스.
+ *
+ * - 호출 스레드는 NOTIFICATION_OUTBOX에 행만 저장 (FCM 호출 없음)
+ * - 같은 수신자·병합 키의 미전송 알림은 새 행을 만들지 않고 최신 내용으로 대체 (PENDING 조건부 UPDATE)
+ * - 디스패처가 전송 시각이 도래한 행을 선점(UPDATE ... WHERE STATUS='PENDING')하여 제한된 워커 풀에 투입
+ *   워커 큐에 여유가 없으면 선점하지 않고 DB에 남겨 둠 (백프레셔)
+ * - 일시적 오류는 지수 백오프로 재시도, 토큰 없음/무효 토큰 등 영구 오류는 FAILED 처리
+ * - 모든 전송은 FcmTokenService → 주입된 FirebaseMessaging 빈을 거치므로 로컬 가짜 구현으로 대체 가능
+ *
+ * 대기열 길이/지연 시간은 getStats()로 조회 (GET /admin/metrics/notification-outbox)
+ */
+@Slf4j
+@Service
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final FcmTokenService fcmTokenService;
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+    private final ThreadPoolExecutor workerPool;
+
+    private final int claimBatchSize;
+    private final int maxAttempts;
+    private final long baseBackoffSeconds;
+    private final long maxBackoffSeconds;
+    private final long staleClaimMinutes;
+    private final int retentionDays;
+
+    // 누적 통계
+    private final AtomicLong totalEnqueued = new AtomicLong();
+    private final AtomicLong totalCoalesced = new AtomicLong();
+    private final AtomicLong totalSent = new AtomicLong();
+    private final AtomicLong totalRetried = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+    private volatile long lastLatencyMs;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     FcmTokenService fcmTokenService,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.notification.outbox.workers:4}") int workers,
+                                     @Value("${app.notification.outbox.queue-capacity:200}") int queueCapacity,
+                                     @Value("${app.notification.outbox.claim-batch-size:50}") int claimBatchSize,
+                                     @Value("${app.notification.outbox.max-attempts:6}") int maxAttempts,
+                                     @Value("${app.notification.outbox.base-backoff-seconds:5}") long baseBackoffSeconds,
+                                     @Value("${app.notification.outbox.max-backoff-seconds:600}") long maxBackoffSeconds,
+                                     @Value("${app.notification.outbox.stale-claim-minutes:5}") long staleClaimMinutes,
+                                     @Value("${app.notification.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.fcmTokenService = fcmTokenService;
+        this.objectMapper = objectMapper;
+        this.claimBatchSize = Math.max(1, claimBatchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffSeconds = Math.max(1, baseBackoffSeconds);
+        this.maxBackoffSeconds = Math.max(this.baseBackoffSeconds, maxBackoffSeconds);
+        this.staleClaimMinutes = Math.max(1, staleClaimMinutes);
+        this.retentionDays = Math.max(1, retentionDays);
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 호출자 트랜잭션의 롤백 여부와 무관하게 저장 (저장 실패가 호출자 트랜잭션을 rollback-only로 만들지 않도록)
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int poolSize = Math.max(1, workers);
+        this.workerPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), new OutboxThreadFactory());
+    }
+
+    /**
+     * Data-only 알림 적재.
+     *
+     * @param coalesceKey 병합 키 (null이면 병합하지 않음)
+     * @param includeTemporary Redis 임시 토큰 포함 여부
+     * @return 대기열 ID (적재 실패 시 null)
+     */
+    public Long enqueueDataOnly(String recipientUserCode, String title, String body,
+                                Map<String, String> data, String coalesceKey, boolean includeTemporary) {
+        return enqueue(recipientUserCode, NotificationOutbox.TYPE_DATA_ONLY, title, body, data,
+                coalesceKey, includeTemporary);
+    }
+
+    /**
+     * 알림(Notification) 메시지 적재 - FcmTokenService.sendNotification 경로로 전송.
+     */
+    public Long enqueueNotification(String recipientUserCode, String title, String body, Map<String, String> data) {
+        return enqueue(recipientUserCode, NotificationOutbox.TYPE_NOTIFICATION, title, body, data, null, true);
+    }
+
+    /**
+     * 관리자 개별/다중 알림 전송 요청 적재 (userCode 또는 targetType=USER + targeta).
+     *
+     * @return 대기열 ID 목록
+     */
+    public List<Long> enqueueSendRequest(FcmSendRequest request) {
+        Set<String> recipients = new LinkedHashSet<>();
+
+        if (request.getTargetType() != null && request.getTargeta() != null && !request.getTargeta().isEmpty()) {
+            if (!"USER".equalsIgnoreCase(request.getTargetType())) {
+                throw new IllegalArgumentException("지원하지 않는 targetType입니다: " + request.getTargetType());
+            }
+            request.getTargeta().stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(code -> !code.isEmpty())
+                    .forEach(recipients::add);
+            if (recipients.isEmpty()) {
+                throw new IllegalArgumentException("targeta에 전송 대상이 필요합니다");
+            }
+        } else {
+            String userCode = request.getUserCode();
+            if (userCode == null || userCode.trim().isEmpty()) {
+                throw new IllegalArgumentException("userCode 또는 (targetType + targeta)가 필요합니다");
+            }
+            recipients.add(userCode.trim());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (String recipient : recipients) {
+            Long id = enqueueNotification(recipient, request.getTitle(), request.getBody(), request.getData());
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private Long enqueue(String recipientUserCode, String deliveryType, String title, String body,
+                         Map<String, String> data, String coalesceKey, boolean includeTemporary) {
+        if (recipientUserCode == null || recipientUserCode.isBlank()) {
+            return null;
+        }
+
+        try {
+            String dataJson = writeData(data);
+            String resolvedTitle = title != null && !title.isEmpty() ? title : "알림";
+            String resolvedBody = body != null ? body : "";
+            return requiresNewTemplate.execute(status -> {
+                if (coalesceKey != null) {
+                    // 조건부 UPDATE로 대체: 조회 후 디스패처가 선점한 행은 0건 갱신되어 새 행으로 적재
+                    List<Long> pendingIds = outboxRepository.findPendingIdsByCoalesceKey(
+                            recipientUserCode, coalesceKey, PageRequest.of(0, 1));
+                    if (!pendingIds.isEmpty()) {
+                        Long pendingId = pendingIds.get(0);
+                        int updated = outboxRepository.coalescePending(pendingId, resolvedTitle, resolvedBody,
+                                dataJson, includeTemporary);
+                        if (updated > 0) {
+                            totalCoalesced.incrementAndGet();
+                            return pendingId;
+                        }
+                    }
+                }
+
+                NotificationOutbox outbox = new NotificationOutbox();
+                outbox.setRecipientUserCode(recipientUserCode);
+                outbox.setCoalesceKey(coalesceKey);
+                outbox.setDeliveryType(deliveryType);
+                outbox.setTitle(resolvedTitle);
+                outbox.setBody(resolvedBody);
+                outbox.setDataJson(dataJson);
+                outbox.setIncludeTemporary(includeTemporary);
+                totalEnqueued.incrementAndGet();
+                return outboxRepository.save(outbox).getId();
+            });
+        } catch (Exception e) {
+            log.error("알림 대기열 적재 실패 - userCode={}, title={}, error={}", recipientUserCode, title, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 전송 시각이 도래한 알림을 선점하여 워커 풀에 투입.
+     * 워커 큐 여유분만큼만 선점하므로 나머지는 DB 대기열에 남는다.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        int capacity = workerPool.getQueue().remainingCapacity();
+        if (capacity <= 0 || workerPool.isShutdown()) {
+            return;
+        }
+
+        List<NotificationOutbox> claimed;
+        try {
+            int limit = Math.min(capacity, claimBatchSize);
+            claimed = transactionTemplate.execute(status -> claimDue(limit));
+        } catch (Exception e) {
+            log.warn("알림 대기열 선점 실패: {}", e.getMessage());
+            return;
+        }
+
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        for (NotificationOutbox outbox : claimed) {
+            try {
+                workerPool.execute(() -> deliver(outbox));
+            } catch (RejectedExecutionException e) {
+                // 워커 풀 포화: 다음 주기에 다시 선점하도록 되돌림
+                scheduleRetry(outbox, LocalDateTime.now(), "워커 풀 포화", false);
+            }
+        }
+    }
+
+    private List<NotificationOutbox> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, limit));
+        if (dueIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        int updated = outboxRepository.claim(dueIds, claimToken, now);
+        if (updated == 0) {
+            return Collections.emptyList();
+        }
+        return outboxRepository.findByClaimTokenAndStatus(claimToken, NotificationOutbox.STATUS_PROCESSING);
+    }
+
+    /**
+     * 알림 1건 전송 (워커 스레드)
+     */
+    private void deliver(NotificationOutbox outbox) {
+        DeliveryResult result;
+        try {
+            result = send(outbox);
+        } catch (Exception e) {
+            result = DeliveryResult.retry("전송 오류: " + e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        outbox.setAttempts(outbox.getAttempts() + 1);
+
+        if (result.success) {
+            outbox.setStatus(NotificationOutbox.STATUS_SENT);
+            outbox.setSentAt(now);
+            outbox.setLastError(null);
+            outbox.setClaimToken(null);
+            outbox.setClaimedAt(null);
+            saveQuietly(outbox);
+            recordLatency(Duration.between(outbox.getCreatedAt(), now).toMillis());
+            totalSent.incrementAndGet();
+            return;
+        }
+
+        if (result.retryable && outbox.getAttempts() < maxAttempts) {
+            scheduleRetry(outbox, now.plusSeconds(backoffSeconds(outbox.getAttempts())), result.reason, true);
+            return;
+        }
+
+        outbox.setStatus(NotificationOutbox.STATUS_FAILED);
+        outbox.setLastError(truncate(result.reason));
+        outbox.setClaimToken(null);
+        outbox.setClaimedAt(null);
+        saveQuietly(outbox);
+        totalFailed.incrementAndGet();
+        log.warn("알림 전송 최종 실패 - outboxIdx={}, userCode={}, 시도={}, 사유={}",
+                outbox.getId(), outbox.getRecipientUserCode(), outbox.getAttempts(), result.reason);
+    }
+
+    private DeliveryResult send(NotificationOutbox outbox) {
+        Map<String, String> data = readData(outbox.getDataJson());
+
+        if (NotificationOutbox.TYPE_NOTIFICATION.equals(outbox.getDeliveryType())) {
+            FcmSendResponse response;
+            try {
+                response = fcmTokenService.sendNotification(
+                        new FcmSendRequest(outbox.getRecipientUserCode(), outbox.getTitle(), outbox.getBody(), data));
+            } catch (ResourceNotFoundException e) {
+                return DeliveryResult.permanent(e.getMessage());
+            }
+
+            boolean anySuccess = response.getSent() != null && response.getSent().containsValue(Boolean.TRUE);
+            if (anySuccess) {
+                return DeliveryResult.ok();
+            }
+            Collection<String> reasons = response.getFailedReasons() != null
+                    ? response.getFailedReasons().values() : Collections.emptyList();
+            return classifyFailure(reasons);
+        }
+
+        FcmDataOnlySendResponse response = fcmTokenService.sendDataOnlyByUser(new FcmDataOnlySendRequest(
+                Collections.singletonList(outbox.getRecipientUserCode()),
+                outbox.getTitle(),
+                outbox.getBody(),
+                data,
+                null,
+                outbox.getIncludeTemporary()));
+
+        if (response.getTotalTokens() == 0) {
+            return DeliveryResult.permanent("대상 토큰 없음");
+        }
+        if (response.getSuccessCount() > 0) {
+            return DeliveryResult.ok();
+        }
+
+        Collection<String> reasons = new ArrayList<>();
+        if (response.getResults() != null) {
+            for (FcmDataOnlyUserResult result : response.getResults()) {
+                if (result.getFailedTokens() != null) {
+                    reasons.addAll(result.getFailedTokens().values());
+                }
+            }
+        }
+        return classifyFailure(reasons);
+    }
+
+    /**
+     * 실패 사유 분류: 모든 실패가 무효 토큰/토큰 없음이면 영구 실패, 그 외(일시적 오류 포함)는 재시도
+     */
+    private DeliveryResult classifyFailure(Collection<String> reasons) {
+        String joined = reasons.stream().filter(Objects::nonNull).distinct().collect(Collectors.joining("; "));
+        boolean transientFailure = reasons.isEmpty() || reasons.stream().anyMatch(reason -> !isPermanentReason(reason));
+        return transientFailure ? DeliveryResult.retry(joined) : DeliveryResult.permanent(joined);
+    }
+
+    private boolean isPermanentReason(String reason) {
+        if (reason == null) {
+            return false;
+        }
+        return reason.contains("NOT_FOUND")
+                || reason.contains("INVALID_ARGUMENT")
+                || reason.contains("UNREGISTERED")
+                || reason.contains("REGISTRATION_TOKEN_NOT_REGISTERED")
+                || reason.contains("무효화")
+                || reason.contains("토큰이 등록되지 않았습니다");
+    }
+
+    private void scheduleRetry(NotificationOutbox outbox, LocalDateTime nextAttemptAt, String reason, boolean countRetry) {
+        outbox.setStatus(NotificationOutbox.STATUS_PENDING);
+        outbox.setNextAttemptAt(nextAttemptAt);
+        outbox.setLastError(truncate(reason));
+        outbox.setClaimToken(null);
+        outbox.setClaimedAt(null);
+        saveQuietly(outbox);
+        if (countRetry) {
+            totalRetried.incrementAndGet();
+            log.info("알림 전송 재시도 예약 - outboxIdx={}, 시도={}, 다음 시도={}, 사유={}",
+                    outbox.getId(), outbox.getAttempts(), nextAttemptAt, reason);
+        }
+    }
+
+    /**
+     * 지수 백오프 (base × 2^(시도-1), 최대값 제한, ±20% 지터)
+     */
+    private long backoffSeconds(int attempts) {
+        long delay = baseBackoffSeconds << Math.min(20, Math.max(0, attempts - 1));
+        delay = Math.min(delay, maxBackoffSeconds);
+        long jitter = Math.max(1, delay / 5);
+        return Math.max(1, delay - jitter + ThreadLocalRandom.current().nextLong(jitter * 2 + 1));
+    }
+
+    private void saveQuietly(NotificationOutbox outbox) {
+        try {
+            outboxRepository.save(outbox);
+        } catch (Exception e) {
+            // 저장 실패 시 PROCESSING 상태로 남고 releaseStaleClaims에서 복구됨
+            log.error("알림 대기열 상태 저장 실패 - outboxIdx={}, error={}", outbox.getId(), e.getMessage(), e);
+        }
+    }
+
+    private void recordLatency(long latencyMs) {
+        lastLatencyMs = latencyMs;
+        totalLatencyMs.addAndGet(latencyMs);
+        maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+    }
+
+    /**
+     * 처리 중 상태로 오래 남은 알림 복구 (노드 중단/저장 실패 대비)
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void releaseStaleClaims() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleClaimMinutes);
+            Integer released = transactionTemplate.execute(status -> outboxRepository.releaseStaleClaims(staleBefore));
+            if (released != null && released > 0) {
+                log.warn("처리 지연 알림 {}건을 대기 상태로 복구했습니다.", released);
+            }
+        } catch (Exception e) {
+            log.warn("처리 지연 알림 복구 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 완료/실패 알림 정리 (매일 새벽 4시 30분)
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purgeFinished() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+            Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteFinishedBefore(before));
+            log.info("알림 대기열 정리 완료 - 삭제 {}건", deleted);
+        } catch (Exception e) {
+            log.warn("알림 대기열 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 대기열 길이/지연 시간 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(NotificationOutbox.STATUS_PENDING));
+        stats.put("processing", outboxRepository.countByStatus(NotificationOutbox.STATUS_PROCESSING));
+        stats.put("failed", outboxRepository.countByStatus(NotificationOutbox.STATUS_FAILED));
+
+        LocalDateTime oldestPending = outboxRepository.findOldestPendingCreatedAt();
+        stats.put("oldestPendingAgeMs", oldestPending != null
+                ? Duration.between(oldestPending, LocalDateTime.now()).toMillis() : 0L);
+
+        stats.put("workerPoolSize", workerPool.getPoolSize());
+        stats.put("activeWorkers", workerPool.getActiveCount());
+        stats.put("workerQueueSize", workerPool.getQueue().size());
+        stats.put("workerQueueRemaining", workerPool.getQueue().remainingCapacity());
+
+        long sent = totalSent.get();
+        stats.put("totalEnqueued", totalEnqueued.get());
+        stats.put("totalCoalesced", totalCoalesced.get());
+        stats.put("totalSent", sent);
+        stats.put("totalRetried", totalRetried.get());
+        stats.put("totalFailed", totalFailed.get());
+        stats.put("avgLatencyMs", sent > 0 ? totalLatencyMs.get() / sent : 0L);
+        stats.put("maxLatencyMs", maxLatencyMs.get());
+        stats.put("lastLatencyMs", lastLatencyMs);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String writeData(Map<String, String> data) throws Exception {
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+        return objectMapper.writeValueAsString(data);
+    }
+
+    private Map<String, String> readData(String dataJson) {
+        if (dataJson == null || dataJson.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(dataJson, new TypeReference<Map<String, String>>() {});
+        } catch (Exception e) {
+            log.warn("알림 데이터 파싱 실패: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= 500) {
+            return value;
+        }
+        return value.substring(0, 497) + "...";
+    }
+
+    private static final class DeliveryResult {
+        private final boolean success;
+        private final boolean retryable;
+        private final String reason;
+
+        private DeliveryResult(boolean success, boolean retryable, String reason) {
+            this.success = success;
+            this.retryable = retryable;
+            this.reason = reason;
+        }
+
+        static DeliveryResult ok() {
+            return new DeliveryResult(true, false, null);
+        }
+
+        static DeliveryResult retry(String reason) {
+            return new DeliveryResult(false, true, reason);
+        }
+
+        static DeliveryResult permanent(String reason) {
+            return new DeliveryResult(false, false, reason);
+        }
+    }
+
+    private static final class OutboxThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("notification-outbox-" + sequence.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package BlueCrab.com.example.service.notification;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis 기반 채팅 알림 배치 저장소 (다중 노드 공용)
+ *
+ * 키 구조:
+ * - chat:notify:batch:{recipient|requestIdx}  HASH (count, 마지막 메시지 필드)
+ * - chat:notify:due                           ZSET (member=recipient|requestIdx, score=전송 예정 시각 ms)
+ * - chat:notify:flusher                       선출된 전송 노드 ID (PX 임대)
+ *
+ * 특징:
+ * - 적재는 Lua 스크립트 1회로 건수 증가/마지막 메시지 갱신/전송 예정 등록을 원자적으로 처리
+ *   (배치 창은 첫 메시지 기준, 최대 건수 도달 시 즉시 전송 대상으로 앞당김)
+ * - 전송 노드는 임대(lease) 방식으로 1대만 선출, 노드 중단 시 임대 만료 후 다른 노드가 승계
+ * - 배치 회수는 ZREM 성공 시에만 HASH를 읽고 삭제하므로 같은 배치가 두 번 전송되지 않음
+ * - 애플리케이션 재시작 시에도 미전송 배치가 Redis에 남아 다음 전송 주기에 처리됨
+ */
+@Slf4j
+@Component
+public class RedisChatNotificationBatcher {
+
+    private static final String BATCH_KEY_PREFIX = "chat:notify:batch:";
+    private static final String DUE_KEY = "chat:notify:due";
+    private static final String FLUSHER_KEY = "chat:notify:flusher";
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /* 메시지 적재
+     * KEYS[1]=배치 HASH, KEYS[2]=전송 예정 ZSET
+     * ARGV=[member, 창 만료 시각, 현재 시각, 최대 건수, TTL(초), sender, senderName, content, sentAt]
+     */
+    private static final DefaultRedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>(
+        "local count = redis.call('HINCRBY', KEYS[1], 'count', 1) " +
+        "redis.call('HSET', KEYS[1], 'sender', ARGV[6], 'senderName', ARGV[7], 'content', ARGV[8], 'sentAt', ARGV[9]) " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[5]) " +
+        "if count >= tonumber(ARGV[4]) then " +
+        "  redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1]) " +
+        "else " +
+        "  redis.call('ZADD', KEYS[2], 'NX', ARGV[2], ARGV[1]) " +
+        "end " +
+        "return count",
+        Long.class);
+
+    /* 배치 회수: 전송 예정 목록에서 제거한 노드만 HASH를 가져감
+     * KEYS[1]=배치 HASH, KEYS[2]=전송 예정 ZSET, ARGV[1]=member
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then return nil end " +
+        "local data = redis.call('HGETALL', KEYS[1]) " +
+        "redis.call('DEL', KEYS[1]) " +
+        "return data",
+        List.class);
+
+    /* 전송 노드 임대 획득/연장
+     * KEYS[1]=임대 키, ARGV=[노드 ID, 임대 시간(ms)]
+     */
+    private static final DefaultRedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>(
+        "local owner = redis.call('GET', KEYS[1]) " +
+        "if owner == ARGV[1] then redis.call('PEXPIRE', KEYS[1], ARGV[2]) return 1 end " +
+        "if not owner then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end " +
+        "return 0",
+        Long.class);
+
+    /* 임대 반납 (본인 소유일 때만) */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+        "return 0",
+        Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisChatNotificationBatcher(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 메시지를 배치에 적재
+     *
+     * @return 적재 후 배치 건수
+     */
+    public long append(String member, ChatMessageDto message, long windowMillis, int maxMessages) {
+        long now = System.currentTimeMillis();
+        // 전송 노드 장애로 회수가 늦어져도 배치가 남아 있도록 배치 창보다 넉넉하게 유지
+        long ttlSeconds = Math.max(600L, windowMillis / 1000 * 10);
+
+        Long count = stringRedisTemplate.execute(APPEND_SCRIPT,
+            Arrays.asList(BATCH_KEY_PREFIX + member, DUE_KEY),
+            member,
+            String.valueOf(now + windowMillis),
+            String.valueOf(now),
+            String.valueOf(maxMessages),
+            String.valueOf(ttlSeconds),
+            nullToEmpty(message.getSender()),
+            nullToEmpty(message.getSenderName()),
+            nullToEmpty(message.getContent()),
+            message.getSentAt() != null ? message.getSentAt().format(ISO_FORMATTER) : "");
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 전송 노드 임대 획득 또는 연장
+     *
+     * @return 현재 노드가 전송 노드이면 true
+     */
+    public boolean tryAcquireFlusher(long leaseMillis) {
+        Long acquired = stringRedisTemplate.execute(LEASE_SCRIPT,
+            Collections.singletonList(FLUSHER_KEY), nodeId, String.valueOf(leaseMillis));
+        return acquired != null && acquired == 1L;
+    }
+
+    /**
+     * 임대 반납 (종료 시 다른 노드가 즉시 승계하도록)
+     */
+    public void releaseFlusher() {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(FLUSHER_KEY), nodeId);
+        } catch (Exception e) {
+            log.debug("채팅 알림 전송 노드 임대 반납 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 전송 예정 시각이 지난 배치 회수
+     */
+    @SuppressWarnings("rawtypes")
+    public List<PendingBatch> claimDueBatches(int limit) {
+        Set<String> dueMembers = stringRedisTemplate.opsForZSet()
+            .rangeByScore(DUE_KEY, 0, System.currentTimeMillis(), 0, limit);
+        if (dueMembers == null || dueMembers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<PendingBatch> batches = new ArrayList<>(dueMembers.size());
+        for (String member : dueMembers) {
+            List data = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                Arrays.asList(BATCH_KEY_PREFIX + member, DUE_KEY), member);
+            if (data == null || data.isEmpty()) {
+                // 다른 노드가 먼저 회수했거나 HASH가 만료된 경우
+                continue;
+            }
+
+            PendingBatch batch = toPendingBatch(member, data);
+            if (batch != null) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * 전송 대기 중인 배치 수
+     */
+    public long countPending() {
+        Long size = stringRedisTemplate.opsForZSet().zCard(DUE_KEY);
+        return size != null ? size : 0L;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private PendingBatch toPendingBatch(String member, List data) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i + 1 < data.size(); i += 2) {
+            fields.put(String.valueOf(data.get(i)), String.valueOf(data.get(i + 1)));
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(fields.getOrDefault("count", "0"));
+        } catch (NumberFormatException e) {
+            count = 0;
+        }
+        if (count <= 0) {
+            return null;
+        }
+
+        ChatMessageDto latest = new ChatMessageDto();
+        latest.setSender(emptyToNull(fields.get("sender")));
+        latest.setSenderName(emptyToNull(fields.get("senderName")));
+        latest.setContent(emptyToNull(fields.get("content")));
+        String sentAt = emptyToNull(fields.get("sentAt"));
+        if (sentAt != null) {
+            try {
+                latest.setSentAt(LocalDateTime.parse(sentAt, ISO_FORMATTER));
+            } catch (Exception e) {
+                log.debug("배치 메시지 시각 파싱 실패: member={}, sentAt={}", member, sentAt);
+            }
+        }
+        return new PendingBatch(member, count, latest);
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 회수된 배치 (배치 키, 누적 건수, 마지막 메시지)
+     */
+    public static final class PendingBatch {
+        private final String key;
+        private final int messageCount;
+        private final ChatMessageDto latest;
+
+        PendingBatch(String key, int messageCount, ChatMessageDto latest) {
+            this.key = key;
+            this.messageCount = messageCount;
+            this.latest = latest;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getMessageCount() {
+            return messageCount;
+        }
+
+        public ChatMessageDto getLatest() {
+            return latest;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 채팅 로그 텍스트 형식
+ *
+ * 머리말/메시지 블록/맺음말을 각각 만들 수 있도록 분리하여
+ * 전체 로그, 증분 백업 세그먼트(메시지 블록만), 아카이브 병합이 같은 형식을 사용한다.
+ */
+public final class ChatLogFormatter {
+
+    public static final String EMPTY_LOG = "채팅 내역이 없습니다.";
+
+    private static final String DOUBLE_LINE = "==================================================\n";
+    private static final String SINGLE_LINE = "--------------------------------------------------\n";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ChatLogFormatter() {
+    }
+
+    public static String header(Long requestIdx, long messageCount) {
+        return DOUBLE_LINE +
+            "       상담 채팅 기록\n" +
+            DOUBLE_LINE + "\n" +
+            "상담 요청 번호: " + requestIdx + "\n" +
+            "생성 일시: " + LocalDateTime.now().format(DATE_TIME_FORMATTER) + "\n" +
+            "총 메시지 수: " + messageCount + "\n" +
+            "\n" + DOUBLE_LINE + "\n";
+    }
+
+    public static String message(ChatMessageDto msg) {
+        LocalDateTime sentAt = msg.getSentAt();
+        String formattedSentAt = sentAt != null ? sentAt.format(DATE_TIME_FORMATTER) : "시간 정보 없음";
+
+        return "[" + formattedSentAt + "]\n" +
+            "발신: " + (msg.getSenderName() != null ? msg.getSenderName() : "알 수 없음") +
+            " (" + (msg.getSender() != null ? msg.getSender() : "-") + ")\n" +
+            "내용: " + (msg.getContent() != null ? msg.getContent() : "") + "\n" +
+            SINGLE_LINE;
+    }
+
+    public static String footer() {
+        return "\n" + DOUBLE_LINE +
+            "채팅 기록 끝\n" +
+            DOUBLE_LINE;
+    }
+}
@@ -0,0 +1,133 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 채팅 로그를 읽는 만큼만 만들어 내는 스트림
+ *
+ * 머리말 → 메시지(구간 단위로 조회/포맷) → 맺음말 순으로 생성하며,
+ * 한 번에 메모리에 올라가는 양은 구간 하나 분량이다.
+ * 응답 본문(InputStreamResource)이나 MinIO 멀티파트 업로드에 그대로 연결해 사용한다.
+ *
+ * 읽는 도중 목록이 삭제/만료되어 구간이 비거나 모자라면 IOException으로 스트림을 실패시킨다.
+ * (잘린 로그가 정상 파일처럼 다운로드되거나 백업으로 저장되지 않도록)
+ */
+public class ChatLogInputStream extends InputStream {
+
+    /**
+     * 메시지 구간 조회 (start, end 모두 포함)
+     */
+    @FunctionalInterface
+    public interface MessageRangeReader {
+        List<ChatMessageDto> read(long start, long end);
+    }
+
+    private enum Stage { HEADER, BODY, FOOTER, DONE }
+
+    private final Long requestIdx;
+    private final long messageCount;
+    private final int chunkSize;
+    private final MessageRangeReader reader;
+
+    private Stage stage = Stage.HEADER;
+    private long nextIndex;
+    private byte[] buffer = new byte[0];
+    private int position;
+
+    /**
+     * @param messageCount 로그에 포함할 메시지 수 (시작 시점 목록 길이, 이후 추가된 메시지는 제외)
+     */
+    public ChatLogInputStream(Long requestIdx, long messageCount, int chunkSize, MessageRangeReader reader) {
+        this.requestIdx = requestIdx;
+        this.messageCount = messageCount;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.reader = reader;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.length - position;
+    }
+
+    private boolean fill() throws IOException {
+        while (position >= buffer.length) {
+            if (stage == Stage.DONE) {
+                return false;
+            }
+            buffer = nextChunk().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+        }
+        return true;
+    }
+
+    private String nextChunk() throws IOException {
+        switch (stage) {
+            case HEADER:
+                stage = Stage.BODY;
+                return ChatLogFormatter.header(requestIdx, messageCount);
+            case BODY:
+                if (nextIndex >= messageCount) {
+                    stage = Stage.FOOTER;
+                    return "";
+                }
+                return readBody();
+            case FOOTER:
+                stage = Stage.DONE;
+                return ChatLogFormatter.footer();
+            default:
+                return "";
+        }
+    }
+
+    private String readBody() throws IOException {
+        long end = Math.min(messageCount, nextIndex + chunkSize);
+        List<ChatMessageDto> messages;
+        try {
+            messages = reader.read(nextIndex, end - 1);
+        } catch (RuntimeException e) {
+            throw new IOException("채팅 메시지를 읽지 못했습니다: " + e.getMessage(), e);
+        }
+
+        // 목록이 도중에 삭제/만료/축소된 경우: 맺음말 없이 실패 처리
+        long expected = end - nextIndex;
+        if (messages.size() < expected) {
+            throw new IOException(String.format(
+                "채팅 목록이 읽는 도중 변경되어 로그가 잘렸습니다: requestIdx=%d, 메시지 %d/%d",
+                requestIdx, nextIndex + messages.size(), messageCount));
+        }
+        nextIndex = end;
+
+        StringBuilder sb = new StringBuilder();
+        for (ChatMessageDto message : messages) {
+            sb.append(ChatLogFormatter.message(message));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+
+/**
+ * Redis 채팅 목록(chat:room:{requestIdx}) 항목 직렬화 형식
+ *
+ * 항목의 첫 바이트로 형식을 구분하므로 형식을 바꿔도 기존 항목은 그대로 읽을 수 있다.
+ * 상담 ID는 키에 포함되어 있어 저장하지 않아도 되며, 복원 시 키의 값으로 채운다.
+ */
+public interface ChatMessageCodec {
+
+    String getName();
+
+    byte[] encode(ChatMessageDto message);
+
+    /**
+     * @param requestIdx 항목을 읽은 목록의 상담 ID
+     */
+    ChatMessageDto decode(Long requestIdx, byte[] data);
+
+    /**
+     * 이 형식으로 기록된 항목인지 첫 바이트로 판별
+     */
+    boolean supports(byte[] data);
+}
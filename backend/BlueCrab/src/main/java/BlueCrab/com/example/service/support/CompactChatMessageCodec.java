@@ -0,0 +1,169 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 압축 바이너리 형식 (v1)
+ *
+ * <pre>
+ * [0x01][flags][sentAt: varint 초][sender][senderName][content]
+ * 문자열 = varint 길이 + UTF-8 바이트, flags 비트가 꺼진 필드는 생략(null)
+ * </pre>
+ *
+ * - 필드 이름/따옴표/날짜 문자열이 없어 짧은 메시지일수록 JSON 대비 크기가 크게 줄어듦
+ * - 상담 ID는 저장하지 않음 (목록 키에서 복원)
+ * - sentAt은 JSON 형식(yyyy-MM-dd HH:mm:ss)과 같은 초 단위 정밀도
+ * - ChatMessageDto에 필드가 추가되면 새 버전 바이트로 형식을 추가해야 함
+ */
+public final class CompactChatMessageCodec implements ChatMessageCodec {
+
+    public static final String NAME = "compact";
+
+    private static final byte FORMAT_V1 = 0x01;
+
+    private static final int HAS_SENT_AT = 1;
+    private static final int HAS_SENDER = 1 << 1;
+    private static final int HAS_SENDER_NAME = 1 << 2;
+    private static final int HAS_CONTENT = 1 << 3;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(ChatMessageDto message) {
+        byte[] sender = toBytes(message.getSender());
+        byte[] senderName = toBytes(message.getSenderName());
+        byte[] content = toBytes(message.getContent());
+
+        int flags = 0;
+        if (message.getSentAt() != null) {
+            flags |= HAS_SENT_AT;
+        }
+        if (sender != null) {
+            flags |= HAS_SENDER;
+        }
+        if (senderName != null) {
+            flags |= HAS_SENDER_NAME;
+        }
+        if (content != null) {
+            flags |= HAS_CONTENT;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + length(sender) + length(senderName) + length(content));
+        out.write(FORMAT_V1);
+        out.write(flags);
+        if (message.getSentAt() != null) {
+            writeVarLong(out, message.getSentAt().toEpochSecond(ZoneOffset.UTC));
+        }
+        writeBytes(out, sender);
+        writeBytes(out, senderName);
+        writeBytes(out, content);
+        return out.toByteArray();
+    }
+
+    @Override
+    public ChatMessageDto decode(Long requestIdx, byte[] data) {
+        if (!supports(data) || data.length < 2) {
+            throw new IllegalStateException("지원하지 않는 메시지 형식입니다.");
+        }
+
+        Reader reader = new Reader(data, 1);
+        int flags = reader.readByte();
+
+        ChatMessageDto message = new ChatMessageDto();
+        message.setRequestIdx(requestIdx);
+        if ((flags & HAS_SENT_AT) != 0) {
+            message.setSentAt(LocalDateTime.ofEpochSecond(reader.readVarLong(), 0, ZoneOffset.UTC));
+        }
+        if ((flags & HAS_SENDER) != 0) {
+            message.setSender(reader.readString());
+        }
+        if ((flags & HAS_SENDER_NAME) != 0) {
+            message.setSenderName(reader.readString());
+        }
+        if ((flags & HAS_CONTENT) != 0) {
+            message.setContent(reader.readString());
+        }
+        return message;
+    }
+
+    @Override
+    public boolean supports(byte[] data) {
+        return data.length > 0 && data[0] == FORMAT_V1;
+    }
+
+    private static byte[] toBytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] value) {
+        if (value == null) {
+            return;
+        }
+        writeVarLong(out, value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readByte() {
+            ensureAvailable(1);
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("메시지 형식 오류 (varint)");
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("메시지 형식 오류 (문자열 길이)");
+            }
+            ensureAvailable((int) length);
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        private void ensureAvailable(int count) {
+            if (count > data.length - position) {
+                throw new IllegalStateException("메시지 형식 오류 (길이 초과)");
+            }
+        }
+    }
+}
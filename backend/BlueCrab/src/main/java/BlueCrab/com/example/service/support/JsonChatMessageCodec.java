@@ -0,0 +1,54 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * 기존 JSON 형식 ({"requestIdx":..,"sender":..,"sentAt":"yyyy-MM-dd HH:mm:ss"})
+ */
+public final class JsonChatMessageCodec implements ChatMessageCodec {
+
+    public static final String NAME = "json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonChatMessageCodec() {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(ChatMessageDto message) {
+        try {
+            return objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new IllegalStateException("메시지 JSON 변환 실패", e);
+        }
+    }
+
+    @Override
+    public ChatMessageDto decode(Long requestIdx, byte[] data) {
+        try {
+            ChatMessageDto message = objectMapper.readValue(data, ChatMessageDto.class);
+            if (message.getRequestIdx() == null) {
+                message.setRequestIdx(requestIdx);
+            }
+            return message;
+        } catch (IOException e) {
+            throw new IllegalStateException("메시지 JSON 파싱 실패", e);
+        }
+    }
+
+    @Override
+    public boolean supports(byte[] data) {
+        return data.length > 0 && data[0] == '{';
+    }
+}
@@ -0,0 +1,199 @@
+package BlueCrab.com.example.service.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMP 개인 큐(/user) 메시지 전달 서비스
+ *
+ * 브로커 모드 (app.websocket.broker.mode):
+ * - simple: 노드 내 SimpleBroker로 직접 전달 (단일 노드)
+ * - redis: 현재 노드 세션에는 직접 전달하고, Redis pub/sub(ws:relay:user)으로 다른 노드에 중계
+ *   각 노드는 수신한 메시지를 자신에게 연결된 세션이 있을 때만 전달하므로
+ *   사용자가 어느 노드에 연결되어 있어도 메시지를 받을 수 있다.
+ *
+ * 중계 시 본문은 STOMP 메시지 변환기로 미리 직렬화하여 노드 간 JSON 형식이 동일하다.
+ */
+@Slf4j
+@Service
+public class StompMessageRelay implements MessageListener {
+
+    private static final String RELAY_CHANNEL = "ws:relay:user";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final ObjectMapper objectMapper;
+    private final WebSocketMetrics webSocketMetrics;
+
+    private final boolean redisMode;
+    private final String nodeId = UUID.randomUUID().toString();
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final AtomicLong totalPublished = new AtomicLong();
+    private final AtomicLong totalReceived = new AtomicLong();
+    private final AtomicLong totalRelayedDeliveries = new AtomicLong();
+    private final AtomicLong totalPublishFailures = new AtomicLong();
+
+    public StompMessageRelay(SimpMessagingTemplate messagingTemplate,
+                             SimpUserRegistry simpUserRegistry,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisConnectionFactory redisConnectionFactory,
+                             ObjectMapper objectMapper,
+                             WebSocketMetrics webSocketMetrics,
+                             @Value("${app.websocket.broker.mode:simple}") String brokerMode) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.objectMapper = objectMapper;
+        this.webSocketMetrics = webSocketMetrics;
+        this.redisMode = "redis".equalsIgnoreCase(brokerMode);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!redisMode) {
+            log.info("WebSocket 브로커 모드: simple (단일 노드)");
+            return;
+        }
+
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(RELAY_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("WebSocket 브로커 모드: redis (노드 ID: {}, 채널: {})", nodeId, RELAY_CHANNEL);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.debug("Redis 중계 구독 해제 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 사용자 개인 큐로 메시지 전송 (SimpMessagingTemplate.convertAndSendToUser 대체)
+     */
+    public void sendToUser(String user, String destination, Object payload) {
+        if (!redisMode) {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+            return;
+        }
+
+        if (simpUserRegistry.getUser(user) != null) {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+        }
+        publish(user, destination, payload);
+    }
+
+    private void publish(String user, String destination, Object payload) {
+        try {
+            org.springframework.messaging.Message<?> converted =
+                messagingTemplate.getMessageConverter().toMessage(payload, null);
+            if (converted == null || !(converted.getPayload() instanceof byte[])) {
+                log.warn("WebSocket 중계 메시지 변환 실패: user={}, destination={}", user, destination);
+                totalPublishFailures.incrementAndGet();
+                return;
+            }
+
+            MimeType contentType = converted.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class);
+
+            ObjectNode envelope = objectMapper.createObjectNode();
+            envelope.put("origin", nodeId);
+            envelope.put("user", user);
+            envelope.put("destination", destination);
+            envelope.put("contentType", contentType != null ? contentType.toString() : MimeTypeUtils.APPLICATION_JSON_VALUE);
+            envelope.put("body", new String((byte[]) converted.getPayload(), StandardCharsets.UTF_8));
+
+            stringRedisTemplate.convertAndSend(RELAY_CHANNEL, objectMapper.writeValueAsString(envelope));
+            totalPublished.incrementAndGet();
+        } catch (Exception e) {
+            totalPublishFailures.incrementAndGet();
+            log.warn("WebSocket 중계 발행 실패: user={}, destination={}, error={}", user, destination, e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드에서 발행한 메시지 수신 → 현재 노드에 연결된 세션으로 전달
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JsonNode envelope = objectMapper.readTree(message.getBody());
+            if (nodeId.equals(envelope.path("origin").asText())) {
+                return;
+            }
+            totalReceived.incrementAndGet();
+
+            String user = envelope.path("user").asText(null);
+            String destination = envelope.path("destination").asText(null);
+            if (user == null || destination == null || simpUserRegistry.getUser(user) == null) {
+                return;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeType.valueOf(envelope.path("contentType").asText(MimeTypeUtils.APPLICATION_JSON_VALUE)));
+            accessor.setLeaveMutable(true);
+
+            byte[] body = envelope.path("body").asText("").getBytes(StandardCharsets.UTF_8);
+            messagingTemplate.send(toUserDestination(user, destination),
+                MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+            totalRelayedDeliveries.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("WebSocket 중계 메시지 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    private String toUserDestination(String user, String destination) {
+        // SimpMessagingTemplate.convertAndSendToUser와 동일한 사용자 이름 인코딩
+        return "/user/" + user.replace("/", "%2F") + destination;
+    }
+
+    /**
+     * 브로커/중계 지표
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(webSocketMetrics.getStats());
+        stats.put("brokerMode", redisMode ? "redis" : "simple");
+        stats.put("nodeId", nodeId);
+        stats.put("localUsers", simpUserRegistry.getUserCount());
+        stats.put("relayPublished", totalPublished.get());
+        stats.put("relayReceived", totalReceived.get());
+        stats.put("relayDelivered", totalRelayedDeliveries.get());
+        stats.put("relayPublishFailures", totalPublishFailures.get());
+        return stats;
+    }
+}
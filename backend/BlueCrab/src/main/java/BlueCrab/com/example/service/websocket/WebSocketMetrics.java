@@ -0,0 +1,98 @@
+package BlueCrab.com.example.service.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * WebSocket(STOMP) 연결/메시지 지표 (노드 단위)
+ *
+ * - 연결 수: STOMP CONNECTED/DISCONNECT 이벤트로 집계
+ * - 메시지 처리량: 인바운드(클라이언트 → 서버), 아웃바운드(서버 → 클라이언트) 채널 인터셉터에서 집계
+ * - 초당 처리량은 최근 60초 구간 평균
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong totalConnections = new AtomicLong();
+    private final AtomicLong totalDisconnections = new AtomicLong();
+
+    private final AtomicLong totalInbound = new AtomicLong();
+    private final AtomicLong totalOutbound = new AtomicLong();
+    private final RateWindow inboundRate = new RateWindow();
+    private final RateWindow outboundRate = new RateWindow();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        activeConnections.incrementAndGet();
+        totalConnections.incrementAndGet();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        // 같은 세션에 DISCONNECT가 중복 발행될 수 있어 음수가 되지 않도록 보정
+        activeConnections.updateAndGet(current -> Math.max(0, current - 1));
+        totalDisconnections.incrementAndGet();
+    }
+
+    public void recordInbound() {
+        totalInbound.incrementAndGet();
+        inboundRate.increment();
+    }
+
+    public void recordOutbound() {
+        totalOutbound.incrementAndGet();
+        outboundRate.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeConnections", activeConnections.get());
+        stats.put("totalConnections", totalConnections.get());
+        stats.put("totalDisconnections", totalDisconnections.get());
+        stats.put("totalInboundMessages", totalInbound.get());
+        stats.put("totalOutboundMessages", totalOutbound.get());
+        stats.put("inboundPerSecond", inboundRate.perSecond());
+        stats.put("outboundPerSecond", outboundRate.perSecond());
+        return stats;
+    }
+
+    /**
+     * 초 단위 버킷 60개로 구성한 순환 카운터
+     */
+    private static final class RateWindow {
+        private static final int WINDOW_SECONDS = 60;
+
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray epochSeconds = new AtomicLongArray(WINDOW_SECONDS);
+
+        void increment() {
+            long now = System.currentTimeMillis() / 1000;
+            int slot = (int) (now % WINDOW_SECONDS);
+            long slotSecond = epochSeconds.get(slot);
+            if (slotSecond != now && epochSeconds.compareAndSet(slot, slotSecond, now)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        double perSecond() {
+            long now = System.currentTimeMillis() / 1000;
+            long sum = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (now - epochSeconds.get(i) < WINDOW_SECONDS) {
+                    sum += counts.get(i);
+                }
+            }
+            return Math.round(sum * 100.0 / WINDOW_SECONDS) / 100.0;
+        }
+    }
+}
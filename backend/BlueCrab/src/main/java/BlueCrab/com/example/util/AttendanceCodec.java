@@ -0,0 +1,147 @@
+package BlueCrab.com.example.util;
+
+import java.util.Arrays;
+
+/**
+ * 출석 문자열 코덱
+ * "1출2출3결4지...80출" 형식의 출석 문자열을 회차별 고정 슬롯(byte[81])으로 변환
+ *
+ * 특징:
+ * - 정규식 없이 문자열을 한 번만 순회 (숫자 누적 → 상태 문자에서 슬롯 기록)
+ * - 회차 번호를 인덱스로 사용 (1~80, 0번 슬롯 미사용), 범위 밖 회차는 무시
+ * - 상태 코드: 0=기록 없음, 1=출, 2=결, 3=지
+ * - 인코딩 시 회차 번호 순으로 출력되므로 별도 정렬 불필요
+ */
+public final class AttendanceCodec {
+
+    public static final int MAX_SESSIONS = 80;
+
+    public static final byte NONE = 0;
+    public static final byte PRESENT = 1;
+    public static final byte ABSENT = 2;
+    public static final byte LATE = 3;
+
+    private static final char[] STATUS_CHARS = {0, '출', '결', '지'};
+    private static final String[] STATUS_STRINGS = {null, "출", "결", "지"};
+
+    private AttendanceCodec() {
+    }
+
+    /**
+     * 빈 슬롯 배열 생성 (인덱스 = 회차 번호)
+     */
+    public static byte[] newSlots() {
+        return new byte[MAX_SESSIONS + 1];
+    }
+
+    /**
+     * 출석 문자열 → 슬롯 배열
+     *
+     * @param attendanceStr "1출2출3결4지...80출" (null/빈 문자열 허용)
+     * @return 회차별 상태 코드 배열
+     */
+    public static byte[] decode(String attendanceStr) {
+        byte[] slots = newSlots();
+        decodeInto(attendanceStr, slots);
+        return slots;
+    }
+
+    /**
+     * 출석 문자열을 기존 슬롯 배열에 디코딩 (배열 재사용)
+     * 숫자 뒤에 출/결/지가 바로 오는 경우만 인식, 그 외 문자는 건너뜀
+     */
+    public static void decodeInto(String attendanceStr, byte[] slots) {
+        Arrays.fill(slots, NONE);
+        if (attendanceStr == null) {
+            return;
+        }
+
+        int sessionNumber = -1;
+        for (int i = 0, length = attendanceStr.length(); i < length; i++) {
+            char c = attendanceStr.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                if (sessionNumber < 0) {
+                    sessionNumber = digit;
+                } else if (sessionNumber <= MAX_SESSIONS) {
+                    sessionNumber = sessionNumber * 10 + digit;
+                }
+                continue;
+            }
+
+            byte status = toStatus(c);
+            if (status != NONE && sessionNumber >= 1 && sessionNumber <= MAX_SESSIONS) {
+                slots[sessionNumber] = status;
+            }
+            sessionNumber = -1;
+        }
+    }
+
+    /**
+     * 슬롯 배열 → 출석 문자열 (회차 번호 오름차순)
+     */
+    public static String encode(byte[] slots) {
+        StringBuilder sb = new StringBuilder(MAX_SESSIONS * 3);
+        for (int session = 1; session < slots.length; session++) {
+            byte status = slots[session];
+            if (status != NONE) {
+                sb.append(session).append(STATUS_CHARS[status]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 출석으로 인정되는 회차 수 (출석 + 지각)
+     */
+    public static int countAttended(byte[] slots) {
+        int count = 0;
+        for (int session = 1; session < slots.length; session++) {
+            if (slots[session] == PRESENT || slots[session] == LATE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 출석 문자열의 출석 인정 회차 수 (출석 + 지각)
+     * 같은 회차가 중복 기록된 경우 마지막 상태 기준
+     */
+    public static int countAttended(String attendanceStr) {
+        if (attendanceStr == null || attendanceStr.isEmpty()) {
+            return 0;
+        }
+        return countAttended(decode(attendanceStr));
+    }
+
+    /**
+     * 상태 문자 → 상태 코드 (출/결/지 외에는 NONE)
+     */
+    public static byte toStatus(char c) {
+        switch (c) {
+            case '출':
+                return PRESENT;
+            case '결':
+                return ABSENT;
+            case '지':
+                return LATE;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * 상태 문자열 → 상태 코드 ("출"/"결"/"지" 외에는 NONE)
+     */
+    public static byte toStatus(String status) {
+        return status != null && status.length() == 1 ? toStatus(status.charAt(0)) : NONE;
+    }
+
+    /**
+     * 상태 코드 → 상태 문자열
+     */
+    public static String toStatusString(byte status) {
+        return status > NONE && status < STATUS_STRINGS.length ? STATUS_STRINGS[status] : null;
+    }
+}
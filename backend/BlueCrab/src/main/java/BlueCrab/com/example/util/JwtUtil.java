@@ -8,15 +8,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
  * JWT 토큰 생성, 파싱, 검증을 담당하는 유틸리티 클래스
  * 액세스 토큰과 리프레시 토큰의 생성 및 관리 기능 제공
+ * 
+ * 서명 검증이 끝난 토큰은 만료 시각까지 메모리에 캐시하여
+ * 같은 토큰에 대한 반복 검증(요청마다 여러 번)을 피한다.
  */
 @Component
 public class JwtUtil {
@@ -26,14 +32,93 @@ public class JwtUtil {
     @Autowired
     private AppConfig appConfig;
 
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // 검증된 토큰 캐시 (토큰 문자열 → 클레임, 만료 시각까지만 유효)
+    private final Map<String, ParsedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder cacheMissCount = new LongAdder();
+    private volatile long lastEvictionMillis;
+
     /**
-     * JWT 서명을 위한 비밀 키 생성
-     * 설정된 비밀 문자열에서 HMAC SHA 키를 생성
+     * 서명 키와 파서를 한 번만 생성 (파서는 스레드 안전)
+     */
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(appConfig.getJwt().getSecret().getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * JWT 서명을 위한 비밀 키 반환
+     * 설정된 비밀 문자열에서 생성한 HMAC SHA 키
      * 
      * @return HMAC SHA 비밀 키
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(appConfig.getJwt().getSecret().getBytes());
+        return signingKey;
+    }
+
+    /**
+     * 토큰 서명 검증 및 클레임 파싱 (검증 결과는 만료 시각까지 캐시)
+     * 만료/위조 토큰은 기존과 같이 JwtException(ExpiredJwtException 등)을 던짐
+     * 
+     * @param token JWT 토큰
+     * @return 검증된 토큰
+     */
+    public ParsedToken parseToken(String token) {
+        ParsedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                cacheHitCount.increment();
+                return cached;
+            }
+            verifiedTokens.remove(token, cached);
+        }
+
+        cacheMissCount.increment();
+        ParsedToken parsed = new ParsedToken(jwtParser.parseSignedClaims(token).getPayload());
+        cacheVerifiedToken(token, parsed);
+        return parsed;
+    }
+
+    private void cacheVerifiedToken(String token, ParsedToken parsed) {
+        int maxEntries = appConfig.getJwt().getClaimsCacheMaxEntries();
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= maxEntries) {
+            evictExpiredTokens();
+            if (verifiedTokens.size() >= maxEntries) {
+                return; // 가득 찬 경우 캐시하지 않음 (검증은 매번 수행)
+            }
+        }
+        verifiedTokens.put(token, parsed);
+    }
+
+    private void evictExpiredTokens() {
+        long now = System.currentTimeMillis();
+        // 캐시가 가득 찬 상태에서 매 요청마다 전체 순회하지 않도록 1초에 한 번만 정리
+        if (now - lastEvictionMillis < 1000L) {
+            return;
+        }
+        lastEvictionMillis = now;
+        verifiedTokens.entrySet().removeIf(entry -> entry.getValue().getExpirationMillis() < now);
+    }
+
+    /**
+     * 검증된 토큰 캐시 상태 조회
+     */
+    public Map<String, Object> getClaimsCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", verifiedTokens.size());
+        stats.put("maxEntries", appConfig.getJwt().getClaimsCacheMaxEntries());
+        stats.put("hits", cacheHitCount.sum());
+        stats.put("misses", cacheMissCount.sum());
+        return stats;
     }
 
     public String extractUsername(String token) {
@@ -50,11 +135,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseToken(token).getClaims();
     }
 
     private Boolean isTokenExpired(String token) {
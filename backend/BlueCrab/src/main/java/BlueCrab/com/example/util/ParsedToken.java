@@ -0,0 +1,74 @@
+package BlueCrab.com.example.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * 서명 검증이 끝난 JWT 토큰
+ * JwtUtil.parseToken으로 한 번만 검증한 뒤 필요한 클레임을 꺼내 쓰기 위한 클래스
+ */
+public final class ParsedToken {
+
+    private final Claims claims;
+
+    ParsedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * 사용자명 (subject, 이메일 또는 관리자 ID)
+     */
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    public Integer getUserId() {
+        Object userId = claims.get("userId");
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(userId.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 토큰 타입 (access, refresh, session 등)
+     */
+    public String getType() {
+        Object type = claims.get("type");
+        return type != null ? type.toString() : null;
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public long getExpirationMillis() {
+        Date expiration = claims.getExpiration();
+        return expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired() {
+        return getExpirationMillis() < System.currentTimeMillis();
+    }
+
+    public boolean isAccessToken() {
+        return "access".equals(getType());
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(getType());
+    }
+
+    public boolean isSessionToken() {
+        return "session".equals(getType());
+    }
+}
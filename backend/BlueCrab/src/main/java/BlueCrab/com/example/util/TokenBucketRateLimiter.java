@@ -0,0 +1,170 @@
+package BlueCrab.com.example.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메모리 기반 토큰 버킷 요청 빈도 제한기
+ *
+ * 키마다 long 하나(다음 토큰 도착 예정 시각, GCRA 방식)만 저장하여
+ * "timeWindow 동안 maxRequests회"를 버스트 maxRequests의 토큰 버킷으로 처리한다.
+ *
+ * 특징:
+ * - 요청당 CAS 1회 (락 없음), 키는 해시 기준으로 여러 샤드에 분산
+ * - 버킷이 가득 찬(한동안 요청이 없던) 키는 주기적으로 제거 → 제거해도 동작이 동일
+ * - 샤드당 최대 키 수 제한, 초과 시 만료 키를 즉시 정리하고 그래도 가득 차면 제한 없이 통과
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    private static final int SHARD_COUNT = 16;
+
+    // 샤드 포화 경고 로그 최소 간격 (그 사이의 초과 요청은 DEBUG로만 기록하고 다음 경고에 건수를 합산)
+    private static final long OVERFLOW_WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong>[] shards;
+    private final int maxEntriesPerShard;
+
+    private final LongAdder allowedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+
+    private final AtomicLong lastOverflowWarnNanos = new AtomicLong(System.nanoTime() - OVERFLOW_WARN_INTERVAL_NANOS);
+    private final AtomicLong overflowCountAtLastWarn = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(@Value("${app.rate-limit.max-entries:100000}") int maxEntries) {
+        this.maxEntriesPerShard = Math.max(16, maxEntries / SHARD_COUNT);
+        this.shards = new ConcurrentHashMap[SHARD_COUNT];
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * 토큰 1개 소비 시도
+     *
+     * @param key 제한 키
+     * @param maxRequests 시간 윈도우 내 최대 요청 횟수 (버스트 크기)
+     * @param timeWindowSeconds 시간 윈도우 (초)
+     * @return 허용이면 0, 제한이면 다음 요청 가능까지 남은 시간(ms)
+     */
+    public long tryAcquire(String key, int maxRequests, int timeWindowSeconds) {
+        long windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, timeWindowSeconds));
+        long intervalNanos = windowNanos / Math.max(1, maxRequests);
+        ConcurrentHashMap<String, AtomicLong> shard = shardFor(key);
+
+        while (true) {
+            long now = System.nanoTime();
+            AtomicLong bucket = shard.get(key);
+            if (bucket == null) {
+                if (shard.size() >= maxEntriesPerShard && !makeRoom(shard, now)) {
+                    allowedCount.increment();
+                    return 0L;
+                }
+                bucket = shard.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            long theoreticalArrival = bucket.get();
+            long next = Math.max(theoreticalArrival, now) + intervalNanos;
+            if (next - now > windowNanos) {
+                rejectedCount.increment();
+                return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(next - now - windowNanos));
+            }
+            if (!bucket.compareAndSet(theoreticalArrival, next)) {
+                continue;
+            }
+            // 정리 작업이 방금 버킷을 제거했다면 새 버킷에 다시 기록
+            if (shard.get(key) != bucket) {
+                continue;
+            }
+            allowedCount.increment();
+            return 0L;
+        }
+    }
+
+    /**
+     * 버킷이 가득 찬 키 정리 (제거해도 새 키와 동일하게 동작)
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            evicted += sweep(shard, now);
+        }
+        if (evicted > 0) {
+            logger.debug("Rate limit buckets evicted: {}", evicted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedKeys", size);
+        stats.put("maxKeys", maxEntriesPerShard * SHARD_COUNT);
+        stats.put("allowed", allowedCount.sum());
+        stats.put("rejected", rejectedCount.sum());
+        stats.put("evicted", evictedCount.sum());
+        stats.put("overflowAllowed", overflowCount.sum());
+        return stats;
+    }
+
+    private boolean makeRoom(ConcurrentHashMap<String, AtomicLong> shard, long now) {
+        sweep(shard, now);
+        if (shard.size() < maxEntriesPerShard) {
+            return true;
+        }
+        overflowCount.increment();
+        logOverflow(shard.size(), now);
+        return false;
+    }
+
+    /**
+     * 샤드 포화 로그: 초과 요청마다 WARN을 남기지 않고 간격당 1회만 누적 건수와 함께 기록
+     */
+    private void logOverflow(int shardSize, long now) {
+        long last = lastOverflowWarnNanos.get();
+        if (now - last >= OVERFLOW_WARN_INTERVAL_NANOS && lastOverflowWarnNanos.compareAndSet(last, now)) {
+            long total = overflowCount.sum();
+            long sinceLast = total - overflowCountAtLastWarn.getAndSet(total);
+            logger.warn("Rate limit shard is full ({} keys), allowed {} untracked request(s) since last warning (total {})",
+                    shardSize, sinceLast, total);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Rate limit shard is full ({} keys), allowing untracked request", shardSize);
+        }
+    }
+
+    private int sweep(ConcurrentHashMap<String, AtomicLong> shard, long now) {
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : shard.entrySet()) {
+            if (entry.getValue().get() - now <= 0 && shard.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        evictedCount.add(evicted);
+        return evicted;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> shardFor(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARD_COUNT - 1)];
+    }
+}
@@ -0,0 +1,25 @@
+-- =====================================================
+-- Blue Crab LMS - 수강 성적/출석 생성 컬럼 추가
+-- ENROLLMENT_DATA(JSON)에서 자주 조회하는 값을 PERSISTENT 생성 컬럼으로 분리
+-- 기존 데이터는 컬럼 추가 시 MariaDB가 자동으로 채움 (별도 이관 작업 불필요)
+-- 요구사항: MariaDB 10.2.3 이상 (JSON_VALUE)
+-- Created: 2026-10-18
+-- =====================================================
+
+ALTER TABLE ENROLLMENT_EXTENDED_TBL
+    ADD COLUMN IF NOT EXISTS GRADE_PERCENTAGE DECIMAL(5,2)
+        AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.grade.total.percentage') AS DECIMAL(5,2))) PERSISTENT
+        COMMENT '총점 백분율 (grade.total.percentage)',
+    ADD COLUMN IF NOT EXISTS ATTENDANCE_ATTENDED INT
+        AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.attended') AS SIGNED)) PERSISTENT
+        COMMENT '출석 횟수 (attendance.summary.attended)',
+    ADD COLUMN IF NOT EXISTS ATTENDANCE_LATE INT
+        AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.late') AS SIGNED)) PERSISTENT
+        COMMENT '지각 횟수 (attendance.summary.late)',
+    ADD COLUMN IF NOT EXISTS ATTENDANCE_ABSENT INT
+        AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.summary.absent') AS SIGNED)) PERSISTENT
+        COMMENT '결석 횟수 (attendance.summary.absent)';
+
+-- 강의 내 순위/평균/정렬 조회용 인덱스
+CREATE INDEX IF NOT EXISTS IDX_ENROLLMENT_LEC_GRADE
+    ON ENROLLMENT_EXTENDED_TBL (LEC_IDX, GRADE_PERCENTAGE);
@@ -0,0 +1,18 @@
+-- =====================================================
+-- Blue Crab LMS - 출석 요청 만료 일시 생성 컬럼 추가
+-- 출석 요청 자동 승인 스케줄러가 전체 수강 정보(findAll) 대신
+-- 만료 대상 수강 정보만 인덱스 범위 조회하도록 분리
+-- pendingRequests는 요청 순으로 추가되고 만료 기간(7일)이 고정이므로 첫 요소가 가장 빠른 만료 일시
+-- 기존 데이터는 컬럼 추가 시 MariaDB가 자동으로 채움 (별도 이관 작업 불필요)
+-- 요구사항: MariaDB 10.2.3 이상 (JSON_VALUE)
+-- Created: 2026-10-18
+-- =====================================================
+
+ALTER TABLE ENROLLMENT_EXTENDED_TBL
+    ADD COLUMN IF NOT EXISTS PENDING_EXPIRES_AT DATETIME
+        AS (CAST(JSON_VALUE(ENROLLMENT_DATA, '$.attendance.pendingRequests[0].expiresAt') AS DATETIME)) PERSISTENT
+        COMMENT '가장 빠른 출석 요청 만료 일시 (attendance.pendingRequests[0].expiresAt)';
+
+-- 만료 대상 조회용 인덱스 (대기 요청이 없는 수강 정보는 NULL)
+CREATE INDEX IF NOT EXISTS IDX_ENROLLMENT_PENDING_EXPIRES
+    ON ENROLLMENT_EXTENDED_TBL (PENDING_EXPIRES_AT);
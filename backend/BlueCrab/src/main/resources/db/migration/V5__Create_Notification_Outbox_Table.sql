@@ -0,0 +1,29 @@
+-- =====================================================
+-- Blue Crab LMS - 푸시 알림 발송 대기열(Outbox) 테이블
+-- 요청 스레드는 행만 저장하고 워커 풀이 FCM 전송/재시도를 담당
+-- Created: 2026-10-18
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS NOTIFICATION_OUTBOX (
+    OUTBOX_IDX BIGINT NOT NULL AUTO_INCREMENT COMMENT '대기열 고유 ID',
+    RECIPIENT_USER_CODE VARCHAR(255) NOT NULL COMMENT '수신자 사용자 코드',
+    COALESCE_KEY VARCHAR(255) COMMENT '병합 키 (미전송 알림 최신 내용으로 대체)',
+    DELIVERY_TYPE VARCHAR(20) NOT NULL COMMENT '전송 방식 (DATA_ONLY, NOTIFICATION)',
+    TITLE VARCHAR(500) NOT NULL COMMENT '알림 제목',
+    BODY TEXT COMMENT '알림 내용',
+    DATA_JSON TEXT COMMENT '데이터 페이로드 (JSON)',
+    INCLUDE_TEMPORARY BOOLEAN NOT NULL DEFAULT TRUE COMMENT 'Redis 임시 토큰 포함 여부',
+    STATUS VARCHAR(20) NOT NULL COMMENT 'PENDING, PROCESSING, SENT, FAILED',
+    ATTEMPTS INT NOT NULL DEFAULT 0 COMMENT '전송 시도 횟수',
+    NEXT_ATTEMPT_AT DATETIME NOT NULL COMMENT '다음 전송 시도 시각',
+    CLAIM_TOKEN VARCHAR(64) COMMENT '처리 중인 워커 배치 식별자',
+    CLAIMED_AT DATETIME COMMENT '처리 시작 시각',
+    LAST_ERROR VARCHAR(500) COMMENT '마지막 오류',
+    CREATED_AT DATETIME NOT NULL COMMENT '생성 시각',
+    SENT_AT DATETIME COMMENT '전송 완료 시각',
+
+    PRIMARY KEY (OUTBOX_IDX),
+    INDEX IDX_OUTBOX_STATUS_NEXT (STATUS, NEXT_ATTEMPT_AT),
+    INDEX IDX_OUTBOX_COALESCE (RECIPIENT_USER_CODE, COALESCE_KEY, STATUS),
+    INDEX IDX_OUTBOX_CLAIM (CLAIM_TOKEN)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='푸시 알림 발송 대기열';
@@ -616,7 +616,8 @@ function onAutoReadToggleChange(event) {
 // ==================== REST API 통합 ====================
 
 /**
- * 채팅 메시지 조회 (GET /api/chat/messages/{requestIdx})
+ * 채팅 메시지 조회 (GET /api/chat/messages/{requestIdx}?before=&size=)
+ * 최신 메시지부터 페이지 단위로 조회하며, nextCursor를 before로 넘겨 이전 메시지까지 모두 불러온다.
  */
 async function fetchChatMessages(requestIdx) {
     if (!requestIdx) {
@@ -637,19 +638,35 @@ async function fetchChatMessages(requestIdx) {
     try {
         addChatLog(`메시지 조회 중... (요청 번호: ${requestIdx})`, 'info');
 
-        const response = await fetch(`${baseURL}/api/chat/messages/${requestIdx}`, {
-            method: 'GET',
-            headers: {
-                'Authorization': `Bearer ${accessToken}`,
-                'Content-Type': 'application/json'
+        let messages = [];
+        let before = null;
+        let pageCount = 0;
+        let data = null;
+        let response = null;
+
+        do {
+            const query = before !== null ? `?size=200&before=${before}` : '?size=200';
+            response = await fetch(`${baseURL}/api/chat/messages/${requestIdx}${query}`, {
+                method: 'GET',
+                headers: {
+                    'Authorization': `Bearer ${accessToken}`,
+                    'Content-Type': 'application/json'
+                }
+            });
+
+            data = await response.json();
+            if (!response.ok || !data.success) {
+                break;
             }
-        });
 
-        const data = await response.json();
+            // 페이지는 오래된 순이므로 이전 페이지를 앞에 붙인다
+            messages = (data.data?.messages || []).concat(messages);
+            before = data.data?.hasMore ? data.data.nextCursor : null;
+            pageCount++;
+        } while (before !== null && before !== undefined);
 
         if (response.ok && data.success) {
-            const messages = data.data?.messages || [];
-            addChatLog(`✅ 메시지 ${messages.length}개 조회 완료`, 'success');
+            addChatLog(`✅ 메시지 ${messages.length}개 조회 완료 (${pageCount}페이지)`, 'success');
 
             // UI에 표시
             chatMessages = messages;
@@ -660,7 +677,7 @@ async function fetchChatMessages(requestIdx) {
                 scheduleReadReceipt(250);
             }
 
-            // 응답창에도 표시
+            // 응답창에도 표시 (마지막으로 받은 페이지)
             if (typeof showResponse === 'function') {
                 showResponse(JSON.stringify(data, null, 2), 'success');
             }
@@ -0,0 +1,150 @@
+package BlueCrab.com.example.service;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 채팅 메시지 형식 선택/판별과 JSON 대비 압축 형식의 크기·시간을 검증합니다.
+ */
+class ChatMessageSerializerTest {
+
+	private static final Logger log = LoggerFactory.getLogger(ChatMessageSerializerTest.class);
+
+	private static final Long REQUEST_IDX = 7L;
+
+	@DisplayName("기존 JSON 항목과 압축 항목이 섞인 목록을 순서대로 읽는다")
+	@Test
+	void decode_mixedJsonAndCompactEntries() {
+		ChatMessageSerializer jsonWriter = new ChatMessageSerializer("json");
+		ChatMessageSerializer compactWriter = new ChatMessageSerializer("compact");
+
+		List<ChatMessageDto> messages = sampleMessages(6);
+		List<byte[]> entries = new ArrayList<>();
+		for (int i = 0; i < messages.size(); i++) {
+			// 형식 전환 전후 항목이 한 목록에 섞인 상태
+			entries.add((i % 2 == 0 ? jsonWriter : compactWriter).encode(messages.get(i)));
+		}
+
+		ChatMessageSerializer reader = new ChatMessageSerializer("compact");
+		for (int i = 0; i < entries.size(); i++) {
+			ChatMessageDto decoded = reader.decode(REQUEST_IDX, entries.get(i));
+			ChatMessageDto expected = messages.get(i);
+			assertEquals(REQUEST_IDX, decoded.getRequestIdx());
+			assertEquals(expected.getSender(), decoded.getSender());
+			assertEquals(expected.getSenderName(), decoded.getSenderName());
+			assertEquals(expected.getContent(), decoded.getContent());
+			assertEquals(expected.getSentAt(), decoded.getSentAt());
+		}
+
+		Map<String, Object> stats = reader.getStats();
+		assertEquals(3L, stats.get("decoded.json"));
+		assertEquals(3L, stats.get("decoded.compact"));
+	}
+
+	@DisplayName("알 수 없는 형식의 항목은 예외로 거부한다")
+	@Test
+	void decode_unknownFormat_isRejected() {
+		ChatMessageSerializer reader = new ChatMessageSerializer("json");
+		assertThrows(IllegalStateException.class,
+				() -> reader.decode(REQUEST_IDX, "plain text".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IllegalStateException.class, () -> reader.decode(REQUEST_IDX, new byte[0]));
+	}
+
+	@DisplayName("알 수 없는 형식 이름은 JSON으로 기록한다")
+	@Test
+	void unknownCodecName_fallsBackToJson() {
+		ChatMessageSerializer serializer = new ChatMessageSerializer("protobuf");
+		assertEquals("json", serializer.getStats().get("writeCodec"));
+		assertEquals('{', serializer.encode(sampleMessages(1).get(0))[0]);
+	}
+
+	/**
+	 * 일반적인 상담 메시지 기준 JSON 대비 압축 형식 크기/인코딩·디코딩 시간 비교
+	 * 크기는 항상 작아야 하며, 시간은 환경에 따라 달라지므로 기록만 남김
+	 */
+	@DisplayName("압축 형식은 JSON보다 작고 크기/시간 비교 결과를 기록한다")
+	@Test
+	void compareJsonAndCompact() {
+		List<ChatMessageDto> messages = sampleMessages(2_000);
+		ChatMessageSerializer json = new ChatMessageSerializer("json");
+		ChatMessageSerializer compact = new ChatMessageSerializer("compact");
+
+		// JIT 워밍업
+		measure(json, messages);
+		measure(compact, messages);
+
+		long[] jsonResult = measure(json, messages);
+		long[] compactResult = measure(compact, messages);
+
+		log.info("chat codec comparison ({} messages): json={} bytes, encode={}ms, decode={}ms / "
+						+ "compact={} bytes, encode={}ms, decode={}ms ({}% of json)",
+				messages.size(),
+				jsonResult[0], jsonResult[1] / 1_000_000, jsonResult[2] / 1_000_000,
+				compactResult[0], compactResult[1] / 1_000_000, compactResult[2] / 1_000_000,
+				compactResult[0] * 100 / jsonResult[0]);
+
+		assertTrue(compactResult[0] < jsonResult[0],
+				"compact=" + compactResult[0] + " bytes, json=" + jsonResult[0] + " bytes");
+	}
+
+	/**
+	 * @return [전체 바이트, 인코딩 나노초, 디코딩 나노초]
+	 */
+	private long[] measure(ChatMessageSerializer serializer, List<ChatMessageDto> messages) {
+		List<byte[]> encoded = new ArrayList<>(messages.size());
+		long totalBytes = 0;
+
+		long start = System.nanoTime();
+		for (ChatMessageDto message : messages) {
+			byte[] data = serializer.encode(message);
+			totalBytes += data.length;
+			encoded.add(data);
+		}
+		long encodeNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (byte[] data : encoded) {
+			serializer.decode(REQUEST_IDX, data);
+		}
+		long decodeNanos = System.nanoTime() - start;
+
+		return new long[] {totalBytes, encodeNanos, decodeNanos};
+	}
+
+	private List<ChatMessageDto> sampleMessages(int count) {
+		String[] contents = {
+				"안녕하세요 교수님, 상담 신청드립니다.",
+				"네 내일 오후 2시 괜찮으신가요?",
+				"감사합니다!",
+				"과제 제출 기한 연장이 가능할지 여쭤보고 싶습니다. 개인 사정으로 이번 주에 시간이 부족했습니다.",
+				"확인했습니다 👍"
+		};
+		LocalDateTime base = LocalDateTime.of(2025, 10, 20, 9, 0, 0);
+
+		List<ChatMessageDto> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			boolean student = i % 2 == 0;
+			ChatMessageDto message = new ChatMessageDto();
+			message.setRequestIdx(REQUEST_IDX);
+			message.setSender(student ? "20231234" : "prof017");
+			message.setSenderName(student ? "홍길동" : "김교수");
+			message.setContent(contents[i % contents.length]);
+			message.setSentAt(base.plusSeconds(i * 37L));
+			messages.add(message);
+		}
+		return messages;
+	}
+}
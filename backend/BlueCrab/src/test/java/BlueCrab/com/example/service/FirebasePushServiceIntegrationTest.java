@@ -3,6 +3,7 @@ package BlueCrab.com.example.service;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.FirebaseMessaging;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
@@ -58,7 +59,7 @@ class FirebasePushServiceIntegrationTest {
 
 		GoogleCredentials credentials = loadCredentials();
 		firebaseApp = ensureFirebaseApp(credentials);
-		firebasePushService = new FirebasePushService();
+		firebasePushService = new FirebasePushService(FirebaseMessaging.getInstance(firebaseApp));
 
 		log.info("Firebase integration test initialized (app={}, hasToken={}, hasTopic={})",
 				firebaseApp.getName(),
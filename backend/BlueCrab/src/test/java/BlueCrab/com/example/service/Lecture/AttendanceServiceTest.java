@@ -0,0 +1,146 @@
+package BlueCrab.com.example.service.Lecture;
+
+import BlueCrab.com.example.entity.Lecture.EnrollmentExtendedTbl;
+import BlueCrab.com.example.repository.Lecture.AttendanceRequestRepository;
+import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
+import BlueCrab.com.example.service.Lecture.Attendance.AttendanceDataSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 교수 출석 기록이 ENROLLMENT_DATA.attendance 객체 구조를 유지하는지 검증합니다.
+ * (pendingRequests 보존, summary 재계산, 성적 재계산용 출석 점수)
+ */
+class AttendanceServiceTest {
+
+	private static final String ENROLLMENT_JSON = "{"
+			+ "\"gradeConfig\":{\"latePenaltyPerSession\":0.5,\"attendanceMaxScore\":20},"
+			+ "\"attendance\":{"
+			+ "\"summary\":{\"attended\":1,\"late\":0,\"absent\":0,\"totalSessions\":80,\"attendanceRate\":1.25,"
+			+ "\"updatedAt\":\"2025-10-20 09:00:00\"},"
+			+ "\"sessions\":[{\"sessionNumber\":1,\"status\":\"출\",\"tempApproved\":false}],"
+			+ "\"pendingRequests\":[{\"sessionNumber\":2,\"requestDate\":\"2025-10-20 10:00:00\","
+			+ "\"expiresAt\":\"2025-10-27 10:00:00\",\"tempApproved\":true}]"
+			+ "}}";
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private EnrollmentExtendedTblRepository enrollmentRepository;
+	private AttendanceService attendanceService;
+	private EnrollmentExtendedTbl enrollment;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository = mock(EnrollmentExtendedTblRepository.class);
+		attendanceService = new AttendanceService();
+		ReflectionTestUtils.setField(attendanceService, "enrollmentRepository", enrollmentRepository);
+		ReflectionTestUtils.setField(attendanceService, "requestRepository", mock(AttendanceRequestRepository.class));
+		ReflectionTestUtils.setField(attendanceService, "objectMapper", objectMapper);
+		ReflectionTestUtils.setField(attendanceService, "attendanceDataSupport", new AttendanceDataSupport(objectMapper));
+
+		enrollment = new EnrollmentExtendedTbl(10, 100, ENROLLMENT_JSON);
+		enrollment.setEnrollmentIdx(1);
+
+		when(enrollmentRepository.findById(1)).thenReturn(Optional.of(enrollment));
+		when(enrollmentRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(enrollment));
+		when(enrollmentRepository.save(any(EnrollmentExtendedTbl.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(enrollmentRepository.saveAll(anyCollection())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@DisplayName("출석 체크는 다른 회차의 대기 요청을 유지하고 summary를 재계산한다")
+	@Test
+	void markAttendance_keepsPendingRequestsAndRecalculatesSummary() throws Exception {
+		attendanceService.markAttendance(1, 3, "지");
+
+		JsonNode attendance = objectMapper.readTree(enrollment.getEnrollmentData()).get("attendance");
+		assertTrue(attendance.isObject());
+
+		JsonNode pending = attendance.get("pendingRequests");
+		assertEquals(1, pending.size());
+		assertEquals(2, pending.get(0).get("sessionNumber").asInt());
+		assertEquals("2025-10-27 10:00:00", pending.get(0).get("expiresAt").asText());
+
+		assertEquals(2, attendance.get("sessions").size());
+		JsonNode summary = attendance.get("summary");
+		assertEquals(1, summary.get("attended").asInt());
+		assertEquals(1, summary.get("late").asInt());
+		assertEquals(0, summary.get("absent").asInt());
+		// (1 + 1 × (1 - 0.5)) / 80 × 100 = 1.88
+		assertEquals(1.88, summary.get("attendanceRate").asDouble(), 0.001);
+
+		// gradeConfig 등 attendance 외 필드 유지
+		assertEquals(0.5, objectMapper.readTree(enrollment.getEnrollmentData())
+				.get("gradeConfig").get("latePenaltyPerSession").asDouble(), 0.001);
+	}
+
+	@DisplayName("대기 요청이 있는 회차를 교수가 기록하면 해당 요청만 확정된다")
+	@Test
+	void markAttendance_onPendingSession_resolvesThatRequestOnly() throws Exception {
+		attendanceService.markAttendance(1, 2, "출");
+
+		JsonNode attendance = objectMapper.readTree(enrollment.getEnrollmentData()).get("attendance");
+		assertEquals(0, attendance.get("pendingRequests").size());
+		assertEquals(2, attendance.get("sessions").size());
+		assertEquals(2, attendance.get("summary").get("attended").asInt());
+	}
+
+	@DisplayName("같은 회차를 다시 기록하면 세션을 추가하지 않고 상태만 바꾼다")
+	@Test
+	void markAttendance_sameSession_replacesStatus() throws Exception {
+		attendanceService.markAttendance(1, 1, "결");
+
+		JsonNode attendance = objectMapper.readTree(enrollment.getEnrollmentData()).get("attendance");
+		assertEquals(1, attendance.get("sessions").size());
+		assertEquals("결", attendance.get("sessions").get(0).get("status").asText());
+		assertEquals(0, attendance.get("summary").get("attended").asInt());
+		assertEquals(1, attendance.get("summary").get("absent").asInt());
+	}
+
+	@DisplayName("일괄 출석 체크도 대기 요청과 summary를 유지하고 출석 점수에 반영된다")
+	@Test
+	void markSessionAttendance_keepsPendingRequestsAndFeedsGradeScore() throws Exception {
+		List<EnrollmentExtendedTbl> updated =
+				attendanceService.markSessionAttendance(10, 4, Collections.singletonMap(1, "출"));
+		assertEquals(1, updated.size());
+
+		JsonNode attendance = objectMapper.readTree(enrollment.getEnrollmentData()).get("attendance");
+		assertEquals(1, attendance.get("pendingRequests").size());
+		assertEquals(2, attendance.get("summary").get("attended").asInt());
+
+		// 성적 재계산은 attendance.summary를 읽으므로 0점이 되면 안 됨
+		Map<String, Object> score = attendanceService.calculateAttendanceScoreFromData(enrollment.getEnrollmentData());
+		assertEquals(2, score.get("presentCount"));
+		assertEquals(0.5, (Double) score.get("currentScore"), 0.001);
+	}
+
+	@DisplayName("이전 버전의 문자열 출석 기록은 sessions로 변환하여 갱신한다")
+	@Test
+	void markAttendance_legacyStringAttendance_isConvertedToSessions() throws Exception {
+		enrollment.setEnrollmentData("{\"attendance\":\"1출2결\"}");
+
+		attendanceService.markAttendance(1, 3, "출");
+
+		JsonNode attendance = objectMapper.readTree(enrollment.getEnrollmentData()).get("attendance");
+		assertTrue(attendance.isObject());
+		assertEquals(3, attendance.get("sessions").size());
+		assertEquals(2, attendance.get("summary").get("attended").asInt());
+		assertEquals(1, attendance.get("summary").get("absent").asInt());
+	}
+}
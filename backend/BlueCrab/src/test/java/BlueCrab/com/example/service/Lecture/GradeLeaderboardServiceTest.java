@@ -0,0 +1,185 @@
+package BlueCrab.com.example.service.Lecture;
+
+import BlueCrab.com.example.repository.Lecture.EnrollmentExtendedTblRepository;
+import BlueCrab.com.example.repository.projection.LectureGradeStatsProjection;
+import BlueCrab.com.example.repository.projection.StudentGradePercentageProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 성적 순위표(Redis ZSET)와 SQL 대체 경로가 같은 순위 규칙을 쓰는지 검증합니다.
+ * (미산출 학생 0점 포함, 동점 순서 studentIdx 숫자순)
+ *
+ * ZSET 정렬은 Redis 규칙(점수 → member 사전순)으로 재구성 인자를 그대로 정렬하여 비교합니다.
+ */
+class GradeLeaderboardServiceTest {
+
+	private static final Integer LEC_IDX = 10;
+
+	private EnrollmentExtendedTblRepository enrollmentRepository;
+	private StringRedisTemplate stringRedisTemplate;
+	private GradeLeaderboardService leaderboardService;
+
+	/* studentIdx → GRADE_PERCENTAGE (null = 성적 미산출), 동점/자릿수가 다른 학생 포함 */
+	private final Map<Integer, Double> percentages = new LinkedHashMap<>();
+
+	/* 재구성 스크립트로 전달된 member → score */
+	private final Map<String, Double> zset = new LinkedHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		percentages.put(9, 80.0);
+		percentages.put(10, 80.0);
+		percentages.put(2, null);
+		percentages.put(100, 0.0);
+		percentages.put(7, 95.5);
+		percentages.put(31, null);
+
+		enrollmentRepository = mock(EnrollmentExtendedTblRepository.class);
+		stringRedisTemplate = mock(StringRedisTemplate.class);
+		leaderboardService = new GradeLeaderboardService(stringRedisTemplate, enrollmentRepository, 600L);
+
+		List<StudentGradePercentageProjection> rows = new ArrayList<>();
+		for (Map.Entry<Integer, Double> entry : percentages.entrySet()) {
+			StudentGradePercentageProjection row = mock(StudentGradePercentageProjection.class);
+			when(row.getStudentIdx()).thenReturn(entry.getKey());
+			when(row.getGradePercentage()).thenReturn(entry.getValue());
+			rows.add(row);
+		}
+		when(enrollmentRepository.findGradePercentagesByLecIdx(LEC_IDX)).thenReturn(rows);
+		when(stringRedisTemplate.hasKey(any())).thenReturn(false);
+		@SuppressWarnings("unchecked")
+		ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+		when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+		// 재구성 스크립트(KEYS=[ZSET, 합계, 버전, 임시 ZSET]) 인자 ARGV=[ttl, 버전, sum, member, score, ...]만 수집
+		doAnswer(invocation -> {
+			List<?> keys = invocation.getArgument(1);
+			Object[] args = (Object[]) invocation.getRawArguments()[2];
+			if (keys.size() == 4 && zset.isEmpty()) {
+				for (int i = 3; i < args.length; i += 2) {
+					zset.put((String) args[i], Double.valueOf((String) args[i + 1]));
+				}
+				return (long) zset.size();
+			}
+			return null;
+		}).when(stringRedisTemplate).execute(any(RedisScript.class), anyList(), any());
+
+		leaderboardService.getStanding(LEC_IDX, 9);
+		assertEquals(percentages.size(), zset.size());
+	}
+
+	@DisplayName("순위표의 학생별 순위는 SQL 대체 경로의 순위와 같다 (미산출 학생 포함)")
+	@Test
+	void standing_rankMatchesSqlFallback() {
+		GradeManagementService managementService = sqlFallbackService();
+
+		for (Integer studentIdx : percentages.keySet()) {
+			// ZSCORE + ZCOUNT (score, +inf] + 1
+			double score = zset.get(GradeLeaderboardService.toMember(studentIdx));
+			long higher = zset.values().stream().filter(other -> other > score).count();
+
+			@SuppressWarnings("unchecked")
+			Map<String, Object> statistics = (Map<String, Object>) managementService
+					.getProfessorGradeView(LEC_IDX, studentIdx, 1).get("statistics");
+
+			assertEquals((int) higher + 1, statistics.get("rank"), "studentIdx=" + studentIdx);
+			assertEquals(percentages.size(), statistics.get("totalStudents"));
+		}
+	}
+
+	@DisplayName("순위표 구간 순서는 SQL 정렬(COALESCE(백분율, 0), studentIdx)과 같다")
+	@Test
+	void page_orderMatchesSqlSort() {
+		// ZRANGE: 점수 오름차순, 동점은 member 사전순 / ZREVRANGE: 그 역순
+		List<Integer> redisAscending = new ArrayList<>();
+		zset.entrySet().stream()
+				.sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.<String, Double>comparingByKey()))
+				.forEach(entry -> redisAscending.add(Integer.valueOf(entry.getKey())));
+		List<Integer> redisDescending = new ArrayList<>(redisAscending);
+		Collections.reverse(redisDescending);
+
+		assertEquals(sqlOrder(Sort.Direction.ASC), redisAscending);
+		assertEquals(sqlOrder(Sort.Direction.DESC), redisDescending);
+	}
+
+	/**
+	 * percentageSort()의 정렬 키를 그대로 적용한 SQL 결과 순서
+	 */
+	private List<Integer> sqlOrder(Sort.Direction direction) {
+		List<Sort.Order> orders = GradeLeaderboardService.percentageSort(direction).stream()
+				.collect(Collectors.toList());
+		assertEquals("COALESCE(e.gradePercentage, 0)", orders.get(0).getProperty());
+		assertEquals("studentIdx", orders.get(1).getProperty());
+
+		Comparator<Integer> byPercentage = Comparator.comparingDouble(
+				studentIdx -> percentages.get(studentIdx) != null ? percentages.get(studentIdx) : 0.0);
+		Comparator<Integer> byStudentIdx = Comparator.naturalOrder();
+		if (orders.get(0).isDescending()) {
+			byPercentage = byPercentage.reversed();
+		}
+		if (orders.get(1).isDescending()) {
+			byStudentIdx = byStudentIdx.reversed();
+		}
+
+		List<Integer> order = new ArrayList<>(percentages.keySet());
+		order.sort(byPercentage.thenComparing(byStudentIdx));
+		return order;
+	}
+
+	/**
+	 * 순위표 조회 불가 상태의 GradeManagementService (SQL 집계 경로)
+	 * 저장소 mock은 SQL의 NULL 비교 규칙(NULL > x 는 거짓)을 따름
+	 */
+	private GradeManagementService sqlFallbackService() {
+		GradeLeaderboardService unavailable = mock(GradeLeaderboardService.class);
+		GradeCalculationService gradeCalculationService = mock(GradeCalculationService.class);
+		when(gradeCalculationService.calculateStudentGrade(eq(LEC_IDX), anyInt())).thenReturn(new HashMap<>());
+
+		LectureGradeStatsProjection stats = mock(LectureGradeStatsProjection.class);
+		when(stats.getTotalStudents()).thenReturn((long) percentages.size());
+		when(stats.getPercentageSum()).thenReturn(percentages.values().stream()
+				.filter(value -> value != null).mapToDouble(Double::doubleValue).sum());
+		when(enrollmentRepository.getLectureGradeStats(LEC_IDX)).thenReturn(stats);
+		when(enrollmentRepository.findGradePercentage(eq(LEC_IDX), anyInt())).thenAnswer(invocation ->
+				Optional.ofNullable(percentages.get(invocation.<Integer>getArgument(1))));
+		when(enrollmentRepository.countByLecIdxAndGradePercentageGreaterThan(eq(LEC_IDX), anyDouble()))
+				.thenAnswer(invocation -> {
+					Double percentage = invocation.getArgument(1);
+					return percentages.values().stream()
+							.filter(value -> value != null && value > percentage).count();
+				});
+
+		GradeManagementService managementService = new GradeManagementService();
+		ReflectionTestUtils.setField(managementService, "enrollmentRepository", enrollmentRepository);
+		ReflectionTestUtils.setField(managementService, "gradeCalculationService", gradeCalculationService);
+		ReflectionTestUtils.setField(managementService, "gradeLeaderboardService", unavailable);
+		return managementService;
+	}
+}
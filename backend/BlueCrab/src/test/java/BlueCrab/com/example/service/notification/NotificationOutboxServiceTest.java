@@ -0,0 +1,320 @@
+package BlueCrab.com.example.service.notification;
+
+import BlueCrab.com.example.dto.FcmDataOnlySendRequest;
+import BlueCrab.com.example.dto.FcmDataOnlySendResponse;
+import BlueCrab.com.example.dto.FcmDataOnlyUserResult;
+import BlueCrab.com.example.entity.NotificationOutbox;
+import BlueCrab.com.example.repository.NotificationOutboxRepository;
+import BlueCrab.com.example.service.FcmTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 알림 대기열(Outbox)의 선점/재시도/병합 동작을 검증합니다.
+ * Repository는 조건부 UPDATE(WHERE STATUS='PENDING') 규칙을 따르는 메모리 저장소로 대체합니다.
+ */
+class NotificationOutboxServiceTest {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long BASE_BACKOFF_SECONDS = 5;
+
+	private final Map<Long, NotificationOutbox> store = new LinkedHashMap<>();
+	private long sequence;
+
+	private NotificationOutboxRepository outboxRepository;
+	private FcmTokenService fcmTokenService;
+	private NotificationOutboxService outboxService;
+
+	@BeforeEach
+	void setUp() {
+		outboxRepository = mock(NotificationOutboxRepository.class);
+		fcmTokenService = mock(FcmTokenService.class);
+		stubRepository();
+
+		outboxService = new NotificationOutboxService(outboxRepository, fcmTokenService, new ObjectMapper(),
+				mock(PlatformTransactionManager.class), 2, 10, 50, MAX_ATTEMPTS, BASE_BACKOFF_SECONDS, 600, 5, 7);
+	}
+
+	@AfterEach
+	void tearDown() {
+		outboxService.shutdown();
+	}
+
+	@DisplayName("전송 시각이 도래한 대기 알림만 선점하여 전송하고 완료 처리한다")
+	@Test
+	void dispatch_claimsDueRowsOnly() {
+		Long due = outboxService.enqueueDataOnly("20231234", "제목", "내용", null, null, true);
+		Long future = outboxService.enqueueDataOnly("20231235", "제목", "내용", null, null, true);
+		Long claimedElsewhere = outboxService.enqueueDataOnly("20231236", "제목", "내용", null, null, true);
+		synchronized (store) {
+			store.get(future).setNextAttemptAt(LocalDateTime.now().plusMinutes(10));
+			store.get(claimedElsewhere).setStatus(NotificationOutbox.STATUS_PROCESSING);
+		}
+		when(fcmTokenService.sendDataOnlyByUser(any(FcmDataOnlySendRequest.class))).thenReturn(success());
+
+		outboxService.dispatch();
+
+		verify(fcmTokenService, timeout(5000).times(1)).sendDataOnlyByUser(any(FcmDataOnlySendRequest.class));
+		awaitStatus(due, NotificationOutbox.STATUS_SENT);
+		synchronized (store) {
+			NotificationOutbox sent = store.get(due);
+			assertEquals(1, sent.getAttempts());
+			assertNotNull(sent.getSentAt());
+			assertNull(sent.getClaimToken());
+			assertEquals(NotificationOutbox.STATUS_PENDING, store.get(future).getStatus());
+			assertEquals(NotificationOutbox.STATUS_PROCESSING, store.get(claimedElsewhere).getStatus());
+		}
+	}
+
+	@DisplayName("일시적 오류는 백오프 후 재시도하고, 재시도 시각 전에는 다시 선점하지 않는다")
+	@Test
+	void transientFailure_isRetriedAfterBackoff() {
+		Long id = outboxService.enqueueDataOnly("20231234", "제목", "내용", Map.of("type", "NOTICE"), null, true);
+		when(fcmTokenService.sendDataOnlyByUser(any(FcmDataOnlySendRequest.class)))
+				.thenReturn(failure("UNAVAILABLE"))
+				.thenReturn(success());
+
+		LocalDateTime before = LocalDateTime.now();
+		outboxService.dispatch();
+		awaitAttempts(id, 1);
+
+		synchronized (store) {
+			NotificationOutbox retry = store.get(id);
+			assertEquals(NotificationOutbox.STATUS_PENDING, retry.getStatus());
+			assertTrue(retry.getLastError().contains("UNAVAILABLE"));
+			// base 5초 ±20% 지터
+			assertTrue(!retry.getNextAttemptAt().isBefore(before.plusSeconds(4)), "nextAttemptAt=" + retry.getNextAttemptAt());
+			assertTrue(!retry.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(6)), "nextAttemptAt=" + retry.getNextAttemptAt());
+		}
+
+		// 재시도 시각 전: 선점 대상 아님
+		outboxService.dispatch();
+		verify(fcmTokenService, times(1)).sendDataOnlyByUser(any(FcmDataOnlySendRequest.class));
+
+		// 재시도 시각 도래 후 성공
+		synchronized (store) {
+			store.get(id).setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		}
+		outboxService.dispatch();
+		awaitStatus(id, NotificationOutbox.STATUS_SENT);
+		synchronized (store) {
+			assertEquals(2, store.get(id).getAttempts());
+			assertNull(store.get(id).getLastError());
+		}
+		outboxService.shutdown(); // 워커의 통계 반영 완료 대기
+		assertEquals(1L, outboxService.getStats().get("totalRetried"));
+		assertEquals(1L, outboxService.getStats().get("totalSent"));
+	}
+
+	@DisplayName("토큰 없음 등 영구 오류는 재시도하지 않고 실패 처리한다")
+	@Test
+	void permanentFailure_isNotRetried() {
+		Long id = outboxService.enqueueDataOnly("20231234", "제목", "내용", null, null, true);
+		when(fcmTokenService.sendDataOnlyByUser(any(FcmDataOnlySendRequest.class)))
+				.thenReturn(new FcmDataOnlySendResponse(1, 0, 0, 0, Collections.emptyList()));
+
+		outboxService.dispatch();
+		awaitStatus(id, NotificationOutbox.STATUS_FAILED);
+
+		synchronized (store) {
+			assertEquals(1, store.get(id).getAttempts());
+		}
+		outboxService.shutdown();
+		assertEquals(1L, outboxService.getStats().get("totalFailed"));
+		assertEquals(0L, outboxService.getStats().get("totalRetried"));
+	}
+
+	@DisplayName("일시적 오류가 최대 시도 횟수에 도달하면 실패 처리한다")
+	@Test
+	void transientFailure_failsAfterMaxAttempts() {
+		Long id = outboxService.enqueueDataOnly("20231234", "제목", "내용", null, null, true);
+		when(fcmTokenService.sendDataOnlyByUser(any(FcmDataOnlySendRequest.class))).thenReturn(failure("INTERNAL"));
+
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			synchronized (store) {
+				store.get(id).setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+			}
+			outboxService.dispatch();
+			awaitAttempts(id, attempt);
+		}
+
+		awaitStatus(id, NotificationOutbox.STATUS_FAILED);
+		outboxService.shutdown();
+		assertEquals((long) MAX_ATTEMPTS - 1, outboxService.getStats().get("totalRetried"));
+	}
+
+	@DisplayName("같은 병합 키의 미전송 알림은 대체하고, 선점된 뒤에는 새 행으로 적재한다")
+	@Test
+	void coalesce_replacesPendingOnly() {
+		Long first = outboxService.enqueueDataOnly("20231234", "새 메시지 1건", "a", null, "chat:7", true);
+		Long second = outboxService.enqueueDataOnly("20231234", "새 메시지 2건", "b", null, "chat:7", true);
+
+		assertEquals(first, second);
+		synchronized (store) {
+			assertEquals(1, store.size());
+			assertEquals("새 메시지 2건", store.get(first).getTitle());
+			store.get(first).setStatus(NotificationOutbox.STATUS_PROCESSING);
+		}
+
+		Long third = outboxService.enqueueDataOnly("20231234", "새 메시지 3건", "c", null, "chat:7", true);
+		synchronized (store) {
+			assertEquals(2, store.size());
+			assertEquals("새 메시지 2건", store.get(first).getTitle());
+			assertEquals("새 메시지 3건", store.get(third).getTitle());
+		}
+		verify(fcmTokenService, never()).sendDataOnlyByUser(any(FcmDataOnlySendRequest.class));
+	}
+
+	private void stubRepository() {
+		when(outboxRepository.save(any(NotificationOutbox.class))).thenAnswer(invocation -> {
+			NotificationOutbox outbox = invocation.getArgument(0);
+			synchronized (store) {
+				if (outbox.getId() == null) {
+					outbox.setId(++sequence);
+					ReflectionTestUtils.invokeMethod(outbox, "onCreate");
+				}
+				store.put(outbox.getId(), outbox);
+			}
+			return outbox;
+		});
+
+		when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenAnswer(invocation -> {
+			LocalDateTime now = invocation.getArgument(0);
+			Pageable pageable = invocation.getArgument(1);
+			synchronized (store) {
+				return store.values().stream()
+						.filter(outbox -> NotificationOutbox.STATUS_PENDING.equals(outbox.getStatus()))
+						.filter(outbox -> !outbox.getNextAttemptAt().isAfter(now))
+						.sorted(Comparator.comparing(NotificationOutbox::getNextAttemptAt)
+								.thenComparing(NotificationOutbox::getId))
+						.limit(pageable.getPageSize())
+						.map(NotificationOutbox::getId)
+						.collect(Collectors.toList());
+			}
+		});
+
+		when(outboxRepository.claim(anyCollection(), anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+			Collection<Long> ids = invocation.getArgument(0);
+			synchronized (store) {
+				int updated = 0;
+				for (Long id : ids) {
+					NotificationOutbox outbox = store.get(id);
+					if (outbox != null && NotificationOutbox.STATUS_PENDING.equals(outbox.getStatus())) {
+						outbox.setStatus(NotificationOutbox.STATUS_PROCESSING);
+						outbox.setClaimToken(invocation.getArgument(1));
+						outbox.setClaimedAt(invocation.getArgument(2));
+						updated++;
+					}
+				}
+				return updated;
+			}
+		});
+
+		when(outboxRepository.findByClaimTokenAndStatus(anyString(), anyString())).thenAnswer(invocation -> {
+			synchronized (store) {
+				return store.values().stream()
+						.filter(outbox -> invocation.getArgument(0).equals(outbox.getClaimToken()))
+						.filter(outbox -> invocation.getArgument(1).equals(outbox.getStatus()))
+						.collect(Collectors.toList());
+			}
+		});
+
+		when(outboxRepository.findPendingIdsByCoalesceKey(anyString(), anyString(), any(Pageable.class)))
+				.thenAnswer(invocation -> {
+					synchronized (store) {
+						return store.values().stream()
+								.filter(outbox -> invocation.getArgument(0).equals(outbox.getRecipientUserCode()))
+								.filter(outbox -> invocation.getArgument(1).equals(outbox.getCoalesceKey()))
+								.filter(outbox -> NotificationOutbox.STATUS_PENDING.equals(outbox.getStatus()))
+								.sorted(Comparator.comparing(NotificationOutbox::getId).reversed())
+								.map(NotificationOutbox::getId)
+								.collect(Collectors.toList());
+					}
+				});
+
+		when(outboxRepository.coalescePending(anyLong(), anyString(), anyString(), nullable(String.class), anyBoolean()))
+				.thenAnswer(invocation -> {
+					synchronized (store) {
+						NotificationOutbox outbox = store.get(invocation.<Long>getArgument(0));
+						if (outbox == null || !NotificationOutbox.STATUS_PENDING.equals(outbox.getStatus())) {
+							return 0;
+						}
+						outbox.setTitle(invocation.getArgument(1));
+						outbox.setBody(invocation.getArgument(2));
+						outbox.setDataJson(invocation.getArgument(3));
+						outbox.setIncludeTemporary(invocation.getArgument(4));
+						return 1;
+					}
+				});
+	}
+
+	private void awaitStatus(Long id, String status) {
+		await(id, outbox -> status.equals(outbox.getStatus()) && outbox.getClaimToken() == null, "status=" + status);
+	}
+
+	private void awaitAttempts(Long id, int attempts) {
+		await(id, outbox -> outbox.getAttempts() >= attempts && outbox.getClaimToken() == null
+				&& !NotificationOutbox.STATUS_PROCESSING.equals(outbox.getStatus()), "attempts=" + attempts);
+	}
+
+	private void await(Long id, Predicate<NotificationOutbox> condition, String description) {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			synchronized (store) {
+				if (condition.test(store.get(id))) {
+					return;
+				}
+			}
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		throw new AssertionError("대기 시간 초과: outboxIdx=" + id + ", " + description);
+	}
+
+	private static FcmDataOnlySendResponse success() {
+		return new FcmDataOnlySendResponse(1, 1, 1, 0, Collections.emptyList());
+	}
+
+	private static FcmDataOnlySendResponse failure(String reason) {
+		FcmDataOnlyUserResult result = new FcmDataOnlyUserResult("20231234", null, null, Collections.emptyList(),
+				Map.of("token-1", reason), 0, 1);
+		return new FcmDataOnlySendResponse(1, 1, 0, 1, List.of(result));
+	}
+}
@@ -0,0 +1,84 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 채팅 로그 스트림이 구간 단위로 전체 메시지를 쓰고, 목록이 도중에 사라지면 실패하는지 검증합니다.
+ */
+class ChatLogInputStreamTest {
+
+	private static final Long REQUEST_IDX = 3L;
+
+	@DisplayName("모든 구간을 읽으면 머리말-메시지-맺음말 순서로 전체 로그를 만든다")
+	@Test
+	void read_writesAllMessagesInOrder() throws IOException {
+		List<ChatMessageDto> messages = messages(5);
+
+		String log = readAll(new ChatLogInputStream(REQUEST_IDX, messages.size(), 2,
+				(start, end) -> new ArrayList<>(messages.subList((int) start, (int) end + 1))));
+
+		assertTrue(log.startsWith(ChatLogFormatter.header(REQUEST_IDX, 5).substring(0, 20)));
+		assertTrue(log.endsWith(ChatLogFormatter.footer()));
+		for (int i = 0; i < messages.size(); i++) {
+			assertTrue(log.contains("내용: 메시지 " + i + "\n"), "message " + i);
+		}
+		assertTrue(log.indexOf("메시지 3") < log.indexOf("메시지 4"));
+	}
+
+	@DisplayName("읽는 도중 목록이 삭제/만료되면 맺음말 없이 IOException으로 실패한다")
+	@Test
+	void read_listExpiredMidStream_fails() {
+		List<ChatMessageDto> messages = messages(5);
+		ChatLogInputStream stream = new ChatLogInputStream(REQUEST_IDX, messages.size(), 2,
+				(start, end) -> start == 0 ? new ArrayList<>(messages.subList(0, 2)) : new ArrayList<>());
+
+		IOException error = assertThrows(IOException.class, () -> readAll(stream));
+		assertTrue(error.getMessage().contains("2/5"), error.getMessage());
+	}
+
+	@DisplayName("구간이 요청보다 적게 반환되면(목록 축소) 실패한다")
+	@Test
+	void read_shortChunk_fails() {
+		List<ChatMessageDto> messages = messages(5);
+		ChatLogInputStream stream = new ChatLogInputStream(REQUEST_IDX, messages.size(), 2,
+				(start, end) -> new ArrayList<>(messages.subList((int) start, (int) Math.min(end + 1, 3))));
+
+		assertThrows(IOException.class, () -> readAll(stream));
+	}
+
+	private static String readAll(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[7]; // 다중 바이트 문자가 읽기 경계에 걸치도록 작은 버퍼 사용
+		int read;
+		while ((read = inputStream.read(buffer, 0, buffer.length)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static List<ChatMessageDto> messages(int count) {
+		List<ChatMessageDto> messages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ChatMessageDto message = new ChatMessageDto();
+			message.setRequestIdx(REQUEST_IDX);
+			message.setSender("prof01");
+			message.setSenderName("김교수");
+			message.setContent("메시지 " + i);
+			messages.add(message);
+		}
+		return messages;
+	}
+}
@@ -0,0 +1,127 @@
+package BlueCrab.com.example.service.support;
+
+import BlueCrab.com.example.dto.Consultation.ChatMessageDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 압축 바이너리 채팅 메시지 형식(v1)의 왕복 변환과 손상 데이터 처리를 검증합니다.
+ */
+class CompactChatMessageCodecTest {
+
+	private static final Long REQUEST_IDX = 42L;
+
+	private final CompactChatMessageCodec codec = new CompactChatMessageCodec();
+
+	@DisplayName("일반 메시지는 왕복 변환 후 같은 값이며 상담 ID는 목록 키 값으로 채워진다")
+	@Test
+	void roundTrip_plainMessage() {
+		ChatMessageDto message = message("prof01", "김교수", "내일 10시에 뵙겠습니다.",
+				LocalDateTime.of(2025, 10, 20, 14, 30, 5));
+
+		byte[] data = codec.encode(message);
+		assertTrue(codec.supports(data));
+
+		assertSameMessage(message, codec.decode(REQUEST_IDX, data));
+	}
+
+	@DisplayName("null 필드는 생략되고 복원 시에도 null이다")
+	@Test
+	void roundTrip_nullFields() {
+		ChatMessageDto empty = message(null, null, null, null);
+		byte[] data = codec.encode(empty);
+		assertEquals(2, data.length); // 형식 바이트 + flags
+
+		ChatMessageDto decoded = codec.decode(REQUEST_IDX, data);
+		assertNull(decoded.getSender());
+		assertNull(decoded.getSenderName());
+		assertNull(decoded.getContent());
+		assertNull(decoded.getSentAt());
+
+		ChatMessageDto contentOnly = message(null, null, "", null);
+		assertSameMessage(contentOnly, codec.decode(REQUEST_IDX, codec.encode(contentOnly)));
+	}
+
+	@DisplayName("한글/이모지 등 다중 바이트 문자열을 그대로 복원한다")
+	@Test
+	void roundTrip_multibyteContent() {
+		ChatMessageDto message = message("학생🦀", "홍길동", "안녕하세요 👋 과제 제출 관련 문의드립니다. ✅",
+				LocalDateTime.of(2025, 1, 1, 0, 0, 0));
+
+		assertSameMessage(message, codec.decode(REQUEST_IDX, codec.encode(message)));
+	}
+
+	@DisplayName("varint 경계 길이의 문자열과 극단적인 시각을 복원한다")
+	@Test
+	void roundTrip_varintLimits() {
+		// 1바이트/2바이트/3바이트 varint 경계 길이
+		for (int length : new int[] {0, 1, 127, 128, 16383, 16384}) {
+			ChatMessageDto message = message("s", "n", repeat('a', length), LocalDateTime.of(2025, 10, 20, 9, 0, 0));
+			assertSameMessage(message, codec.decode(REQUEST_IDX, codec.encode(message)));
+		}
+
+		// 0초, 음수 초(10바이트 varint), 최대 연도
+		for (LocalDateTime sentAt : new LocalDateTime[] {
+				LocalDateTime.of(1970, 1, 1, 0, 0, 0),
+				LocalDateTime.of(1969, 12, 31, 23, 59, 59),
+				LocalDateTime.of(-999_999_999, 1, 1, 0, 0, 0),
+				LocalDateTime.of(999_999_999, 12, 31, 23, 59, 59)}) {
+			ChatMessageDto message = message("s", "n", "c", sentAt);
+			assertSameMessage(message, codec.decode(REQUEST_IDX, codec.encode(message)));
+		}
+	}
+
+	@DisplayName("잘린 데이터는 일부만 복원하지 않고 예외로 거부한다")
+	@Test
+	void decode_truncatedInput_isRejected() {
+		byte[] data = codec.encode(message("prof01", "김교수", "내용이 있는 메시지",
+				LocalDateTime.of(2025, 10, 20, 14, 30, 5)));
+
+		for (int length = 0; length < data.length; length++) {
+			byte[] truncated = Arrays.copyOf(data, length);
+			assertThrows(IllegalStateException.class, () -> codec.decode(REQUEST_IDX, truncated),
+					"length=" + length);
+		}
+	}
+
+	@DisplayName("JSON 항목은 압축 형식으로 판별하지 않는다")
+	@Test
+	void supports_rejectsJsonEntries() {
+		byte[] json = new JsonChatMessageCodec().encode(message("s", "n", "c", null));
+		assertFalse(codec.supports(json));
+		assertFalse(codec.supports(new byte[0]));
+	}
+
+	static ChatMessageDto message(String sender, String senderName, String content, LocalDateTime sentAt) {
+		ChatMessageDto message = new ChatMessageDto();
+		message.setRequestIdx(REQUEST_IDX);
+		message.setSender(sender);
+		message.setSenderName(senderName);
+		message.setContent(content);
+		message.setSentAt(sentAt);
+		return message;
+	}
+
+	static void assertSameMessage(ChatMessageDto expected, ChatMessageDto actual) {
+		assertEquals(expected.getRequestIdx(), actual.getRequestIdx());
+		assertEquals(expected.getSender(), actual.getSender());
+		assertEquals(expected.getSenderName(), actual.getSenderName());
+		assertEquals(expected.getContent(), actual.getContent());
+		assertEquals(expected.getSentAt(), actual.getSentAt());
+	}
+
+	private static String repeat(char c, int count) {
+		char[] chars = new char[count];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+}